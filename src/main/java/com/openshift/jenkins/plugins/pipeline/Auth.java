@@ -1,21 +1,16 @@
 package com.openshift.jenkins.plugins.pipeline;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.UnsupportedEncodingException;
-import java.net.URI;
 import java.security.KeyStore;
-import java.security.cert.CertificateFactory;
+import java.security.MessageDigest;
+import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import javax.net.ssl.SSLSession;
@@ -37,7 +32,34 @@ public class Auth implements ISSLCertificateCallback {
     private Collection<X509Certificate> certs = null;
     private boolean skipTls = false;
     private TaskListener listener = null;
-    private static X509TrustManager x509TrustManager;
+    private String certFingerprint = null;
+
+    // built once per set of certs, keyed by their fingerprint, and never
+    // changed after; an Auth only ever looks up the one for its own certs
+    private static final Map<String, X509TrustManager> TRUST_MANAGERS = new ConcurrentHashMap<String, X509TrustManager>();
+
+    // so okhttp is a bit of a PITA when it comes to enforcing skip tls
+    // behavior (it should just allow you to set a null ssl socket factory
+    // given how RealConnection/Address/Route work), but stack overflow came
+    // to the rescue
+    // (http://stackoverflow.com/questions/25509296/trusting-all-certificates-with-okhttp)
+    // a trust manager that does not validate certificate chains
+    static final X509TrustManager TRUST_ALL = new X509TrustManager() {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType)
+                throws CertificateException {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType)
+                throws CertificateException {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[] {};
+        }
+    };
 
     private Auth(Collection<X509Certificate> certs, TaskListener listener,
             boolean skipTls) {
@@ -56,7 +78,8 @@ public class Auth implements ISSLCertificateCallback {
             f = new File(certFile.trim());
         }
         // if CA_CERT_FILE override bad, throw exception
-        if (f != null && !f.exists()) {
+        CredentialCache files = CredentialCache.getInstance();
+        if (f != null && !files.exists(f)) {
             throw new RuntimeException("CA_CERT_FILE location " + certFile + " does not exist");
         }
         
@@ -69,10 +92,11 @@ public class Auth implements ISSLCertificateCallback {
         String certVal = env.get("CA_CERT");
         boolean skip = skipVal != null
                 && !skipVal.trim().equalsIgnoreCase("false");
-        if ((f.exists() || certVal != null) && !skip) {
+        boolean exists = files.exists(f);
+        if ((exists || certVal != null) && !skip) {
             if (listener != null)
                 listener.getLogger().println(
-                        "Auth - cert file exists - " + f.exists()
+                        "Auth - cert file exists - " + exists
                                 + ", CA_CERT - " + certVal + "\n skip tls - "
                                 + skipVal);
             try {
@@ -93,56 +117,72 @@ public class Auth implements ISSLCertificateCallback {
         return auth;
     }
 
-    // we use a local trust store when we have to make direct http get's and
-    // bypass the openshift-restclient-java
+    /**
+     * @deprecated use {@link #getTrustManager()}, which does not share state
+     *             between steps
+     */
+    @Deprecated
     public static X509TrustManager createLocalTrustStore(Auth auth,
             String apiURL) {
-        if (auth.useCert()) {
-            try {
-                ((X509Certificate) auth.getCerts().toArray()[0])
-                        .checkValidity();
-                if (auth.listener != null) {
-                    auth.listener.getLogger().println(
-                            "Auth - x509 created cert is "
-                                    + auth.getCerts().toArray()[0].toString());
-                }
-                URI uri = new URI(apiURL);
-                KeyStore ks = KeyStore.getInstance(KeyStore.getDefaultType());
-                // need this load to initialize the key store, and allow for the
-                // subsequent set certificate entry
-                ks.load(null, null);
-                int i = 0;
-                for (X509Certificate cert : auth.getCerts()) {
-                    ks.setCertificateEntry(uri.toASCIIString() + i, cert);
-                    i++;
-                }
-                TrustManagerFactory tmfactory = TrustManagerFactory
-                        .getInstance(TrustManagerFactory.getDefaultAlgorithm());
-                tmfactory.init(ks);
-                x509TrustManager = null;
-                for (TrustManager trustManager : tmfactory.getTrustManagers()) {
-                    if (trustManager instanceof X509TrustManager) {
-                        x509TrustManager = (X509TrustManager) trustManager;
-                        if (auth.listener != null) {
-                            auth.listener.getLogger().println(
-                                    "Auth - x509 trust mgr certs "
-                                            + Arrays.toString(x509TrustManager
-                                                    .getAcceptedIssuers()));
-                        }
-                        break;
-                    }
-                }
+        return auth.useCert() ? auth.getTrustManager() : null;
+    }
 
-            } catch (Throwable t) {
-                if (auth.listener != null)
-                    t.printStackTrace(auth.listener.getLogger());
-            }
+    /**
+     * We use a local trust store when we have to make direct http get's and
+     * bypass the openshift-restclient-java.
+     *
+     * @return a trust manager for our certs, or one that trusts everything
+     *         when they are not in use (i.e. skip tls); null if the certs
+     *         could not be loaded into a trust store
+     */
+    public X509TrustManager getTrustManager() {
+        if (!useCert())
+            return TRUST_ALL;
+        X509TrustManager trustManager = TRUST_MANAGERS.get(getCertFingerprint());
+        if (trustManager == null) {
+            trustManager = createTrustManager();
+            if (trustManager != null)
+                TRUST_MANAGERS.putIfAbsent(getCertFingerprint(), trustManager);
         }
-        return x509TrustManager;
+        return trustManager;
     }
 
-    public static void resetLocalTrustStore() {
-        x509TrustManager = null;
+    private X509TrustManager createTrustManager() {
+        try {
+            ((X509Certificate) getCerts().toArray()[0]).checkValidity();
+            if (listener != null) {
+                listener.getLogger().println(
+                        "Auth - x509 created cert is "
+                                + getCerts().toArray()[0].toString());
+            }
+            KeyStore ks = KeyStore.getInstance(KeyStore.getDefaultType());
+            // need this load to initialize the key store, and allow for the
+            // subsequent set certificate entry
+            ks.load(null, null);
+            int i = 0;
+            for (X509Certificate cert : getCerts()) {
+                ks.setCertificateEntry("ca" + i, cert);
+                i++;
+            }
+            TrustManagerFactory tmfactory = TrustManagerFactory
+                    .getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            tmfactory.init(ks);
+            for (TrustManager trustManager : tmfactory.getTrustManagers()) {
+                if (trustManager instanceof X509TrustManager) {
+                    if (listener != null) {
+                        listener.getLogger().println(
+                                "Auth - x509 trust mgr certs "
+                                        + Arrays.toString(((X509TrustManager) trustManager)
+                                                .getAcceptedIssuers()));
+                    }
+                    return (X509TrustManager) trustManager;
+                }
+            }
+        } catch (Throwable t) {
+            if (listener != null)
+                t.printStackTrace(listener.getLogger());
+        }
+        return null;
     }
 
     public boolean allowCertificate(final X509Certificate[] certificateChain) {
@@ -164,11 +204,11 @@ public class Auth implements ISSLCertificateCallback {
             return true;
         }
 
-        // we use a local trust store when we have to make direct http get's and
-        // bypass the openshift-restclient-java
-        if (x509TrustManager != null) {
+        // check against our own certs, as direct http get's do
+        X509TrustManager trustManager = useCert() ? getTrustManager() : null;
+        if (trustManager != null) {
             try {
-                x509TrustManager.checkServerTrusted(certificateChain, "RSA");
+                trustManager.checkServerTrusted(certificateChain, "RSA");
                 if (listener != null)
                     listener.getLogger().println(
                             "Auth - local trust mgr check server passed");
@@ -211,6 +251,16 @@ public class Auth implements ISSLCertificateCallback {
         }
     }
 
+    /**
+     * @return a copy that does not log to the step's console, for a client
+     *         that outlives the step (see ClientCache)
+     */
+    public Auth withoutListener() {
+        Auth auth = new Auth(certs, null, skipTls);
+        auth.certFingerprint = getCertFingerprint();
+        return auth;
+    }
+
     public boolean useCert() {
         return certs != null && certs.size() > 0 && !skipTls;
     }
@@ -219,41 +269,40 @@ public class Auth implements ISSLCertificateCallback {
         return certs;
     }
 
-    public static String pullTokenFromFile(File f, TaskListener listener) {
-        FileInputStream fis = null;
-        String authToken = null;
-        boolean verbose = listener != null;
-        try {
-            fis = new FileInputStream(f);
-            ArrayList<Integer> al = new ArrayList<Integer>();
-            int rawbyte = -1;
-            while ((rawbyte = fis.read()) != -1) {
-                al.add(rawbyte);
-            }
-
-            byte[] buf = new byte[al.size()];
-            for (int i = 0; i < al.size(); i++) {
-                buf[i] = (byte) al.get(i).intValue();
-            }
-            synchronized (Auth.class) {
-                if (authToken == null || authToken.length() == 0) {
-                    authToken = new String(buf);
+    // a SHA-256 over the encoded certs, used to key shared clients; empty
+    // when no certs are in play
+    public synchronized String getCertFingerprint() {
+        if (certFingerprint == null) {
+            certFingerprint = "";
+            if (certs != null && certs.size() > 0) {
+                try {
+                    MessageDigest md = MessageDigest.getInstance("SHA-256");
+                    for (X509Certificate cert : certs) {
+                        md.update(cert.getEncoded());
+                    }
+                    StringBuilder sb = new StringBuilder();
+                    for (byte b : md.digest()) {
+                        sb.append(String.format("%02x", b));
+                    }
+                    certFingerprint = sb.toString();
+                } catch (Throwable t) {
+                    if (listener != null)
+                        t.printStackTrace(listener.getLogger());
                 }
             }
+        }
+        return certFingerprint;
+    }
 
-        } catch (FileNotFoundException e) {
-            if (verbose)
-                e.printStackTrace(listener.getLogger());
+    public static String pullTokenFromFile(File f, TaskListener listener) {
+        // read once and kept in memory until the file changes
+        try {
+            return CredentialCache.getInstance().readString(f);
         } catch (IOException e) {
-            if (verbose)
+            if (listener != null)
                 e.printStackTrace(listener.getLogger());
-        } finally {
-            try {
-                fis.close();
-            } catch (Throwable e) {
-            }
         }
-        return authToken;
+        return null;
     }
 
     public static String deriveBearerToken(String at, TaskListener listener,
@@ -286,7 +335,7 @@ public class Auth implements ISSLCertificateCallback {
                         listener.getLogger().println(
                                 "Auth token from global env vars " + authToken);
                     File f = new File(authToken);
-                    if (f.exists()) {
+                    if (CredentialCache.getInstance().exists(f)) {
                         if (verbose)
                             listener.getLogger().println(
                                     "Auth file exists " + f.getAbsolutePath());
@@ -299,7 +348,7 @@ public class Auth implements ISSLCertificateCallback {
             File f = new File(AUTH_FILE);
             if (verbose)
                 listener.getLogger().println("Auth opened file object " + f);
-            if (f.exists()) {
+            if (CredentialCache.getInstance().exists(f)) {
                 if (verbose)
                     listener.getLogger().println(
                             "Auth file exists " + f.getAbsolutePath());
@@ -314,6 +363,26 @@ public class Auth implements ISSLCertificateCallback {
         return authToken;
     }
 
+    /**
+     * @return the path of the file {@link #deriveBearerToken} reads the token
+     *         from for the same parameters, or null if the token is given
+     *         as is; a token read from a file changes when the file is
+     *         rotated
+     */
+    public static String deriveTokenSource(String at, Map<String, String> env) {
+        if (at != null && at.length() > 0)
+            return null;
+        String authToken = env != null ? env.get("AUTH_TOKEN") : null;
+        if (authToken != null && authToken.length() > 0) {
+            File f = new File(authToken);
+            return CredentialCache.getInstance().exists(f) ? f
+                    .getAbsolutePath() : null;
+        }
+        File f = new File(AUTH_FILE);
+        return CredentialCache.getInstance().exists(f) ? f.getAbsolutePath()
+                : null;
+    }
+
     /*
      * public static String deriveBearerToken(AbstractBuild<?, ?> build, String
      * at, TaskListener listener, boolean verbose) { Map<String,String> vars =
@@ -398,28 +467,6 @@ public class Auth implements ISSLCertificateCallback {
         return caCert;
     }*/
 
-    private static InputStream getInputStreamFromDataOrFile(String data,
-            File file) throws FileNotFoundException,
-            UnsupportedEncodingException {
-        // user provided data takes precedence
-        if (data != null) {
-            // these worked in testing with pasting the contents of
-            // /run/secrets/kubernetes.io/serviceaccount/ca.crt:
-            // - ByteArrayInputStream(data.getBytes("US-ASCII"));
-            // - ByteArrayInputStream(data.getBytes());
-            // these did not work:
-            // -
-            // ByteArrayInputStream(Base64.getEncoder().encode(data.getBytes()));
-            // - Base64InputStream(new ByteArrayInputStream(data.getBytes()));
-            // ... this one came directly from the k8s plugin
-            return new ByteArrayInputStream(data.getBytes());
-        }
-        if (file != null) {
-            return new FileInputStream(file);
-        }
-        return null;
-    }
-
     private static Collection<X509Certificate> createCert(File caCertFile,
             String certString, TaskListener listener, String apiURL)
             throws Exception {
@@ -427,19 +474,11 @@ public class Auth implements ISSLCertificateCallback {
             listener.getLogger().println(
                     "Auth - using user inputted cert string");
         }
-        InputStream pemInputStream = null;
-        try {
-            pemInputStream = getInputStreamFromDataOrFile(certString,
-                    caCertFile);
-            CertificateFactory certFactory = CertificateFactory
-                    .getInstance("X509");
-            return (Collection<X509Certificate>) certFactory
-                    .generateCertificates(pemInputStream);
-        } finally {
-            if (pemInputStream != null) {
-                pemInputStream.close();
-            }
-        }
+        // user provided data takes precedence; either way the PEM is only
+        // parsed again when it changes
+        if (certString != null)
+            return CredentialCache.getInstance().parseCerts(certString);
+        return CredentialCache.getInstance().readCerts(caCertFile);
     }
 
 }
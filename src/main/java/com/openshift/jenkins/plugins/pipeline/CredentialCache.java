@@ -0,0 +1,248 @@
+package com.openshift.jenkins.plugins.pipeline;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In memory copy of the token, namespace and CA files {@link Auth} reads on
+ * every step, along with the parsed certificates, so that steps do not go to
+ * the filesystem or re-parse PEM once the files have been read.
+ *
+ * The directory of each file is watched with a {@link WatchService}; any
+ * event in it (i.e. the kubelet swapping the ..data link of a projected,
+ * rotating service account token) drops what was read from it. Where the
+ * directory cannot be watched, the file's mtime and size are checked on each
+ * read instead.
+ */
+public class CredentialCache {
+
+    static final Logger LOGGER = Logger.getLogger(CredentialCache.class
+            .getName());
+
+    // distinct CA_CERT values are few; this only guards against a leak
+    static final int MAX_PARSED_PEMS = 32;
+
+    private static final CredentialCache INSTANCE = new CredentialCache();
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<Path, Entry>();
+    private final Map<Path, Dir> dirs = new ConcurrentHashMap<Path, Dir>();
+    private final Map<WatchKey, Dir> keys = new ConcurrentHashMap<WatchKey, Dir>();
+    private final Map<String, Collection<X509Certificate>> pems = new ConcurrentHashMap<String, Collection<X509Certificate>>();
+    private WatchService watchService;
+
+    private static final class Dir {
+        final AtomicLong generation = new AtomicLong();
+        volatile boolean watched;
+    }
+
+    private static final class Entry {
+        final long generation;
+        final boolean exists;
+        final long modified;
+        final long size;
+        final byte[] content;
+        volatile Collection<X509Certificate> certs;
+
+        Entry(long generation, boolean exists, long modified, long size,
+                byte[] content) {
+            this.generation = generation;
+            this.exists = exists;
+            this.modified = modified;
+            this.size = size;
+            this.content = content;
+        }
+    }
+
+    public static CredentialCache getInstance() {
+        return INSTANCE;
+    }
+
+    private CredentialCache() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            new NamingThreadFactory(new DaemonThreadFactory(),
+                    "OpenShiftCredentialWatch").newThread(this::watch).start();
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "no watch service, checking mtimes", t);
+            watchService = null;
+        }
+    }
+
+    public boolean exists(File f) {
+        return entry(f).exists;
+    }
+
+    /**
+     * @return the content of the file, as UTF-8
+     * @throws NoSuchFileException
+     *             if the file does not exist
+     */
+    public String readString(File f) throws IOException {
+        return new String(read(f).content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the certificates in the PEM file, parsed once per version of
+     *         the file
+     */
+    public Collection<X509Certificate> readCerts(File f) throws IOException,
+            CertificateException {
+        Entry entry = read(f);
+        Collection<X509Certificate> certs = entry.certs;
+        if (certs == null) {
+            certs = parse(entry.content);
+            entry.certs = certs;
+        }
+        return certs;
+    }
+
+    /**
+     * @return the certificates in the PEM string, parsed once
+     */
+    public Collection<X509Certificate> parseCerts(String pem)
+            throws CertificateException {
+        Collection<X509Certificate> certs = pems.get(pem);
+        if (certs == null) {
+            certs = parse(pem.getBytes());
+            if (pems.size() >= MAX_PARSED_PEMS)
+                pems.clear();
+            pems.put(pem, certs);
+        }
+        return certs;
+    }
+
+    private static Collection<X509Certificate> parse(byte[] pem)
+            throws CertificateException {
+        CertificateFactory certFactory = CertificateFactory.getInstance("X509");
+        Collection<X509Certificate> certs = new ArrayList<X509Certificate>();
+        for (Certificate cert : certFactory
+                .generateCertificates(new ByteArrayInputStream(pem))) {
+            certs.add((X509Certificate) cert);
+        }
+        return Collections.unmodifiableCollection(certs);
+    }
+
+    private Entry read(File f) throws IOException {
+        Entry entry = entry(f);
+        if (!entry.exists)
+            throw new NoSuchFileException(f.getPath());
+        return entry;
+    }
+
+    private Entry entry(File f) {
+        Path path = f.toPath().toAbsolutePath();
+        Dir dir = dir(path.getParent());
+        long generation = dir.generation.get();
+        Entry entry = entries.get(path);
+        if (entry != null) {
+            if (dir.watched ? entry.generation == generation : sameFile(
+                    entry, path))
+                return entry;
+        }
+        entry = load(path, generation);
+        entries.put(path, entry);
+        return entry;
+    }
+
+    private static Entry load(Path path, long generation) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path,
+                    BasicFileAttributes.class);
+            byte[] content = attrs.isDirectory() ? new byte[0] : Files
+                    .readAllBytes(path);
+            return new Entry(generation, true, attrs.lastModifiedTime()
+                    .toMillis(), attrs.size(), content);
+        } catch (IOException e) {
+            // missing or unreadable, which callers treat alike
+            return new Entry(generation, false, 0, 0, null);
+        }
+    }
+
+    private static boolean sameFile(Entry entry, Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path,
+                    BasicFileAttributes.class);
+            return entry.exists
+                    && attrs.lastModifiedTime().toMillis() == entry.modified
+                    && attrs.size() == entry.size;
+        } catch (IOException e) {
+            return !entry.exists;
+        }
+    }
+
+    private Dir dir(Path path) {
+        if (path == null)
+            path = FileSystems.getDefault().getPath("/");
+        Dir dir = dirs.get(path);
+        if (dir != null)
+            return dir;
+        Dir created = new Dir();
+        dir = dirs.putIfAbsent(path, created);
+        if (dir != null)
+            return dir;
+        if (watchService != null) {
+            try {
+                WatchKey key = path.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                keys.put(key, created);
+                created.watched = true;
+            } catch (Throwable t) {
+                // i.e. the directory does not exist; its files get their
+                // mtimes checked
+                LOGGER.log(Level.FINE, "cannot watch " + path, t);
+            }
+        }
+        return created;
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Dir dir = keys.get(key);
+            key.pollEvents();
+            if (dir != null) {
+                dir.generation.incrementAndGet();
+                if (!key.reset()) {
+                    // the directory is gone; the next read registers anew
+                    dir.watched = false;
+                    keys.remove(key);
+                    dirs.values().remove(dir);
+                }
+            }
+        }
+    }
+
+}
@@ -15,6 +15,7 @@ public class MessageConstants {
     // sharable across all the plugins
     public static final String CANNOT_GET_CLIENT = "\n\nExiting \"%s\" unsuccessfully; a client connection to \"%s\" could not be obtained.";
     public static final String EXIT_OK = "\n\nExiting \"%s\" successfully.";
+    public static final String STEP_TIMING = "\n\"%s\" took %d ms: env %d ms, auth %d ms, build url %d ms, core logic %d ms, waiting %d ms; %d api calls taking %d ms, %d retried, %d failed.";
 
     /*
      * These messages are shared between "Trigger OpenShift Build" jenkins build
@@ -26,6 +27,8 @@ public class MessageConstants {
     public static final String EXIT_BUILD_GOOD_DEPLOY_IGNORED = "\n\nExiting \"%s\" successfully; build \"%s\" has completed with status:  [Complete].";
     public static final String EXIT_BUILD_GOOD_DEPLOY_GOOD = EXIT_BUILD_GOOD_DEPLOY_IGNORED
             + "  All deployments with ImageChange triggers in automatic mode based on this build's output triggered off of the new image.";
+    // arg1=deployment config, arg2=outcome, arg3=elapsed ms
+    public static final String CHECKED_DC_TRIGGER_TIMED = "  Deployment config \"%s\" %s, checked in %d ms";
     public static final String START_BUILD_RELATED_PLUGINS = "\n\nStarting the \"%s\" step with build config \"%s\" from the project \"%s\".";
 
     /*
@@ -43,6 +46,7 @@ public class MessageConstants {
     public static final String EXIT_BUILD_NO_BUILD_CONFIG_OBJ = "\n\nExiting \""
             + OpenShiftBuilder.DISPLAY_NAME
             + "\" unsuccessfully; the build config \"%s\" could not be read.";
+    public static final String BUILD_LOG_TRUNCATED = "\n  The log of build \"%s\" reached the limit of %d bytes; it is not shown past this point.";
 
     /*
      * These messages are for the "Verify OpenShift Builds" jenkins build step
@@ -77,12 +81,25 @@ public class MessageConstants {
             + OpenShiftCreator.DISPLAY_NAME + "\" with the project \"%s\".";
     public static final String CREATED_OBJ = "  Created a \"%s\"";
     public static final String FAILED_OBJ = "  Failed to create a \"%s\"";
+    // arg1=kind, arg2=name, arg3=elapsed ms
+    public static final String CREATED_OBJ_TIMED = "  Created a \"%s\" named \"%s\" in %d ms";
+    // arg1=kind, arg2=name, arg3=elapsed ms, arg4=reason
+    public static final String FAILED_OBJ_TIMED = "  Failed to create a \"%s\" named \"%s\" after %d ms: %s";
+    public static final String UPDATED_OBJ_TIMED = "  Updated the \"%s\" named \"%s\" in %d ms";
+    public static final String UNCHANGED_OBJ_TIMED = "  Left the unchanged \"%s\" named \"%s\" alone, checked in %d ms";
+    public static final String CREATE_TIER = "\n  Creating %d resource(s) of dependency tier %d with up to %d at a time";
     public static final String EXIT_CREATE_BAD = "\n\nExiting \""
             + OpenShiftCreator.DISPLAY_NAME
             + "\" unsuccessfully, with %d resource(s) created and %d failed attempt(s).";
     public static final String EXIT_CREATE_GOOD = "\n\nExiting \""
             + OpenShiftCreator.DISPLAY_NAME
             + "\" successfully, with %d resource(s) created.";
+    public static final String EXIT_APPLY_BAD = "\n\nExiting \""
+            + OpenShiftCreator.DISPLAY_NAME
+            + "\" unsuccessfully, with %d resource(s) created, %d updated, %d unchanged and %d failed attempt(s).";
+    public static final String EXIT_APPLY_GOOD = "\n\nExiting \""
+            + OpenShiftCreator.DISPLAY_NAME
+            + "\" successfully, with %d resource(s) created, %d updated and %d unchanged.";
     public static final String TYPE_NOT_SUPPORTED = "  The API resource \"%s\" is not currently supported by this step.";
 
     /*
@@ -92,6 +109,10 @@ public class MessageConstants {
     public static final String START_DELETE_OBJS = "\n\nStarting \"%s\" with the project \"%s\".";
     public static final String DELETED_OBJ = "  Deleted a \"%s\" with key \"%s\"";
     public static final String FAILED_DELETE_OBJ = "  Failed to delete a \"%s\" with key \"%s\"";
+    // arg1=count, arg2=kind, arg3=elapsed ms, arg4=how, arg5=failures
+    public static final String DELETED_KIND = "  Deleted %d \"%s\" resource(s) in %d ms using %s, with %d failure(s)";
+    // arg1=kind, arg2=label selector, arg3=ms waited
+    public static final String DELETE_NOT_GONE = "  \"%s\" resource(s) matching \"%s\" were still present after waiting %d ms";
     public static final String EXIT_DELETE_BAD = "\n\nExiting \"%s\" unsuccessfully, with %d resource(s) deleted and %d failed attempt(s).";
     public static final String EXIT_DELETE_GOOD = "\n\nExiting \"%s\" successfully, with %d resource(s) deleted.";
     public static final String EXIT_DELETE_KEY_TYPE_MISMATCH = "\n\nExiting \""
@@ -7,7 +7,14 @@ import hudson.util.FormValidation;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.QueryParameter;
 
-public class NameValuePair extends AbstractDescribableImpl<NameValuePair> {
+import java.io.Serializable;
+
+// serializable as part of the builder step, which the asynchronous pipeline
+// execution keeps across a restart
+public class NameValuePair extends AbstractDescribableImpl<NameValuePair>
+        implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     protected final String name;
     protected final String value;
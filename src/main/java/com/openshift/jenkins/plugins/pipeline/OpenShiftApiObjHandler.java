@@ -1,5 +1,6 @@
 package com.openshift.jenkins.plugins.pipeline;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,56 +14,56 @@ public class OpenShiftApiObjHandler {
     public static final Map<String, String> typeShortcut;
     public static final Map<String, String[]> apiMap;
     static {
-        // a starter set of API endpoints, which will be updated via calls
-        // to fetchApiJsonFromGithub(boolean, TaskListener, Map<String, String>,
-        // String)
-        // and importJsonOfApiTypes(boolean, TaskListener, Map<String, String>,
-        // String, String)
+        // a starter set of API endpoints; the types discovered from each api
+        // server via updateApiTypes(boolean, TaskListener, Map<String,
+        // String>) are added on top of these in ApiTypeRegistry, so this map
+        // is never modified
 
         // OpenShift API endpoints
-        apiMap = new HashMap<String, String[]>();
-        apiMap.put("BuildConfig", new String[] { oapi, "buildconfigs" });
-        apiMap.put("Build", new String[] { oapi, "builds" });
-        apiMap.put("DeploymentConfigRollback", new String[] { oapi,
+        Map<String, String[]> map = new HashMap<String, String[]>();
+        map.put("BuildConfig", new String[] { oapi, "buildconfigs" });
+        map.put("Build", new String[] { oapi, "builds" });
+        map.put("DeploymentConfigRollback", new String[] { oapi,
                 "deploymentconfigrollbacks" });
-        apiMap.put("DeploymentConfig",
+        map.put("DeploymentConfig",
                 new String[] { oapi, "deploymentconfigs" });
-        apiMap.put("ImageStreamMapping", new String[] { oapi,
+        map.put("ImageStreamMapping", new String[] { oapi,
                 "imagestreammappings" });
-        apiMap.put("ImageStream", new String[] { oapi, "imagestreams" });
-        apiMap.put("LocalResourceAccessReview", new String[] { oapi,
+        map.put("ImageStream", new String[] { oapi, "imagestreams" });
+        map.put("LocalResourceAccessReview", new String[] { oapi,
                 "localresourceaccessreviews" });
-        apiMap.put("LocalSubjectAccessReview", new String[] { oapi,
+        map.put("LocalSubjectAccessReview", new String[] { oapi,
                 "localsubjectaccessreviews" });
-        apiMap.put("Policy", new String[] { oapi, "policies" });
-        apiMap.put("PolicyBinding", new String[] { oapi, "policybindings" });
+        map.put("Policy", new String[] { oapi, "policies" });
+        map.put("PolicyBinding", new String[] { oapi, "policybindings" });
         // apiMap.put("Template", new String[]{oapi, "processedtemplates"}); //
         // Different from templates?
-        apiMap.put("ResourceAccessReview", new String[] { oapi,
+        map.put("ResourceAccessReview", new String[] { oapi,
                 "resourceaccessreviews" });
-        apiMap.put("RoleBinding", new String[] { oapi, "rolebindings" });
-        apiMap.put("Role", new String[] { oapi, "roles" });
-        apiMap.put("Route", new String[] { oapi, "routes" });
-        apiMap.put("SubjectAccessReview", new String[] { oapi,
+        map.put("RoleBinding", new String[] { oapi, "rolebindings" });
+        map.put("Role", new String[] { oapi, "roles" });
+        map.put("Route", new String[] { oapi, "routes" });
+        map.put("SubjectAccessReview", new String[] { oapi,
                 "subjectaccessreviews" });
-        apiMap.put("Template", new String[] { oapi, "templates" });
+        map.put("Template", new String[] { oapi, "templates" });
 
         // Kubernetes API endpoints
-        apiMap.put("Binding", new String[] { api, "bindings" });
-        apiMap.put("Endpoint", new String[] { api, "endpoints" });
-        apiMap.put("Event", new String[] { api, "events" });
-        apiMap.put("LimitRange", new String[] { api, "limitranges" });
-        apiMap.put("PersistentVolumeClaim", new String[] { api,
+        map.put("Binding", new String[] { api, "bindings" });
+        map.put("Endpoint", new String[] { api, "endpoints" });
+        map.put("Event", new String[] { api, "events" });
+        map.put("LimitRange", new String[] { api, "limitranges" });
+        map.put("PersistentVolumeClaim", new String[] { api,
                 "persistentvolumeclaims" });
-        apiMap.put("Pod", new String[] { api, "pods" });
-        apiMap.put("PodTemplate", new String[] { api, "podtemplates" });
-        apiMap.put("ReplicationController", new String[] { api,
+        map.put("Pod", new String[] { api, "pods" });
+        map.put("PodTemplate", new String[] { api, "podtemplates" });
+        map.put("ReplicationController", new String[] { api,
                 "replicationcontrollers" });
-        apiMap.put("ResourceQuota", new String[] { api, "resourcequotas" });
-        apiMap.put("Secret", new String[] { api, "secrets" });
-        apiMap.put("ServiceAccount", new String[] { api, "serviceaccounts" });
-        apiMap.put("Service", new String[] { api, "services" });
-        apiMap.put("Job", new String[] { apis, "jobs" });
+        map.put("ResourceQuota", new String[] { api, "resourcequotas" });
+        map.put("Secret", new String[] { api, "secrets" });
+        map.put("ServiceAccount", new String[] { api, "serviceaccounts" });
+        map.put("Service", new String[] { api, "services" });
+        map.put("Job", new String[] { apis, "jobs" });
+        apiMap = Collections.unmodifiableMap(map);
 
         typeShortcut = new HashMap<String, String>();
         typeShortcut.put("build", "Build");
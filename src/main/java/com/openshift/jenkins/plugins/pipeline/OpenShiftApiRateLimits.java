@@ -0,0 +1,57 @@
+package com.openshift.jenkins.plugins.pipeline;
+
+import com.openshift.jenkins.plugins.pipeline.model.RateLimiter;
+import hudson.Extension;
+import hudson.util.FormValidation;
+import jenkins.model.GlobalConfiguration;
+import net.sf.json.JSONObject;
+
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+
+/**
+ * Global configuration of the rate limits on the api calls this controller
+ * makes to each api server (see {@link RateLimiter}). The limits are shared
+ * by every job, so they are only set here, on the "Configure System" panel,
+ * and not by job parameters.
+ */
+@Extension
+public class OpenShiftApiRateLimits extends GlobalConfiguration {
+
+    private String apiRates;
+
+    public OpenShiftApiRateLimits() {
+        load();
+        RateLimiter.setConfiguredRates(apiRates);
+    }
+
+    public synchronized String getApiRates() {
+        return apiRates;
+    }
+
+    @Override
+    public synchronized boolean configure(StaplerRequest req,
+            JSONObject formData) throws FormException {
+        String rates = formData.optString("apiRates", "").trim();
+        if (!RateLimiter.isValidRates(rates))
+            throw new FormException("Invalid API rate limits: " + rates,
+                    "apiRates");
+        apiRates = rates;
+        save();
+        RateLimiter.setConfiguredRates(apiRates);
+        return true;
+    }
+
+    public FormValidation doCheckApiRates(@QueryParameter String value) {
+        if (RateLimiter.isValidRates(value))
+            return FormValidation.ok();
+        return FormValidation
+                .error("Expected a comma separated list of qps/burst and <api url>=qps/burst");
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "OpenShift API rate limits";
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.openshift.jenkins.plugins.pipeline;
 
+import com.openshift.jenkins.plugins.pipeline.model.BulkCancel;
 import com.openshift.jenkins.plugins.pipeline.model.IOpenShiftPluginDescriptor;
 import hudson.Launcher;
 import hudson.Extension;
@@ -14,17 +15,11 @@ import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.QueryParameter;
 
-//import com.openshift.internal.restclient.http.HttpClientException;
 import com.openshift.restclient.IClient;
-import com.openshift.restclient.ResourceKind;
-import com.openshift.restclient.capability.CapabilityVisitor;
-import com.openshift.restclient.capability.resources.IBuildCancelable;
-import com.openshift.restclient.model.IBuild;
 
 import javax.servlet.ServletException;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 
 public class OpenShiftBuildCanceller extends OpenShiftBasePostAction {
@@ -75,41 +70,14 @@ public class OpenShiftBuildCanceller extends OpenShiftBasePostAction {
         IClient client = getClient(listener, DISPLAY_NAME, overrides);
 
         if (client != null) {
-            /*
-             * try {
-             */List<IBuild> list = client.list(ResourceKind.BUILD,
-                    getNamespace(overrides));
-            int count = 0;
-            for (IBuild bld : list) {
-                String phaseStr = bld.getStatus();
-
-                // if build active, let's cancel it
-                String buildName = bld.getName();
-                if (buildName.startsWith(getBldCfg(overrides))
-                        && !isBuildFinished(phaseStr)) {
-                    if (chatty)
-                        listener.getLogger().println(
-                                "\nOpenShiftBuildCanceller found active build "
-                                        + buildName);
-
-                    // re-get bld (etcd employs optimistic update)
-                    bld = client.get(ResourceKind.BUILD, buildName,
-                            getNamespace(overrides));
-
-                    // call cancel api
-                    bld.accept(
-                            new CapabilityVisitor<IBuildCancelable, IBuild>() {
-                                public IBuild visit(IBuildCancelable cancelable) {
-                                    return cancelable.cancel();
-                                }
-                            }, null);
-
-                    listener.getLogger().println(
-                            String.format(MessageConstants.CANCELLED_BUILD,
-                                    buildName));
-                    count++;
-
-                }
+            int count;
+            try {
+                count = new BulkCancel(this, listener, overrides, client,
+                        chatty).cancelAll(getBldCfg(overrides),
+                        getNamespace(overrides));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
 
             listener.getLogger().println(
@@ -117,10 +85,29 @@ public class OpenShiftBuildCanceller extends OpenShiftBasePostAction {
                             DISPLAY_NAME, count));
 
             return true;
-            /*
-             * } catch (HttpClientException e1) {
-             * e1.printStackTrace(listener.getLogger()); return false; }
-             */} else {
+        } else {
+            return false;
+        }
+    }
+
+    // cancels just the named build, i.e. the one a step that was interrupted
+    // was waiting on, without listing the builds of the build config
+    public boolean cancelBuild(TaskListener listener,
+            Map<String, String> overrides, String bldId) {
+        boolean chatty = Boolean.parseBoolean(verbose);
+
+        IClient client = getClient(listener, DISPLAY_NAME, overrides);
+
+        if (client != null) {
+            int count = new BulkCancel(this, listener, overrides, client,
+                    chatty).cancel(bldId, getNamespace(overrides)) ? 1 : 0;
+
+            listener.getLogger().println(
+                    String.format(MessageConstants.EXIT_BUILD_CANCEL,
+                            DISPLAY_NAME, count));
+
+            return true;
+        } else {
             return false;
         }
     }
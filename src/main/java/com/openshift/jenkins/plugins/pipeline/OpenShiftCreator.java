@@ -19,14 +19,16 @@ public class OpenShiftCreator extends OpenShiftBaseStep implements
         IOpenShiftCreator {
 
     protected final String jsonyaml;
+    protected final String apply;
 
     // Fields in config.jelly must match the parameter names in the
     // "DataBoundConstructor"
     @DataBoundConstructor
     public OpenShiftCreator(String apiURL, String namespace, String authToken,
-            String verbose, String jsonyaml) {
+            String verbose, String jsonyaml, String apply) {
         super(apiURL, namespace, authToken, verbose);
         this.jsonyaml = jsonyaml != null ? jsonyaml.trim() : null;
+        this.apply = apply != null ? apply.trim() : null;
     }
 
     // generically speaking, Jenkins will always pass in non-null field values.
@@ -41,6 +43,10 @@ public class OpenShiftCreator extends OpenShiftBaseStep implements
         return jsonyaml;
     }
 
+    public String getApply() {
+        return apply;
+    }
+
     /**
      * Descriptor for {@link OpenShiftCreator}. Used as a singleton. The class
      * is marked as public so that it can be accessed from views.
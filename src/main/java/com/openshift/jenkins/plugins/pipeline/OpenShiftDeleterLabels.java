@@ -24,17 +24,26 @@ public class OpenShiftDeleterLabels extends OpenShiftBaseStep implements
     protected final String types;
     protected final String keys;
     protected final String values;
+    protected final String bulk;
+    protected final String propagationPolicy;
+    protected final String waitForDeletion;
 
     // Fields in config.jelly must match the parameter names in the
     // "DataBoundConstructor"
     @DataBoundConstructor
     public OpenShiftDeleterLabels(String apiURL, String namespace,
             String authToken, String verbose, String types, String keys,
-            String values) {
+            String values, String bulk, String propagationPolicy,
+            String waitForDeletion) {
         super(apiURL, namespace, authToken, verbose);
         this.types = types != null ? types.trim() : null;
         this.keys = keys != null ? keys.trim() : null;
         this.values = values != null ? values.trim() : null;
+        this.bulk = bulk != null ? bulk.trim() : null;
+        this.propagationPolicy = propagationPolicy != null ? propagationPolicy
+                .trim() : null;
+        this.waitForDeletion = waitForDeletion != null ? waitForDeletion
+                .trim() : null;
     }
 
     // generically speaking, Jenkins will always pass in non-null field values.
@@ -56,6 +65,18 @@ public class OpenShiftDeleterLabels extends OpenShiftBaseStep implements
         return values;
     }
 
+    public String getBulk() {
+        return bulk;
+    }
+
+    public String getPropagationPolicy() {
+        return propagationPolicy;
+    }
+
+    public String getWaitForDeletion() {
+        return waitForDeletion;
+    }
+
     // Overridden for better type safety.
     // If your plugin doesn't really define any property on Descriptor,
     // you don't have to do this.
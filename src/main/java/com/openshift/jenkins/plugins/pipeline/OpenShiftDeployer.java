@@ -55,6 +55,11 @@ public class OpenShiftDeployer extends TimedOpenShiftBaseStep implements
         protected long getStaticDefaultWaitTime() {
             return GlobalConfig.DEFAULT_DEPLOY_WAIT;
         }
+
+        @Override
+        protected long getStaticDefaultPollCeiling() {
+            return GlobalConfig.DEFAULT_DEPLOY_POLL_CEILING;
+        }
     }
 
 }
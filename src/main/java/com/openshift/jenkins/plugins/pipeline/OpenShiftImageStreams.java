@@ -2,6 +2,8 @@ package com.openshift.jenkins.plugins.pipeline;
 
 import com.openshift.jenkins.plugins.pipeline.model.IOpenShiftPlugin;
 import com.openshift.jenkins.plugins.pipeline.model.IOpenShiftPluginDescriptor;
+import com.openshift.jenkins.plugins.pipeline.model.ResourceInformer;
+import com.openshift.jenkins.plugins.pipeline.model.SharedInformers;
 import com.openshift.restclient.IClient;
 import com.openshift.restclient.ResourceKind;
 import com.openshift.restclient.model.IImageStream;
@@ -126,9 +128,14 @@ public class OpenShiftImageStreams extends SCM implements IOpenShiftPlugin {
         String commitId = null;
 
         String imageStream = getImageStreamName(overrides);
-        try {
-            IImageStream isImpl = client.get(ResourceKind.IMAGE_STREAM,
-                    imageStream, getNamespace(overrides));
+        // SCM polling of the same namespace by many jobs shares one watch on
+        // its image streams
+        try (ResourceInformer.Lease lease = SharedInformers.getInstance()
+                .subscribe(client, getNamespace(overrides),
+                        ResourceKind.IMAGE_STREAM)) {
+            IImageStream isImpl = SharedInformers.getInstance().get(client,
+                    ResourceKind.IMAGE_STREAM, imageStream,
+                    getNamespace(overrides));
             // we will treat the OpenShiftImageStream "imageID" as the Jenkins
             // "commitId"
             commitId = isImpl.getImageId(tag);
@@ -0,0 +1,173 @@
+package com.openshift.jenkins.plugins.pipeline;
+
+import com.openshift.jenkins.plugins.pipeline.model.ApiCallStats;
+import com.openshift.jenkins.plugins.pipeline.model.LatencyStats;
+import com.openshift.jenkins.plugins.pipeline.model.RateLimiter;
+import com.openshift.jenkins.plugins.pipeline.model.StepTimeline;
+import com.openshift.jenkins.plugins.pipeline.model.WaitStats;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+
+import java.io.IOException;
+import java.util.Map;
+
+import jenkins.model.Jenkins;
+
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+/**
+ * Serves the plugin's metrics in the Prometheus text format at
+ * <code>/openshift-pipeline-metrics/</code>, for administrators only (a
+ * scraper can authenticate with an API token): the latency, retries and errors
+ * of the api calls per verb and kind, the phases of each step type, and what
+ * the wait strategies saved. The same figures are in JMX under
+ * com.openshift.jenkins.plugins.pipeline.
+ */
+@Extension
+public class OpenShiftMetricsAction implements RootAction {
+
+    public static final String URL_NAME = "openshift-pipeline-metrics";
+
+    static final String PREFIX = "openshift_pipeline_";
+
+    @Override
+    public String getIconFileName() {
+        // not shown in the side panel
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "OpenShift Pipeline Metrics";
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    public void doIndex(StaplerRequest req, StaplerResponse rsp)
+            throws IOException {
+        Jenkins.getInstance().checkPermission(Jenkins.ADMINISTER);
+        rsp.setContentType("text/plain; version=0.0.4; charset=utf-8");
+        rsp.getWriter().write(render());
+    }
+
+    public static String render() {
+        StringBuilder out = new StringBuilder();
+
+        Map<String, ApiCallStats> calls = ApiCallStats.getAll();
+        String name = PREFIX + "api_request_duration_seconds";
+        header(out, name, "histogram",
+                "Latency of each attempt of an api call");
+        for (ApiCallStats stats : calls.values()) {
+            stats.writePrometheus(out, name, callLabels(stats));
+        }
+        name = PREFIX + "api_retries_total";
+        header(out, name, "counter", "Api calls retried");
+        for (ApiCallStats stats : calls.values()) {
+            sample(out, name, callLabels(stats), stats.getRetryCount());
+        }
+        name = PREFIX + "api_errors_total";
+        header(out, name, "counter",
+                "Attempts of api calls that failed with an HTTP error");
+        for (ApiCallStats stats : calls.values()) {
+            sample(out, name, callLabels(stats) + ",code=\"4xx\"",
+                    stats.getClientErrorCount());
+            sample(out, name, callLabels(stats) + ",code=\"5xx\"",
+                    stats.getServerErrorCount());
+        }
+
+        Map<String, RateLimiter> limiters = RateLimiter.getAll();
+        name = PREFIX + "rate_limiter_wait_seconds";
+        header(out, name, "histogram",
+                "Time api calls waited for the rate limit of the api server");
+        for (RateLimiter limiter : limiters.values()) {
+            limiter.writePrometheus(out, name, clusterLabels(limiter));
+        }
+        name = PREFIX + "rate_limiter_queue_depth";
+        header(out, name, "gauge",
+                "Api calls waiting for the rate limit of the api server");
+        for (RateLimiter limiter : limiters.values()) {
+            sample(out, name, clusterLabels(limiter), limiter.getQueueDepth());
+        }
+        name = PREFIX + "rate_limiter_throttled_total";
+        header(out, name, "counter",
+                "Api calls that had to wait for the rate limit");
+        for (RateLimiter limiter : limiters.values()) {
+            sample(out, name, clusterLabels(limiter),
+                    limiter.getThrottledCount());
+        }
+
+        name = PREFIX + "step_phase_duration_seconds";
+        header(out, name, "histogram", "Time spent by steps in each phase");
+        for (Map.Entry<String, LatencyStats> e : StepTimeline.getAll()
+                .entrySet()) {
+            e.getValue().writePrometheus(out, name,
+                    pairLabels(e.getKey(), "step", "phase"));
+        }
+
+        Map<String, WaitStats> waits = WaitStats.getAll();
+        name = PREFIX + "waits_total";
+        header(out, name, "counter", "Waits on OpenShift that have ended");
+        for (Map.Entry<String, WaitStats> e : waits.entrySet()) {
+            sample(out, name, pairLabels(e.getKey(), "wait", "strategy"), e
+                    .getValue().getWaitCount());
+        }
+        name = PREFIX + "wait_attempts_total";
+        header(out, name, "counter", "Checks made by waits on OpenShift");
+        for (Map.Entry<String, WaitStats> e : waits.entrySet()) {
+            sample(out, name, pairLabels(e.getKey(), "wait", "strategy"), e
+                    .getValue().getAttemptCount());
+        }
+        name = PREFIX + "wait_baseline_attempts_total";
+        header(out, name, "counter",
+                "Checks the waits would have made at the old fixed interval");
+        for (Map.Entry<String, WaitStats> e : waits.entrySet()) {
+            sample(out, name, pairLabels(e.getKey(), "wait", "strategy"), e
+                    .getValue().getBaselineAttemptCount());
+        }
+        name = PREFIX + "wait_estimated_saved_seconds";
+        header(out, name, "gauge",
+                "Estimated latency saved by the wait strategy, negative if it cost");
+        for (Map.Entry<String, WaitStats> e : waits.entrySet()) {
+            sample(out, name, pairLabels(e.getKey(), "wait", "strategy"), e
+                    .getValue().getEstimatedMillisSaved() / 1000.0);
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type,
+            String help) {
+        out.append("# HELP ").append(name).append(' ').append(help)
+                .append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type)
+                .append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels,
+            Object value) {
+        out.append(name).append('{').append(labels).append("} ")
+                .append(value).append('\n');
+    }
+
+    private static String callLabels(ApiCallStats stats) {
+        return "verb=\"" + LatencyStats.escape(stats.getVerb())
+                + "\",kind=\"" + LatencyStats.escape(stats.getKind()) + "\"";
+    }
+
+    private static String clusterLabels(RateLimiter limiter) {
+        return "cluster=\"" + LatencyStats.escape(limiter.getApiURL()) + "\"";
+    }
+
+    // labels from a registry key of the form first|second
+    private static String pairLabels(String key, String first, String second) {
+        int bar = key.lastIndexOf('|');
+        return first + "=\"" + LatencyStats.escape(key.substring(0, bar))
+                + "\"," + second + "=\""
+                + LatencyStats.escape(key.substring(bar + 1)) + "\"";
+    }
+
+}
@@ -75,6 +75,11 @@ public class OpenShiftScaler extends TimedOpenShiftBaseStep implements
             return GlobalConfig.DEFAULT_SCALER_WAIT;
         }
 
+        @Override
+        protected long getStaticDefaultPollCeiling() {
+            return GlobalConfig.DEFAULT_DEPLOY_POLL_CEILING;
+        }
+
     }
 
 }
@@ -74,6 +74,11 @@ public class OpenShiftScalerPostAction extends TimedOpenShiftBasePostAction
         protected long getStaticDefaultWaitTime() {
             return GlobalConfig.DEFAULT_SCALER_WAIT;
         }
+
+        @Override
+        protected long getStaticDefaultPollCeiling() {
+            return GlobalConfig.DEFAULT_DEPLOY_POLL_CEILING;
+        }
     }
 
 }
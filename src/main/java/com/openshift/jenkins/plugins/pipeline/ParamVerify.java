@@ -2,14 +2,13 @@ package com.openshift.jenkins.plugins.pipeline;
 
 import com.openshift.jenkins.plugins.pipeline.dsl.OpenShiftBaseStep;
 import com.openshift.jenkins.plugins.pipeline.dsl.TimedOpenShiftBaseStep;
+import com.openshift.jenkins.plugins.pipeline.model.ResourceStream;
 import hudson.util.FormValidation;
-import net.sf.json.JSONObject;
 import org.jboss.dmr.ModelNode;
 import org.kohsuke.stapler.QueryParameter;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.SafeConstructor;
 import javax.servlet.ServletException;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Map;
 
 public class ParamVerify {
@@ -103,23 +102,31 @@ public class ParamVerify {
         return FormValidation.ok();
     }
 
+    public static FormValidation doCheckPollInterval(String value) {
+        value = (value == null) ? "" : value.trim();
+        if (value.isEmpty()) // interval will fallthrough to default
+            return FormValidation.ok();
+        try {
+            if (Long.parseLong(value) < 0)
+                return FormValidation.error("Must not be negative");
+        } catch (NumberFormatException e) {
+            return FormValidation
+                    .error("Non-numeric value specified; the default will be used");
+        }
+        return FormValidation.ok();
+    }
+
     public static FormValidation doCheckJsonyaml(@QueryParameter String value)
             throws IOException, ServletException {
         if (value.length() == 0)
             return FormValidation.error("You must set a block of JSON or YAML");
         try {
-            ModelNode.fromJSONString(value);
+            Iterator<ModelNode> resources = ResourceStream.parse(value);
+            while (resources.hasNext())
+                resources.next();
         } catch (Throwable t) {
-            try {
-                Yaml yaml = new Yaml(new SafeConstructor());
-                Map<String, Object> map = (Map<String, Object>) yaml
-                        .load(value);
-                JSONObject jsonObj = JSONObject.fromObject(map);
-                ModelNode.fromJSONString(jsonObj.toString());
-            } catch (Throwable t2) {
-                return FormValidation
-                        .error("Valid JSON or YAML must be specified");
-            }
+            return FormValidation
+                    .error("Valid JSON or YAML must be specified");
         }
         return FormValidation.ok();
     }
@@ -2,6 +2,8 @@ package com.openshift.jenkins.plugins.pipeline;
 
 import com.openshift.jenkins.plugins.pipeline.model.IOpenShiftPluginDescriptor;
 import com.openshift.jenkins.plugins.pipeline.model.ITimedOpenShiftPlugin;
+import com.openshift.jenkins.plugins.pipeline.model.WaitStrategies;
+import com.openshift.jenkins.plugins.pipeline.model.WaitStrategy;
 import hudson.model.AbstractProject;
 import hudson.model.Describable;
 import hudson.tasks.BuildStep;
@@ -23,12 +25,21 @@ import org.kohsuke.stapler.StaplerRequest;
  * examples like:
  * src/main/resources/com/openshift/jenkins/plugins/pipeline/OpenShiftExec
  * /global.jelly
+ *
+ * The descriptor also persists how the operation waits between its checks of
+ * the api server: the {@link WaitStrategy} and its floor, ceiling and number
+ * of fast polls, which {@link #getConfiguredWaitStrategy()} turns into the
+ * strategy the steps use.
  */
 public abstract class TimedBuildStepDescriptor<T extends BuildStep & Describable<T>>
         extends BuildStepDescriptor<T> implements IOpenShiftPluginDescriptor {
 
     protected String wait;
     protected String waitUnit;
+    protected String pollStrategy;
+    protected String pollFloor;
+    protected String pollCeiling;
+    protected String fastPolls;
 
     TimedBuildStepDescriptor() {
         load();
@@ -57,6 +68,16 @@ public abstract class TimedBuildStepDescriptor<T extends BuildStep & Describable
         }
 
         wait = "" + w;
+
+        // configs saved before the wait strategy existed
+        if (pollStrategy == null || pollStrategy.trim().isEmpty())
+            pollStrategy = WaitStrategies.ADAPTIVE;
+        if (pollFloor == null || pollFloor.trim().isEmpty())
+            pollFloor = "" + WaitStrategies.DEFAULT_FLOOR;
+        if (pollCeiling == null || pollCeiling.trim().isEmpty())
+            pollCeiling = "" + getStaticDefaultPollCeiling();
+        if (fastPolls == null || fastPolls.trim().isEmpty())
+            fastPolls = "" + WaitStrategies.DEFAULT_FAST_POLLS;
     }
 
     @Override
@@ -79,6 +100,17 @@ public abstract class TimedBuildStepDescriptor<T extends BuildStep & Describable
             waitUnit = ITimedOpenShiftPlugin.TimeoutUnit.SECONDS.name;
         }
         wait = wait.trim();
+        pollStrategy = formData.optString("pollStrategy",
+                WaitStrategies.ADAPTIVE).trim();
+        pollFloor = formData.optString("pollFloor", "").trim();
+        if (pollFloor.isEmpty())
+            pollFloor = "" + WaitStrategies.DEFAULT_FLOOR;
+        pollCeiling = formData.optString("pollCeiling", "").trim();
+        if (pollCeiling.isEmpty())
+            pollCeiling = "" + getStaticDefaultPollCeiling();
+        fastPolls = formData.optString("fastPolls", "").trim();
+        if (fastPolls.isEmpty())
+            fastPolls = "" + WaitStrategies.DEFAULT_FAST_POLLS;
         save();
         return true;
     }
@@ -97,6 +129,49 @@ public abstract class TimedBuildStepDescriptor<T extends BuildStep & Describable
         return waitUnit;
     }
 
+    public synchronized String getPollStrategy() {
+        return pollStrategy;
+    }
+
+    public synchronized String getPollFloor() {
+        return pollFloor;
+    }
+
+    public synchronized String getPollCeiling() {
+        return pollCeiling;
+    }
+
+    public synchronized String getFastPolls() {
+        return fastPolls;
+    }
+
+    /**
+     * @return the wait strategy configured for this build step, where values
+     *         that do not parse fall back to their defaults
+     */
+    public synchronized WaitStrategy getConfiguredWaitStrategy() {
+        return WaitStrategies.create(pollStrategy,
+                parse(pollFloor, WaitStrategies.DEFAULT_FLOOR),
+                parse(pollCeiling, getStaticDefaultPollCeiling()),
+                (int) parse(fastPolls, WaitStrategies.DEFAULT_FAST_POLLS));
+    }
+
+    private static long parse(String value, long def) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (RuntimeException e) {
+            return def;
+        }
+    }
+
+    /**
+     * @return the longest interval, in milliseconds, between two checks of
+     *         the api server until a global configuration says otherwise
+     */
+    protected long getStaticDefaultPollCeiling() {
+        return WaitStrategies.DEFAULT_CEILING;
+    }
+
     /**
      * @return Return the non-configurable default for this build step. This
      *         will populate the global default wait time for the operation the
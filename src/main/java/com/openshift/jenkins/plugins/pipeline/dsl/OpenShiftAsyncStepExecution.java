@@ -0,0 +1,338 @@
+package com.openshift.jenkins.plugins.pipeline.dsl;
+
+import com.openshift.jenkins.plugins.pipeline.model.ResourceInformer;
+import com.openshift.jenkins.plugins.pipeline.model.SharedInformers;
+import com.openshift.jenkins.plugins.pipeline.model.StepPoller;
+import com.openshift.jenkins.plugins.pipeline.model.StepTimeline;
+import com.openshift.restclient.IClient;
+
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.Launcher;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jenkinsci.plugins.workflow.steps.AbstractStepExecutionImpl;
+import org.jenkinsci.plugins.workflow.steps.StepContextParameter;
+
+/**
+ * The execution of the DSL steps that wait on OpenShift: the step's one off
+ * work (i.e. starting a build) runs on a {@link StepPoller} worker, as it
+ * makes api calls that must not hold up the CPS VM thread, and the wait
+ * itself is a series of attempts on the shared poller, so no thread is held
+ * while a pipeline waits. Only what is needed to carry on is kept (the
+ * deadline, whether the one off work is done and, in the implementations,
+ * i.e. the name of the build started); it goes out with the next save of the
+ * program, which Jenkins also makes on an orderly shutdown. After a
+ * controller restart {@link #onResume()} re-attaches to what the step started
+ * rather than starting it again, and a step whose one off work may not have
+ * been saved as done fails rather than doing it twice. The consolidated
+ * environment, which may hold credentials, is not kept; it is consolidated
+ * anew on resume.
+ *
+ * With {@link #ASYNC_ENV_KEY} set to false, the step runs synchronously on a
+ * thread of its own, as the other DSL steps do.
+ */
+public abstract class OpenShiftAsyncStepExecution<S extends TimedOpenShiftBaseStep>
+        extends AbstractStepExecutionImpl {
+
+    private static final long serialVersionUID = 1L;
+
+    // set to "false" as a global or job parameter to hold a thread for the
+    // whole step instead
+    public static final String ASYNC_ENV_KEY = "OPENSHIFT_ASYNC_STEPS";
+
+    @StepContextParameter
+    protected transient TaskListener listener;
+    @StepContextParameter
+    protected transient Launcher launcher;
+    @StepContextParameter
+    protected transient EnvVars envVars;
+    @StepContextParameter
+    protected transient Run<?, ?> runObj;
+
+    // consolidated again on resume rather than kept
+    protected transient Map<String, String> overrides;
+    // kept across a restart
+    protected long timeout;
+    protected long deadline;
+    private boolean async;
+    // set on a worker after the fields above, read when the program is saved
+    private volatile boolean begun;
+
+    private transient volatile Thread thread;
+    private transient volatile CompletableFuture<Boolean> pending;
+    private transient volatile boolean stopped;
+    private transient volatile List<ResourceInformer.Lease> leases;
+    private transient AtomicBoolean completed;
+    // covers the part of the step run since the last (re)start
+    private transient StepTimeline timeline;
+
+    /**
+     * @return the step, which is not re-injected on resume, so the
+     *         implementation holds it in a non transient field
+     */
+    protected abstract S getStep();
+
+    /**
+     * The step's one off work, once the parameters are consolidated.
+     *
+     * @return null to go on to wait, or the outcome of the step
+     */
+    protected abstract Boolean begin(IClient client, boolean chatty)
+            throws Exception;
+
+    /**
+     * One check of what the step waits on; see {@link StepPoller.Attempt}.
+     */
+    protected abstract Boolean attempt(IClient client, boolean chatty)
+            throws Exception;
+
+    /**
+     * Reports how the wait ended, where outcome is null if it timed out, and
+     * makes any final checks.
+     *
+     * @return whether the step succeeded
+     */
+    protected abstract boolean finish(Boolean outcome, IClient client,
+            boolean chatty) throws Exception;
+
+    // undoes what the step started when the pipeline is aborted
+    protected void cancel() {
+    }
+
+    protected String[] getInformerKinds() {
+        return getStep().getInformerKinds();
+    }
+
+    public static boolean isAsync(Map<String, String> env) {
+        return env == null
+                || !"false".equalsIgnoreCase(env.get(ASYNC_ENV_KEY));
+    }
+
+    protected boolean isChatty() {
+        return Boolean.parseBoolean(getStep().getVerbose(overrides));
+    }
+
+    @Override
+    public boolean start() throws Exception {
+        completed = new AtomicBoolean();
+        async = isAsync(envVars);
+        S step = getStep();
+        if (!async) {
+            StepPoller.getInstance().submit(() -> {
+                thread = Thread.currentThread();
+                try {
+                    // doItCore keeps a timeline of its own
+                    complete(step.doItCore(listener, envVars, runObj, null,
+                            launcher), null);
+                } catch (Throwable t) {
+                    if (!stopped)
+                        t.printStackTrace(listener.getLogger());
+                    complete(false, t);
+                } finally {
+                    thread = null;
+                }
+                return null;
+            });
+            return false;
+        }
+        timeline = new StepTimeline(step.getDisplayName());
+        StepPoller.getInstance().submit(() -> {
+            StepTimeline previous = timeline.attach();
+            try {
+                boolean chatty = Boolean.parseBoolean(step.getVerbose());
+                overrides = new HashMap<String, String>(step.prepare(listener,
+                        envVars, runObj, null, launcher, chatty));
+                timeout = step.getTimeout(listener, chatty, overrides);
+                deadline = System.currentTimeMillis() + timeout;
+                attach(false);
+            } catch (Throwable t) {
+                if (!stopped)
+                    t.printStackTrace(listener.getLogger());
+                complete(false, t);
+            } finally {
+                StepTimeline.restore(previous);
+            }
+            return null;
+        });
+        return false;
+    }
+
+    private void attach(boolean resumed) throws Exception {
+        boolean chatty = isChatty();
+        timeline.phase(StepTimeline.Phase.CORE);
+        IClient client = getStep().getClient(listener,
+                getStep().getDisplayName(), overrides);
+        leases = subscribeInformers(client, chatty);
+        if (completed.get()) {
+            // stopped while subscribing
+            releaseLeases();
+            return;
+        }
+        if (!resumed) {
+            Boolean outcome = begin(client, chatty);
+            if (outcome != null) {
+                complete(outcome, null);
+                return;
+            }
+            begun = true;
+            if (stopped) {
+                // aborted while starting; undo what was started
+                cancel();
+                return;
+            }
+        }
+        if (stopped)
+            return;
+        CompletableFuture<Boolean> wait = StepPoller.getInstance().poll(
+                () -> attempt(client, chatty), getStep().newBackoff(),
+                deadline);
+        pending = wait;
+        if (stopped && wait.cancel(false)) {
+            // stopped before the wait could be cancelled there
+            cancel();
+            return;
+        }
+        wait.whenComplete((outcome, t) -> {
+            if (wait.isCancelled())
+                return;
+            // finishing may take a while, i.e. a build's check for
+            // triggered deployments, so keep it off the scheduler
+            StepPoller.getInstance().submit(() -> {
+                StepTimeline previous = timeline.attach();
+                try {
+                    if (t != null)
+                        throw t;
+                    complete(finish(outcome, client, chatty), null);
+                } catch (Throwable e) {
+                    e.printStackTrace(listener.getLogger());
+                    complete(false, e);
+                } finally {
+                    StepTimeline.restore(previous);
+                }
+                return null;
+            });
+        });
+    }
+
+    private List<ResourceInformer.Lease> subscribeInformers(IClient client,
+            boolean chatty) {
+        List<ResourceInformer.Lease> subscribed = new ArrayList<ResourceInformer.Lease>();
+        try {
+            for (String kind : getInformerKinds()) {
+                subscribed.add(SharedInformers.getInstance().subscribe(client,
+                        getStep().getNamespace(overrides), kind));
+            }
+        } catch (Throwable t) {
+            // the informers are an optimization; reads fall back to the api
+            // server
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+        }
+        return subscribed;
+    }
+
+    private void complete(boolean success, Throwable cause) {
+        if (!completed.compareAndSet(false, true))
+            return;
+        if (timeline != null)
+            timeline.end(listener);
+        releaseLeases();
+        if (success) {
+            getContext().onSuccess(null);
+        } else if (cause instanceof InterruptedException || cause == null) {
+            getContext().onFailure(
+                    new AbortException("\""
+                            + getStep().getDescriptor().getDisplayName()
+                            + "\" failed"));
+        } else {
+            getContext().onFailure(cause);
+        }
+    }
+
+    @Override
+    public void stop(Throwable cause) throws Exception {
+        stopped = true;
+        Thread running = thread;
+        if (running != null)
+            // the synchronous path, which cleans up after itself when
+            // interrupted
+            running.interrupt();
+        CompletableFuture<Boolean> wait = pending;
+        if (wait != null && wait.cancel(false)) {
+            StepPoller.getInstance().submit(() -> {
+                try {
+                    cancel();
+                } catch (Throwable t) {
+                    if (isChatty())
+                        t.printStackTrace(listener.getLogger());
+                }
+                return null;
+            });
+        }
+        if (completed.compareAndSet(false, true)) {
+            if (timeline != null)
+                timeline.end(listener);
+            releaseLeases();
+            getContext().onFailure(cause);
+        }
+    }
+
+    // stop runs on another thread than the worker that subscribes
+    private synchronized void releaseLeases() {
+        if (leases != null) {
+            for (ResourceInformer.Lease lease : leases) {
+                lease.close();
+            }
+            leases = null;
+        }
+    }
+
+    @Override
+    public void onResume() {
+        // re-injects the context parameters, but not the step
+        super.onResume();
+        completed = new AtomicBoolean();
+        if (!async) {
+            complete(false, new AbortException("Resume after a restart not "
+                    + "supported for \""
+                    + getStep().getDescriptor().getDisplayName()
+                    + "\" when " + ASYNC_ENV_KEY + " is false"));
+            return;
+        }
+        if (!begun) {
+            // we cannot tell whether the one off work happened, and doing it
+            // twice (i.e. starting a second build) is worse than failing
+            complete(false, new AbortException("\""
+                    + getStep().getDescriptor().getDisplayName()
+                    + "\" was interrupted by a restart before it started"));
+            return;
+        }
+        timeline = new StepTimeline(getStep().getDisplayName());
+        StepPoller.getInstance().submit(() -> {
+            StepTimeline previous = timeline.attach();
+            try {
+                // sets up the step's auth as well
+                overrides = new HashMap<String, String>(getStep().prepare(
+                        listener, envVars, runObj, null, launcher,
+                        Boolean.parseBoolean(getStep().getVerbose())));
+                attach(true);
+            } catch (Throwable t) {
+                t.printStackTrace(listener.getLogger());
+                complete(false, t);
+            } finally {
+                StepTimeline.restore(previous);
+            }
+            return null;
+        });
+    }
+
+}
@@ -1,53 +1,87 @@
 package com.openshift.jenkins.plugins.pipeline.dsl;
 
-import hudson.AbortException;
-import hudson.EnvVars;
-import hudson.FilePath;
-import hudson.Launcher;
-import hudson.model.TaskListener;
-import hudson.model.Computer;
-import hudson.model.Executor;
-import hudson.model.Run;
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.ResourceKind;
 
-import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
 
-import org.jenkinsci.plugins.workflow.steps.AbstractSynchronousNonBlockingStepExecution;
-import org.jenkinsci.plugins.workflow.steps.StepContextParameter;
+import javax.inject.Inject;
 
 public class OpenShiftBuildVerifierExecution extends
-        AbstractSynchronousNonBlockingStepExecution<Void> {
+        OpenShiftAsyncStepExecution<OpenShiftBuildVerifier> {
 
     private static final long serialVersionUID = 1L;
 
-    @StepContextParameter
-    private transient TaskListener listener;
-    @StepContextParameter
-    private transient Launcher launcher;
-    @StepContextParameter
-    private transient EnvVars envVars;
-    @StepContextParameter
-    private transient Run<?, ?> runObj;
-    @StepContextParameter
-    private transient FilePath filePath; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Executor executor; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Computer computer; // included as ref of what can be
-                                         // included for future use
-
+    // not transient, as the step is not re-injected on resume
     @Inject
-    private transient OpenShiftBuildVerifier step;
+    private OpenShiftBuildVerifier step;
+
+    private String bldId;
+
+    @Override
+    protected OpenShiftBuildVerifier getStep() {
+        return step;
+    }
+
+    @Override
+    protected String[] getInformerKinds() {
+        return new String[] { ResourceKind.BUILD };
+    }
 
     @Override
-    protected Void run() throws Exception {
-        boolean success = step.doItCore(listener, envVars, runObj, null,
-                launcher);
-        if (!success) {
-            throw new AbortException("\""
-                    + step.getDescriptor().getDisplayName() + "\" failed");
+    protected Boolean begin(IClient client, boolean chatty) {
+        listener.getLogger().println(
+                String.format(MessageConstants.START_BUILD_RELATED_PLUGINS,
+                        OpenShiftBuildVerifier.DISPLAY_NAME,
+                        step.getBldCfg(overrides),
+                        step.getNamespace(overrides)));
+        bldId = step.getLatestBuildID(client, overrides);
+        step.startBuildVerify(bldId, listener, overrides);
+        if (bldId == null) {
+            // the build config has no build to wait on
+            listener.getLogger().println(
+                    String.format(MessageConstants.EXIT_BUILD_BAD,
+                            OpenShiftBuildVerifier.DISPLAY_NAME, bldId,
+                            timeout, "NotStarted"));
+            return false;
         }
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected Boolean attempt(IClient client, boolean chatty) {
+        return step.verifyBuildAttempt(client, bldId, overrides, chatty,
+                listener);
+    }
+
+    @Override
+    protected boolean finish(Boolean outcome, IClient client, boolean chatty)
+            throws Exception {
+        if (outcome == null) {
+            String displayState = step.getBuildState(client, bldId,
+                    step.getNamespace(overrides));
+            listener.getLogger().println(
+                    String.format(MessageConstants.EXIT_BUILD_BAD,
+                            OpenShiftBuildVerifier.DISPLAY_NAME, bldId,
+                            timeout,
+                            displayState != null ? displayState : "NotStarted"));
+            return false;
+        }
+        // the build is finished, so this only reports, and checks for
+        // triggered deployments if asked to
+        return step.verifyBuild(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime()), timeout,
+                client, step.getBldCfg(overrides), bldId,
+                step.getNamespace(overrides), chatty, listener,
+                OpenShiftBuildVerifier.DISPLAY_NAME, Boolean.parseBoolean(step
+                        .getCheckForTriggeredDeployments(overrides)), false,
+                overrides);
+    }
+
+    @Override
+    protected void cancel() {
+        step.cancelBuildAfterInterrupt(listener, overrides,
+                step.getBldCfg(overrides), bldId);
+    }
+}
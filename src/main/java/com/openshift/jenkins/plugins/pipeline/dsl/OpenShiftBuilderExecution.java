@@ -1,53 +1,96 @@
 package com.openshift.jenkins.plugins.pipeline.dsl;
 
-import hudson.AbortException;
-import hudson.EnvVars;
-import hudson.FilePath;
-import hudson.Launcher;
-import hudson.model.TaskListener;
-import hudson.model.Computer;
-import hudson.model.Executor;
-import hudson.model.Run;
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.jenkins.plugins.pipeline.model.BuildLogStream;
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IBuild;
 
-import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.jenkinsci.plugins.workflow.steps.AbstractSynchronousNonBlockingStepExecution;
-import org.jenkinsci.plugins.workflow.steps.StepContextParameter;
+import javax.inject.Inject;
 
 public class OpenShiftBuilderExecution extends
-        AbstractSynchronousNonBlockingStepExecution<Void> {
+        OpenShiftAsyncStepExecution<OpenShiftBuilder> {
 
     private static final long serialVersionUID = 1L;
 
-    @StepContextParameter
-    private transient TaskListener listener;
-    @StepContextParameter
-    private transient Launcher launcher;
-    @StepContextParameter
-    private transient EnvVars envVars;
-    @StepContextParameter
-    private transient Run<?, ?> runObj;
-    @StepContextParameter
-    private transient FilePath filePath; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Executor executor; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Computer computer; // included as ref of what can be
-                                         // included for future use
-
+    // not transient, as the step is not re-injected on resume
     @Inject
-    private transient OpenShiftBuilder step;
+    private OpenShiftBuilder step;
+
+    private String bldId;
+    // the log is not followed again after a restart, as where it left off
+    // is not kept
+    private transient BuildLogStream logs;
 
     @Override
-    protected Void run() throws Exception {
-        boolean success = step.doItCore(listener, envVars, runObj, null,
-                launcher);
-        if (!success) {
-            throw new AbortException("\""
-                    + step.getDescriptor().getDisplayName() + "\" failed");
-        }
+    protected OpenShiftBuilder getStep() {
+        return step;
+    }
+
+    @Override
+    protected String[] getInformerKinds() {
+        return new String[] { ResourceKind.BUILD };
+    }
+
+    @Override
+    protected Boolean begin(IClient client, boolean chatty) {
+        listener.getLogger().println(
+                String.format(MessageConstants.START_BUILD_RELATED_PLUGINS,
+                        OpenShiftBuilder.DISPLAY_NAME,
+                        step.getBldCfg(overrides),
+                        step.getNamespace(overrides)));
+        AtomicBoolean follow = new AtomicBoolean(
+                Boolean.parseBoolean(step.getShowBuildLogs(overrides)));
+        IBuild bld = step.triggerBuild(client, listener, overrides, chatty,
+                follow);
+        if (bld == null)
+            return false;
+        bldId = bld.getName();
+        if (follow.get())
+            logs = step.getBuildPodLogs(client, bldId, overrides, chatty,
+                    listener);
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected Boolean attempt(IClient client, boolean chatty) {
+        return step.buildAttempt(client, bldId, logs, overrides, chatty,
+                listener);
+    }
+
+    @Override
+    protected boolean finish(Boolean outcome, IClient client, boolean chatty)
+            throws Exception {
+        if (logs != null)
+            logs.stop(true);
+        if (outcome == null) {
+            String displayState = step.getBuildState(client, bldId,
+                    step.getNamespace(overrides));
+            listener.getLogger().println(
+                    String.format(MessageConstants.EXIT_BUILD_BAD,
+                            OpenShiftBuilder.DISPLAY_NAME, bldId, timeout,
+                            displayState != null ? displayState : "NotStarted"));
+            return false;
+        }
+        // the build is finished, so this only reports, and checks for
+        // triggered deployments if asked to
+        return step.verifyBuild(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime()), timeout,
+                client, step.getBldCfg(overrides), bldId,
+                step.getNamespace(overrides), chatty, listener,
+                OpenShiftBuilder.DISPLAY_NAME, Boolean.parseBoolean(step
+                        .getCheckForTriggeredDeployments(overrides)), true,
+                overrides);
+    }
+
+    @Override
+    protected void cancel() {
+        if (logs != null)
+            logs.stop(false);
+        step.cancelBuildAfterInterrupt(listener, overrides,
+                step.getBldCfg(overrides), bldId);
+    }
+}
@@ -15,6 +15,7 @@ import java.util.logging.Logger;
 import org.jenkinsci.plugins.workflow.steps.AbstractStepDescriptorImpl;
 import org.jenkinsci.plugins.workflow.steps.Step;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import com.openshift.jenkins.plugins.pipeline.ParamVerify;
 import com.openshift.jenkins.plugins.pipeline.model.IOpenShiftCreator;
@@ -23,6 +24,7 @@ public class OpenShiftCreator extends OpenShiftBaseStep implements
         IOpenShiftCreator {
 
     protected final String jsonyaml;
+    protected String apply;
 
     @DataBoundConstructor
     public OpenShiftCreator(String jsonyaml) {
@@ -34,6 +36,16 @@ public class OpenShiftCreator extends OpenShiftBaseStep implements
         return jsonyaml;
     }
 
+    @Override
+    public String getApply() {
+        return apply;
+    }
+
+    @DataBoundSetter
+    public void setApply(String apply) {
+        this.apply = apply != null ? apply.trim() : null;
+    }
+
     @Override
     public boolean prebuild(AbstractBuild<?, ?> build, BuildListener listener) {
         return true;
@@ -87,6 +99,12 @@ public class OpenShiftCreator extends OpenShiftBaseStep implements
                 throw new IllegalArgumentException(
                         "need to specify json or yaml");
             OpenShiftCreator step = new OpenShiftCreator(jsonyaml.toString());
+            if (arguments.containsKey("apply")) {
+                Object apply = arguments.get("apply");
+                if (apply != null) {
+                    step.setApply(apply.toString());
+                }
+            }
             ParamVerify.updateDSLBaseStep(arguments, step);
             return step;
         }
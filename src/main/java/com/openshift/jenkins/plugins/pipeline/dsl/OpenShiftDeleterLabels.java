@@ -15,6 +15,7 @@ import java.util.logging.Logger;
 import org.jenkinsci.plugins.workflow.steps.AbstractStepDescriptorImpl;
 import org.jenkinsci.plugins.workflow.steps.Step;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import com.openshift.jenkins.plugins.pipeline.ParamVerify;
 import com.openshift.jenkins.plugins.pipeline.model.IOpenShiftDeleterLabels;
@@ -25,6 +26,9 @@ public class OpenShiftDeleterLabels extends OpenShiftBaseStep implements
     protected final String types;
     protected final String keys;
     protected final String values;
+    protected String bulk;
+    protected String propagationPolicy;
+    protected String waitForDeletion;
 
     @DataBoundConstructor
     public OpenShiftDeleterLabels(String types, String keys, String values) {
@@ -45,6 +49,35 @@ public class OpenShiftDeleterLabels extends OpenShiftBaseStep implements
         return values;
     }
 
+    public String getBulk() {
+        return bulk;
+    }
+
+    @DataBoundSetter
+    public void setBulk(String bulk) {
+        this.bulk = bulk != null ? bulk.trim() : null;
+    }
+
+    public String getPropagationPolicy() {
+        return propagationPolicy;
+    }
+
+    @DataBoundSetter
+    public void setPropagationPolicy(String propagationPolicy) {
+        this.propagationPolicy = propagationPolicy != null ? propagationPolicy
+                .trim() : null;
+    }
+
+    public String getWaitForDeletion() {
+        return waitForDeletion;
+    }
+
+    @DataBoundSetter
+    public void setWaitForDeletion(String waitForDeletion) {
+        this.waitForDeletion = waitForDeletion != null ? waitForDeletion
+                .trim() : null;
+    }
+
     @Override
     public boolean prebuild(AbstractBuild<?, ?> build, BuildListener listener) {
         return true;
@@ -97,6 +130,24 @@ public class OpenShiftDeleterLabels extends OpenShiftBaseStep implements
             OpenShiftDeleterLabels step = new OpenShiftDeleterLabels(arguments
                     .get("types").toString(), arguments.get("keys").toString(),
                     arguments.get("values").toString());
+            if (arguments.containsKey("bulk")) {
+                Object bulk = arguments.get("bulk");
+                if (bulk != null) {
+                    step.setBulk(bulk.toString());
+                }
+            }
+            if (arguments.containsKey("propagationPolicy")) {
+                Object propagationPolicy = arguments.get("propagationPolicy");
+                if (propagationPolicy != null) {
+                    step.setPropagationPolicy(propagationPolicy.toString());
+                }
+            }
+            if (arguments.containsKey("waitForDeletion")) {
+                Object waitForDeletion = arguments.get("waitForDeletion");
+                if (waitForDeletion != null) {
+                    step.setWaitForDeletion(waitForDeletion.toString());
+                }
+            }
             ParamVerify.updateDSLBaseStep(arguments, step);
             return step;
         }
@@ -1,53 +1,53 @@
 package com.openshift.jenkins.plugins.pipeline.dsl;
 
-import hudson.AbortException;
-import hudson.EnvVars;
-import hudson.FilePath;
-import hudson.Launcher;
-import hudson.model.TaskListener;
-import hudson.model.Computer;
-import hudson.model.Executor;
-import hudson.model.Run;
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.jenkins.plugins.pipeline.model.DeployProgress;
+import com.openshift.restclient.IClient;
 
 import javax.inject.Inject;
 
-import org.jenkinsci.plugins.workflow.steps.AbstractSynchronousNonBlockingStepExecution;
-import org.jenkinsci.plugins.workflow.steps.StepContextParameter;
-
 public class OpenShiftDeploymentVerifierExecution extends
-        AbstractSynchronousNonBlockingStepExecution<Void> {
+        OpenShiftAsyncStepExecution<OpenShiftDeploymentVerifier> {
 
     private static final long serialVersionUID = 1L;
 
-    @StepContextParameter
-    private transient TaskListener listener;
-    @StepContextParameter
-    private transient Launcher launcher;
-    @StepContextParameter
-    private transient EnvVars envVars;
-    @StepContextParameter
-    private transient Run<?, ?> runObj;
-    @StepContextParameter
-    private transient FilePath filePath; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Executor executor; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Computer computer; // included as ref of what can be
-                                         // included for future use
-
+    // not transient, as the step is not re-injected on resume
     @Inject
-    private transient OpenShiftDeploymentVerifier step;
+    private OpenShiftDeploymentVerifier step;
+
+    private final DeployProgress progress = new DeployProgress();
+
+    @Override
+    protected OpenShiftDeploymentVerifier getStep() {
+        return step;
+    }
 
     @Override
-    protected Void run() throws Exception {
-        boolean success = step.doItCore(listener, envVars, runObj, null,
-                launcher);
-        if (!success) {
-            throw new AbortException("\""
-                    + step.getDescriptor().getDisplayName() + "\" failed");
-        }
+    protected Boolean begin(IClient client, boolean chatty) {
+        listener.getLogger().println(
+                String.format(MessageConstants.START_DEPLOY_RELATED_PLUGINS,
+                        OpenShiftDeploymentVerifier.DISPLAY_NAME,
+                        step.getDepCfg(overrides),
+                        step.getNamespace(overrides)));
+        step.startDeploymentVerify(progress, listener, overrides);
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected Boolean attempt(IClient client, boolean chatty) {
+        return step.verifyDeploymentAttempt(client, progress, listener,
+                overrides, chatty);
+    }
+
+    @Override
+    protected boolean finish(Boolean outcome, IClient client, boolean chatty) {
+        return step.reportDeploymentVerify(outcome, progress, listener,
+                overrides);
+    }
+
+    @Override
+    protected void cancel() {
+        step.cancelDeployAfterInterrupt(listener, overrides,
+                step.getDepCfg(overrides));
+    }
+}
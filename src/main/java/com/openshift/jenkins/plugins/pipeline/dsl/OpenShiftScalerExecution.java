@@ -1,53 +1,52 @@
 package com.openshift.jenkins.plugins.pipeline.dsl;
 
-import hudson.AbortException;
-import hudson.EnvVars;
-import hudson.FilePath;
-import hudson.Launcher;
-import hudson.model.TaskListener;
-import hudson.model.Computer;
-import hudson.model.Executor;
-import hudson.model.Run;
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.jenkins.plugins.pipeline.model.DeployProgress;
+import com.openshift.restclient.IClient;
 
 import javax.inject.Inject;
 
-import org.jenkinsci.plugins.workflow.steps.AbstractSynchronousNonBlockingStepExecution;
-import org.jenkinsci.plugins.workflow.steps.StepContextParameter;
-
 public class OpenShiftScalerExecution extends
-        AbstractSynchronousNonBlockingStepExecution<Void> {
+        OpenShiftAsyncStepExecution<OpenShiftScaler> {
 
     private static final long serialVersionUID = 1L;
 
-    @StepContextParameter
-    private transient TaskListener listener;
-    @StepContextParameter
-    private transient Launcher launcher;
-    @StepContextParameter
-    private transient EnvVars envVars;
-    @StepContextParameter
-    private transient Run<?, ?> runObj;
-    @StepContextParameter
-    private transient FilePath filePath; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Executor executor; // included as ref of what can be
-                                         // included for future use
-    @StepContextParameter
-    private transient Computer computer; // included as ref of what can be
-                                         // included for future use
-
+    // not transient, as the step is not re-injected on resume
     @Inject
-    private transient OpenShiftScaler step;
+    private OpenShiftScaler step;
+
+    private final DeployProgress progress = new DeployProgress();
+
+    @Override
+    protected OpenShiftScaler getStep() {
+        return step;
+    }
 
     @Override
-    protected Void run() throws Exception {
-        boolean success = step.doItCore(listener, envVars, runObj, null,
-                launcher);
-        if (!success) {
-            throw new AbortException("\""
-                    + step.getDescriptor().getDisplayName() + "\" failed");
-        }
+    protected Boolean begin(IClient client, boolean chatty) {
+        listener.getLogger().println(
+                String.format(MessageConstants.START_DEPLOY_RELATED_PLUGINS,
+                        OpenShiftScaler.DISPLAY_NAME,
+                        step.getDepCfg(overrides),
+                        step.getNamespace(overrides)));
+        if (!Boolean.parseBoolean(step.getVerifyReplicaCount(overrides)))
+            listener.getLogger().println(
+                    String.format(MessageConstants.SCALING,
+                            step.getReplicaCount(overrides)));
+        else
+            listener.getLogger().println(
+                    String.format(MessageConstants.SCALING_PLUS_REPLICA_CHECK,
+                            step.getReplicaCount(overrides)));
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected Boolean attempt(IClient client, boolean chatty) {
+        return step.scaleAttempt(client, progress, listener, overrides, chatty);
+    }
+
+    @Override
+    protected boolean finish(Boolean outcome, IClient client, boolean chatty) {
+        return step.reportScale(outcome, progress, listener, overrides);
+    }
+}
@@ -0,0 +1,132 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.BadRequestException;
+import com.openshift.restclient.NotFoundException;
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.authorization.ResourceForbiddenException;
+import com.openshift.restclient.authorization.UnauthorizedException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+/**
+ * The latency, retries and errors of the calls {@link RetryIClient} makes for
+ * one verb on one kind of resource, across every step. Registered in JMX as
+ * {@link #OBJECT_NAME_PREFIX} plus the verb and the kind the first time such
+ * a call is made; each attempt of a retried call is recorded on its own.
+ */
+public class ApiCallStats extends LatencyStats implements ApiCallStatsMBean {
+
+    public static final String OBJECT_NAME_PREFIX = "com.openshift.jenkins.plugins.pipeline:type=ApiCalls";
+
+    private static final Map<String, ApiCallStats> STATS = new ConcurrentSkipListMap<String, ApiCallStats>();
+
+    private final String verb;
+    private final String kind;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong clientErrors = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+
+    ApiCallStats(String verb, String kind) {
+        this.verb = verb;
+        this.kind = kind;
+    }
+
+    public static ApiCallStats get(String verb, String kind) {
+        String key = verb + "|" + kind;
+        ApiCallStats stats = STATS.get(key);
+        if (stats != null)
+            return stats;
+        ApiCallStats created = new ApiCallStats(verb, kind);
+        stats = STATS.putIfAbsent(key, created);
+        if (stats != null)
+            return stats;
+        register(created, OBJECT_NAME_PREFIX + ",verb=" + verb + ",kind="
+                + ObjectName.quote(kind));
+        return created;
+    }
+
+    // every verb and kind called so far, in order
+    public static Map<String, ApiCallStats> getAll() {
+        return Collections.unmodifiableMap(STATS);
+    }
+
+    /**
+     * The rest client has exceptions of its own for a few codes, and
+     * otherwise passes on the Status the api server sent; the calls made
+     * around it raise {@link UnexpectedResponseException}.
+     *
+     * @return the HTTP status of the failed call, or 0 if it is not known
+     *         (i.e. the call did not get a response, or the rest client got
+     *         an error without a Status)
+     */
+    public static int statusOf(Throwable t) {
+        for (; t != null; t = t.getCause()) {
+            if (t instanceof UnexpectedResponseException)
+                return ((UnexpectedResponseException) t).getCode();
+            if (t instanceof BadRequestException)
+                return 400;
+            if (t instanceof UnauthorizedException)
+                return 401;
+            if (t instanceof ResourceForbiddenException)
+                return 403;
+            if (t instanceof NotFoundException)
+                return 404;
+            if (t instanceof OpenShiftException
+                    && ((OpenShiftException) t).getStatus() != null)
+                return ((OpenShiftException) t).getStatus().getCode();
+            if (t.getCause() == t)
+                break;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds one attempt of a call.
+     *
+     * @param failure
+     *            what the attempt threw, or null if it succeeded
+     */
+    public void record(long millis, Throwable failure) {
+        record(millis);
+        if (failure == null)
+            return;
+        int status = statusOf(failure);
+        if (status >= 500)
+            serverErrors.incrementAndGet();
+        else if (status >= 400)
+            clientErrors.incrementAndGet();
+    }
+
+    public void retried() {
+        retries.incrementAndGet();
+    }
+
+    public String getVerb() {
+        return verb;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    @Override
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    @Override
+    public long getClientErrorCount() {
+        return clientErrors.get();
+    }
+
+    @Override
+    public long getServerErrorCount() {
+        return serverErrors.get();
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of the calls of one verb on one kind of resource
+public interface ApiCallStatsMBean extends LatencyStatsMBean {
+
+    long getRetryCount();
+
+    long getClientErrorCount();
+
+    long getServerErrorCount();
+
+}
@@ -0,0 +1,369 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.internal.restclient.DefaultClient;
+import com.openshift.restclient.IClient;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.util.LogTaskListener;
+
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+
+/**
+ * Per api server cache of the discovery documents (the swagger specs under
+ * /swaggerapi, /apis and the per group /apis/&lt;group&gt;/v1 lists) used to
+ * build the type map in {@link IOpenShiftApiObjHandler#updateApiTypes}.
+ *
+ * Documents are served from memory while younger than the TTL. Older
+ * documents are still served, and a background refresh revalidates all of the
+ * api server's documents with If-None-Match when the server gave us an ETag,
+ * or re-fetches them otherwise. The refresh uses the credentials of the step
+ * that found the documents stale, never those of another job, and every fetch
+ * is retried, rate limited and counted like the step's other api calls. Documents are persisted under JENKINS_HOME so
+ * a restart of the master does not mean a cold start.
+ *
+ * Each api server has a version that is bumped whenever one of its documents
+ * changes, so callers can skip re-parsing documents they have already
+ * imported.
+ */
+public class ApiDiscoveryCache {
+
+    static final Logger LOGGER = Logger.getLogger(ApiDiscoveryCache.class
+            .getName());
+
+    // TTL in seconds, as a global or job parameter; 0 revalidates on every
+    // step
+    public static final String API_DISCOVERY_TTL_ENV_KEY = "OPENSHIFT_API_DISCOVERY_TTL";
+
+    static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(10);
+    static final String CACHE_DIR = "openshift-pipeline-api-discovery";
+
+    private static final ApiDiscoveryCache INSTANCE = new ApiDiscoveryCache();
+
+    private final Map<String, Cluster> clusters = new ConcurrentHashMap<String, Cluster>();
+
+    public static ApiDiscoveryCache getInstance() {
+        return INSTANCE;
+    }
+
+    public static long getTTL(Map<String, String> overrides) {
+        String ttl = overrides != null ? overrides
+                .get(API_DISCOVERY_TTL_ENV_KEY) : null;
+        if (ttl != null && ttl.trim().length() > 0) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(ttl.trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.FINE, "bad " + API_DISCOVERY_TTL_ENV_KEY, e);
+            }
+        }
+        return DEFAULT_TTL;
+    }
+
+    /**
+     * @return the body of the discovery document at url, from the cache when
+     *         possible, or null if the api server does not serve it (i.e.
+     *         /swaggerapi on newer api servers)
+     * @throws IOException
+     *             if the document is not cached and the api server did not
+     *             return it
+     */
+    public String get(IClient client, String apiURL, String url, long ttl)
+            throws IOException {
+        Cluster cluster = cluster(apiURL);
+        Document doc = cluster.docs.get(url);
+        if (doc != null) {
+            if (ttl <= 0) {
+                doc = revalidate(cluster, client, doc);
+            } else if (System.currentTimeMillis() - doc.fetched > ttl) {
+                scheduleRefresh(cluster, client);
+            }
+            return doc.body;
+        }
+        doc = fetch(client, url, null);
+        store(cluster, doc);
+        return doc.body;
+    }
+
+    /**
+     * Kicks off a background refresh if any of the api server's documents is
+     * older than the TTL.
+     */
+    public void refreshIfStale(IClient client, String apiURL, long ttl) {
+        Cluster cluster = cluster(apiURL);
+        long now = System.currentTimeMillis();
+        for (Document doc : cluster.docs.values()) {
+            if (now - doc.fetched > ttl) {
+                scheduleRefresh(cluster, client);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the version of the api server's documents; it changes whenever
+     *         one of the documents does
+     */
+    public long getVersion(String apiURL) {
+        return cluster(apiURL).version.get();
+    }
+
+    public boolean isImported(String apiURL, long version) {
+        return cluster(apiURL).imported == version;
+    }
+
+    public void setImported(String apiURL, long version) {
+        cluster(apiURL).imported = version;
+    }
+
+    /**
+     * Drops the api server's documents, both in memory and on disk.
+     */
+    public void invalidate(String apiURL) {
+        Cluster cluster = clusters.remove(apiURL);
+        if (cluster == null)
+            return;
+        File dir = cluster.dir;
+        if (dir != null) {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (!file.delete())
+                        LOGGER.fine("could not delete " + file);
+                }
+            }
+        }
+    }
+
+    private Cluster cluster(String apiURL) {
+        return clusters.computeIfAbsent(apiURL, k -> load(k));
+    }
+
+    private void scheduleRefresh(Cluster cluster, IClient client) {
+        if (!cluster.refreshing.compareAndSet(false, true))
+            return;
+        // the step may be over by the time the refresh runs, so its retries
+        // are logged here rather than to the step's console
+        IClient background = client instanceof RetryIClient ? new RetryIClient(
+                ((RetryIClient) client).getDefaultClient(),
+                new LogTaskListener(LOGGER, Level.FINE)) : client;
+        ClientCache.getInstance().usedBy(
+                background instanceof RetryIClient ? ((RetryIClient) background)
+                        .getDefaultClient() : null, background);
+        Timer.get().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (Document doc : cluster.docs.values()) {
+                        revalidate(cluster, background, doc);
+                    }
+                } finally {
+                    cluster.refreshing.set(false);
+                }
+            }
+        });
+    }
+
+    private Document revalidate(Cluster cluster, IClient client, Document doc) {
+        try {
+            Document fresh = fetch(client, doc.url, doc);
+            if (fresh == doc) {
+                doc.fetched = System.currentTimeMillis();
+                persistMeta(cluster, doc);
+                return doc;
+            }
+            store(cluster, fresh);
+            return fresh;
+        } catch (Throwable t) {
+            // keep serving what we have
+            LOGGER.log(Level.FINE, "revalidate of " + doc.url + " failed", t);
+            return doc;
+        }
+    }
+
+    private void store(Cluster cluster, Document doc) {
+        Document old = cluster.docs.put(doc.url, doc);
+        if (old == null || !Objects.equals(old.body, doc.body))
+            cluster.version.incrementAndGet();
+        persist(cluster, doc);
+    }
+
+    static Document fetch(IClient client, String url, Document cached)
+            throws IOException {
+        if (client instanceof RetryIClient) {
+            DefaultClient defaultClient = ((RetryIClient) client)
+                    .getDefaultClient();
+            return ((RetryIClient) client).call("GET", "discovery",
+                    () -> fetch(defaultClient, url, cached));
+        }
+        if (!(client instanceof DefaultClient))
+            throw new IOException("no client for " + url);
+        return fetch((DefaultClient) client, url, cached);
+    }
+
+    // over the shared client's OkHttpClient, which already carries the trust
+    // settings and connection pool for the api server, without the
+    // interceptor that turns non 2xx codes, including a 304, into exceptions
+    private static Document fetch(DefaultClient defaultClient, String url,
+            Document cached) throws IOException {
+        Request.Builder request = defaultClient.newRequestBuilderTo(url).get();
+        if (cached != null && cached.etag != null)
+            request.header("If-None-Match", cached.etag);
+        // Response is not Closeable in the okhttp we are on; closing the body
+        // hands the connection back to the pool
+        Response response = RawHttp.okClient(defaultClient)
+                .newCall(request.build()).execute();
+        try {
+            if (response.code() == 304 && cached != null)
+                return cached;
+            // remember a 404 too, so we do not ask again on every step
+            if (response.code() == 404)
+                return new Document(url, null, null,
+                        System.currentTimeMillis());
+            if (!response.isSuccessful())
+                throw new UnexpectedResponseException("GET", url, response
+                        .code());
+            return new Document(url, response.header("ETag"), response
+                    .body().string(), System.currentTimeMillis());
+        } finally {
+            response.body().close();
+        }
+    }
+
+    private static File cacheDir(String apiURL) {
+        Jenkins jenkins = Jenkins.getInstance();
+        if (jenkins == null)
+            return null;
+        return new File(new File(jenkins.getRootDir(), CACHE_DIR),
+                ClientCache.sha256(apiURL));
+    }
+
+    private static Cluster load(String apiURL) {
+        Cluster cluster = new Cluster(cacheDir(apiURL));
+        if (cluster.dir == null)
+            return cluster;
+        File[] metas = cluster.dir.listFiles((d, n) -> n
+                .endsWith(".properties"));
+        if (metas == null)
+            return cluster;
+        for (File meta : metas) {
+            String base = meta.getName().substring(0,
+                    meta.getName().length() - ".properties".length());
+            try (InputStream in = new FileInputStream(meta)) {
+                Properties props = new Properties();
+                props.load(in);
+                String body = null;
+                if (!Boolean.parseBoolean(props.getProperty("notFound")))
+                    body = new String(Files.readAllBytes(new File(
+                            cluster.dir, base + ".json").toPath()),
+                            StandardCharsets.UTF_8);
+                Document doc = new Document(props.getProperty("url"),
+                        props.getProperty("etag"), body, Long.parseLong(props
+                                .getProperty("fetched", "0")));
+                if (doc.url != null)
+                    cluster.docs.put(doc.url, doc);
+            } catch (Throwable t) {
+                LOGGER.log(Level.FINE, "could not load " + meta, t);
+            }
+        }
+        return cluster;
+    }
+
+    private static void persist(Cluster cluster, Document doc) {
+        if (cluster.dir == null)
+            return;
+        try {
+            if (doc.body != null)
+                write(new File(cluster.dir, ClientCache.sha256(doc.url)
+                        + ".json"), doc.body.getBytes(StandardCharsets.UTF_8));
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "could not persist " + doc.url, t);
+            return;
+        }
+        persistMeta(cluster, doc);
+    }
+
+    private static void persistMeta(Cluster cluster, Document doc) {
+        if (cluster.dir == null)
+            return;
+        Properties props = new Properties();
+        props.setProperty("url", doc.url);
+        if (doc.etag != null)
+            props.setProperty("etag", doc.etag);
+        props.setProperty("fetched", Long.toString(doc.fetched));
+        if (doc.body == null)
+            props.setProperty("notFound", "true");
+        File file = new File(cluster.dir, ClientCache.sha256(doc.url)
+                + ".properties");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            props.store(bytes, null);
+            write(file, bytes.toByteArray());
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "could not persist " + file, t);
+        }
+    }
+
+    // write to a temp file and move it into place, so a concurrent load never
+    // sees half a document
+    private static void write(File file, byte[] content) throws IOException {
+        File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("could not create " + dir);
+        File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            out.write(content);
+        }
+        Files.move(tmp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static final class Cluster {
+        final File dir;
+        final Map<String, Document> docs = new ConcurrentHashMap<String, Document>();
+        final AtomicLong version = new AtomicLong();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long imported = -1;
+
+        Cluster(File dir) {
+            this.dir = dir;
+        }
+    }
+
+    static final class Document {
+        final String url;
+        final String etag;
+        final String body;
+        volatile long fetched;
+
+        Document(String url, String etag, String body, long fetched) {
+            this.url = url;
+            this.etag = etag;
+            this.body = body;
+            this.fetched = fetched;
+        }
+    }
+
+}
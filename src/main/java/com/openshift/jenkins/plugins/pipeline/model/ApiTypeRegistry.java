@@ -0,0 +1,141 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.jenkins.plugins.pipeline.OpenShiftApiObjHandler;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The API types known for each api server, by kind.
+ *
+ * Each api server's types are held in an immutable map that is swapped in
+ * whole when discovery completes, so lookups never lock and never see a half
+ * imported set of types. Api servers that have not been discovered yet get
+ * the starter set from {@link OpenShiftApiObjHandler#apiMap}.
+ */
+public class ApiTypeRegistry {
+
+    private static final ApiTypeRegistry INSTANCE = new ApiTypeRegistry();
+
+    static final Map<String, ApiType> DEFAULTS;
+    static {
+        Map<String, ApiType> defaults = new HashMap<String, ApiType>();
+        for (Map.Entry<String, String[]> e : OpenShiftApiObjHandler.apiMap
+                .entrySet()) {
+            String apiDomain = e.getValue()[0];
+            String group = "";
+            String version = "v1";
+            if (OpenShiftApiObjHandler.apis.equals(apiDomain)) {
+                group = "extensions";
+                version = "v1beta1";
+            }
+            defaults.put(e.getKey(), new ApiType(e.getKey(), apiDomain, group,
+                    version, e.getValue()[1], true));
+        }
+        DEFAULTS = Collections.unmodifiableMap(defaults);
+    }
+
+    private final Map<String, Map<String, ApiType>> registries = new ConcurrentHashMap<String, Map<String, ApiType>>();
+
+    public static ApiTypeRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return an immutable snapshot of the types known for the api server
+     */
+    public Map<String, ApiType> getTypes(String apiURL) {
+        Map<String, ApiType> types = registries.get(apiURL);
+        return types != null ? types : DEFAULTS;
+    }
+
+    public ApiType get(String apiURL, String kind) {
+        return getTypes(apiURL).get(kind);
+    }
+
+    /**
+     * Replaces the api server's types with the starter set plus the
+     * discovered types; used when discovery ran to completion.
+     */
+    public void replace(String apiURL, Map<String, ApiType> discovered) {
+        registries.put(apiURL, withDefaults(DEFAULTS, discovered));
+    }
+
+    /**
+     * Adds the discovered types to the api server's current types; used when
+     * only part of discovery succeeded, so we do not lose what we knew.
+     */
+    public void merge(String apiURL, Map<String, ApiType> discovered) {
+        registries.compute(apiURL, (k, current) -> withDefaults(
+                current != null ? current : DEFAULTS, discovered));
+    }
+
+    private static Map<String, ApiType> withDefaults(
+            Map<String, ApiType> base, Map<String, ApiType> discovered) {
+        Map<String, ApiType> types = new HashMap<String, ApiType>(discovered);
+        // as before, the starter set wins over what discovery reports
+        types.putAll(base);
+        return Collections.unmodifiableMap(types);
+    }
+
+    public static final class ApiType {
+        private final String kind;
+        private final String apiDomain;
+        private final String group;
+        private final String version;
+        private final String plural;
+        private final boolean namespaced;
+
+        public ApiType(String kind, String apiDomain, String group,
+                String version, String plural, boolean namespaced) {
+            this.kind = kind;
+            this.apiDomain = apiDomain;
+            this.group = group;
+            this.version = version;
+            this.plural = plural;
+            this.namespaced = namespaced;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        // one of OpenShiftApiObjHandler.api, oapi or apis
+        public String getApiDomain() {
+            return apiDomain;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public String getPlural() {
+            return plural;
+        }
+
+        public boolean isNamespaced() {
+            return namespaced;
+        }
+
+        /**
+         * @return the path of the type's collection, i.e.
+         *         /apis/extensions/v1beta1/namespaces/test/jobs
+         */
+        public String getPath(String namespace) {
+            StringBuilder path = new StringBuilder(apiDomain);
+            if (group != null && group.length() > 0)
+                path.append('/').append(group);
+            path.append('/').append(version);
+            if (namespaced && namespace != null)
+                path.append("/namespaces/").append(namespace);
+            return path.append('/').append(plural).toString();
+        }
+    }
+
+}
@@ -0,0 +1,340 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.NotFoundException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.capability.CapabilityVisitor;
+import com.openshift.restclient.capability.IStoppable;
+import com.openshift.restclient.capability.resources.IPodLogRetrievalAsync;
+import com.openshift.restclient.model.IBuild;
+import com.openshift.restclient.model.IPod;
+
+import hudson.model.TaskListener;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import jenkins.util.Timer;
+
+/**
+ * Follows the log of a build's pod onto the Jenkins console.
+ *
+ * The pod is found from the build's pod name annotation, or else from the
+ * build name label, rather than by listing every pod in the namespace.
+ *
+ * The log is requested with timestamps, which are stripped before the lines
+ * reach the console. They let a follow that fails or is closed early be
+ * restarted with a sinceTime, skipping the lines that were already shown.
+ * Lines are written to the console in batches of up to {@link #FLUSH_BYTES},
+ * instead of once per websocket message; a line never waits longer than
+ * {@link #FLUSH_INTERVAL}, as the first line of a batch schedules its flush.
+ */
+public class BuildLogStream implements IPodLogRetrievalAsync.IPodLogListener {
+
+    // the most log bytes to fetch for a build, as a global or job parameter;
+    // unset or 0 for no limit
+    public static final String LIMIT_BYTES_ENV_KEY = "OPENSHIFT_BUILD_LOG_LIMIT_BYTES";
+
+    static final String POD_NAME_ANNOTATION = "openshift.io/build.pod-name";
+    static final String BUILD_NAME_LABEL = "openshift.io/build.name";
+
+    static final int FLUSH_BYTES = 8192;
+    static final long FLUSH_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+    static final int MAX_RESTARTS = 10;
+
+    private final IClient client;
+    private final String namespace;
+    private final String bldId;
+    private final TaskListener listener;
+    private final boolean chatty;
+    private final long limitBytes;
+
+    private String podName;
+    private String container;
+    private IStoppable stoppable;
+    // the start of a line whose end has not arrived yet
+    private final StringBuilder partial = new StringBuilder();
+    // whole lines not yet written to the console
+    private final StringBuilder pending = new StringBuilder();
+    private Instant lastTimestamp;
+    private Instant resumeAfter;
+    private long received;
+    // writes out the pending lines, if they are not written before
+    private ScheduledFuture<?> flushTick;
+    private boolean started;
+    private boolean open;
+    private boolean needsStart = true;
+    private boolean stopped;
+    private int restarts;
+
+    public BuildLogStream(IClient client, String namespace, String bldId,
+            TaskListener listener, boolean chatty,
+            Map<String, String> overrides) {
+        this.client = client;
+        this.namespace = namespace;
+        this.bldId = bldId;
+        this.listener = listener;
+        this.chatty = chatty;
+        this.limitBytes = getLimitBytes(overrides);
+    }
+
+    public static long getLimitBytes(Map<String, String> overrides) {
+        String value = overrides != null ? overrides.get(LIMIT_BYTES_ENV_KEY)
+                : null;
+        if (value != null && value.trim().length() > 0) {
+            try {
+                return Math.max(0, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                // fall through to no limit
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the build's pod, or null if it does not exist yet
+     */
+    public static IPod findBuildPod(IClient client, String namespace,
+            String bldId) {
+        IBuild bld = client.get(ResourceKind.BUILD, bldId, namespace);
+        String name = bld != null ? bld.getAnnotation(POD_NAME_ANNOTATION)
+                : null;
+        if (name != null && name.length() > 0) {
+            try {
+                return client.get(ResourceKind.POD, name, namespace);
+            } catch (NotFoundException e) {
+                return null;
+            }
+        }
+        // older api servers only label the pod
+        List<IPod> pods = client.list(ResourceKind.POD, namespace,
+                Collections.singletonMap(BUILD_NAME_LABEL, bldId));
+        return pods.isEmpty() ? null : pods.get(0);
+    }
+
+    /**
+     * @return whether the follow has not been started yet, or has ended and
+     *         may be restarted
+     */
+    public synchronized boolean needsStart() {
+        return needsStart && !stopped && restarts <= MAX_RESTARTS;
+    }
+
+    /**
+     * Starts, or restarts from the last line shown, following the log.
+     *
+     * @return whether the follow was started; if not, the caller may try
+     *         again later
+     */
+    public synchronized boolean start() {
+        if (!needsStart())
+            return false;
+        long remaining = limitBytes > 0 ? limitBytes - received : 0;
+        if (limitBytes > 0 && remaining <= 0) {
+            needsStart = false;
+            return false;
+        }
+        IPod pod;
+        try {
+            pod = findBuildPod(client, namespace, bldId);
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+            return false;
+        }
+        if (pod == null) {
+            if (chatty)
+                listener.getLogger().println(
+                        "\nBuildLogStream no pod yet for build " + bldId);
+            return false;
+        }
+        if (!pod.getName().equals(podName)) {
+            podName = pod.getName();
+            container = pod.getContainers().iterator().next().getName();
+            if (chatty)
+                listener.getLogger().println(
+                        "\nBuildLogStream going with build pod " + podName);
+        }
+
+        IPodLogRetrievalAsync.Options options = new IPodLogRetrievalAsync.Options()
+                .follow().container(container)
+                .parameter("timestamps", "true");
+        resumeAfter = lastTimestamp;
+        if (resumeAfter != null)
+            // the api server only honors whole seconds; the lines of the
+            // second already shown are skipped as they come in
+            options.parameter("sinceTime",
+                    resumeAfter.truncatedTo(ChronoUnit.SECONDS).toString());
+        if (remaining > 0)
+            options.parameter("limitBytes", Long.toString(remaining));
+
+        if (started)
+            restarts++;
+        started = true;
+        // set before starting, in case the follow fails right away
+        needsStart = false;
+        open = true;
+        IStoppable follow = null;
+        try {
+            follow = pod.accept(
+                    new CapabilityVisitor<IPodLogRetrievalAsync, IStoppable>() {
+                        @Override
+                        public IStoppable visit(IPodLogRetrievalAsync capability) {
+                            return capability.start(BuildLogStream.this,
+                                    options);
+                        }
+                    }, null);
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+        }
+        if (follow == null) {
+            needsStart = true;
+            open = false;
+            return false;
+        }
+        if (open)
+            stoppable = follow;
+        return true;
+    }
+
+    @Override
+    public void onOpen() {
+    }
+
+    @Override
+    public synchronized void onMessage(String message) {
+        if (stopped)
+            return;
+        // chars rather than bytes, close enough for the limit
+        received += message.length();
+        int from = 0;
+        int eol;
+        while ((eol = message.indexOf('\n', from)) >= 0) {
+            partial.append(message, from, eol);
+            line(partial.toString());
+            partial.setLength(0);
+            from = eol + 1;
+        }
+        partial.append(message, from, message.length());
+        if (pending.length() >= FLUSH_BYTES)
+            flush();
+        else if (pending.length() > 0 && flushTick == null)
+            flushTick = Timer.get().schedule(this::flush, FLUSH_INTERVAL,
+                    TimeUnit.MILLISECONDS);
+    }
+
+    // strips the timestamp, and skips lines shown before a restart
+    private void line(String line) {
+        int space = line.indexOf(' ');
+        if (space > 0) {
+            try {
+                Instant timestamp = Instant.parse(line.substring(0, space));
+                if (resumeAfter != null && !timestamp.isAfter(resumeAfter))
+                    return;
+                lastTimestamp = timestamp;
+                line = line.substring(space + 1);
+            } catch (DateTimeParseException e) {
+                // not a timestamp, show the line as is
+            }
+        }
+        pending.append(line).append('\n');
+    }
+
+    @Override
+    public synchronized void onClose(int code, String reason) {
+        ended();
+    }
+
+    @Override
+    public synchronized void onFailure(IOException e) {
+        if (chatty && e != null)
+            e.printStackTrace(listener.getLogger());
+        ended();
+    }
+
+    // the follow ends when the container does, or early if the connection
+    // drops; either way, the caller restarts it while the build still runs
+    private void ended() {
+        if (partial.length() > 0) {
+            line(partial.toString());
+            partial.setLength(0);
+        }
+        flush();
+        open = false;
+        stoppable = null;
+        if (!stopped)
+            needsStart = true;
+        if (limitBytes > 0 && received >= limitBytes) {
+            needsStart = false;
+            listener.getLogger().println(
+                    String.format(MessageConstants.BUILD_LOG_TRUNCATED, bldId,
+                            limitBytes));
+        }
+        notifyAll();
+    }
+
+    /**
+     * Writes the lines received so far to the console.
+     */
+    public synchronized void flush() {
+        if (flushTick != null) {
+            flushTick.cancel(false);
+            flushTick = null;
+        }
+        if (pending.length() > 0) {
+            listener.getLogger().print(pending);
+            listener.getLogger().flush();
+            pending.setLength(0);
+        }
+    }
+
+    /**
+     * Stops the follow and writes out what is left. With drain, the follow is
+     * first given up to {@link #DRAIN_TIMEOUT} to deliver the rest of the log
+     * of a finished build.
+     */
+    public synchronized void stop(boolean drain) {
+        long deadline = now() + (drain ? DRAIN_TIMEOUT : 0);
+        try {
+            while (open) {
+                long remaining = deadline - now();
+                if (remaining <= 0)
+                    break;
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped = true;
+        if (stoppable != null) {
+            try {
+                stoppable.stop();
+            } catch (Throwable t) {
+                if (chatty)
+                    t.printStackTrace(listener.getLogger());
+            }
+            stoppable = null;
+        }
+        if (partial.length() > 0) {
+            line(partial.toString());
+            partial.setLength(0);
+        }
+        flush();
+        open = false;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+}
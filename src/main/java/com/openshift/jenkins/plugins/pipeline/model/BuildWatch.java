@@ -0,0 +1,267 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.IOpenShiftWatchListener;
+import com.openshift.restclient.IWatcher;
+import com.openshift.restclient.NotFoundException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IBuild;
+import com.openshift.restclient.model.IResource;
+
+import hudson.model.TaskListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the phase of a single build off of a watch on the builds of its
+ * namespace, so that waiting on a build costs one list+watch instead of a GET
+ * per second.
+ *
+ * The restclient watch lists before it watches, so re-establishing the watch
+ * after a disconnect picks up any phase change we missed. If the watch cannot
+ * be (re)established, we fall back to polling with a GET per
+ * {@link #POLL_INTERVAL}. The restclient cannot narrow the watch to the one
+ * build with a field selector, so callers that may find the build finished
+ * already look before they start a watch. A build deleted while we wait
+ * will not finish, so it is reported as {@link IOpenShiftPlugin#STATE_DELETED}.
+ *
+ * Each (re)connect has its own listener, and only the current one counts: a
+ * watcher that was stopped may still call back, i.e. with disconnected(), and
+ * must not touch the state of the watcher that replaced it.
+ */
+public class BuildWatch {
+
+    // set to "false" as a global or job parameter to always poll
+    public static final String WATCH_BUILDS_ENV_KEY = "OPENSHIFT_WATCH_BUILDS";
+
+    static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+    static final long POLL_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    static final int MAX_RECONNECTS = 5;
+
+    private final IClient client;
+    private final String namespace;
+    private final String bldId;
+    private final TaskListener listener;
+    private final boolean chatty;
+
+    private IWatcher watcher;
+    private Listener current;
+    private String state;
+    private boolean connected;
+    private boolean failed;
+    private boolean stopped;
+    private int reconnects;
+
+    private BuildWatch(IClient client, String namespace, String bldId,
+            TaskListener listener, boolean chatty) {
+        this.client = client;
+        this.namespace = namespace;
+        this.bldId = bldId;
+        this.listener = listener;
+        this.chatty = chatty;
+    }
+
+    public static boolean isEnabled(Map<String, String> overrides) {
+        return overrides == null
+                || !"false".equalsIgnoreCase(overrides
+                        .get(WATCH_BUILDS_ENV_KEY));
+    }
+
+    /**
+     * @return a connected watch on the build, or null if the watch could not
+     *         be set up and the caller should poll
+     */
+    public static BuildWatch start(IClient client, String namespace,
+            String bldId, TaskListener listener, boolean chatty,
+            Map<String, String> overrides) throws InterruptedException {
+        if (bldId == null || !isEnabled(overrides))
+            return null;
+        BuildWatch watch = new BuildWatch(client, namespace, bldId, listener,
+                chatty);
+        if (!watch.connect()) {
+            watch.stop();
+            return null;
+        }
+        return watch;
+    }
+
+    private synchronized boolean connect() throws InterruptedException {
+        connected = false;
+        failed = false;
+        current = new Listener();
+        try {
+            watcher = client.watch(namespace, current, ResourceKind.BUILD);
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+            return false;
+        }
+        long deadline = now() + CONNECT_TIMEOUT;
+        while (!connected && !failed && !stopped) {
+            long remaining = deadline - now();
+            if (remaining <= 0)
+                break;
+            wait(remaining);
+        }
+        if (chatty)
+            listener.getLogger().println(
+                    "\nBuildWatch watch on builds in " + namespace
+                            + " connected " + connected);
+        return connected;
+    }
+
+    /**
+     * Blocks until the build's phase differs from lastState, or until
+     * timeoutMillis has passed.
+     *
+     * @return the most recently known phase of the build
+     */
+    public synchronized String awaitChange(String lastState, long timeoutMillis)
+            throws InterruptedException {
+        long started = now();
+        StepTimeline timeline = StepTimeline.current();
+        try {
+            return awaitChangeUntil(lastState, started + timeoutMillis);
+        } finally {
+            if (timeline != null)
+                timeline.waited(now() - started);
+        }
+    }
+
+    private String awaitChangeUntil(String lastState, long deadline)
+            throws InterruptedException {
+        while (!stopped) {
+            if (!connected) {
+                // re-watch, which re-lists, so we do not miss a phase change
+                // that happened while disconnected
+                if (reconnects < MAX_RECONNECTS) {
+                    reconnects++;
+                    closeWatcher();
+                    if (connect())
+                        continue;
+                }
+                return poll();
+            }
+            if (state == null)
+                state = poll();
+            if (state != null && !state.equals(lastState))
+                return state;
+            long remaining = deadline - now();
+            if (remaining <= 0)
+                return state;
+            wait(remaining);
+        }
+        return state;
+    }
+
+    // fallback once the watch is lost for good: GET the build, then pace the
+    // caller's loop like the original polling did
+    private String poll() throws InterruptedException {
+        String polled = readState(client, bldId, namespace);
+        if (polled != null && polled.equals(state))
+            wait(POLL_INTERVAL);
+        state = polled;
+        return state;
+    }
+
+    // the phase of the build as read now; see IOpenShiftPlugin#getBuildState
+    static String readState(IClient client, String bldId, String namespace) {
+        IBuild bld;
+        try {
+            bld = StepPoller.getInstance().read(client, ResourceKind.BUILD,
+                    bldId, namespace);
+        } catch (NotFoundException e) {
+            bld = null;
+        }
+        return bld != null ? bld.getStatus() : IOpenShiftPlugin.STATE_DELETED;
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        closeWatcher();
+        notifyAll();
+    }
+
+    private void closeWatcher() {
+        // from here on the old watcher's callbacks are ignored
+        current = null;
+        if (watcher != null) {
+            try {
+                watcher.stop();
+            } catch (Throwable t) {
+                if (chatty)
+                    t.printStackTrace(listener.getLogger());
+            }
+            watcher = null;
+        }
+    }
+
+    private void update(IResource resource) {
+        if (resource instanceof IBuild && bldId.equals(resource.getName()))
+            state = ((IBuild) resource).getStatus();
+    }
+
+    // the callbacks of one watcher, which lock the BuildWatch
+    private final class Listener implements IOpenShiftWatchListener {
+
+        @Override
+        public void connected(List<IResource> resources) {
+            synchronized (BuildWatch.this) {
+                if (this != current)
+                    return;
+                if (resources != null) {
+                    for (IResource resource : resources) {
+                        update(resource);
+                    }
+                }
+                connected = true;
+                BuildWatch.this.notifyAll();
+            }
+        }
+
+        @Override
+        public void disconnected() {
+            synchronized (BuildWatch.this) {
+                if (this != current)
+                    return;
+                connected = false;
+                BuildWatch.this.notifyAll();
+            }
+        }
+
+        @Override
+        public void received(IResource resource, ChangeType change) {
+            synchronized (BuildWatch.this) {
+                if (this != current)
+                    return;
+                if (ChangeType.DELETED.equals(change)) {
+                    if (bldId.equals(resource.getName()))
+                        state = IOpenShiftPlugin.STATE_DELETED;
+                } else {
+                    update(resource);
+                }
+                BuildWatch.this.notifyAll();
+            }
+        }
+
+        @Override
+        public void error(Throwable err) {
+            synchronized (BuildWatch.this) {
+                if (this != current)
+                    return;
+                if (chatty && err != null)
+                    err.printStackTrace(listener.getLogger());
+                failed = true;
+                connected = false;
+                BuildWatch.this.notifyAll();
+            }
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+}
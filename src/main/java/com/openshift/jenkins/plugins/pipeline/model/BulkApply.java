@@ -0,0 +1,205 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.restclient.IClient;
+
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import org.jboss.dmr.ModelNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the items of a json/yaml document for {@link IOpenShiftCreator}
+ * over one shared client.
+ *
+ * By default the items are created one at a time, in document order, as the
+ * step always has. With a concurrency above 1, the items are grouped into
+ * dependency tiers instead: namespaces and CRDs first, then the service
+ * accounts, secrets, config maps, policy and other resources that workloads
+ * refer to, and then everything else. A tier only starts once the previous one
+ * is done; within a tier up to the configured number of creates run at once.
+ * Either way each create is reported with its latency as it completes.
+ */
+public class BulkApply {
+
+    // the number of creates in flight at once, as a global or job parameter;
+    // 1, the default, creates the items one at a time, in document order
+    public static final String CONCURRENCY_ENV_KEY = "OPENSHIFT_CREATE_CONCURRENCY";
+
+    static final int DEFAULT_CONCURRENCY = 1;
+
+    static final List<String> TIER_0 = Arrays.asList("Namespace", "Project",
+            "ProjectRequest", "CustomResourceDefinition");
+    static final List<String> TIER_1 = Arrays.asList("ServiceAccount",
+            "Secret", "ConfigMap", "PersistentVolume", "PersistentVolumeClaim",
+            "LimitRange", "ResourceQuota", "Role", "RoleBinding",
+            "ClusterRole", "ClusterRoleBinding", "Policy", "PolicyBinding",
+            "ImageStream", "Service");
+    static final int TIERS = 3;
+
+    private final IOpenShiftCreator creator;
+    private final TaskListener listener;
+    private final Map<String, String> overrides;
+    private final IClient client;
+    private final boolean chatty;
+    private final int concurrency;
+
+    public BulkApply(IOpenShiftCreator creator, TaskListener listener,
+            Map<String, String> overrides, IClient client, boolean chatty) {
+        this.creator = creator;
+        this.listener = listener;
+        this.overrides = overrides;
+        this.client = client;
+        this.chatty = chatty;
+        this.concurrency = getConcurrency(overrides);
+    }
+
+    public static int getConcurrency(Map<String, String> overrides) {
+        return Concurrency.get(overrides, CONCURRENCY_ENV_KEY,
+                DEFAULT_CONCURRENCY);
+    }
+
+    static int tier(String kind) {
+        if (TIER_0.contains(kind))
+            return 0;
+        if (TIER_1.contains(kind))
+            return 1;
+        return 2;
+    }
+
+    /**
+     * @return { created, failed, updated, unchanged }
+     */
+    public int[] apply(Iterator<ModelNode> items) throws InterruptedException {
+        int[] counts = new int[4];
+        if (concurrency <= 1) {
+            while (items.hasNext()) {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                report(create(items.next()), counts);
+            }
+            return counts;
+        }
+
+        List<List<ModelNode>> tiers = new ArrayList<List<ModelNode>>();
+        for (int i = 0; i < TIERS; i++)
+            tiers.add(new ArrayList<ModelNode>());
+        while (items.hasNext()) {
+            ModelNode item = items.next();
+            tiers.get(tier(item.get("kind").asString())).add(item);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency,
+                new NamingThreadFactory(new DaemonThreadFactory(),
+                        "OpenShiftCreator"));
+        try {
+            for (int i = 0; i < TIERS; i++) {
+                List<ModelNode> tier = tiers.get(i);
+                if (tier.isEmpty())
+                    continue;
+                if (chatty)
+                    listener.getLogger().println(
+                            String.format(MessageConstants.CREATE_TIER,
+                                    tier.size(), i, concurrency));
+                applyConcurrently(executor, tier, counts);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return counts;
+    }
+
+    private void applyConcurrently(ExecutorService executor,
+            List<ModelNode> tier, int[] counts) throws InterruptedException {
+        CompletionService<Result> completion = new ExecutorCompletionService<Result>(
+                executor);
+        for (ModelNode item : tier) {
+            completion.submit(() -> create(item));
+        }
+        // report each result as it comes in; create never throws, so the
+        // ExecutionException is not expected
+        for (int i = 0; i < tier.size(); i++) {
+            try {
+                report(completion.take().get(), counts);
+            } catch (ExecutionException e) {
+                if (chatty)
+                    e.printStackTrace(listener.getLogger());
+                counts[1]++;
+            }
+        }
+    }
+
+    private Result create(ModelNode item) {
+        Result result = new Result(item);
+        long start = System.nanoTime();
+        try {
+            result.outcome = creator.applyRESTCall(chatty, listener,
+                    result.kind, item, overrides, client);
+            if (result.outcome == IOpenShiftCreator.Outcome.UNSUPPORTED)
+                result.reason = "type not supported";
+        } catch (Throwable t) {
+            result.reason = t.getMessage();
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+        }
+        result.millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+                - start);
+        return result;
+    }
+
+    private void report(Result result, int[] counts) {
+        if (result.outcome == IOpenShiftCreator.Outcome.CREATED) {
+            listener.getLogger().println(
+                    String.format(MessageConstants.CREATED_OBJ_TIMED,
+                            result.kind, result.name, result.millis));
+            counts[0]++;
+        } else if (result.outcome == IOpenShiftCreator.Outcome.UPDATED) {
+            listener.getLogger().println(
+                    String.format(MessageConstants.UPDATED_OBJ_TIMED,
+                            result.kind, result.name, result.millis));
+            counts[2]++;
+        } else if (result.outcome == IOpenShiftCreator.Outcome.UNCHANGED) {
+            listener.getLogger().println(
+                    String.format(MessageConstants.UNCHANGED_OBJ_TIMED,
+                            result.kind, result.name, result.millis));
+            counts[3]++;
+        } else {
+            listener.getLogger().println(
+                    String.format(MessageConstants.FAILED_OBJ_TIMED,
+                            result.kind, result.name, result.millis,
+                            result.reason));
+            counts[1]++;
+        }
+    }
+
+    static final class Result {
+        final String kind;
+        final String name;
+        // null if the call threw
+        IOpenShiftCreator.Outcome outcome;
+        String reason;
+        long millis;
+
+        Result(ModelNode item) {
+            this.kind = item.get("kind").asString();
+            // has* so we do not add an undefined name to what we POST
+            this.name = item.hasDefined("metadata")
+                    && item.get("metadata").hasDefined("name") ? item
+                    .get("metadata").get("name").asString() : "";
+        }
+    }
+
+}
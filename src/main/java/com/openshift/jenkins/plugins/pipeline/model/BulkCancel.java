@@ -0,0 +1,182 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.capability.CapabilityVisitor;
+import com.openshift.restclient.capability.resources.IBuildCancelable;
+import com.openshift.restclient.model.IBuild;
+import com.openshift.restclient.model.IList;
+import com.openshift.restclient.model.IResource;
+
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Cancels the active builds of a build config for the "Cancel OpenShift
+ * Builds" step, and the build of a step that was interrupted.
+ *
+ * The builds are selected by the exact build config label, and, where the
+ * api server supports it (remembered per api server), by a field selector
+ * that leaves out finished builds, so only the builds to cancel are listed.
+ * They are then cancelled several at a time. A build whose name is already
+ * known is cancelled directly, without listing anything.
+ */
+public class BulkCancel {
+
+    // the number of cancels in flight at once, as a global or job parameter
+    public static final String CONCURRENCY_ENV_KEY = "OPENSHIFT_CANCEL_CONCURRENCY";
+
+    static final int DEFAULT_CONCURRENCY = 8;
+
+    // builds select their phase as "status"
+    static final String ACTIVE = "status!=" + IOpenShiftPlugin.STATE_COMPLETE
+            + ",status!=" + IOpenShiftPlugin.STATE_FAILED + ",status!="
+            + IOpenShiftPlugin.STATE_ERROR + ",status!="
+            + IOpenShiftPlugin.STATE_CANCELLED;
+
+    // api servers that rejected the field selector on builds
+    private static final Set<String> NO_FIELD_SELECTOR = ConcurrentHashMap
+            .newKeySet();
+
+    private final IOpenShiftPlugin plugin;
+    private final TaskListener listener;
+    private final Map<String, String> overrides;
+    private final IClient client;
+    private final boolean chatty;
+
+    public BulkCancel(IOpenShiftPlugin plugin, TaskListener listener,
+            Map<String, String> overrides, IClient client, boolean chatty) {
+        this.plugin = plugin;
+        this.listener = listener;
+        this.overrides = overrides;
+        this.client = client;
+        this.chatty = chatty;
+    }
+
+    public static int getConcurrency(Map<String, String> overrides) {
+        return Concurrency.get(overrides, CONCURRENCY_ENV_KEY,
+                DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Cancels the builds of the build config that have not finished.
+     *
+     * @return the number of builds cancelled
+     */
+    public int cancelAll(String bldCfg, String namespace)
+            throws InterruptedException {
+        List<IBuild> active = new ArrayList<IBuild>();
+        for (IResource resource : listActive(bldCfg, namespace)) {
+            if (resource instanceof IBuild
+                    && !plugin.isBuildFinished(((IBuild) resource).getStatus()))
+                active.add((IBuild) resource);
+        }
+        if (active.isEmpty())
+            return 0;
+        if (active.size() == 1)
+            return cancel(active.get(0).getName(), namespace) ? 1 : 0;
+
+        int count = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(getConcurrency(overrides), active.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(),
+                        "OpenShiftBuildCanceller"));
+        try {
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (IBuild bld : active) {
+                String name = bld.getName();
+                futures.add(executor.submit(() -> cancel(name, namespace)));
+            }
+            for (Future<Boolean> future : futures) {
+                try {
+                    if (future.get())
+                        count++;
+                } catch (ExecutionException e) {
+                    if (chatty)
+                        e.printStackTrace(listener.getLogger());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return count;
+    }
+
+    private Collection<? extends IResource> listActive(String bldCfg,
+            String namespace) {
+        String url = RateLimiter.key(plugin.getApiURL(overrides));
+        if (!NO_FIELD_SELECTOR.contains(url)) {
+            Map<String, String> params = new HashMap<String, String>();
+            params.put("labelSelector", LatestBuild.BUILD_CONFIG_LABEL + "="
+                    + bldCfg);
+            params.put("fieldSelector", ACTIVE);
+            try {
+                IList blds = client.execute("GET", ResourceKind.BUILD,
+                        namespace, null, null, null, params);
+                return blds != null ? blds.getItems() : Collections
+                        .<IResource> emptyList();
+            } catch (OpenShiftException e) {
+                if (ApiCallStats.statusOf(e) != 400)
+                    throw e;
+                if (chatty)
+                    listener.getLogger().println(
+                            "\nBulkCancel " + url
+                                    + " does not select builds by phase");
+                NO_FIELD_SELECTOR.add(url);
+            }
+        }
+        return client.list(ResourceKind.BUILD, namespace,
+                Collections.singletonMap(LatestBuild.BUILD_CONFIG_LABEL,
+                        bldCfg));
+    }
+
+    /**
+     * Cancels the build, unless it has finished in the meantime.
+     *
+     * @return whether the build was cancelled
+     */
+    public boolean cancel(String bldId, String namespace) {
+        try {
+            // re-get bld (etcd employs optimistic update)
+            IBuild bld = client.get(ResourceKind.BUILD, bldId, namespace);
+            if (bld == null || plugin.isBuildFinished(bld.getStatus()))
+                return false;
+            if (chatty)
+                listener.getLogger().println(
+                        "\nOpenShiftBuildCanceller found active build "
+                                + bldId);
+
+            // call cancel api
+            bld.accept(new CapabilityVisitor<IBuildCancelable, IBuild>() {
+                public IBuild visit(IBuildCancelable cancelable) {
+                    return cancelable.cancel();
+                }
+            }, null);
+
+            listener.getLogger().println(
+                    String.format(MessageConstants.CANCELLED_BUILD, bldId));
+            return true;
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.internal.restclient.model.KubernetesResource;
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.NotFoundException;
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.model.IResource;
+
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import org.jboss.dmr.ModelNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bulk mode of {@link IOpenShiftDeleterLabels}: for each kind and label,
+ * one DELETE of the collection with a labelSelector, where the api server
+ * supports it, instead of a DELETE per resource. Kinds that do not support it
+ * (remembered per api server) fall back to deleting the listed resources
+ * several at a time.
+ *
+ * Optionally the deletes carry a propagation policy, and the step waits until
+ * the resources are gone. Counts and timings are reported per kind. Every
+ * delete goes through the step's client, so it is retried, rate limited and
+ * counted like any other call.
+ */
+public class BulkDelete {
+
+    // the number of individual deletes in flight at once, as a global or job
+    // parameter
+    public static final String CONCURRENCY_ENV_KEY = "OPENSHIFT_DELETE_CONCURRENCY";
+
+    static final int DEFAULT_CONCURRENCY = 8;
+    static final long WAIT_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    static final long WAIT_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+
+    // api server URL + "|" + kind of the kinds whose collection cannot be
+    // deleted
+    private static final Set<String> NO_COLLECTION_DELETE = ConcurrentHashMap
+            .newKeySet();
+
+    private final IOpenShiftApiObjHandler handler;
+    private final TaskListener listener;
+    private final Map<String, String> overrides;
+    private final IClient client;
+    private final boolean chatty;
+    private final String deleteOptions;
+    private final boolean waitForDeletion;
+
+    public BulkDelete(IOpenShiftApiObjHandler handler, TaskListener listener,
+            Map<String, String> overrides, IClient client, boolean chatty,
+            String propagationPolicy, boolean waitForDeletion) {
+        this.handler = handler;
+        this.listener = listener;
+        this.overrides = overrides;
+        this.client = client;
+        this.chatty = chatty;
+        this.waitForDeletion = waitForDeletion;
+        this.deleteOptions = propagationPolicy != null
+                && propagationPolicy.trim().length() > 0 ? "{\"kind\":\"DeleteOptions\",\"apiVersion\":\"v1\",\"propagationPolicy\":\""
+                + propagationPolicy.trim() + "\"}"
+                : null;
+    }
+
+    public static int getConcurrency(Map<String, String> overrides) {
+        return Concurrency.get(overrides, CONCURRENCY_ENV_KEY,
+                DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Deletes the resources of kind in the namespace that carry any of the
+     * labels.
+     *
+     * @return { deleted, failed }
+     */
+    public int[] delete(String kind, String namespace,
+            List<Map<String, String>> listOfLabels) throws InterruptedException {
+        int[] counts = new int[2];
+        long start = System.nanoTime();
+        ApiTypeRegistry.ApiType apiType = handler.getApiType(kind, overrides);
+        String plural = apiType != null ? apiType.getPlural() : null;
+        String key = handler.getApiURL(overrides) + "|" + kind;
+        boolean collection = false;
+
+        for (Map<String, String> labels : listOfLabels) {
+            List<IResource> resources = client.list(kind, namespace, labels);
+            if (resources.isEmpty())
+                continue;
+            String selector = selector(labels);
+
+            boolean deleted = false;
+            if (plural != null && !NO_COLLECTION_DELETE.contains(key)) {
+                deleted = deleteCollection(plural, namespace, selector, key);
+                if (deleted) {
+                    collection = true;
+                    counts[0] += resources.size();
+                }
+            }
+            if (!deleted) {
+                int[] rc = deleteEach(resources, plural, namespace);
+                counts[0] += rc[0];
+                counts[1] += rc[1];
+            }
+
+            if (waitForDeletion && !waitUntilGone(kind, namespace, labels)) {
+                listener.getLogger().println(
+                        String.format(MessageConstants.DELETE_NOT_GONE, kind,
+                                selector, WAIT_TIMEOUT));
+                counts[1]++;
+            }
+        }
+
+        listener.getLogger().println(
+                String.format(MessageConstants.DELETED_KIND, counts[0], kind,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+                                - start), collection ? "collection delete"
+                                : "individual deletes", counts[1]));
+        return counts;
+    }
+
+    static String selector(Map<String, String> labels) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> e : labels.entrySet()) {
+            if (sb.length() > 0)
+                sb.append(',');
+            sb.append(e.getKey()).append('=').append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    private boolean deleteCollection(String plural, String namespace,
+            String selector, String key) {
+        try {
+            client.execute("DELETE", plural, namespace, null, null,
+                    options(), Collections.singletonMap("labelSelector",
+                            selector));
+            return true;
+        } catch (OpenShiftException e) {
+            int code = ApiCallStats.statusOf(e);
+            // 404 on some older servers
+            if (code == 405 || code == 404)
+                NO_COLLECTION_DELETE.add(key);
+            if (chatty)
+                listener.getLogger().println(
+                        "\nBulkDelete collection delete of " + plural + "?"
+                                + selector + " returned " + code
+                                + ", deleting individually");
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+        }
+        return false;
+    }
+
+    // the delete options as a payload the client can send, or null
+    private IResource options() {
+        return deleteOptions != null ? new KubernetesResource(
+                ModelNode.fromJSONString(deleteOptions), client, null) : null;
+    }
+
+    private int[] deleteEach(List<IResource> resources, String plural,
+            String namespace) throws InterruptedException {
+        int[] counts = new int[2];
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(getConcurrency(overrides), resources.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(),
+                        "OpenShiftDeleterLabels"));
+        try {
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (IResource resource : resources) {
+                futures.add(executor.submit(() -> deleteOne(resource, plural,
+                        namespace)));
+            }
+            for (Future<Boolean> future : futures) {
+                boolean ok = false;
+                try {
+                    ok = future.get();
+                } catch (ExecutionException e) {
+                    if (chatty)
+                        e.printStackTrace(listener.getLogger());
+                }
+                counts[ok ? 0 : 1]++;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return counts;
+    }
+
+    private boolean deleteOne(IResource resource, String plural,
+            String namespace) {
+        try {
+            if (deleteOptions != null && plural != null) {
+                try {
+                    client.execute("DELETE", plural, namespace,
+                            resource.getName(), null, options());
+                } catch (NotFoundException e) {
+                    // already gone counts as deleted
+                }
+            } else {
+                client.delete(resource);
+            }
+            if (chatty)
+                listener.getLogger().println(
+                        String.format(MessageConstants.DELETED_OBJ,
+                                resource.getKind(), resource.getName()));
+            return true;
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+            listener.getLogger().println(
+                    String.format(MessageConstants.FAILED_DELETE_OBJ,
+                            resource.getKind(), resource.getName()));
+            return false;
+        }
+    }
+
+    private boolean waitUntilGone(String kind, String namespace,
+            Map<String, String> labels) throws InterruptedException {
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(WAIT_TIMEOUT);
+        while (System.nanoTime() < deadline) {
+            if (client.list(kind, namespace, labels).isEmpty())
+                return true;
+            Thread.sleep(WAIT_INTERVAL);
+        }
+        return false;
+    }
+
+}
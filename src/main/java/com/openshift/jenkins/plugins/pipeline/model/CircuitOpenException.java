@@ -0,0 +1,19 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.OpenShiftException;
+
+/**
+ * Thrown instead of making an api call while the {@link RetryPolicy} of the
+ * api server has its circuit breaker open. Waits treat it as "check again
+ * later" rather than as a failure.
+ */
+public class CircuitOpenException extends OpenShiftException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String apiURL, long retryInMillis) {
+        super("Calls to %s are suspended for %d ms after repeated failures",
+                apiURL, retryInMillis);
+    }
+
+}
@@ -0,0 +1,375 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.internal.restclient.DefaultClient;
+import com.openshift.jenkins.plugins.pipeline.Auth;
+import com.openshift.restclient.ClientBuilder;
+import com.openshift.restclient.IClient;
+
+import okhttp3.OkHttpClient;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+/**
+ * Process wide cache of openshift-restclient-java clients.
+ *
+ * Building a client means a new OkHttpClient, with its own connection pool,
+ * dispatcher and TLS handshakes. Steps used to do that on every call to
+ * {@link IOpenShiftPlugin#getClient}, often several times per step. Clients
+ * are now shared across steps and keyed by api server URL, a hash of the
+ * bearer token, the fingerprint of the CA certs and whether TLS verification
+ * is skipped. Callers still get a fresh {@link RetryIClient} wrapper so that
+ * retry messages go to their own console.
+ *
+ * Entries that go unused for {@link #IDLE_TIMEOUT} are evicted. When the file
+ * a token is read from (i.e. the service account token) yields a new token
+ * for an api server, the client for the old token is only kept around for
+ * {@link #ROTATED_IDLE_TIMEOUT} so steps still holding it can finish. Clients
+ * for other tokens, from other credentials, keep the full timeout.
+ *
+ * The clients outlive the step that built them, so their SSL callback is a
+ * copy of the step's {@link Auth} that does not log to its console.
+ *
+ * Evicted clients, whether idle, too old or for a rotated token, are retired
+ * rather than dropped: steps may still hold them. A retired client is closed
+ * (its pooled connections evicted, its dispatcher's threads shut down) at a
+ * later sweep, once no step's {@link RetryIClient} refers to it any more, no
+ * shared informer watches with it, and it has no call in flight.
+ */
+public class ClientCache implements ClientCacheMBean {
+
+    static final Logger LOGGER = Logger.getLogger(ClientCache.class.getName());
+
+    public static final String OBJECT_NAME = "com.openshift.jenkins.plugins.pipeline:type=ClientCache";
+
+    static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    static final long ROTATED_IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+    static final long MAX_AGE = TimeUnit.HOURS.toMillis(1);
+    static final long SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private static final ClientCache INSTANCE = new ClientCache();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                    new ObjectName(OBJECT_NAME));
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "could not register " + OBJECT_NAME, t);
+        }
+    }
+
+    private final Map<Key, Entry> clients = new ConcurrentHashMap<Key, Entry>();
+    // evicted, to be closed once nothing uses them
+    private final Queue<Entry> retired = new ConcurrentLinkedQueue<Entry>();
+    // the wrappers handed to steps, which go once the steps are done with
+    // them, and the clients they wrap
+    private final Map<Object, IClient> users = Collections
+            .synchronizedMap(new WeakHashMap<Object, IClient>());
+    // the key of the last token read from each token file
+    private final Map<String, Key> bySource = new ConcurrentHashMap<String, Key>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong lastSweep = new AtomicLong(now());
+
+    public static ClientCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param tokenSource
+     *            the file the token was read from, or null if it was given
+     *            as is
+     * @return a shared client for the given api server, token and certs, or
+     *         null if openshift-restclient-java could not build one
+     */
+    public IClient getClient(String apiURL, String token, Auth auth,
+            String tokenSource) {
+        sweepIfNeeded();
+        Key key = new Key(apiURL, token, auth);
+        Entry entry = clients.get(key);
+        long now = now();
+        if (entry != null && !entry.isExpired(now)) {
+            hits.incrementAndGet();
+            entry.touch(now);
+            return entry.client;
+        }
+
+        misses.incrementAndGet();
+        entry = clients.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                existing.touch(now);
+                return existing;
+            }
+            if (existing != null)
+                retire(existing);
+            IClient client = build(apiURL, token, auth);
+            return client != null ? new Entry(client, now) : null;
+        });
+        if (entry == null)
+            return null;
+
+        // the token file was rotated; let the client for its previous token
+        // age out quickly
+        if (tokenSource != null) {
+            Key previous = bySource.put(tokenSource, key);
+            if (previous != null && !previous.equals(key)
+                    && previous.sameEndpoint(key)) {
+                Entry old = clients.get(previous);
+                if (old != null)
+                    old.idleTimeout = ROTATED_IDLE_TIMEOUT;
+            }
+        }
+        return entry.client;
+    }
+
+    /**
+     * Notes that user (i.e. a step's {@link RetryIClient}) refers to client,
+     * which is not closed once retired for as long as user is reachable.
+     */
+    public void usedBy(IClient client, Object user) {
+        if (client != null)
+            users.put(user, client);
+    }
+
+    protected IClient build(String apiURL, String token, Auth auth) {
+        ClientBuilder cb = new ClientBuilder(apiURL)
+                .sslCertificateCallback(auth.withoutListener())
+                .usingToken(token)
+                .sslCertificateCollection(apiURL, auth.getCerts());
+        if (auth.useCert())
+            cb.sslCertCallbackWithDefaultHostnameVerifier(true);
+        return cb.build();
+    }
+
+    private void sweepIfNeeded() {
+        long now = now();
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL || !lastSweep.compareAndSet(last, now))
+            return;
+        Iterator<Entry> iter = clients.values().iterator();
+        while (iter.hasNext()) {
+            Entry entry = iter.next();
+            if (entry.isExpired(now)) {
+                iter.remove();
+                evictions.incrementAndGet();
+                retire(entry);
+            }
+        }
+        closeRetired();
+    }
+
+    private void retire(Entry entry) {
+        retired.add(entry);
+    }
+
+    void closeRetired() {
+        Iterator<Entry> iter = retired.iterator();
+        while (iter.hasNext()) {
+            Entry entry = iter.next();
+            if (isInUse(entry.client))
+                continue;
+            iter.remove();
+            close(entry.client);
+        }
+    }
+
+    boolean isInUse(IClient client) {
+        if (users.containsValue(client)
+                || SharedInformers.getInstance().isUsing(client))
+            return true;
+        OkHttpClient okClient = getOkClient(client);
+        if (okClient == null)
+            return false;
+        // i.e. a watch, whose connection is not idle
+        return okClient.dispatcher().runningCallsCount() > 0
+                || okClient.dispatcher().queuedCallsCount() > 0
+                || okClient.connectionPool().connectionCount() > okClient
+                        .connectionPool().idleConnectionCount();
+    }
+
+    // the clients RawHttp derives share the pool and the dispatcher, so go
+    // with them
+    private static void close(IClient client) {
+        OkHttpClient okClient = getOkClient(client);
+        if (okClient == null)
+            return;
+        try {
+            okClient.connectionPool().evictAll();
+            okClient.dispatcher().executorService().shutdown();
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "close", t);
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    static OkHttpClient getOkClient(IClient client) {
+        if (client instanceof RetryIClient)
+            client = ((RetryIClient) client).getDefaultClient();
+        if (client instanceof DefaultClient)
+            return ((DefaultClient) client).adapt(OkHttpClient.class);
+        return null;
+    }
+
+    static String sha256(String value) {
+        if (value == null)
+            return "";
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public int getCachedClients() {
+        return clients.size();
+    }
+
+    @Override
+    public int getLiveConnections() {
+        int count = 0;
+        for (Entry entry : clients.values()) {
+            OkHttpClient okClient = getOkClient(entry.client);
+            if (okClient != null)
+                count += okClient.connectionPool().connectionCount();
+        }
+        return count;
+    }
+
+    @Override
+    public int getIdleConnections() {
+        int count = 0;
+        for (Entry entry : clients.values()) {
+            OkHttpClient okClient = getOkClient(entry.client);
+            if (okClient != null)
+                count += okClient.connectionPool().idleConnectionCount();
+        }
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        Iterator<Entry> iter = clients.values().iterator();
+        while (iter.hasNext()) {
+            Entry entry = iter.next();
+            iter.remove();
+            evictions.incrementAndGet();
+            retire(entry);
+        }
+        bySource.clear();
+        closeRetired();
+    }
+
+    @Override
+    public int getRetiredClients() {
+        return retired.size();
+    }
+
+    static final class Key {
+        private final String apiURL;
+        private final String tokenHash;
+        private final String caFingerprint;
+        private final boolean useCert;
+
+        Key(String apiURL, String token, Auth auth) {
+            this.apiURL = apiURL;
+            this.tokenHash = sha256(token);
+            this.caFingerprint = auth.getCertFingerprint();
+            this.useCert = auth.useCert();
+        }
+
+        boolean sameEndpoint(Key other) {
+            return apiURL.equals(other.apiURL)
+                    && caFingerprint.equals(other.caFingerprint)
+                    && useCert == other.useCert;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return sameEndpoint(other) && tokenHash.equals(other.tokenHash);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = apiURL.hashCode();
+            h = 31 * h + tokenHash.hashCode();
+            h = 31 * h + caFingerprint.hashCode();
+            return 31 * h + (useCert ? 1 : 0);
+        }
+    }
+
+    static final class Entry {
+        final IClient client;
+        final long created;
+        volatile long lastUsed;
+        volatile long idleTimeout = IDLE_TIMEOUT;
+
+        Entry(IClient client, long now) {
+            this.client = client;
+            this.created = now;
+            this.lastUsed = now;
+        }
+
+        void touch(long now) {
+            lastUsed = now;
+            idleTimeout = IDLE_TIMEOUT;
+        }
+
+        boolean isExpired(long now) {
+            return now - lastUsed > idleTimeout || now - created > MAX_AGE;
+        }
+    }
+
+}
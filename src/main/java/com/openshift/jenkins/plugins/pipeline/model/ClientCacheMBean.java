@@ -0,0 +1,25 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of the shared client cache maintained by ClientCache
+public interface ClientCacheMBean {
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    long getEvictions();
+
+    int getCachedClients();
+
+    // evicted but not yet closed, as still in use
+    int getRetiredClients();
+
+    int getLiveConnections();
+
+    int getIdleConnections();
+
+    void clear();
+
+}
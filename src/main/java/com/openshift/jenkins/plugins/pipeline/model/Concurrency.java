@@ -0,0 +1,34 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import java.util.Map;
+
+/**
+ * The concurrency of the bulk operations (i.e. {@link BulkCancel}), each set
+ * with a global or job parameter of its own.
+ */
+final class Concurrency {
+
+    static final int MAX = 64;
+
+    private Concurrency() {
+    }
+
+    /**
+     * @return the value of envKey, between 1 and {@link #MAX}, or
+     *         defaultConcurrency if it is not set or not a number
+     */
+    static int get(Map<String, String> overrides, String envKey,
+            int defaultConcurrency) {
+        String value = overrides != null ? overrides.get(envKey) : null;
+        if (value != null && value.trim().length() > 0) {
+            try {
+                return Math.max(1,
+                        Math.min(MAX, Integer.parseInt(value.trim())));
+            } catch (NumberFormatException e) {
+                // fall through to the default
+            }
+        }
+        return defaultConcurrency;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.model.IDeploymentConfig;
+import com.openshift.restclient.model.IReplicationController;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * What a deploy, deployment verification or scale step has found out so far while it waits, carried
+ * from one attempt to the next; the asynchronous pipeline executions keep it
+ * across a restart, so a restarted wait does not trigger the deployment again.
+ */
+public class DeployProgress implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // the deployer has bumped the deployment config's latest version
+    boolean versionBumped;
+    // what the deployer's trigger returned; not kept across a restart
+    transient IDeploymentConfig newdc;
+    // the deployer's trigger, while it runs off the attempts
+    transient CompletableFuture<Void> trigger;
+    // the deployment config was found
+    boolean dcFound;
+    // the deployment phase of the latest replication controller
+    String state;
+    // the latest replication controller
+    String rcName;
+    // as last read; not kept across a restart
+    transient IReplicationController rc;
+    // the scaler found nothing to scale down
+    boolean noop;
+    // the replica count the deployment verifier checks for, -1 until known
+    int count = -1;
+
+    public String getRcName() {
+        return rcName;
+    }
+
+}
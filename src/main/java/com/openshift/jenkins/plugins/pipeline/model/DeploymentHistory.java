@@ -0,0 +1,100 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IReplicationController;
+import com.openshift.restclient.model.IResource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The replication controllers of a deployment config, by version, for
+ * {@link IOpenShiftPlugin#getLatestReplicationController}.
+ *
+ * They come from one list by the deployment config label, or from the
+ * informer's index on that label when a step keeps a synced informer on the
+ * namespace's replication controllers (as the deployer, scaler and
+ * deployment verifier do), in which case the watch keeps them current by
+ * resourceVersion and reading them costs no request at all.
+ */
+final class DeploymentHistory {
+
+    static final String DEPLOYMENT_CONFIG_LABEL = "openshift.io/deployment-config.name";
+    static final String VERSION_ANNOTATION = "openshift.io/deployment-config.latest-version";
+    static final String CANCELLED_ANNOTATION = "openshift.io/deployment.cancelled";
+    static final String BY_DEPLOYMENT_CONFIG = "deployment-config";
+
+    private DeploymentHistory() {
+    }
+
+    /**
+     * @return the replication controllers of the deployment config
+     */
+    static List<IReplicationController> list(IClient client, String dcName,
+            String namespace) {
+        ResourceInformer informer = SharedInformers.getInstance().find(client,
+                namespace, ResourceKind.REPLICATION_CONTROLLER);
+        if (informer != null) {
+            informer.addIndex(BY_DEPLOYMENT_CONFIG, DeploymentHistory::dcOf);
+            return informer.byIndex(BY_DEPLOYMENT_CONFIG, dcName);
+        }
+        return client.list(ResourceKind.REPLICATION_CONTROLLER, namespace,
+                Collections.singletonMap(DEPLOYMENT_CONFIG_LABEL, dcName));
+    }
+
+    private static Collection<String> dcOf(IResource resource) {
+        Map<String, String> labels = resource.getLabels();
+        String dc = labels != null ? labels.get(DEPLOYMENT_CONFIG_LABEL) : null;
+        return dc != null ? Collections.singleton(dc) : null;
+    }
+
+    /**
+     * @return the replication controller of the most recent version that was
+     *         not cancelled, or null if there is none or the one for
+     *         latestVersion has not been created yet
+     */
+    static IReplicationController latest(
+            Collection<IReplicationController> rcs, String dcName,
+            int latestVersion) {
+        Map<Integer, IReplicationController> byVersion = new HashMap<Integer, IReplicationController>();
+        for (IReplicationController rc : rcs) {
+            int version = versionOf(rc, dcName);
+            if (version > 0)
+                byVersion.put(version, rc);
+        }
+        // start at the latest, but ignore newer replication controllers that
+        // are cancelled; an older version may have been deleted
+        for (int version = latestVersion; version > 0; version--) {
+            IReplicationController rc = byVersion.get(version);
+            if (rc == null) {
+                if (version == latestVersion)
+                    return null;
+                continue;
+            }
+            if (!"true".equalsIgnoreCase(rc.getAnnotation(CANCELLED_ANNOTATION)))
+                return rc;
+        }
+        return null;
+    }
+
+    static int versionOf(IReplicationController rc, String dcName) {
+        String version = rc.getAnnotation(VERSION_ANNOTATION);
+        if (version == null) {
+            // the rc is named after the dc and its version
+            String name = rc.getName();
+            if (name == null || !name.startsWith(dcName + "-"))
+                return 0;
+            version = name.substring(dcName.length() + 1);
+        }
+        try {
+            return Integer.parseInt(version.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+}
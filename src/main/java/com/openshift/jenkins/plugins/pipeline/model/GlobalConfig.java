@@ -24,6 +24,9 @@ public class GlobalConfig {
 
     public static final long DEFAULT_EXEC_WAIT = 3 * MINUTE;
 
+    // deployments and scaling take a while, so their checks back off further
+    public static final long DEFAULT_DEPLOY_POLL_CEILING = MINUTE / 2;
+
     public static long getBuildWait() {
         return new OpenShiftBuilder.DescriptorImpl()
                 .getConfiguredDefaultWaitTime();
@@ -54,6 +57,31 @@ public class GlobalConfig {
                 .getConfiguredDefaultWaitTime();
     }
 
+    public static WaitStrategy getBuildWaitStrategy() {
+        return new OpenShiftBuilder.DescriptorImpl()
+                .getConfiguredWaitStrategy();
+    }
+
+    public static WaitStrategy getBuildVerifyWaitStrategy() {
+        return new OpenShiftBuildVerifier.DescriptorImpl()
+                .getConfiguredWaitStrategy();
+    }
+
+    public static WaitStrategy getDeployWaitStrategy() {
+        return new OpenShiftDeployer.DescriptorImpl()
+                .getConfiguredWaitStrategy();
+    }
+
+    public static WaitStrategy getDeployVerifyWaitStrategy() {
+        return new OpenShiftDeploymentVerifier.DescriptorImpl()
+                .getConfiguredWaitStrategy();
+    }
+
+    public static WaitStrategy getScalerWaitStrategy() {
+        return new OpenShiftScaler.DescriptorImpl()
+                .getConfiguredWaitStrategy();
+    }
+
     public static int getServiceVerifyRetry() {
         return new OpenShiftServiceVerifier.DescriptorImpl()
                 .getConfiguredRetryCount();
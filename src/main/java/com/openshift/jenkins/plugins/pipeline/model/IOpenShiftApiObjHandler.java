@@ -2,14 +2,12 @@ package com.openshift.jenkins.plugins.pipeline.model;
 
 import hudson.model.TaskListener;
 
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import net.sf.json.JSONObject;
-
 import org.jboss.dmr.ModelNode;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.SafeConstructor;
 
 import com.openshift.jenkins.plugins.pipeline.MessageConstants;
 import com.openshift.jenkins.plugins.pipeline.OpenShiftApiObjHandler;
@@ -21,22 +19,33 @@ public interface IOpenShiftApiObjHandler extends IOpenShiftPlugin {
     default String fetchApiJsonFromApiServer(boolean chatty,
             TaskListener listener, Map<String, String> overrides,
             String apiDomain) {
-        String json = null;
+        String json = fetchApiDocument(chatty, listener, overrides,
+                this.getApiURL(overrides) + "/swaggerapi" + apiDomain + "/v1");
+        if (json == null)
+            json = fetchApiDocument(chatty, listener, overrides,
+                    this.getApiURL(overrides) + "/apis");
+        return json;
+    }
+
+    // discovery documents rarely change, so they come from the per api server
+    // ApiDiscoveryCache rather than a GET on every step
+    default String fetchApiDocument(boolean chatty, TaskListener listener,
+            Map<String, String> overrides, String url) {
         try {
-        	json = httpGet(chatty, listener, overrides, this.getApiURL(overrides)
-                + "/swaggerapi" + apiDomain + "/v1");
+            return ApiDiscoveryCache.getInstance().get(
+                    getClient(listener, getDisplayName(), overrides),
+                    getApiURL(overrides), url,
+                    ApiDiscoveryCache.getTTL(overrides));
         } catch (Throwable t) {
-        	if (chatty) {
-        		listener.getLogger().println(t.getMessage());
-        	}
-        	json = httpGet(chatty, listener, overrides, this.getApiURL(overrides)
-        			+ "/apis");
+            if (chatty)
+                listener.getLogger().println(t.getMessage());
+            return null;
         }
-        return json;
     }
 
     default void importJsonOfApiTypes(boolean chatty, TaskListener listener,
-            Map<String, String> overrides, String apiDomain, String json) {
+            Map<String, String> overrides, String apiDomain, String json,
+            Map<String, ApiTypeRegistry.ApiType> types) {
         if (json == null)
             return;
         ModelNode oapis = ModelNode.fromJSONString(json);
@@ -53,7 +62,7 @@ public interface IOpenShiftApiObjHandler extends IOpenShiftPlugin {
                     String method = operation.get("method").asString();
                     if (type.startsWith("v1.") && method.equalsIgnoreCase("POST")) {
                         String coreType = type.substring(3);
-                        if (!OpenShiftApiObjHandler.apiMap.containsKey(coreType)) {
+                        if (!types.containsKey(coreType)) {
                             String typeStrForURL = null;
                             String[] pathPieces = path.split("/");
                             for (String pathPiece : pathPieces) {
@@ -70,8 +79,10 @@ public interface IOpenShiftApiObjHandler extends IOpenShiftPlugin {
                                                     + coreType + " with url str "
                                                     + typeStrForURL + " to domain "
                                                     + apiDomain);
-                                OpenShiftApiObjHandler.apiMap.put(coreType,
-                                        new String[] { apiDomain, typeStrForURL });
+                                types.put(coreType, new ApiTypeRegistry.ApiType(
+                                        coreType, apiDomain, "", "v1",
+                                        typeStrForURL, path
+                                                .contains("/namespaces/{namespace}/")));
                             }
                         }
                     }
@@ -86,13 +97,10 @@ public interface IOpenShiftApiObjHandler extends IOpenShiftPlugin {
             List<ModelNode> groupList = groups.asList();
             for (ModelNode group : groupList) {
             	String name = group.get("name").asString();
-            	String groupjson = null;
-            	try {
-            		groupjson = httpGet(chatty, listener, overrides, this.getApiURL(overrides) + "/apis/" + name + "/v1");
-            	} catch (Throwable t) {
-            		if (chatty)
-            			listener.getLogger().println(t.getMessage());
-            	}
+            	String groupVersion = name + "/v1";
+            	if (group.hasDefined("preferredVersion"))
+            		groupVersion = group.get("preferredVersion").get("groupVersion").asString();
+            	String groupjson = fetchApiDocument(chatty, listener, overrides, this.getApiURL(overrides) + "/apis/" + groupVersion);
             	if (groupjson == null)
             		continue;
             	ModelNode groupjsonNode = ModelNode.fromJSONString(groupjson);
@@ -100,19 +108,20 @@ public interface IOpenShiftApiObjHandler extends IOpenShiftPlugin {
             	List<ModelNode> resourceList = resources.asList();
             	for (ModelNode resource : resourceList) {
             		String kind = resource.get("kind").asString();
-            		if (!OpenShiftApiObjHandler.apiMap.containsKey(kind)) {
+            		String plural = resource.get("name").asString();
+            		// skip subresources like deploymentconfigs/scale
+            		if (plural.contains("/"))
+            			continue;
+            		if (!types.containsKey(kind)) {
                         if (chatty)
                             listener.getLogger().println(
                                     "\nOpenShiftCreator: adding from API server swagger endpoint new type "
                                             + kind + " is openshift " + name.contains("openshift"));
-                        String value = kind.toLowerCase();
-                        if (!value.endsWith("s"))
-                        	value = value + "s";
-                		if (name.contains("openshift")) {
-                			OpenShiftApiObjHandler.apiMap.put(kind, new String[] {OpenShiftApiObjHandler.oapi, kind.toLowerCase()});
-                		} else {
-                			OpenShiftApiObjHandler.apiMap.put(kind, new String[] {OpenShiftApiObjHandler.api, kind.toLowerCase()});
-                		}            			
+                        types.put(kind, new ApiTypeRegistry.ApiType(kind,
+                                OpenShiftApiObjHandler.apis, name,
+                                groupVersion.substring(groupVersion.indexOf('/') + 1),
+                                plural, !resource.hasDefined("namespaced")
+                                        || resource.get("namespaced").asBoolean()));
             		}
             	}
             }
@@ -126,39 +135,79 @@ public interface IOpenShiftApiObjHandler extends IOpenShiftPlugin {
     // type mapping
     default void updateApiTypes(boolean chatty, TaskListener listener,
             Map<String, String> overrides) {
-        importJsonOfApiTypes(
-                chatty,
-                listener,
-                overrides,
-                OpenShiftApiObjHandler.oapi,
-                fetchApiJsonFromApiServer(chatty, listener, overrides,
-                        OpenShiftApiObjHandler.oapi));
-        importJsonOfApiTypes(
-                chatty,
-                listener,
-                overrides,
-                OpenShiftApiObjHandler.api,
-                fetchApiJsonFromApiServer(chatty, listener, overrides,
-                        OpenShiftApiObjHandler.api));
+        // an api server's types only change when one of its discovery
+        // documents does
+        ApiDiscoveryCache cache = ApiDiscoveryCache.getInstance();
+        String apiURL = getApiURL(overrides);
+        if (cache.isImported(apiURL, cache.getVersion(apiURL))) {
+            if (chatty)
+                listener.getLogger().println(
+                        "\nOpenShiftCreator: API types for " + apiURL
+                                + " are current");
+            cache.refreshIfStale(
+                    getClient(listener, getDisplayName(), overrides), apiURL,
+                    ApiDiscoveryCache.getTTL(overrides));
+            return;
+        }
+        // build the new set of types off to the side and swap it in whole, so
+        // steps running against the api server never see a partial set
+        Map<String, ApiTypeRegistry.ApiType> types = new HashMap<String, ApiTypeRegistry.ApiType>(
+                ApiTypeRegistry.DEFAULTS);
+        String oapiJson = fetchApiJsonFromApiServer(chatty, listener,
+                overrides, OpenShiftApiObjHandler.oapi);
+        importJsonOfApiTypes(chatty, listener, overrides,
+                OpenShiftApiObjHandler.oapi, oapiJson, types);
+        String apiJson = fetchApiJsonFromApiServer(chatty, listener,
+                overrides, OpenShiftApiObjHandler.api);
+        importJsonOfApiTypes(chatty, listener, overrides,
+                OpenShiftApiObjHandler.api, apiJson, types);
+        if (oapiJson != null && apiJson != null) {
+            ApiTypeRegistry.getInstance().replace(apiURL, types);
+            cache.setImported(apiURL, cache.getVersion(apiURL));
+        } else {
+            // if the api server could not be reached, keep what we knew and
+            // try again next step
+            ApiTypeRegistry.getInstance().merge(apiURL, types);
+        }
+    }
+
+    default ApiTypeRegistry.ApiType getApiType(String kind,
+            Map<String, String> overrides) {
+        return ApiTypeRegistry.getInstance().get(getApiURL(overrides), kind);
+    }
+
+    // yields the resources in the json/yaml one at a time; see ResourceStream
+    default Iterator<ModelNode> streamJsonYaml(String jsonyaml,
+            TaskListener listener) {
+        try {
+            return ResourceStream.parse(jsonyaml);
+        } catch (Throwable t) {
+            if (listener != null)
+                t.printStackTrace(listener.getLogger());
+            return null;
+        }
     }
 
     default ModelNode hydrateJsonYaml(String jsonyaml, TaskListener listener) {
-        // construct json/yaml node
-        ModelNode resources = null;
+        // construct json/yaml node; several resources come back as a List
+        Iterator<ModelNode> stream = streamJsonYaml(jsonyaml, listener);
+        if (stream == null)
+            return null;
         try {
-            resources = ModelNode.fromJSONString(jsonyaml);
-        } catch (Exception e) {
-            Yaml yaml = new Yaml(new SafeConstructor());
-            Map<String, Object> map = (Map<String, Object>) yaml.load(jsonyaml);
-            JSONObject jsonObj = JSONObject.fromObject(map);
-            try {
-                resources = ModelNode.fromJSONString(jsonObj.toString());
-            } catch (Throwable t) {
-                if (listener != null)
-                    t.printStackTrace(listener.getLogger());
-            }
+            ModelNode first = stream.hasNext() ? stream.next() : null;
+            if (first == null || !stream.hasNext())
+                return first;
+            ModelNode resources = new ModelNode();
+            resources.get("kind").set("List");
+            resources.get("items").add(first);
+            while (stream.hasNext())
+                resources.get("items").add(stream.next());
+            return resources;
+        } catch (Throwable t) {
+            if (listener != null)
+                t.printStackTrace(listener.getLogger());
+            return null;
         }
-        return resources;
     }
 
     default int[] deleteAPIObjs(IClient client, TaskListener listener,
@@ -2,21 +2,16 @@ package com.openshift.jenkins.plugins.pipeline.model;
 
 import com.openshift.jenkins.plugins.pipeline.MessageConstants;
 import com.openshift.jenkins.plugins.pipeline.NameValuePair;
-import com.openshift.jenkins.plugins.pipeline.OpenShiftBuildCanceller;
 import com.openshift.restclient.IClient;
 import com.openshift.restclient.ResourceKind;
 import com.openshift.restclient.capability.CapabilityVisitor;
-import com.openshift.restclient.capability.IStoppable;
 import com.openshift.restclient.capability.resources.IBuildTriggerable;
-import com.openshift.restclient.capability.resources.IPodLogRetrievalAsync;
 import com.openshift.restclient.model.IBuild;
 import com.openshift.restclient.model.IBuildConfig;
-import com.openshift.restclient.model.IPod;
 
 import hudson.Launcher;
 import hudson.model.TaskListener;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -133,116 +128,99 @@ public interface IOpenShiftBuilder extends ITimedOpenShiftPlugin {
         return bld;
     }
 
-    default IStoppable getBuildPodLogs(IClient client, String bldId,
-            Map<String, String> overrides, boolean chatty,
-            TaskListener listener, AtomicBoolean needToFollow) {
-        IStoppable stop = null;
-        List<IPod> pods = client
-                .list(ResourceKind.POD, getNamespace(overrides));
-        for (IPod pod : pods) {
-            if (chatty)
-                listener.getLogger().println(
-                        "\nOpenShiftBuilder found pod " + pod.getName());
-
-            // build pod starts with build id
-            if (pod.getName().startsWith(bldId)) {
-                if (chatty)
-                    listener.getLogger().println(
-                            "\nOpenShiftBuilder going with build pod " + pod);
-                final String container = pod.getContainers().iterator().next()
-                        .getName();
-
-                stop = pod
-                        .accept(new CapabilityVisitor<IPodLogRetrievalAsync, IStoppable>() {
-                            @Override
-                            public IStoppable visit(
-                                    IPodLogRetrievalAsync capability) {
-                                return capability
-                                        .start(new IPodLogRetrievalAsync.IPodLogListener() {
-                                            @Override
-                                            public void onOpen() {
-                                            }
-
-                                            @Override
-                                            public void onMessage(String message) {
-                                                listener.getLogger().print(
-                                                        message);
-                                            }
-
-                                            @Override
-                                            public void onClose(int code,
-                                                    String reason) {
-                                            }
-
-                                            @Override
-                                            public void onFailure(IOException e) {
-                                                // If follow fails, try to
-                                                // restart it on the next loop.
-                                                needToFollow.compareAndSet(
-                                                        false, true);
-                                            }
-                                        }, new IPodLogRetrievalAsync.Options()
-                                                .follow().container(container));
-                            }
-                        }, null);
-                break;
-            }
-        }
-        return stop;
+    /**
+     * @return a follow of the build pod's log, to be started once the build
+     *         runs
+     */
+    default BuildLogStream getBuildPodLogs(IClient client, String bldId,
+            Map<String, String> overrides, boolean chatty, TaskListener listener) {
+        return new BuildLogStream(client, getNamespace(overrides), bldId,
+                listener, chatty, overrides);
     }
 
     default void waitOnBuild(IClient client, long startTime, String bldId,
             TaskListener listener, Map<String, String> overrides, long wait,
             boolean follow, boolean chatty) throws InterruptedException {
-        IBuild bld = null;
         String bldState = null;
 
         // get internal OS Java REST Client error if access pod logs while bld
         // is in Pending state
         // instead of Running, Complete, or Failed
 
-        IStoppable stop = null;
-
-        final AtomicBoolean needToFollow = new AtomicBoolean(follow);
-
-        while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) < (startTime + wait)) {
-            bld = client
-                    .get(ResourceKind.BUILD, bldId, getNamespace(overrides));
-            bldState = bld.getStatus();
-            if (Boolean.parseBoolean(getVerbose(overrides)))
-                listener.getLogger().println(
-                        "\nOpenShiftBuilder bld state:  " + bldState);
-
-            if (isBuildRunning(bldState)
-                    && needToFollow.compareAndSet(true, false)) {
-                stop = this.getBuildPodLogs(client, bldId, overrides, chatty,
-                        listener, needToFollow);
-            }
-
-            if (isBuildFinished(bldState)) {
-                if (follow && stop == null)
-                    stop = this.getBuildPodLogs(client, bldId, overrides,
-                            chatty, listener, needToFollow);
-                break;
-            }
+        BuildLogStream logs = follow ? getBuildPodLogs(client, bldId,
+                overrides, chatty, listener) : null;
+        boolean drained = false;
 
+        BuildWatch watch = null;
+        try {
             try {
-                Thread.sleep(1000);
+                watch = BuildWatch.start(client, getNamespace(overrides),
+                        bldId, listener, chatty, overrides);
+                if (watch == null) {
+                    // no watch, so poll along with every other waiting step
+                    StepPoller.getInstance().await(
+                            () -> buildAttempt(client, bldId, logs, overrides,
+                                    chatty, listener),
+                            newBackoff(),
+                            System.currentTimeMillis() + (startTime + wait)
+                                    - TimeUnit.NANOSECONDS.toMillis(System
+                                            .nanoTime()));
+                }
             } catch (InterruptedException e) {
-                // need to throw as this indicates the step as been cancelled
+                // need to throw as this indicates the step as been
+                // cancelled
                 // also attempt to cancel build on openshift side
-                OpenShiftBuildCanceller canceller = new OpenShiftBuildCanceller(
-                        getApiURL(overrides), getNamespace(overrides),
-                        getAuthToken(overrides), getVerbose(overrides),
-                        getBldCfg(overrides));
-                canceller.setAuth(getAuth());
-                canceller.coreLogic(null, listener, overrides);
+                cancelBuildAfterInterrupt(listener, overrides,
+                        getBldCfg(overrides), bldId);
                 throw e;
             }
+
+            while (watch != null
+                    && TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) < (startTime + wait)) {
+                // blocks until the build changes phase; when following
+                // the logs, wake up every second in case the log stream
+                // failed and needs to be restarted
+                long remaining = (startTime + wait)
+                        - TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+                if (follow)
+                    remaining = Math.min(remaining, 1000);
+                try {
+                    bldState = watch.awaitChange(bldState, remaining);
+                } catch (InterruptedException e) {
+                    cancelBuildAfterInterrupt(listener, overrides,
+                            getBldCfg(overrides), bldId);
+                    throw e;
+                }
+                if (Boolean.parseBoolean(getVerbose(overrides)))
+                    listener.getLogger().println(
+                            "\nOpenShiftBuilder bld state:  " + bldState);
+
+                // (re)start the follow if it has not started yet, or ended
+                // early; once the build is finished, a last start picks up
+                // whatever was not shown
+                if (logs != null
+                        && (isBuildRunning(bldState) || isBuildFinished(bldState))
+                        && logs.needsStart())
+                    logs.start();
+                if (logs != null)
+                    logs.flush();
+
+                if (isBuildFinished(bldState))
+                    break;
+            }
+            if (logs != null)
+                logs.stop(true);
+            drained = true;
+        } finally {
+            if (watch != null)
+                watch.stop();
+            if (logs != null && !drained)
+                logs.stop(false);
         }
-        if (stop != null)
-            stop.stop();
+    }
 
+    default WaitStrategy getGlobalWaitStrategy() {
+        return GlobalConfig.getBuildWaitStrategy();
     }
 
     default boolean coreLogic(Launcher launcher, TaskListener listener,
@@ -255,112 +233,148 @@ public interface IOpenShiftBuilder extends ITimedOpenShiftPlugin {
                         DISPLAY_NAME, getBldCfg(overrides),
                         getNamespace(overrides)));
 
-        boolean follow = Boolean.parseBoolean(getShowBuildLogs(overrides));
+        AtomicBoolean follow = new AtomicBoolean(
+                Boolean.parseBoolean(getShowBuildLogs(overrides)));
         if (chatty)
             listener.getLogger().println(
-                    "\nOpenShiftBuilder logger follow " + follow);
+                    "\nOpenShiftBuilder logger follow " + follow.get());
 
         // get oc client
         IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
 
         if (client != null) {
+            IBuild bld = this.triggerBuild(client, listener, overrides,
+                    chatty, follow);
+            if (bld == null)
+                return false;
+
+            String bldId = bld.getName();
             long startTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
-            boolean skipBC = getBuildName(overrides) != null
-                    && getBuildName(overrides).length() > 0;
-            IBuildConfig bc = null;
-            IBuild prevBld = null;
-            if (!skipBC) {
-                bc = client.get(ResourceKind.BUILD_CONFIG,
-                        getBldCfg(overrides), getNamespace(overrides));
-            } else {
-                prevBld = client.get(ResourceKind.BUILD,
-                        getBuildName(overrides), getNamespace(overrides));
-            }
+
+            long wait = getTimeout(listener, chatty, overrides);
 
             if (chatty)
                 listener.getLogger().println(
-                        "\nOpenShiftBuilder build config retrieved " + bc
-                                + " buildName " + getBuildName(overrides));
-
-            if (bc != null || prevBld != null) {
-
-                // don't follow if a jenkinsfile strategy
-                // TODO until we get the restclient updated, getBuildStrategy
-                // returns null if jenkins strategy, non-null for the
-                // traditional 3
-                boolean jenkinsfileBC = false;
-                if (bc != null)
-                    jenkinsfileBC = bc.getBuildStrategy() == null;
-                else {
-                    IBuildConfig tmpBC = client.get(ResourceKind.BUILD_CONFIG,
-                            getBldCfg(overrides), getNamespace(overrides));
-                    if (tmpBC != null)
-                        jenkinsfileBC = tmpBC.getBuildStrategy() == null;
-                }
-                if (chatty)
-                    listener.getLogger().println(
-                            "\nOpenShiftBuilder bc strategy == jenkinsfile "
-                                    + jenkinsfileBC);
+                        "\n OpenShiftBuilder looking for build " + bldId);
 
-                if (follow)
-                    follow = !jenkinsfileBC;
+            waitOnBuild(client, startTime, bldId, listener, overrides, wait,
+                    follow.get(), chatty);
 
-                // Trigger / start build
-                IBuild bld = this.startBuild(bc, prevBld, overrides, chatty,
-                        listener, client);
+            return this.verifyBuild(startTime, wait, client,
+                    getBldCfg(overrides), bldId, getNamespace(overrides),
+                    chatty, listener, DISPLAY_NAME, checkDeps, true, overrides);
+        } else {
+            return false;
+        }
 
-                if (bld == null) {
-                    listener.getLogger().println(
-                            MessageConstants.EXIT_BUILD_NO_BUILD_OBJ);
-                    return false;
-                } else {
-                    annotateJobInfoToResource(client, listener, chatty,
-                            overrides, bld);
-
-                    String bldId = bld.getName();
-                    if (!checkDeps)
-                        listener.getLogger().println(
-                                String.format(
-                                        MessageConstants.WAITING_ON_BUILD,
-                                        bldId));
-                    else
-                        listener.getLogger()
-                                .println(
-                                        String.format(
-                                                MessageConstants.WAITING_ON_BUILD_PLUS_DEPLOY,
-                                                bldId));
+    }
 
-                    startTime = TimeUnit.NANOSECONDS
-                            .toMillis(System.nanoTime());
+    /**
+     * Starts the build (or re-runs the named one) and annotates it with the
+     * job information; the first half of coreLogic, shared with the
+     * asynchronous pipeline execution.
+     *
+     * @param follow
+     *            whether to follow the build's log; cleared if the build is a
+     *            jenkinsfile build, which has no pod to follow
+     * @return the started build, or null if it could not be started, in which
+     *         case the reason is on the console
+     */
+    default IBuild triggerBuild(IClient client, TaskListener listener,
+            Map<String, String> overrides, boolean chatty, AtomicBoolean follow) {
+        boolean checkDeps = Boolean
+                .parseBoolean(getCheckForTriggeredDeployments(overrides));
+        boolean skipBC = getBuildName(overrides) != null
+                && getBuildName(overrides).length() > 0;
+        IBuildConfig bc = null;
+        IBuild prevBld = null;
+        if (!skipBC) {
+            bc = client.get(ResourceKind.BUILD_CONFIG, getBldCfg(overrides),
+                    getNamespace(overrides));
+        } else {
+            prevBld = client.get(ResourceKind.BUILD, getBuildName(overrides),
+                    getNamespace(overrides));
+        }
 
-                    long wait = getTimeout(listener, chatty, overrides);
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftBuilder build config retrieved " + bc
+                            + " buildName " + getBuildName(overrides));
 
-                    if (chatty)
-                        listener.getLogger().println(
-                                "\n OpenShiftBuilder looking for build "
-                                        + bldId);
+        if (bc == null && prevBld == null) {
+            listener.getLogger().println(
+                    String.format(
+                            MessageConstants.EXIT_BUILD_NO_BUILD_CONFIG_OBJ,
+                            getBldCfg(overrides)));
+            return null;
+        }
 
-                    waitOnBuild(client, startTime, bldId, listener, overrides,
-                            wait, follow, chatty);
+        // don't follow if a jenkinsfile strategy
+        // TODO until we get the restclient updated, getBuildStrategy
+        // returns null if jenkins strategy, non-null for the
+        // traditional 3
+        boolean jenkinsfileBC = false;
+        if (bc != null)
+            jenkinsfileBC = bc.getBuildStrategy() == null;
+        else {
+            IBuildConfig tmpBC = client.get(ResourceKind.BUILD_CONFIG,
+                    getBldCfg(overrides), getNamespace(overrides));
+            if (tmpBC != null)
+                jenkinsfileBC = tmpBC.getBuildStrategy() == null;
+        }
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftBuilder bc strategy == jenkinsfile "
+                            + jenkinsfileBC);
 
-                    return this.verifyBuild(startTime, wait, client,
-                            getBldCfg(overrides), bldId,
-                            getNamespace(overrides), chatty, listener,
-                            DISPLAY_NAME, checkDeps, true, overrides);
+        if (jenkinsfileBC)
+            follow.set(false);
 
-                }
+        // Trigger / start build
+        IBuild bld = this.startBuild(bc, prevBld, overrides, chatty, listener,
+                client);
 
-            } else {
-                listener.getLogger()
-                        .println(
-                                String.format(
-                                        MessageConstants.EXIT_BUILD_NO_BUILD_CONFIG_OBJ,
-                                        getBldCfg(overrides)));
-                return false;
-            }
-        } else {
-            return false;
+        if (bld == null) {
+            listener.getLogger().println(
+                    MessageConstants.EXIT_BUILD_NO_BUILD_OBJ);
+            return null;
         }
+        annotateJobInfoToResource(client, listener, chatty, overrides, bld);
 
+        String bldId = bld.getName();
+        if (!checkDeps)
+            listener.getLogger().println(
+                    String.format(MessageConstants.WAITING_ON_BUILD, bldId));
+        else
+            listener.getLogger().println(
+                    String.format(
+                            MessageConstants.WAITING_ON_BUILD_PLUS_DEPLOY,
+                            bldId));
+        return bld;
+    }
+
+    /**
+     * One check of the build for the asynchronous pipeline execution: reads
+     * the build's phase through {@link #getBuildState}, which shares the read
+     * with the other steps waiting on the build, and keeps the log follow
+     * going.
+     *
+     * @return true once the build is finished, otherwise null
+     */
+    default Boolean buildAttempt(IClient client, String bldId,
+            BuildLogStream logs, Map<String, String> overrides, boolean chatty,
+            TaskListener listener) {
+        String bldState = getBuildState(client, bldId,
+                getNamespace(overrides));
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftBuilder bld state:  " + bldState);
+        if (logs != null) {
+            if ((isBuildRunning(bldState) || isBuildFinished(bldState))
+                    && logs.needsStart())
+                logs.start();
+            logs.flush();
+        }
+        return isBuildFinished(bldState) ? Boolean.TRUE : null;
     }
 }
@@ -3,19 +3,32 @@ package com.openshift.jenkins.plugins.pipeline.model;
 import hudson.Launcher;
 import hudson.model.TaskListener;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.jboss.dmr.ModelNode;
 
 import com.openshift.internal.restclient.model.KubernetesResource;
 import com.openshift.jenkins.plugins.pipeline.MessageConstants;
-import com.openshift.jenkins.plugins.pipeline.OpenShiftApiObjHandler;
 import com.openshift.restclient.IClient;
+import com.openshift.restclient.NotFoundException;
+import com.openshift.restclient.model.IResource;
 
 public interface IOpenShiftCreator extends IOpenShiftApiObjHandler {
     final static String DISPLAY_NAME = "Create OpenShift Resource(s)";
     final static String UNDEFINED = "undefined";
+    // set on each resource in apply mode, to the hash of the resource as
+    // specified in the json/yaml
+    final static String APPLIED_HASH_ANNOTATION = "openshift.io/jenkins-applied-hash";
+    // and to the resource as specified, to work out what a later apply took
+    // out of it
+    final static String LAST_APPLIED_ANNOTATION = "openshift.io/jenkins-last-applied";
+
+    // what applyRESTCall did with a resource
+    enum Outcome {
+        CREATED, UPDATED, UNCHANGED, UNSUPPORTED
+    }
 
     default String getDisplayName() {
         return DISPLAY_NAME;
@@ -27,14 +40,34 @@ public interface IOpenShiftCreator extends IOpenShiftApiObjHandler {
         return getOverride(getJsonyaml(), overrides);
     }
 
+    String getApply();
+
+    default String getApply(Map<String, String> overrides) {
+        return getOverride(getApply(), overrides);
+    }
+
     default boolean makeRESTCall(boolean chatty, TaskListener listener,
             String path, ModelNode resource, Map<String, String> overrides) {
+        IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
+
+        if (client == null) {
+            return false;
+        }
+
+        return makeRESTCall(chatty, listener, path, resource, overrides,
+                client);
+    }
+
+    default boolean makeRESTCall(boolean chatty, TaskListener listener,
+            String path, ModelNode resource, Map<String, String> overrides,
+            IClient client) {
         // TODO openshift-restclient-java's IApiTypeMapper is not really
         // accessible from our perspective,
         // without accessing/recreating the underlying OkHttpClient, so until
         // that changes, we use our own
         // type mapping
-        if (OpenShiftApiObjHandler.apiMap.get(path) == null) {
+        ApiTypeRegistry.ApiType apiType = getApiType(path, overrides);
+        if (apiType == null) {
             listener.getLogger().println(
                     String.format(MessageConstants.TYPE_NOT_SUPPORTED, path));
             return false;
@@ -52,26 +85,86 @@ public interface IOpenShiftCreator extends IOpenShiftApiObjHandler {
         else
             setOnResource = true;
 
-        IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
-
-        if (client == null) {
-            return false;
-        }
-
         KubernetesResource kr = new KubernetesResource(resource, client, null);
         if (setOnResource)
             kr.setNamespace(namespace);
         if (chatty)
             listener.getLogger().println(
                     "\nOpenShiftCreator calling create on for type "
-                            + OpenShiftApiObjHandler.apiMap.get(path)[1]
+                            + apiType.getPlural()
                             + " and resource " + kr.toJson(false));
-        client.execute("POST", OpenShiftApiObjHandler.apiMap.get(path)[1],
+        client.execute("POST", apiType.getPlural(),
                 namespace, null, null, kr);
 
         return true;
     }
 
+    // in apply mode, resources that already exist are patched if they
+    // changed since the last apply and left alone otherwise, instead of
+    // failing the create
+    default Outcome applyRESTCall(boolean chatty, TaskListener listener,
+            String path, ModelNode resource, Map<String, String> overrides,
+            IClient client) throws IOException {
+        ApiTypeRegistry.ApiType apiType = getApiType(path, overrides);
+        // without a name (i.e. generateName) there is nothing to compare to
+        if (!Boolean.parseBoolean(getApply(overrides)) || apiType == null
+                || !resource.hasDefined("metadata")
+                || !resource.get("metadata").hasDefined("name")) {
+            return makeRESTCall(chatty, listener, path, resource, overrides,
+                    client) ? Outcome.CREATED : Outcome.UNSUPPORTED;
+        }
+
+        String namespace = getNamespace(overrides);
+        if (resource.get("metadata").hasDefined("namespace"))
+            namespace = resource.get("metadata", "namespace").asString();
+        String name = resource.get("metadata", "name").asString();
+        // the definition as specified, before our annotations go on it
+        ModelNode wanted = resource.clone();
+        String applied = wanted.toJSONString(true);
+        String hash = ClientCache.sha256(applied);
+        resource.get("metadata", "annotations", APPLIED_HASH_ANNOTATION).set(
+                hash);
+        resource.get("metadata", "annotations", LAST_APPLIED_ANNOTATION).set(
+                applied);
+
+        IResource live;
+        try {
+            live = client.execute("GET", apiType.getPlural(), namespace, name,
+                    null, null);
+        } catch (NotFoundException e) {
+            live = null;
+        }
+        if (live == null) {
+            return makeRESTCall(chatty, listener, path, resource, overrides,
+                    client) ? Outcome.CREATED : Outcome.UNSUPPORTED;
+        }
+        if (hash.equals(live.getAnnotation(APPLIED_HASH_ANNOTATION))) {
+            return Outcome.UNCHANGED;
+        }
+
+        // a patch rather than a replace, so that what the api server filled
+        // in stays; it holds what changed since the last apply, so fields
+        // taken out of the definition go away. A resource that was not
+        // applied before has nothing to take out, so gets the definition
+        // merged in whole.
+        String lastApplied = live.getAnnotation(LAST_APPLIED_ANNOTATION);
+        ModelNode patch = lastApplied != null ? MergePatch.diff(
+                ModelNode.fromJSONString(lastApplied), wanted) : wanted;
+        patch.get("metadata", "annotations", APPLIED_HASH_ANNOTATION).set(hash);
+        patch.get("metadata", "annotations", LAST_APPLIED_ANNOTATION).set(
+                applied);
+        String url = client.getBaseURL().toString().replaceAll("/+$", "")
+                + apiType.getPath(namespace) + "/" + name;
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftCreator calling patch on "
+                            + apiType.getPlural() + " " + name + " with "
+                            + patch.toJSONString(true));
+        RawHttp.patch(client, apiType.getKind(), url,
+                "application/merge-patch+json", patch.toJSONString(true));
+        return Outcome.UPDATED;
+    }
+
     default boolean coreLogic(Launcher launcher, TaskListener listener,
             Map<String, String> overrides) {
         boolean chatty = Boolean.parseBoolean(getVerbose(overrides));
@@ -80,61 +173,43 @@ public interface IOpenShiftCreator extends IOpenShiftApiObjHandler {
                         getNamespace(overrides)));
         updateApiTypes(chatty, listener, overrides);
 
-        ModelNode resources = this.hydrateJsonYaml(getJsonyaml(overrides),
-                chatty ? listener : null);
-        if (resources == null) {
+        Iterator<ModelNode> items = this.streamJsonYaml(
+                getJsonyaml(overrides), chatty ? listener : null);
+        if (items == null) {
             return false;
         }
 
-        // cycle through json and POST to appropriate resource
-        String kind = resources.get("kind").asString();
-        int created = 0;
-        int failed = 0;
-        if (kind.equalsIgnoreCase("List")) {
-            List<ModelNode> list = resources.get("items").asList();
-            for (ModelNode node : list) {
-                String path = node.get("kind").asString();
-
-                boolean success = false;
-                try {
-                    success = this.makeRESTCall(chatty, listener, path, node,
-                            overrides);
-                } catch (Throwable t) {
-                    if (chatty)
-                        t.printStackTrace(listener.getLogger());
-                }
-
-                if (!success) {
-                    listener.getLogger().println(
-                            String.format(MessageConstants.FAILED_OBJ, path));
-                    failed++;
-                } else {
-                    listener.getLogger().println(
-                            String.format(MessageConstants.CREATED_OBJ, path));
-                    created++;
-                }
-            }
-        } else {
-            String path = kind;
-
-            boolean success = false;
-            try {
-                success = this.makeRESTCall(chatty, listener, path, resources,
-                        overrides);
-            } catch (Throwable t) {
-                if (chatty)
-                    t.printStackTrace(listener.getLogger());
-            }
-
-            if (success) {
-                listener.getLogger().println(
-                        String.format(MessageConstants.CREATED_OBJ, path));
-                created = 1;
-            } else {
-                listener.getLogger().println(
-                        String.format(MessageConstants.FAILED_OBJ, path));
-                failed = 1;
-            }
+        IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
+
+        if (client == null) {
+            return false;
+        }
+
+        // cycle through json and POST to appropriate resource, several at a
+        // time over the one client
+        int[] counts;
+        try {
+            counts = new BulkApply(this, listener, overrides, client, chatty)
+                    .apply(items);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            // a yaml document further down that does not parse
+            if (chatty)
+                e.printStackTrace(listener.getLogger());
+            listener.getLogger().println(e.getMessage());
+            return false;
+        }
+        int created = counts[0];
+        int failed = counts[1];
+
+        if (Boolean.parseBoolean(getApply(overrides))) {
+            listener.getLogger().println(
+                    String.format(failed > 0 ? MessageConstants.EXIT_APPLY_BAD
+                            : MessageConstants.EXIT_APPLY_GOOD, created,
+                            counts[2], counts[3], failed));
+            return failed == 0;
         }
 
         if (failed > 0) {
@@ -3,7 +3,7 @@ package com.openshift.jenkins.plugins.pipeline.model;
 import hudson.Launcher;
 import hudson.model.TaskListener;
 
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.jboss.dmr.ModelNode;
@@ -34,8 +34,8 @@ public interface IOpenShiftDeleterJsonYaml extends IOpenShiftApiObjHandler {
                         getNamespace(overrides)));
         updateApiTypes(chatty, listener, overrides);
 
-        ModelNode resources = this.hydrateJsonYaml(getJsonyaml(overrides),
-                chatty ? listener : null);
+        Iterator<ModelNode> resources = this.streamJsonYaml(
+                getJsonyaml(overrides), chatty ? listener : null);
         if (resources == null) {
             return false;
         }
@@ -44,13 +44,12 @@ public interface IOpenShiftDeleterJsonYaml extends IOpenShiftApiObjHandler {
         IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
 
         if (client != null) {
-            // cycle through json and POST to appropriate resource
-            String kind = resources.get("kind").asString();
+            // cycle through json and DELETE each resource as it is parsed
             int deletes = 0;
             int fails = 0;
-            if (kind.equalsIgnoreCase("List")) {
-                List<ModelNode> list = resources.get("items").asList();
-                for (ModelNode node : list) {
+            try {
+                while (resources.hasNext()) {
+                    ModelNode node = resources.next();
                     String path = node.get("kind").asString();
                     String name = node.get("metadata").get("name").asString();
                     String namespace = node.get("metadata").get("namespace")
@@ -65,24 +64,13 @@ public interface IOpenShiftDeleterJsonYaml extends IOpenShiftApiObjHandler {
                             null, chatty);
                     deletes = deletes + rc[0];
                     fails = fails + rc[1];
-
                 }
-            } else {
-                String path = kind;
-                String name = resources.get("metadata").get("name").asString();
-                String namespace = resources.get("metadata").get("namespace")
-                        .asString();
-                if (UNDEFINED.equals(namespace))
-                    namespace = getNamespace(overrides);
-
-                // rc[0] will be successful deletes, rc[1] will be failed
-                // deletes
-                int[] rc = new int[2];
-                rc = deleteAPIObjs(client, listener, namespace, path, name,
-                        null, chatty);
-                deletes = deletes + rc[0];
-                fails = fails + rc[1];
-
+            } catch (RuntimeException e) {
+                // a yaml document further down that does not parse
+                if (chatty)
+                    e.printStackTrace(listener.getLogger());
+                listener.getLogger().println(e.getMessage());
+                fails++;
             }
 
             if (fails > 0) {
@@ -39,6 +39,24 @@ public interface IOpenShiftDeleterLabels extends IOpenShiftApiObjHandler {
         return getOverride(getValues(), overrides);
     }
 
+    String getBulk();
+
+    String getPropagationPolicy();
+
+    String getWaitForDeletion();
+
+    default String getBulk(Map<String, String> overrides) {
+        return getOverride(getBulk(), overrides);
+    }
+
+    default String getPropagationPolicy(Map<String, String> overrides) {
+        return getOverride(getPropagationPolicy(), overrides);
+    }
+
+    default String getWaitForDeletion(Map<String, String> overrides) {
+        return getOverride(getWaitForDeletion(), overrides);
+    }
+
     default boolean coreLogic(Launcher launcher, TaskListener listener,
             Map<String, String> overrides) {
         boolean chatty = Boolean.parseBoolean(getVerbose(overrides));
@@ -53,9 +71,16 @@ public interface IOpenShiftDeleterLabels extends IOpenShiftApiObjHandler {
 
         if (client != null) {
             // verify valid type is specified
-            Set<String> types = OpenShiftApiObjHandler.apiMap.keySet();
+            Set<String> types = ApiTypeRegistry.getInstance()
+                    .getTypes(getApiURL(overrides)).keySet();
             String resourceKind = null;
             int deletes = 0;
+            int fails = 0;
+            BulkDelete bulk = null;
+            if (Boolean.parseBoolean(getBulk(overrides)))
+                bulk = new BulkDelete(this, listener, overrides, client,
+                        chatty, getPropagationPolicy(overrides),
+                        Boolean.parseBoolean(getWaitForDeletion(overrides)));
             String[] inputTypes = getTypes(overrides).split(",");
             String[] inputKeys = getKeys(overrides).split(",");
             String[] inputValues = getValues(overrides).split(",");
@@ -102,12 +127,31 @@ public interface IOpenShiftDeleterLabels extends IOpenShiftApiObjHandler {
 
                 // rc[0] will be successful deletes, rc[1] will be failed
                 // deletes, but no failed deletes in the labels scenario
+                // unless in bulk mode
                 int[] rc = new int[2];
-                rc = deleteAPIObjs(client, listener, getNamespace(overrides),
-                        resourceKind, null, listOfLabels, chatty);
+                if (bulk != null) {
+                    try {
+                        rc = bulk.delete(resourceKind, getNamespace(overrides),
+                                listOfLabels);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                } else {
+                    rc = deleteAPIObjs(client, listener,
+                            getNamespace(overrides), resourceKind, null,
+                            listOfLabels, chatty);
+                }
                 deletes = deletes + rc[0];
+                fails = fails + rc[1];
             }
 
+            if (fails > 0) {
+                listener.getLogger().println(
+                        String.format(MessageConstants.EXIT_DELETE_BAD,
+                                DISPLAY_NAME, deletes, fails));
+                return false;
+            }
             listener.getLogger().println(
                     String.format(MessageConstants.EXIT_DELETE_GOOD,
                             DISPLAY_NAME, deletes));
@@ -44,7 +44,8 @@ public interface IOpenShiftDeleterList extends IOpenShiftApiObjHandler {
 
         if (client != null) {
             // verify valid type is specified
-            Set<String> types = OpenShiftApiObjHandler.apiMap.keySet();
+            Set<String> types = ApiTypeRegistry.getInstance()
+                    .getTypes(getApiURL(overrides)).keySet();
             String resourceKind = null;
             int deletes = 0;
             int fails = 0;
@@ -1,7 +1,6 @@
 package com.openshift.jenkins.plugins.pipeline.model;
 
 import com.openshift.jenkins.plugins.pipeline.MessageConstants;
-import com.openshift.jenkins.plugins.pipeline.OpenShiftDeployCanceller;
 import com.openshift.restclient.IClient;
 import com.openshift.restclient.ResourceKind;
 import com.openshift.restclient.capability.CapabilityVisitor;
@@ -13,6 +12,7 @@ import hudson.Launcher;
 import hudson.model.TaskListener;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 public interface IOpenShiftDeployer extends ITimedOpenShiftPlugin {
@@ -33,6 +33,11 @@ public interface IOpenShiftDeployer extends ITimedOpenShiftPlugin {
         return getOverride(getDepCfg(), overrides);
     }
 
+    default String[] getInformerKinds() {
+        return new String[] { ResourceKind.DEPLOYMENT_CONFIG,
+                ResourceKind.REPLICATION_CONTROLLER };
+    }
+
     default boolean coreLogic(Launcher launcher, TaskListener listener,
             Map<String, String> overrides) throws InterruptedException {
         boolean chatty = Boolean.parseBoolean(getVerbose(overrides));
@@ -45,150 +50,218 @@ public interface IOpenShiftDeployer extends ITimedOpenShiftPlugin {
         IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
 
         if (client != null) {
-            long currTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
-            boolean deployDone = false;
-            boolean versionBumped = false;
-            String state = null;
-            IDeploymentConfig dc = null;
-            IDeploymentConfig newdc = null;
-            IReplicationController rc = null;
+            DeployProgress progress = new DeployProgress();
+            Boolean deployDone;
             long wait = getTimeout(listener, chatty, overrides);
-            while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) < (currTime + wait)) {
-                if (dc == null)
-                    dc = client.get(ResourceKind.DEPLOYMENT_CONFIG,
-                            getDepCfg(overrides), getNamespace(overrides));
-                if (dc != null) {
-                    if (!versionBumped) {
-                        // allow some retry in case the dc creation request
-                        // happened before this step ran
-                        try {
-                            final String dcName = dc.getName();
-                            newdc = dc
-                                    .accept(new CapabilityVisitor<IDeploymentTriggerable, IDeploymentConfig>() {
-
-                                        @Override
-                                        public IDeploymentConfig visit(
-                                                IDeploymentTriggerable triggerable) {
-                                            triggerable.setForce(true);
-                                            triggerable.setLatest(true);
-                                            triggerable.setResourceName(dcName);
-                                            return triggerable.trigger();
-                                        }
-
-                                    }, null);
-                            if (chatty)
-                                listener.getLogger()
-                                        .println(
-                                                "\nOpenShiftDeployer latest version now "
-                                                        + newdc.getLatestVersionNumber()
-                                                        + " and was "
-                                                        + dc.getLatestVersionNumber());
-                            versionBumped = newdc.getLatestVersionNumber() > dc
-                                    .getLatestVersionNumber();
-                        } catch (Throwable t) {
-                            if (chatty)
-                                t.printStackTrace(listener.getLogger());
-                        }
-                    }
+            try {
+                deployDone = StepPoller.getInstance().await(
+                        () -> deployAttempt(client, progress, listener,
+                                overrides, chatty), newBackoff(),
+                        System.currentTimeMillis() + wait);
+            } catch (InterruptedException e) {
+                // need to throw as this indicates the step as been
+                // cancelled
+                // also attempt to cancel deploy on openshift side
+                cancelDeployAfterInterrupt(listener, overrides);
+                throw e;
+            }
+            annotateDeployment(client, progress, listener, overrides, chatty);
+            return reportDeploy(deployDone, progress, listener, overrides);
+
+        } else {
+            return false;
+        }
+    }
+
+    default WaitStrategy getGlobalWaitStrategy() {
+        return GlobalConfig.getDeployWaitStrategy();
+    }
+
+    // the deployer used to wait 10 seconds between tries
+    default long getBaselinePollInterval() {
+        return TimeUnit.SECONDS.toMillis(10);
+    }
 
+    /**
+     * One pass of the deploy: has a new version of the deployment config
+     * triggered (see {@link #triggerDeployment}) if that has not happened yet,
+     * then checks the phase of its latest replication controller.
+     *
+     * @return true once the deployment completed, false if it failed, or null
+     *         to check again later
+     */
+    default Boolean deployAttempt(IClient client, DeployProgress progress,
+            TaskListener listener, Map<String, String> overrides, boolean chatty) {
+        IDeploymentConfig dc = StepPoller.getInstance().read(client,
+                ResourceKind.DEPLOYMENT_CONFIG, getDepCfg(overrides),
+                getNamespace(overrides));
+        if (dc == null)
+            return null;
+        progress.dcFound = true;
+        if (!progress.versionBumped) {
+            // the trigger is a one off POST, so it runs on a worker rather
+            // than in the attempt; until it takes, it is tried again, in case
+            // the dc creation request happened before this step ran
+            CompletableFuture<Void> trigger = progress.trigger;
+            if (trigger == null) {
+                progress.trigger = StepPoller.getInstance().submit(() -> {
+                    triggerDeployment(dc, progress, listener, chatty);
+                    return null;
+                });
+                return null;
+            }
+            if (!trigger.isDone())
+                return null;
+            progress.trigger = null;
+            if (trigger.isCompletedExceptionally()) {
+                if (chatty)
                     try {
-                        rc = getLatestReplicationController(newdc,
-                                getNamespace(overrides), client,
-                                chatty ? listener : null);
-                        if (chatty)
-                            listener.getLogger().println(
-                                    "\nOpenShiftDeployer returned rep ctrl "
-                                            + rc);
-                        if (rc != null) {
-                            annotateJobInfoToResource(client, listener, chatty,
-                                    overrides, rc);
-                            state = this.getReplicationControllerState(rc);
-                            if (this.isDeployFinished(state)) {
-                                if (state.equalsIgnoreCase(STATE_FAILED)) {
-                                    listener.getLogger()
-                                            .println(
-                                                    String.format(
-                                                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_BAD,
-                                                            DISPLAY_NAME,
-                                                            rc.getName(), state));
-                                    return false;
-                                }
-                                if (state.equalsIgnoreCase(STATE_COMPLETE)) {
-                                    deployDone = true;
-                                }
-                            } else {
-                                if (chatty)
-                                    listener.getLogger().println(
-                                            "\nOpenShiftDeploy current phase "
-                                                    + state);
-                            }
-                        } else {
-                            if (chatty)
-                                listener.getLogger()
-                                        .println(
-                                                "\nOpenShiftDeploy no rc for latest version yet");
-                        }
+                        trigger.join();
                     } catch (Throwable t) {
-                        if (chatty)
-                            t.printStackTrace(listener.getLogger());
+                        t.printStackTrace(listener.getLogger());
                     }
+                return null;
+            }
+        }
+        // after a restart, the deployment config read above already has the
+        // bumped version
+        IDeploymentConfig newdc = progress.newdc;
+        if (newdc == null && progress.versionBumped)
+            newdc = dc;
+        if (newdc == null)
+            return null;
 
-                    if (deployDone) {
-                        break;
-                    } else {
-                        if (chatty)
-                            listener.getLogger()
-                                    .println(
-                                            "\nOpenShiftDeployer wait 10 seconds, then try oc deploy again");
-                        try {
-                            Thread.sleep(10000);
-                        } catch (InterruptedException e) {
-                            // need to throw as this indicates the step as been
-                            // cancelled
-                            // also attempt to cancel deploy on openshift side
-                            OpenShiftDeployCanceller canceller = new OpenShiftDeployCanceller(
-                                    getApiURL(overrides), getDepCfg(overrides),
-                                    getNamespace(overrides),
-                                    getAuthToken(overrides),
-                                    getVerbose(overrides));
-                            canceller.setAuth(getAuth());
-                            canceller.coreLogic(null, listener, overrides);
-                            throw e;
-                        }
+        try {
+            IReplicationController rc = getLatestReplicationController(newdc,
+                    getNamespace(overrides), client, chatty ? listener : null);
+            if (chatty)
+                listener.getLogger().println(
+                        "\nOpenShiftDeployer returned rep ctrl " + rc);
+            if (rc != null) {
+                progress.rcName = rc.getName();
+                progress.rc = rc;
+                String state = this.getReplicationControllerState(rc);
+                progress.state = state;
+                if (this.isDeployFinished(state)) {
+                    if (state.equalsIgnoreCase(STATE_FAILED)) {
+                        listener.getLogger()
+                                .println(
+                                        String.format(
+                                                MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_BAD,
+                                                DISPLAY_NAME, rc.getName(),
+                                                state));
+                        return false;
                     }
-
+                    if (state.equalsIgnoreCase(STATE_COMPLETE)) {
+                        return true;
+                    }
+                } else {
+                    if (chatty)
+                        listener.getLogger().println(
+                                "\nOpenShiftDeploy current phase " + state);
                 }
+            } else {
+                if (chatty)
+                    listener.getLogger().println(
+                            "\nOpenShiftDeploy no rc for latest version yet");
             }
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+        }
+        return null;
+    }
 
-            if (!deployDone) {
-                if (newdc != null)
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_TRIGGER_TIMED_OUT,
-                                            DISPLAY_NAME,
-                                            (rc != null ? rc.getName()
-                                                    : "<deployment not found>"),
-                                            state));
-                else
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_NO_CFG,
-                                            DISPLAY_NAME, getDepCfg(overrides)));
-                return false;
-            }
+    /**
+     * Triggers a new version of the deployment config dc, and notes in
+     * progress whether the latest version went up.
+     */
+    default void triggerDeployment(IDeploymentConfig dc,
+            DeployProgress progress, TaskListener listener, boolean chatty) {
+        final String dcName = dc.getName();
+        IDeploymentConfig newdc = dc
+                .accept(new CapabilityVisitor<IDeploymentTriggerable, IDeploymentConfig>() {
 
-            listener.getLogger()
-                    .println(
-                            String.format(
-                                    MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_GOOD_REPLICAS_IGNORED,
-                                    DISPLAY_NAME, rc.getName()));
-            return true;
+                    @Override
+                    public IDeploymentConfig visit(
+                            IDeploymentTriggerable triggerable) {
+                        triggerable.setForce(true);
+                        triggerable.setLatest(true);
+                        triggerable.setResourceName(dcName);
+                        return triggerable.trigger();
+                    }
 
-        } else {
+                }, null);
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftDeployer latest version now "
+                            + newdc.getLatestVersionNumber() + " and was "
+                            + dc.getLatestVersionNumber());
+        progress.newdc = newdc;
+        progress.versionBumped = newdc.getLatestVersionNumber() > dc
+                .getLatestVersionNumber();
+    }
+
+    /**
+     * Annotates the replication controller the deploy got to with the job's
+     * info; done once the wait is over, as the update sleeps and retries on a
+     * conflict.
+     */
+    default void annotateDeployment(IClient client, DeployProgress progress,
+            TaskListener listener, Map<String, String> overrides,
+            boolean chatty) {
+        if (progress.rcName == null)
+            return;
+        try {
+            IReplicationController rc = progress.rc;
+            if (rc == null)
+                rc = client.get(ResourceKind.REPLICATION_CONTROLLER,
+                        progress.rcName, getNamespace(overrides));
+            annotateJobInfoToResource(client, listener, chatty, overrides, rc);
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+        }
+    }
+
+    /**
+     * Reports how the deploy ended, where deployDone is what the last
+     * {@link #deployAttempt} returned (null if the wait timed out).
+     */
+    default boolean reportDeploy(Boolean deployDone, DeployProgress progress,
+            TaskListener listener, Map<String, String> overrides) {
+        if (deployDone == null) {
+            if (progress.dcFound)
+                listener.getLogger()
+                        .println(
+                                String.format(
+                                        MessageConstants.EXIT_DEPLOY_TRIGGER_TIMED_OUT,
+                                        DISPLAY_NAME,
+                                        (progress.rcName != null ? progress.rcName
+                                                : "<deployment not found>"),
+                                        progress.state));
+            else
+                listener.getLogger()
+                        .println(
+                                String.format(
+                                        MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_NO_CFG,
+                                        DISPLAY_NAME, getDepCfg(overrides)));
             return false;
         }
+        if (!deployDone)
+            return false;
+
+        listener.getLogger()
+                .println(
+                        String.format(
+                                MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_GOOD_REPLICAS_IGNORED,
+                                DISPLAY_NAME, progress.rcName));
+        return true;
+    }
+
+    default void cancelDeployAfterInterrupt(TaskListener listener,
+            Map<String, String> overrides) {
+        cancelDeployAfterInterrupt(listener, overrides, getDepCfg(overrides));
     }
 
 }
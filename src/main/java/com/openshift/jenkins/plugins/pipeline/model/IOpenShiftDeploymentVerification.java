@@ -1,7 +1,6 @@
 package com.openshift.jenkins.plugins.pipeline.model;
 
 import com.openshift.jenkins.plugins.pipeline.MessageConstants;
-import com.openshift.jenkins.plugins.pipeline.OpenShiftDeployCanceller;
 import com.openshift.restclient.IClient;
 import com.openshift.restclient.ResourceKind;
 import com.openshift.restclient.model.IDeploymentConfig;
@@ -11,7 +10,6 @@ import hudson.Launcher;
 import hudson.model.TaskListener;
 
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 public interface IOpenShiftDeploymentVerification extends ITimedOpenShiftPlugin {
 
@@ -31,6 +29,10 @@ public interface IOpenShiftDeploymentVerification extends ITimedOpenShiftPlugin
         return GlobalConfig.getDeployVerifyWait();
     }
 
+    default WaitStrategy getGlobalWaitStrategy() {
+        return GlobalConfig.getDeployVerifyWaitStrategy();
+    }
+
     default String getDepCfg(Map<String, String> overrides) {
         return getOverride(getDepCfg(), overrides);
     }
@@ -43,11 +45,14 @@ public interface IOpenShiftDeploymentVerification extends ITimedOpenShiftPlugin
         return getOverride(getVerifyReplicaCount(), overrides);
     }
 
+    default String[] getInformerKinds() {
+        return new String[] { ResourceKind.DEPLOYMENT_CONFIG,
+                ResourceKind.REPLICATION_CONTROLLER };
+    }
+
     default boolean coreLogic(Launcher launcher, TaskListener listener,
             Map<String, String> overrides) throws InterruptedException {
         boolean chatty = Boolean.parseBoolean(getVerbose(overrides));
-        boolean checkCount = Boolean
-                .parseBoolean(getVerifyReplicaCount(overrides));
         listener.getLogger().println(
                 String.format(MessageConstants.START_DEPLOY_RELATED_PLUGINS,
                         DISPLAY_NAME, getDepCfg(overrides),
@@ -57,161 +62,185 @@ public interface IOpenShiftDeploymentVerification extends ITimedOpenShiftPlugin
         IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
 
         if (client != null) {
-            // explicitly set replica count, save that
-            int count = -1;
-            if (checkCount && getReplicaCount(overrides) != null
-                    && getReplicaCount(overrides).length() > 0)
-                count = Integer.parseInt(getReplicaCount(overrides));
+            DeployProgress progress = new DeployProgress();
+            startDeploymentVerify(progress, listener, overrides);
 
+            // confirm the deployment has kicked in from completed build;
+            // in testing with the jenkins-ci sample, the initial deploy after
+            // a build is kinda slow ... gotta wait more than one minute
+            long wait = getTimeout(listener, chatty, overrides);
+            Boolean scaledAppropriately;
+            try {
+                scaledAppropriately = StepPoller.getInstance().await(
+                        () -> verifyDeploymentAttempt(client, progress,
+                                listener, overrides, chatty),
+                        newBackoff(),
+                        System.currentTimeMillis() + wait);
+            } catch (InterruptedException e) {
+                // need to throw as this indicates the step as been
+                // cancelled
+                // also attempt to cancel deploy on openshift side
+                cancelDeployAfterInterrupt(listener, overrides,
+                        getDepCfg(overrides));
+                throw e;
+            }
+            return reportDeploymentVerify(scaledAppropriately, progress,
+                    listener, overrides);
+
+        } else {
+            return false;
+        }
+
+    }
+
+    /**
+     * Takes the replica count to check for, if one is given, and says what
+     * the step waits on.
+     */
+    default void startDeploymentVerify(DeployProgress progress,
+            TaskListener listener, Map<String, String> overrides) {
+        boolean checkCount = Boolean
+                .parseBoolean(getVerifyReplicaCount(overrides));
+        // explicitly set replica count, save that
+        if (checkCount && getReplicaCount(overrides) != null
+                && getReplicaCount(overrides).length() > 0)
+            progress.count = Integer.parseInt(getReplicaCount(overrides));
+
+        if (!checkCount)
+            listener.getLogger().println(
+                    String.format(MessageConstants.WAITING_ON_DEPLOY,
+                            getDepCfg(overrides)));
+        else
+            listener.getLogger()
+                    .println(
+                            String.format(
+                                    MessageConstants.WAITING_ON_DEPLOY_PLUS_REPLICAS,
+                                    getDepCfg(overrides),
+                                    getReplicaCount(overrides)));
+    }
+
+    /**
+     * Reports how the verification ended, where scaledAppropriately is what
+     * the last {@link #verifyDeploymentAttempt} returned (null if the wait
+     * timed out).
+     */
+    default boolean reportDeploymentVerify(Boolean scaledAppropriately,
+            DeployProgress progress, TaskListener listener,
+            Map<String, String> overrides) {
+        boolean checkCount = Boolean
+                .parseBoolean(getVerifyReplicaCount(overrides));
+        if (scaledAppropriately != null && !scaledAppropriately)
+            return false;
+
+        if (scaledAppropriately != null) {
             if (!checkCount)
-                listener.getLogger().println(
-                        String.format(MessageConstants.WAITING_ON_DEPLOY,
-                                getDepCfg(overrides)));
+                listener.getLogger()
+                        .println(
+                                String.format(
+                                        MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_GOOD_REPLICAS_IGNORED,
+                                        DISPLAY_NAME, progress.rcName));
             else
                 listener.getLogger()
                         .println(
                                 String.format(
-                                        MessageConstants.WAITING_ON_DEPLOY_PLUS_REPLICAS,
-                                        getDepCfg(overrides),
+                                        MessageConstants.EXIT_DEPLOY_VERIFY_GOOD_REPLICAS_GOOD,
+                                        DISPLAY_NAME, progress.rcName,
+                                        progress.count));
+            return true;
+        } else {
+            if (checkCount)
+                listener.getLogger()
+                        .println(
+                                String.format(
+                                        MessageConstants.EXIT_DEPLOY_VERIFY_BAD_REPLICAS_BAD,
+                                        DISPLAY_NAME, progress.rcName,
+                                        progress.state,
                                         getReplicaCount(overrides)));
+            else
+                listener.getLogger()
+                        .println(
+                                String.format(
+                                        MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_BAD,
+                                        DISPLAY_NAME, progress.rcName,
+                                        progress.state));
+            return false;
+        }
+    }
 
-            // confirm the deployment has kicked in from completed build;
-            // in testing with the jenkins-ci sample, the initial deploy after
-            // a build is kinda slow ... gotta wait more than one minute
-            long currTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
-            String state = null;
-            String depId = null;
-            boolean scaledAppropriately = false;
-            long wait = getTimeout(listener, chatty, overrides);
-            while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) < (currTime + wait)) {
-                // refresh dc first
-                IDeploymentConfig dc = client.get(
-                        ResourceKind.DEPLOYMENT_CONFIG, getDepCfg(overrides),
-                        getNamespace(overrides));
-
-                if (dc != null) {
-                    // if replicaCount not set, get it from config
-                    if (checkCount && count == -1)
-                        count = dc.getReplicas();
-
-                    if (chatty)
-                        listener.getLogger().println(
-                                "\nOpenShiftDeploymentVerifier latest version:  "
-                                        + dc.getLatestVersionNumber());
-
-                    IReplicationController rc = getLatestReplicationController(
-                            dc, getNamespace(overrides), client,
-                            chatty ? listener : null);
-
-                    if (rc != null) {
-                        if (chatty)
-                            listener.getLogger().println(
-                                    "\nOpenShiftDeploymentVerifier current rc "
-                                            + rc);
-                        state = this.getReplicationControllerState(rc);
-                        if (this.isDeployFinished(state)) {
-                            depId = rc.getName();
-                            // first check state
-                            if (state.equalsIgnoreCase(STATE_FAILED)) {
-                                listener.getLogger()
-                                        .println(
-                                                String.format(
-                                                        MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_BAD,
-                                                        DISPLAY_NAME,
-                                                        getDepCfg(overrides),
-                                                        state));
-                                return false;
-                            }
-                            if (chatty)
-                                listener.getLogger().println(
-                                        "\nOpenShiftDeploymentVerifier rc current count "
-                                                + rc.getCurrentReplicaCount()
-                                                + " rc desired count "
-                                                + rc.getDesiredReplicaCount()
-                                                + " step verification amount "
-                                                + count + " current state "
-                                                + state + " and check count "
-                                                + checkCount);
-
-                            scaledAppropriately = this
-                                    .isReplicationControllerScaledAppropriately(
-                                            rc, checkCount, count);
-                            if (scaledAppropriately)
-                                break;
-                        } else {
-                            if (chatty)
-                                listener.getLogger().println(
-                                        "\nOpenShiftDeploymentVerifier current phase "
-                                                + state);
-                        }
-
-                    } else {
-                        if (chatty)
-                            listener.getLogger()
-                                    .println(
-                                            "\nOpenShiftDeploymenVerifier no rc for latest version yet");
-                    }
-                } else {
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_NO_CFG,
-                                            DISPLAY_NAME, getDepCfg(overrides)));
-                    return false;
-                }
-
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    // need to throw as this indicates the step as been
-                    // cancelled
-                    // also attempt to cancel deploy on openshift side
-                    OpenShiftDeployCanceller canceller = new OpenShiftDeployCanceller(
-                            getApiURL(overrides), getDepCfg(overrides),
-                            getNamespace(overrides), getAuthToken(overrides),
-                            getVerbose(overrides));
-                    canceller.setAuth(getAuth());
-                    canceller.coreLogic(null, listener, overrides);
-                    throw e;
-                }
+    /**
+     * One check of the deployment config's latest replication controller.
+     *
+     * @return true once it is complete and scaled appropriately, false if it
+     *         failed or the deployment config does not exist, or null to check
+     *         again later
+     */
+    default Boolean verifyDeploymentAttempt(IClient client,
+            DeployProgress progress, TaskListener listener,
+            Map<String, String> overrides, boolean chatty) {
+        boolean checkCount = Boolean
+                .parseBoolean(getVerifyReplicaCount(overrides));
+        // refresh dc first
+        IDeploymentConfig dc = StepPoller.getInstance().read(client,
+                ResourceKind.DEPLOYMENT_CONFIG, getDepCfg(overrides),
+                getNamespace(overrides));
+
+        if (dc == null) {
+            listener.getLogger().println(
+                    String.format(
+                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_NO_CFG,
+                            DISPLAY_NAME, getDepCfg(overrides)));
+            return false;
+        }
+        // if replicaCount not set, get it from config
+        if (checkCount && progress.count == -1)
+            progress.count = dc.getReplicas();
 
-            }
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftDeploymentVerifier latest version:  "
+                            + dc.getLatestVersionNumber());
 
-            if (scaledAppropriately) {
-                if (!checkCount)
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_GOOD_REPLICAS_IGNORED,
-                                            DISPLAY_NAME, depId));
-                else
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_VERIFY_GOOD_REPLICAS_GOOD,
-                                            DISPLAY_NAME, depId, count));
-                return true;
-            } else {
-                if (checkCount)
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_VERIFY_BAD_REPLICAS_BAD,
-                                            DISPLAY_NAME, depId, state,
-                                            getReplicaCount(overrides)));
-                else
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_BAD,
-                                            DISPLAY_NAME, depId, state));
-                return false;
-            }
+        IReplicationController rc = getLatestReplicationController(dc,
+                getNamespace(overrides), client, chatty ? listener : null);
 
-        } else {
+        if (rc == null) {
+            if (chatty)
+                listener.getLogger().println(
+                        "\nOpenShiftDeploymenVerifier no rc for latest version yet");
+            return null;
+        }
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftDeploymentVerifier current rc " + rc);
+        String state = this.getReplicationControllerState(rc);
+        progress.state = state;
+        if (!this.isDeployFinished(state)) {
+            if (chatty)
+                listener.getLogger().println(
+                        "\nOpenShiftDeploymentVerifier current phase " + state);
+            return null;
+        }
+        progress.rcName = rc.getName();
+        // first check state
+        if (state.equalsIgnoreCase(STATE_FAILED)) {
+            listener.getLogger().println(
+                    String.format(
+                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_BAD,
+                            DISPLAY_NAME, getDepCfg(overrides), state));
             return false;
         }
-
+        if (chatty)
+            listener.getLogger().println(
+                    "\nOpenShiftDeploymentVerifier rc current count "
+                            + rc.getCurrentReplicaCount()
+                            + " rc desired count "
+                            + rc.getDesiredReplicaCount()
+                            + " step verification amount " + progress.count
+                            + " current state " + state + " and check count "
+                            + checkCount);
+
+        return this.isReplicationControllerScaledAppropriately(rc,
+                checkCount, progress.count) ? Boolean.TRUE : null;
     }
 
 }
@@ -274,7 +274,7 @@ public interface IOpenShiftImageTagger extends IOpenShiftPlugin {
 
                         OpenShiftCreator isCreator = new OpenShiftCreator(
                                 getApiURL(newOverrides), destNS, token, ""
-                                        + chatty, createJson);
+                                        + chatty, createJson, "false");
                         isCreator.setAuth(Auth.createInstance(chatty ? listener
                                 : null, getApiURL(newOverrides), overrides));
 
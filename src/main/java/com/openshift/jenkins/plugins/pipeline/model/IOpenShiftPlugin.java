@@ -1,23 +1,17 @@
 package com.openshift.jenkins.plugins.pipeline.model;
 
-import com.openshift.internal.restclient.DefaultClient;
-import com.openshift.internal.restclient.authorization.AuthorizationContext;
 import com.openshift.internal.restclient.model.DeploymentConfig;
-import com.openshift.internal.restclient.okhttp.OpenShiftAuthenticator;
-import com.openshift.internal.restclient.okhttp.ResponseCodeInterceptor;
 import com.openshift.jenkins.plugins.pipeline.Auth;
+import com.openshift.jenkins.plugins.pipeline.CredentialCache;
 import com.openshift.jenkins.plugins.pipeline.MessageConstants;
 import com.openshift.jenkins.plugins.pipeline.OpenShiftBuildCanceller;
-import com.openshift.restclient.ClientBuilder;
+import com.openshift.jenkins.plugins.pipeline.OpenShiftDeployCanceller;
 import com.openshift.restclient.IClient;
 import com.openshift.restclient.OpenShiftException;
 import com.openshift.restclient.ResourceKind;
-import com.openshift.restclient.http.IHttpConstants;
 import com.openshift.restclient.model.*;
 import com.openshift.restclient.model.deploy.IDeploymentImageChangeTrigger;
 import com.openshift.restclient.model.deploy.IDeploymentTrigger;
-import com.openshift.restclient.model.route.IRoute;
-import com.openshift.restclient.utils.SSLUtils;
 
 import hudson.AbortException;
 import hudson.EnvVars;
@@ -25,24 +19,17 @@ import hudson.FilePath;
 import hudson.Launcher;
 import hudson.model.*;
 import io.fabric8.jenkins.openshiftsync.BuildCause;
-import okhttp3.Dispatcher;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
 import org.jboss.dmr.ModelNode;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.X509TrustManager;
-
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
@@ -84,6 +71,9 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
     public static final String STATE_CANCELLED = "Cancelled";
     public static final String STATE_ERROR = "Error";
     public static final String STATE_FAILED = "Failed";
+    // not a phase of the build's; what we report for a build that was
+    // deleted (i.e. by a user, or pruned) while a step waited on it
+    public static final String STATE_DELETED = "Deleted";
 
     String getBaseClassName();
 
@@ -135,7 +125,7 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
                 val = overrides.get(NAMESPACE_ENV_VAR);
             else {
                 File f = new File(NAMESPACE_FILE);
-                if (f.exists())
+                if (CredentialCache.getInstance().exists(f))
                     val = Auth.pullTokenFromFile(f, null);
             }
         }
@@ -154,20 +144,27 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
 
     default IClient getClient(TaskListener listener, String displayName,
             Map<String, String> overrides, String token) {
-        Auth auth = getAuth();
-        ClientBuilder cb = new ClientBuilder(getApiURL(overrides))
-                .sslCertificateCallback(auth)
-                .usingToken(token)
-                .sslCertificateCollection(getApiURL(overrides), auth.getCerts());
-        if (auth.useCert())
-            cb.sslCertCallbackWithDefaultHostnameVerifier(true);
-        IClient client = cb.build();
+        // clients, along with their connection pools, are shared across steps
+        // talking to the same api server with the same credentials; a token
+        // read from a file may be rotated, which retires the client for the
+        // file's previous token
+        String source = Auth.deriveTokenSource(getAuthToken(overrides),
+                overrides);
+        if (source != null
+                && !Objects.equals(token,
+                        Auth.pullTokenFromFile(new File(source), null)))
+            source = null;
+        IClient client = ClientCache.getInstance().getClient(
+                getApiURL(overrides), token, getAuth(), source);
         if (client == null) {
             listener.getLogger().println(
                     String.format(MessageConstants.CANNOT_GET_CLIENT,
                             displayName, getApiURL(overrides)));
         }
-        return new RetryIClient(client, listener);
+        RetryIClient retrying = new RetryIClient(client, listener);
+        // so the shared client is not closed while the step holds it
+        ClientCache.getInstance().usedBy(client, retrying);
+        return retrying;
     }
 
     // TODO move to openshift-restclient-java IReplicationController
@@ -266,34 +263,26 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         // guarantee perspective
         if (jobName != null && buildNum != null) {
             jobName = jobName.replace(" ", "%20");
-            IClient client = getClient(listener, getDisplayName(), overrides);
-            List<IRoute> routes = new ArrayList<IRoute>();
+            // the jenkins route rarely changes, so it is cached, and the
+            // client is only needed on a miss
+            String base = null;
             try {
-                routes = client.list(ResourceKind.ROUTE,
-                        getNamespace(overrides));
+                String token = Auth.deriveBearerToken(getAuthToken(overrides),
+                        listener, Boolean.getBoolean(getVerbose(overrides)),
+                        overrides);
+                base = JenkinsRouteCache.getInstance().get(
+                        () -> getClient(listener, getDisplayName(), overrides,
+                                token), getApiURL(overrides),
+                        getNamespace(overrides), token,
+                        JenkinsRouteCache.getTTL(overrides));
             } catch (Throwable t) {
                 if (chatty)
                     t.printStackTrace(listener.getLogger());
             }
-            for (IRoute route : routes) {
-                if (route.getServiceName().equals("jenkins")) {
-                    String base = route.getURL();
-                    if (!base.endsWith("/"))
-                        base = base + "/";
-                    overrides.put(BUILD_URL_ENV_KEY, base + "job/" + jobName
-                            + "/" + buildNum + "/");
-                    break;
-                }
-            }
-
-            if (!overrides.containsKey(BUILD_URL_ENV_KEY))
-                overrides
-                        .put(BUILD_URL_ENV_KEY, Jenkins.getInstance()
-                                .getRootUrl()
-                                + "job/"
-                                + jobName
-                                + "/"
-                                + buildNum + "/");
+            if (base == null)
+                base = Jenkins.getInstance().getRootUrl();
+            overrides.put(BUILD_URL_ENV_KEY, base + "job/" + jobName + "/"
+                    + buildNum + "/");
         } else {
             if (chatty)
                 listener.getLogger()
@@ -310,7 +299,41 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
             AbstractBuild<?, ?> build, Launcher launcher)
             throws InterruptedException {
         boolean chatty = Boolean.parseBoolean(getVerbose());
-        
+        StepTimeline timeline = new StepTimeline(getDisplayName());
+        StepTimeline previous = timeline.attach();
+        try {
+            Map<String, String> overrides = prepare(listener, env, run, build,
+                    launcher, chatty);
+
+            timeline.phase(StepTimeline.Phase.CORE);
+            List<ResourceInformer.Lease> leases = subscribeInformers(listener,
+                    overrides, chatty);
+            try {
+                boolean rc = coreLogic(launcher, listener, overrides);
+                return rc;
+            } catch (Throwable t) {
+                t.printStackTrace(listener.getLogger());
+                return false;
+            } finally {
+                for (ResourceInformer.Lease lease : leases) {
+                    lease.close();
+                }
+            }
+        } finally {
+            timeline.end(listener);
+            StepTimeline.restore(previous);
+        }
+    }
+
+    // the set up shared by doItCore and the asynchronous pipeline step
+    // executions: consolidates the parameters and sets up the auth; each part
+    // is timed as a phase of the step's timeline, if any
+    default Map<String, String> prepare(TaskListener listener, EnvVars env,
+            Run<?, ?> run, AbstractBuild<?, ?> build, Launcher launcher,
+            boolean chatty) {
+        StepTimeline timeline = StepTimeline.current();
+        if (timeline != null)
+            timeline.phase(StepTimeline.Phase.ENV);
         listener.getLogger().println("NOTE: steps like this one from the OpenShift Pipeline Plugin" +
         " will not be supported against OpenShift API Servers later than v3.11");
 
@@ -338,6 +361,8 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         Map<String, String> overrides = consolidateEnvVars(listener, env, run,
                 build, launcher, chatty);
 
+        if (timeline != null)
+            timeline.phase(StepTimeline.Phase.AUTH);
         setAuth(Auth.createInstance(chatty ? listener : null,
                 getApiURL(overrides), overrides));
         // setToken(new TokenAuthorizationStrategy(Auth.deriveBearerToken(build
@@ -347,6 +372,8 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         // instance is set up if we need
         // to set up the BUILD_URL
         if (!overrides.containsKey(BUILD_URL_ENV_KEY)) {
+            if (timeline != null)
+                timeline.phase(StepTimeline.Phase.BUILD_URL);
             overrides = constructBuildUrl(listener, overrides, chatty);
         }
 
@@ -354,14 +381,36 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
             listener.getLogger().println(
                     "\n\nOpenShift Pipeline Plugin: env vars for this job:  "
                             + overrides);
+        return overrides;
+    }
 
+    // the resource kinds this step reads repeatedly from its namespace; while
+    // the step runs, those reads are served from informers shared with every
+    // other step against the same namespace (see SharedInformers)
+    default String[] getInformerKinds() {
+        return new String[0];
+    }
+
+    default List<ResourceInformer.Lease> subscribeInformers(
+            TaskListener listener, Map<String, String> overrides,
+            boolean chatty) {
+        List<ResourceInformer.Lease> leases = new ArrayList<ResourceInformer.Lease>();
+        String[] kinds = getInformerKinds();
+        if (kinds.length == 0)
+            return leases;
         try {
-            boolean rc = coreLogic(launcher, listener, overrides);
-            return rc;
+            IClient client = getClient(listener, getDisplayName(), overrides);
+            for (String kind : kinds) {
+                leases.add(SharedInformers.getInstance().subscribe(client,
+                        getNamespace(overrides), kind));
+            }
         } catch (Throwable t) {
-            t.printStackTrace(listener.getLogger());
-            return false;
+            // the informers are an optimization; reads fall back to the api
+            // server
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
         }
+        return leases;
     }
 
     public String getDisplayName();
@@ -392,12 +441,22 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         if (bldState != null
                 && (bldState.equals(STATE_COMPLETE)
                         || bldState.equals(STATE_FAILED)
-                        || bldState.equals(STATE_ERROR) || bldState
-                            .equals(STATE_CANCELLED)))
+                        || bldState.equals(STATE_ERROR)
+                        || bldState.equals(STATE_CANCELLED) || bldState
+                            .equals(STATE_DELETED)))
             return true;
         return false;
     }
 
+    /**
+     * @return the phase of the build, or {@link #STATE_DELETED} if it is gone,
+     *         as it will not finish then
+     */
+    default String getBuildState(IClient client, String bldId,
+            String namespace) {
+        return BuildWatch.readState(client, bldId, namespace);
+    }
+
     default boolean isDeployFinished(String deployState) {
         if (deployState != null
                 && (deployState.equals(STATE_FAILED) || deployState
@@ -406,36 +465,116 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         return false;
     }
 
+    // called when a step waiting on a build has been interrupted (i.e. the
+    // Jenkins job was aborted); attempt to cancel the build on the openshift
+    // side as well
+    default void cancelBuildAfterInterrupt(TaskListener listener,
+            Map<String, String> env, String bldCfg) {
+        cancelBuildAfterInterrupt(listener, env, bldCfg, null);
+    }
+
+    // as above, but when the step knows which build it was waiting on, only
+    // that build is cancelled
+    default void cancelBuildAfterInterrupt(TaskListener listener,
+            Map<String, String> env, String bldCfg, String bldId) {
+        OpenShiftBuildCanceller canceller = new OpenShiftBuildCanceller(
+                getApiURL(env), getNamespace(env), getAuthToken(env),
+                getVerbose(env), bldCfg);
+        canceller.setAuth(getAuth());
+        if (bldId != null)
+            canceller.cancelBuild(listener, env, bldId);
+        else
+            canceller.coreLogic(null, listener, env);
+    }
+
+    default void cancelDeployAfterInterrupt(TaskListener listener,
+            Map<String, String> env, String depCfg) {
+        OpenShiftDeployCanceller canceller = new OpenShiftDeployCanceller(
+                getApiURL(env), depCfg, getNamespace(env), getAuthToken(env),
+                getVerbose(env));
+        canceller.setAuth(getAuth());
+        canceller.coreLogic(null, listener, env);
+    }
+
+    /**
+     * @return the intervals for one wait of this step, whose cost is recorded
+     *         in the {@link WaitStats} of the named wait, set against the
+     *         fixed interval (baseline) the wait used to sleep
+     */
+    default StepPoller.Backoff newBackoff(String wait, long baseline) {
+        WaitStrategy strategy = WaitStrategies.getDefault();
+        return new StepPoller.Backoff(strategy, WaitStats.get(wait,
+                strategy.getName()), baseline);
+    }
+
     default boolean verifyBuild(long startTime, long wait, IClient client,
             String bldCfg, String bldId, String namespace, boolean chatty,
             TaskListener listener, String displayName, boolean checkDeps,
             boolean annotateRC, Map<String, String> env)
             throws InterruptedException {
-        String bldState = null;
-        while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) < (startTime + wait)) {
-            IBuild bld = client.get(ResourceKind.BUILD, bldId, namespace);
-            bldState = bld.getStatus();
-            if (chatty)
-                listener.getLogger().println(
-                        "\nOpenShiftBuilder post bld launch bld state:  "
-                                + bldState);
+        // after waitOnBuild, or the wait of an asynchronous step, the build
+        // has finished, so look first; the watch lists the namespace's builds
+        String bldState = bldId != null ? getBuildState(client, bldId,
+                namespace) : null;
+        BuildWatch watch = null;
+        try {
             if (!isBuildFinished(bldState)) {
                 try {
-                    Thread.sleep(1000);
+                    watch = BuildWatch.start(client, namespace, bldId,
+                            listener, chatty, env);
+                } catch (InterruptedException e) {
+                    cancelBuildAfterInterrupt(listener, env, bldCfg, bldId);
+                    throw e;
+                }
+            }
+            if (watch == null && !isBuildFinished(bldState)) {
+                // no watch, so poll along with every other waiting step
+                String[] polled = new String[1];
+                try {
+                    StepPoller.getInstance().await(
+                            () -> {
+                                polled[0] = getBuildState(client, bldId,
+                                        namespace);
+                                if (chatty)
+                                    listener.getLogger().println(
+                                            "\nOpenShiftBuilder post bld launch bld state:  "
+                                                    + polled[0]);
+                                return isBuildFinished(polled[0]) ? true
+                                        : null;
+                            },
+                            newBackoff(displayName,
+                                    TimeUnit.SECONDS.toMillis(1)),
+                            System.currentTimeMillis() + (startTime + wait)
+                                    - TimeUnit.NANOSECONDS.toMillis(System
+                                            .nanoTime()));
                 } catch (InterruptedException e) {
                     // need to throw as this indicates the step as been
                     // cancelled
                     // also attempt to cancel build on openshift side
-                    OpenShiftBuildCanceller canceller = new OpenShiftBuildCanceller(
-                            getApiURL(env), getNamespace(env),
-                            getAuthToken(env), getVerbose(env), bldCfg);
-                    canceller.setAuth(getAuth());
-                    canceller.coreLogic(null, listener, env);
+                    cancelBuildAfterInterrupt(listener, env, bldCfg, bldId);
                     throw e;
                 }
-            } else {
-                break;
+                bldState = polled[0];
+            }
+            while (watch != null
+                    && TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) < (startTime + wait)) {
+                try {
+                    bldState = watch.awaitChange(bldState, (startTime + wait)
+                            - TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+                } catch (InterruptedException e) {
+                    cancelBuildAfterInterrupt(listener, env, bldCfg, bldId);
+                    throw e;
+                }
+                if (chatty)
+                    listener.getLogger().println(
+                            "\nOpenShiftBuilder post bld launch bld state:  "
+                                    + bldState);
+                if (isBuildFinished(bldState))
+                    break;
             }
+        } finally {
+            if (watch != null)
+                watch.stop();
         }
         if (bldState == null || !bldState.equals(STATE_COMPLETE)) {
             String displayState = bldState;
@@ -513,31 +652,34 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
     default boolean didICTCauseDeployment(IClient client, IDeploymentConfig dc,
             String imageTag, boolean chatty, TaskListener listener, long wait)
             throws InterruptedException {
-        long currTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
-        while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) - (wait / 3) <= currTime) {
-            dc = client.get(ResourceKind.DEPLOYMENT_CONFIG, dc.getName(),
-                    dc.getNamespace());
-            if (!dc.didImageTrigger(imageTag)) {
-                if (chatty)
-                    listener.getLogger().println("\n ICT did not fire");
-                try {
-                    Thread.sleep(10000);
-                } catch (InterruptedException e) {
-                    // need to throw as this indicates the step as been
-                    // cancelled
-                    throw e;
-                }
-            } else {
-                if (chatty)
-                    listener.getLogger().println(
-                            "\n ICT fired for deployment " + dc.toJson(false));
-                return true;
-            }
-        }
+        IDeploymentConfig[] latest = new IDeploymentConfig[] { dc };
+        // an InterruptedException indicates the step has been cancelled
+        Boolean fired = StepPoller.getInstance().await(
+                () -> {
+                    latest[0] = StepPoller.getInstance().read(client,
+                            ResourceKind.DEPLOYMENT_CONFIG, dc.getName(),
+                            dc.getNamespace());
+                    if (!latest[0].didImageTrigger(imageTag)) {
+                        if (chatty)
+                            listener.getLogger().println(
+                                    "\n ICT did not fire");
+                        return null;
+                    }
+                    if (chatty)
+                        listener.getLogger().println(
+                                "\n ICT fired for deployment "
+                                        + latest[0].toJson(false));
+                    return true;
+                },
+                newBackoff(getDisplayName() + " image change trigger",
+                        TimeUnit.SECONDS.toMillis(10)),
+                System.currentTimeMillis() + wait / 3);
+        if (fired != null)
+            return true;
 
         if (chatty) {
             listener.getLogger().println(
-                    "\n done checking dc " + dc.toJson(false));
+                    "\n done checking dc " + latest[0].toJson(false));
         }
 
         return false;
@@ -610,6 +752,35 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         }
     }
 
+    // the deployment configs triggering off of the image tag, from a list of
+    // all of them; null if there are none at all
+    default List<IDeploymentConfig> dcsTriggeredBy(IClient client,
+            String namespace, String imageTag, boolean chatty,
+            TaskListener listener) {
+        List<IDeploymentConfig> allDC = client.list(
+                ResourceKind.DEPLOYMENT_CONFIG, namespace);
+        if (allDC == null || allDC.size() == 0) {
+            if (chatty)
+                listener.getLogger().println(
+                        "\n\n no deployment configs present");
+            return null;
+        }
+        List<IDeploymentConfig> dcsToCheck = new ArrayList<IDeploymentConfig>();
+        for (IDeploymentConfig dc : allDC) {
+            if (chatty)
+                listener.getLogger().println(
+                        "\n checking triggers on dc " + dc.getName());
+            if (doesDCTriggerOnImageTag(client, dc, imageTag, chatty, listener)) {
+                if (chatty)
+                    listener.getLogger().println(
+                            "\n adding dc to check " + dc.getName());
+                dcsToCheck.add(dc);
+            }
+        }
+
+        return dcsToCheck;
+    }
+
     default boolean didAllImagesChangeIfNeeded(String buildConfig,
             TaskListener listener, boolean chatty, IClient client,
             String namespace, long wait, boolean annotateRC,
@@ -647,99 +818,39 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
                                 + " generates image " + imageTag);
         }
 
-        // find deployment configs with image change triggers
-        List<IDeploymentConfig> allDC = client.list(
-                ResourceKind.DEPLOYMENT_CONFIG, namespace);
-        if (allDC == null || allDC.size() == 0) {
+        // find deployment configs with image change triggers on the tag,
+        // from the index over the namespace's deployment configs where it
+        // can be had
+        List<IDeploymentConfig> dcsToCheck = null;
+        try {
+            dcsToCheck = ImageChangeTriggers.triggeredBy(client, namespace,
+                    imageTag);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable t) {
             if (chatty)
-                listener.getLogger().println(
-                        "\n\n no deployment configs present");
-            return true;
+                t.printStackTrace(listener.getLogger());
         }
-        List<IDeploymentConfig> dcsToCheck = new ArrayList<IDeploymentConfig>();
-        for (IDeploymentConfig dc : allDC) {
+        if (dcsToCheck != null) {
             if (chatty)
                 listener.getLogger().println(
-                        "\n checking triggers on dc " + dc.getName());
-            if (doesDCTriggerOnImageTag(client, dc, imageTag, chatty, listener)) {
-                if (chatty)
-                    listener.getLogger().println(
-                            "\n adding dc to check " + dc.getName());
-                dcsToCheck.add(dc);
-            }
-        }
-
-        // cycle through the DCs triggering, comparing latest and previous RC,
-        // see if image changed
-        for (IDeploymentConfig dc : dcsToCheck) {
-            if (chatty) {
-                listener.getLogger().println(
-                        "\n looking at image ids for " + dc.getName()
-                                + " with json " + dc.toJson(false));
-            }
-
-            // if a DC has both a config change trigger and image change
-            // trigger, with the first deployment, it is
-            // a race condition as to whether the cause gets marked as the CCT
-            // or ICT; but in any event, as long as
-            // the first deployment fires, we don't care why, so we bypass the
-            // looping for ICT change / image change
-            // verification
-            if (dc.getLatestVersionNumber() == 1) {
-                if (annotateRC) {
-                    IReplicationController rc = getLatestReplicationController(
-                            dc, namespace, client, chatty ? listener : null);
-                    annotateJobInfoToResource(client, listener, chatty, env, rc);
-                }
+                        "\n " + dcsToCheck.size()
+                                + " dc(s) trigger off of " + imageTag);
+            if (dcsToCheck.size() == 0)
+                return true;
+        } else {
+            dcsToCheck = dcsTriggeredBy(client, namespace, imageTag, chatty,
+                    listener);
+            if (dcsToCheck == null || dcsToCheck.isEmpty())
                 return true;
-            }
-
-            if (this.didICTCauseDeployment(client, dc, imageTag, chatty,
-                    listener, wait)) {
-                String latestImageHexID = dc
-                        .getImageHexIDForImageNameAndTag(imageTag);
-
-                if (latestImageHexID == null) {
-                    if (chatty)
-                        listener.getLogger().println(
-                                "\n dc " + dc.getName()
-                                        + " did not have a reference to "
-                                        + imageTag);
-                    continue;
-                }
-
-                if (didImageChangeFromPreviousVersion(client,
-                        dc.getLatestVersionNumber(), chatty, listener,
-                        dc.getName(), namespace, latestImageHexID, imageTag)) {
-
-                    if (annotateRC) {
-                        IReplicationController rc = getLatestReplicationController(
-                                dc, namespace, client, chatty ? listener : null);
-                        annotateJobInfoToResource(client, listener, chatty,
-                                env, rc);
-                    }
-                    if (chatty)
-                        listener.getLogger()
-                                .println(
-                                        "\n dc "
-                                                + dc.getName()
-                                                + " did trigger based on image change as expected");
-                } else {
-                    if (chatty)
-                        listener.getLogger()
-                                .println(
-                                        "\n dc "
-                                                + dc.getName()
-                                                + " did not trigger based on image change as expected");
-                    return false;
-                }
-            } else {
-                return false;
-            }
-
         }
 
-        return true;
+        // check the DCs triggering, comparing latest and previous RC, to see
+        // if the image changed; several at a time, as each may wait on its
+        // trigger
+        return new ImageChangeVerification(this, listener, env, client,
+                chatty, namespace, imageTag, wait, annotateRC)
+                .verify(dcsToCheck);
     }
 
     default IReplicationController getLatestReplicationController(
@@ -748,28 +859,20 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         int latestVersion = dc.getLatestVersionNumber();
         if (latestVersion == 0)
             return null;
-        // start at the latest, but ignore newer replication controllers that
-        // are cancelled
+        // one list by the dc label, or none when an informer is keeping
+        // them, rather than a GET per version walking back past cancelled
+        // deployments
         IReplicationController rc = null;
-        while (latestVersion > 0) {
-            String repId = dc.getName() + "-" + latestVersion;
-            try {
-                rc = client.get(ResourceKind.REPLICATION_CONTROLLER, repId,
-                        namespace);
-            } catch (Throwable t) {
-                if (listener != null)
-                    t.printStackTrace(listener.getLogger());
-            }
-            if (rc != null) {
-                if ("true".equalsIgnoreCase(rc
-                        .getAnnotation("openshift.io/deployment.cancelled"))) {
-                    rc = null;
-                    latestVersion--;
-                } else {
-                    break;
-                }
-            }
+        try {
+            rc = DeploymentHistory.latest(
+                    DeploymentHistory.list(client, dc.getName(), namespace),
+                    dc.getName(), latestVersion);
+        } catch (Throwable t) {
+            if (listener != null)
+                t.printStackTrace(listener.getLogger());
         }
+        StepPoller.observe(ResourceKind.REPLICATION_CONTROLLER + "|"
+                + dc.getName(), rc);
         return rc;
     }
 
@@ -818,107 +921,60 @@ public interface IOpenShiftPlugin extends IOpenShiftParameterOverrides {
         return annotated;
     }
 
+    /**
+     * GETs urlString from the api server with the step's credentials.
+     *
+     * @return the body, or null if the GET failed
+     */
     default String httpGet(boolean chatty, TaskListener listener,
             Map<String, String> overrides, String urlString) {
-        URL url = null;
+        return httpGet(chatty, listener,
+                this.getClient(listener, getDisplayName(), overrides),
+                urlString);
+    }
+
+    // as above, with the client the caller already holds
+    default String httpGet(boolean chatty, TaskListener listener,
+            IClient client, String urlString) {
+        InputStream body = httpGetStream(chatty, listener, client, urlString);
+        if (body == null)
+            return null;
+        try (Reader reader = new InputStreamReader(body,
+                StandardCharsets.UTF_8)) {
+            StringBuilder sb = new StringBuilder();
+            char[] buf = new char[8192];
+            for (int n; (n = reader.read(buf)) != -1;)
+                sb.append(buf, 0, n);
+            return sb.toString();
+        } catch (IOException e) {
+            if (chatty)
+                e.printStackTrace(listener.getLogger());
+        }
+        return null;
+    }
+
+    /**
+     * GETs urlString from the api server with the credentials of client, over
+     * its pooled connections (see {@link RawHttp}).
+     *
+     * @return the body as it arrives, which the caller must close, or null if
+     *         the GET failed
+     */
+    default InputStream httpGetStream(boolean chatty, TaskListener listener,
+            IClient client, String urlString) {
         try {
-            url = new URL(urlString);
+            new URL(urlString);
         } catch (MalformedURLException e) {
             e.printStackTrace(listener.getLogger());
             return null;
         }
-        // our lower level openshift-restclient-java usage here is not agreeable
-        // with the TrustManager maintained there,
-        // so we set up our own trust manager like we used to do in order to
-        // verify the server cert
         try {
-            AuthorizationContext authContext = new AuthorizationContext(
-                    getAuthToken(overrides), null, null);
-            ResponseCodeInterceptor responseCodeInterceptor = new ResponseCodeInterceptor();
-            OpenShiftAuthenticator authenticator = new OpenShiftAuthenticator();
-            Dispatcher dispatcher = new Dispatcher();
-            RetryIClient iclient = (RetryIClient) this.getClient(listener,
-                    getDisplayName(), overrides);
-            DefaultClient client = iclient.getDefaultClient();
-            OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                    .addInterceptor(responseCodeInterceptor)
-                    .authenticator(authenticator)
-                    .dispatcher(dispatcher)
-                    .readTimeout(IHttpConstants.DEFAULT_READ_TIMEOUT,
-                            TimeUnit.MILLISECONDS)
-                    .writeTimeout(IHttpConstants.DEFAULT_READ_TIMEOUT,
-                            TimeUnit.MILLISECONDS)
-                    .connectTimeout(IHttpConstants.DEFAULT_READ_TIMEOUT,
-                            TimeUnit.MILLISECONDS);
-            X509TrustManager trustManager = null;
-            if (getAuth().useCert()) {
-                trustManager = Auth.createLocalTrustStore(getAuth(),
-                        getApiURL(overrides));
-            } else {
-                // so okhttp is a bit of a PITA when it comes to enforcing skip
-                // tls behavior
-                // (it should just allow you to set a null ssl socket factory
-                // given how
-                // RealConnection/Address/Route work), but stack overflow came
-                // to the rescue
-                // (http://stackoverflow.com/questions/25509296/trusting-all-certificates-with-okhttp)
-                // Create a trust manager that does not validate certificate
-                // chains
-                trustManager = new X509TrustManager() {
-                    @Override
-                    public void checkClientTrusted(
-                            java.security.cert.X509Certificate[] chain,
-                            String authType) throws CertificateException {
-                    }
-
-                    @Override
-                    public void checkServerTrusted(
-                            java.security.cert.X509Certificate[] chain,
-                            String authType) throws CertificateException {
-                    }
-
-                    @Override
-                    public java.security.cert.X509Certificate[] getAcceptedIssuers() {
-                        return new java.security.cert.X509Certificate[] {};
-                    }
-                };
-            }
-
-            SSLContext sslContext = null;
-            try {
-                sslContext = SSLUtils.getSSLContext(trustManager);
-            } catch (KeyManagementException e) {
-                if (chatty)
-                    e.printStackTrace(listener.getLogger());
-                return null;
-            } catch (NoSuchAlgorithmException e) {
-                if (chatty)
-                    e.printStackTrace(listener.getLogger());
-                return null;
-            }
-            builder.sslSocketFactory(sslContext.getSocketFactory(),
-                    trustManager);
-
-            OkHttpClient okClient = builder.build();
-            authContext.setClient(client);
-            responseCodeInterceptor.setClient(client);
-            authenticator.setClient(client);
-            authenticator.setOkClient(okClient);
-            Request request = client.newRequestBuilderTo(url.toString()).get()
-                    .build();
-            Response result;
-            try {
-                result = okClient.newCall(request).execute();
-                String response = result.body().string();
-                return response;
-            } catch (IOException e) {
-                if (chatty)
-                    e.printStackTrace(listener.getLogger());
-            }
-            return null;
-        } finally {
-            Auth.resetLocalTrustStore();
+            return RawHttp.get(client, urlString);
+        } catch (IOException | OpenShiftException e) {
+            if (chatty)
+                e.printStackTrace(listener.getLogger());
         }
+        return null;
     }
 
 }
@@ -51,6 +51,25 @@ public interface IOpenShiftPluginDescriptor extends
         return ParamVerify.doCheckForWaitTime(value);
     }
 
+    default FormValidation doCheckPollFloor(@QueryParameter String value) {
+        return ParamVerify.doCheckPollInterval(value);
+    }
+
+    default FormValidation doCheckPollCeiling(@QueryParameter String value) {
+        return ParamVerify.doCheckPollInterval(value);
+    }
+
+    default FormValidation doCheckFastPolls(@QueryParameter String value) {
+        return ParamVerify.doCheckPollInterval(value);
+    }
+
+    default ListBoxModel doFillPollStrategyItems() {
+        ListBoxModel items = new ListBoxModel();
+        items.add("Adaptive", WaitStrategies.ADAPTIVE);
+        items.add("Fixed", WaitStrategies.FIXED);
+        return items;
+    }
+
     default ListBoxModel doFillWaitUnitItems() {
         ListBoxModel items = new ListBoxModel();
         items.add("Seconds", "sec");
@@ -44,6 +44,11 @@ public interface IOpenShiftScaler extends ITimedOpenShiftPlugin {
         return getOverride(getVerifyReplicaCount(), overrides);
     }
 
+    default String[] getInformerKinds() {
+        return new String[] { ResourceKind.DEPLOYMENT_CONFIG,
+                ResourceKind.REPLICATION_CONTROLLER };
+    }
+
     default boolean coreLogic(Launcher launcher, TaskListener listener,
             Map<String, String> overrides) throws InterruptedException {
         boolean chatty = Boolean.parseBoolean(getVerbose(overrides));
@@ -58,9 +63,6 @@ public interface IOpenShiftScaler extends ITimedOpenShiftPlugin {
         IClient client = this.getClient(listener, DISPLAY_NAME, overrides);
 
         if (client != null) {
-            IReplicationController rc = null;
-            IDeploymentConfig dc = null;
-            long currTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
             // in testing with the jenkins-ci sample, the initial deploy after
             // a build is kinda slow ... gotta wait more than one minute
 
@@ -75,117 +77,143 @@ public interface IOpenShiftScaler extends ITimedOpenShiftPlugin {
                                 getReplicaCount(overrides)));
 
             // do the oc scale ... may need to retry
-            boolean scaleDone = false;
+            DeployProgress progress = new DeployProgress();
             long wait = getTimeout(listener, chatty, overrides);
-            while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) < (currTime + wait)) {
-                dc = client.get(ResourceKind.DEPLOYMENT_CONFIG,
-                        getDepCfg(overrides), getNamespace(overrides));
-                if (dc == null) {
-                    listener.getLogger()
-                            .println(
-                                    String.format(
-                                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_NO_CFG,
-                                            DISPLAY_NAME, getDepCfg(overrides)));
-                    return false;
-                }
-
-                if (dc.getLatestVersionNumber() > 0) {
-                    rc = getLatestReplicationController(dc,
-                            getNamespace(overrides), client, chatty ? listener
-                                    : null);
-
-                    final int count = Integer
-                            .decode(getReplicaCount(overrides));
-                    scaleDone = rc.getCurrentReplicaCount() == count;
-
-                    if (chatty)
-                        listener.getLogger().println(
-                                "\nOpenShiftScaler setting desired replica count of "
-                                        + getReplicaCount(overrides) + " on "
-                                        + rc + " scaleDone " + scaleDone);
-
-                    if (!scaleDone) {
-                        IScale result = dc.accept(
-                                new CapabilityVisitor<IScalable, IScale>() {
-
-                                    @Override
-                                    public IScale visit(IScalable capability) {
-                                        return capability.scaleTo(count);
-                                    }
-                                }, null);
-                        if (chatty)
-                            listener.getLogger().println(
-                                    "\nOpenShiftScaler scale result " + result);
-                        rc = getLatestReplicationController(dc,
-                                getNamespace(overrides), client,
-                                chatty ? listener : null);
-                        scaleDone = this
-                                .isReplicationControllerScaledAppropriately(rc,
-                                        checkCount, count);
-                    }
-                } else {
-                    // TODO if not found, and we are scaling down to zero, don't
-                    // consider an error - this may be safety
-                    // measure to scale down if exits ... perhaps we make this
-                    // behavior configurable over time, but for now.
-                    // we refrain from adding yet 1 more config option
-                    if (getReplicaCount(overrides).equals("0")) {
-                        listener.getLogger().println(
-                                String.format(
-                                        MessageConstants.EXIT_SCALING_NOOP,
-                                        getDepCfg(overrides)));
-                        return true;
-                    }
-                }
-
-                if (scaleDone) {
-                    break;
-                } else {
-                    if (chatty)
-                        listener.getLogger()
-                                .println(
-                                        "\nOpenShiftScaler will wait 10 seconds, then try to scale again");
-                    try {
-                        Thread.sleep(10000);
-                    } catch (InterruptedException e) {
-                        // need to throw as this indicates the step as been
-                        // cancelled
-                        throw e;
-                    }
-                }
+            // an InterruptedException indicates the step has been cancelled
+            Boolean scaleDone = StepPoller.getInstance().await(
+                    () -> scaleAttempt(client, progress, listener, overrides,
+                            chatty), newBackoff(),
+                    System.currentTimeMillis() + wait);
+            return reportScale(scaleDone, progress, listener, overrides);
+
+        } else {
+            return false;
+        }
+    }
+
+    default WaitStrategy getGlobalWaitStrategy() {
+        return GlobalConfig.getScalerWaitStrategy();
+    }
+
+    // the scaler used to wait 10 seconds between tries
+    default long getBaselinePollInterval() {
+        return TimeUnit.SECONDS.toMillis(10);
+    }
+
+    /**
+     * One pass of the scale: scales the deployment config if its latest
+     * replication controller does not have the replica count yet.
+     *
+     * @return true once scaled, false if there is no deployment config to
+     *         scale, or null to check again later
+     */
+    default Boolean scaleAttempt(IClient client, DeployProgress progress,
+            TaskListener listener, Map<String, String> overrides, boolean chatty) {
+        boolean checkCount = Boolean
+                .parseBoolean(getVerifyReplicaCount(overrides));
+        IDeploymentConfig dc = StepPoller.getInstance().read(client,
+                ResourceKind.DEPLOYMENT_CONFIG, getDepCfg(overrides),
+                getNamespace(overrides));
+        if (dc == null) {
+            listener.getLogger().println(
+                    String.format(
+                            MessageConstants.EXIT_DEPLOY_RELATED_PLUGINS_NO_CFG,
+                            DISPLAY_NAME, getDepCfg(overrides)));
+            return false;
+        }
+        progress.dcFound = true;
+
+        if (dc.getLatestVersionNumber() > 0) {
+            IReplicationController rc = getLatestReplicationController(dc,
+                    getNamespace(overrides), client, chatty ? listener : null);
+            if (rc == null) {
+                // the rc for the latest version is not there yet
+                return null;
             }
 
+            final int count = Integer.decode(getReplicaCount(overrides));
+            boolean scaleDone = rc.getCurrentReplicaCount() == count;
+            progress.rcName = rc.getName();
+
+            if (chatty)
+                listener.getLogger().println(
+                        "\nOpenShiftScaler setting desired replica count of "
+                                + getReplicaCount(overrides) + " on " + rc
+                                + " scaleDone " + scaleDone);
+
             if (!scaleDone) {
-                if (!checkCount) {
-                    listener.getLogger().println(
-                            String.format(MessageConstants.EXIT_SCALING_BAD,
-                                    getApiURL(overrides)));
-                } else {
+                IScale result = dc.accept(
+                        new CapabilityVisitor<IScalable, IScale>() {
+
+                            @Override
+                            public IScale visit(IScalable capability) {
+                                return capability.scaleTo(count);
+                            }
+                        }, null);
+                if (chatty)
                     listener.getLogger().println(
-                            String.format(
-                                    MessageConstants.EXIT_SCALING_TIMED_OUT,
-                                    (rc != null ? rc.getName()
-                                            : "<deployment not found>"),
-                                    getReplicaCount(overrides)));
-                }
-                return false;
+                            "\nOpenShiftScaler scale result " + result);
+                rc = getLatestReplicationController(dc,
+                        getNamespace(overrides), client, chatty ? listener
+                                : null);
+                progress.rcName = rc != null ? rc.getName() : null;
+                scaleDone = this.isReplicationControllerScaledAppropriately(
+                        rc, checkCount, count);
             }
+            return scaleDone ? Boolean.TRUE : null;
+        } else {
+            // TODO if not found, and we are scaling down to zero, don't
+            // consider an error - this may be safety
+            // measure to scale down if exits ... perhaps we make this
+            // behavior configurable over time, but for now.
+            // we refrain from adding yet 1 more config option
+            if (getReplicaCount(overrides).equals("0")) {
+                progress.noop = true;
+                return true;
+            }
+        }
+        return null;
+    }
 
-            if (!checkCount)
+    /**
+     * Reports how the scale ended, where scaleDone is what the last
+     * {@link #scaleAttempt} returned (null if the wait timed out).
+     */
+    default boolean reportScale(Boolean scaleDone, DeployProgress progress,
+            TaskListener listener, Map<String, String> overrides) {
+        boolean checkCount = Boolean
+                .parseBoolean(getVerifyReplicaCount(overrides));
+        if (scaleDone == null) {
+            if (!checkCount) {
                 listener.getLogger().println(
-                        String.format(MessageConstants.EXIT_SCALING_GOOD,
-                                rc.getName()));
-            else
-                listener.getLogger()
-                        .println(
-                                String.format(
-                                        MessageConstants.EXIT_SCALING_GOOD_REPLICAS_GOOD,
-                                        rc.getName(),
-                                        getReplicaCount(overrides)));
-            return true;
-
-        } else {
+                        String.format(MessageConstants.EXIT_SCALING_BAD,
+                                getApiURL(overrides)));
+            } else {
+                listener.getLogger().println(
+                        String.format(
+                                MessageConstants.EXIT_SCALING_TIMED_OUT,
+                                (progress.rcName != null ? progress.rcName
+                                        : "<deployment not found>"),
+                                getReplicaCount(overrides)));
+            }
             return false;
         }
+        if (!scaleDone)
+            return false;
+
+        if (progress.noop) {
+            listener.getLogger().println(
+                    String.format(MessageConstants.EXIT_SCALING_NOOP,
+                            getDepCfg(overrides)));
+        } else if (!checkCount)
+            listener.getLogger().println(
+                    String.format(MessageConstants.EXIT_SCALING_GOOD,
+                            progress.rcName));
+        else
+            listener.getLogger().println(
+                    String.format(
+                            MessageConstants.EXIT_SCALING_GOOD_REPLICAS_GOOD,
+                            progress.rcName, getReplicaCount(overrides)));
+        return true;
     }
 }
@@ -14,6 +14,8 @@ import java.util.Map;
 
 public interface IOpenShiftServiceVerifier extends IOpenShiftPlugin {
     String DISPLAY_NAME = "Verify OpenShift Service";
+    long SERVICE_RETRY_FLOOR = 500;
+    long SERVICE_RETRY_INTERVAL = 2500;
 
     default String getDisplayName() {
         return DISPLAY_NAME;
@@ -55,7 +57,20 @@ public interface IOpenShiftServiceVerifier extends IOpenShiftPlugin {
                                 + getRetryCount(overrides));
             listener.getLogger().println(
                     String.format(MessageConstants.SERVICE_CONNECTING, spec));
-            while (tryCount < Integer.parseInt(getRetryCount(overrides))) {
+            // the verifier used to sleep 2.5 seconds between attempts; retry
+            // sooner at first, but never wait longer than that, and keep
+            // trying for as long as the retry count used to give the service
+            int retryCount = Integer.parseInt(getRetryCount(overrides));
+            long deadline = System.currentTimeMillis() + retryCount
+                    * SERVICE_RETRY_INTERVAL;
+            StepPoller.Backoff backoff = new StepPoller.Backoff(
+                    new WaitStrategies.Adaptive(SERVICE_RETRY_FLOOR,
+                            SERVICE_RETRY_INTERVAL,
+                            WaitStrategies.DEFAULT_FAST_POLLS), WaitStats.get(
+                            DISPLAY_NAME, WaitStrategies.ADAPTIVE),
+                    SERVICE_RETRY_INTERVAL);
+            while (tryCount < retryCount
+                    || System.currentTimeMillis() < deadline) {
                 tryCount++;
                 if (chatty)
                     listener.getLogger().println(
@@ -70,12 +85,13 @@ public interface IOpenShiftServiceVerifier extends IOpenShiftPlugin {
                             String.format(
                                     MessageConstants.EXIT_SERVICE_VERIFY_GOOD,
                                     DISPLAY_NAME, spec));
+                    backoff.done(true);
                     return true;
                 } catch (IOException e) {
                     if (chatty)
                         e.printStackTrace(listener.getLogger());
                     try {
-                        Thread.sleep(2500);
+                        Thread.sleep(backoff.next(false));
                     } catch (InterruptedException e1) {
                     }
                 } finally {
@@ -87,6 +103,7 @@ public interface IOpenShiftServiceVerifier extends IOpenShiftPlugin {
                     }
                 }
             }
+            backoff.done(false);
 
         } else {
             return false;
@@ -75,6 +75,33 @@ public interface ITimedOpenShiftPlugin extends IOpenShiftPlugin {
 
     long getGlobalTimeoutConfiguration();
 
+    /**
+     * @return how this type of step waits between its checks of the api
+     *         server, as configured in Jenkins Configure
+     */
+    default WaitStrategy getGlobalWaitStrategy() {
+        return WaitStrategies.getDefault();
+    }
+
+    /**
+     * @return the fixed interval this type of step used to sleep between its
+     *         checks, which the wait metrics are set against
+     */
+    default long getBaselinePollInterval() {
+        return 1000;
+    }
+
+    default StepPoller.Backoff newBackoff() {
+        return newBackoff(getDisplayName(), getBaselinePollInterval());
+    }
+
+    // as for any step, but with the strategy configured for this type of step
+    default StepPoller.Backoff newBackoff(String wait, long baseline) {
+        WaitStrategy strategy = getGlobalWaitStrategy();
+        return new StepPoller.Backoff(strategy, WaitStats.get(wait,
+                strategy.getName()), baseline);
+    }
+
     default long getTimeout(TaskListener listener, boolean chatty,
             Map<String, String> overrides) {
         long global = getGlobalTimeoutConfiguration();
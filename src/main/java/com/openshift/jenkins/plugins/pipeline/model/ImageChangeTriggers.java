@@ -0,0 +1,85 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IDeploymentConfig;
+import com.openshift.restclient.model.IResource;
+import com.openshift.restclient.model.deploy.IDeploymentImageChangeTrigger;
+import com.openshift.restclient.model.deploy.IDeploymentTrigger;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The deployment configs of a namespace that an image tag triggers, for
+ * {@link IOpenShiftPlugin#didAllImagesChangeIfNeeded}.
+ *
+ * The deployment configs come from the shared informer on the namespace,
+ * indexed by the image tag of each of their automatic image change triggers;
+ * its watch keeps the index current as deployment configs change, so a lookup
+ * touches only the deployment configs the tag triggers, and costs no request
+ * once the informer is synced. A new informer is waited on for up to
+ * {@link #SYNC_TIMEOUT}, so its initial list is used rather than followed by
+ * the fallback's list of its own; the wait ends as soon as a watch attempt
+ * fails, and while the informer keeps failing to reconnect later lookups do
+ * not wait at all. The informer lingers after the lookup, so the builds that
+ * follow in the namespace find it ready.
+ */
+final class ImageChangeTriggers {
+
+    static final String BY_IMAGE_TAG = "image-change-trigger";
+
+    static final long SYNC_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    private ImageChangeTriggers() {
+    }
+
+    /**
+     * @return the deployment configs with an automatic image change trigger
+     *         on imageTag, or null if the informer did not sync in time or
+     *         cannot watch
+     */
+    static List<IDeploymentConfig> triggeredBy(IClient client,
+            String namespace, String imageTag) throws InterruptedException {
+        try (ResourceInformer.Lease lease = SharedInformers.getInstance()
+                .subscribe(client, namespace, ResourceKind.DEPLOYMENT_CONFIG)) {
+            ResourceInformer informer = lease.getInformer();
+            if (!informer.awaitSync(SYNC_TIMEOUT))
+                return null;
+            informer.addIndex(BY_IMAGE_TAG, ImageChangeTriggers::tagsOf);
+            return informer.byIndex(BY_IMAGE_TAG, normalize(imageTag));
+        }
+    }
+
+    private static Collection<String> tagsOf(IResource resource) {
+        if (!(resource instanceof IDeploymentConfig))
+            return null;
+        Collection<IDeploymentTrigger> triggers = ((IDeploymentConfig) resource)
+                .getTriggers();
+        if (triggers == null)
+            return null;
+        Set<String> tags = new HashSet<String>();
+        for (IDeploymentTrigger trigger : triggers) {
+            if (trigger instanceof IDeploymentImageChangeTrigger) {
+                IDeploymentImageChangeTrigger ict = (IDeploymentImageChangeTrigger) trigger;
+                if (ict.isAutomatic() && ict.getFrom() != null)
+                    tags.add(normalize(ict.getFrom().getNameAndTag()));
+            }
+        }
+        return tags;
+    }
+
+    // an image stream tag without a tag is the latest one
+    static String normalize(String imageTag) {
+        if (imageTag == null)
+            return null;
+        String tag = imageTag.trim();
+        if (tag.indexOf(':', tag.lastIndexOf('/') + 1) < 0)
+            tag = tag + ":latest";
+        return tag;
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.model.IDeploymentConfig;
+import com.openshift.restclient.model.IReplicationController;
+
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks, for {@link IOpenShiftPlugin#didAllImagesChangeIfNeeded}, that each
+ * deployment config with an image change trigger on a build's output deployed
+ * the new image.
+ *
+ * Each check may wait up to a third of the step's timeout for the trigger to
+ * fire, so up to the configured number of deployment configs are checked at
+ * once. The first one that did not deploy the new image ends the
+ * verification, and the checks still running are interrupted. Each outcome
+ * is reported with its latency as it completes.
+ */
+public class ImageChangeVerification {
+
+    // the number of deployment configs checked at once, as a global or job
+    // parameter; 1 checks them one at a time
+    public static final String CONCURRENCY_ENV_KEY = "OPENSHIFT_VERIFY_CONCURRENCY";
+
+    static final int DEFAULT_CONCURRENCY = 8;
+
+    enum Outcome {
+        FIRST_DEPLOYMENT(true, "had its first deployment"),
+        DEPLOYED(true, "deployed the new image"),
+        NO_REFERENCE(true, "does not reference the image"),
+        NOT_TRIGGERED(false, "was not triggered by the new image"),
+        IMAGE_UNCHANGED(false, "did not deploy a different image"),
+        FAILED(false, "could not be checked");
+
+        final boolean ok;
+        final String description;
+
+        Outcome(boolean ok, String description) {
+            this.ok = ok;
+            this.description = description;
+        }
+    }
+
+    private static final class Result {
+        final String name;
+        final Outcome outcome;
+        final long millis;
+
+        Result(String name, Outcome outcome, long millis) {
+            this.name = name;
+            this.outcome = outcome;
+            this.millis = millis;
+        }
+    }
+
+    private final IOpenShiftPlugin plugin;
+    private final TaskListener listener;
+    private final Map<String, String> env;
+    private final IClient client;
+    private final boolean chatty;
+    private final String namespace;
+    private final String imageTag;
+    private final long wait;
+    private final boolean annotateRC;
+
+    public ImageChangeVerification(IOpenShiftPlugin plugin,
+            TaskListener listener, Map<String, String> env, IClient client,
+            boolean chatty, String namespace, String imageTag, long wait,
+            boolean annotateRC) {
+        this.plugin = plugin;
+        this.listener = listener;
+        this.env = env;
+        this.client = client;
+        this.chatty = chatty;
+        this.namespace = namespace;
+        this.imageTag = imageTag;
+        this.wait = wait;
+        this.annotateRC = annotateRC;
+    }
+
+    public static int getConcurrency(Map<String, String> overrides) {
+        return Concurrency.get(overrides, CONCURRENCY_ENV_KEY,
+                DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * @return whether every deployment config deployed the new image
+     */
+    public boolean verify(List<IDeploymentConfig> dcs)
+            throws InterruptedException {
+        if (dcs.isEmpty())
+            return true;
+        if (dcs.size() == 1)
+            return report(check(dcs.get(0)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(getConcurrency(env), dcs.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(),
+                        "OpenShiftImageChangeVerification"));
+        try {
+            CompletionService<Result> completion = new ExecutorCompletionService<Result>(
+                    executor);
+            // the step's api calls and waits are still accounted to it
+            StepTimeline timeline = StepTimeline.current();
+            for (IDeploymentConfig dc : dcs) {
+                completion.submit(() -> {
+                    StepTimeline previous = timeline != null ? timeline
+                            .attach() : null;
+                    try {
+                        return check(dc);
+                    } finally {
+                        if (timeline != null)
+                            StepTimeline.restore(previous);
+                    }
+                });
+            }
+            for (int i = 0; i < dcs.size(); i++) {
+                Result result;
+                try {
+                    result = completion.take().get();
+                } catch (ExecutionException e) {
+                    // check only throws when interrupted
+                    if (chatty)
+                        e.printStackTrace(listener.getLogger());
+                    return false;
+                }
+                if (!report(result))
+                    return false;
+            }
+            return true;
+        } finally {
+            // interrupts the checks still waiting on a trigger
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean report(Result result) {
+        listener.getLogger().println(
+                String.format(MessageConstants.CHECKED_DC_TRIGGER_TIMED,
+                        result.name, result.outcome.description,
+                        result.millis));
+        return result.outcome.ok;
+    }
+
+    private Result check(IDeploymentConfig dc) throws InterruptedException {
+        long start = System.nanoTime();
+        Outcome outcome;
+        try {
+            outcome = outcome(dc);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable t) {
+            if (chatty)
+                t.printStackTrace(listener.getLogger());
+            outcome = Outcome.FAILED;
+        }
+        return new Result(dc.getName(), outcome,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Outcome outcome(IDeploymentConfig dc) throws InterruptedException {
+        if (chatty) {
+            listener.getLogger().println(
+                    "\n looking at image ids for " + dc.getName()
+                            + " with json " + dc.toJson(false));
+        }
+
+        // if a DC has both a config change trigger and image change
+        // trigger, with the first deployment, it is
+        // a race condition as to whether the cause gets marked as the CCT
+        // or ICT; but in any event, as long as
+        // the first deployment fires, we don't care why, so we bypass the
+        // looping for ICT change / image change
+        // verification
+        if (dc.getLatestVersionNumber() == 1) {
+            annotate(dc);
+            return Outcome.FIRST_DEPLOYMENT;
+        }
+
+        if (!plugin.didICTCauseDeployment(client, dc, imageTag, chatty,
+                listener, wait))
+            return Outcome.NOT_TRIGGERED;
+
+        String latestImageHexID = dc.getImageHexIDForImageNameAndTag(imageTag);
+        if (latestImageHexID == null) {
+            if (chatty)
+                listener.getLogger().println(
+                        "\n dc " + dc.getName()
+                                + " did not have a reference to " + imageTag);
+            return Outcome.NO_REFERENCE;
+        }
+
+        if (plugin.didImageChangeFromPreviousVersion(client,
+                dc.getLatestVersionNumber(), chatty, listener, dc.getName(),
+                namespace, latestImageHexID, imageTag)) {
+            annotate(dc);
+            if (chatty)
+                listener.getLogger().println(
+                        "\n dc " + dc.getName()
+                                + " did trigger based on image change as expected");
+            return Outcome.DEPLOYED;
+        }
+        if (chatty)
+            listener.getLogger().println(
+                    "\n dc " + dc.getName()
+                            + " did not trigger based on image change as expected");
+        return Outcome.IMAGE_UNCHANGED;
+    }
+
+    private void annotate(IDeploymentConfig dc) {
+        if (!annotateRC)
+            return;
+        IReplicationController rc = plugin.getLatestReplicationController(dc,
+                namespace, client, chatty ? listener : null);
+        if (rc != null)
+            plugin.annotateJobInfoToResource(client, listener, chatty, env, rc);
+    }
+
+}
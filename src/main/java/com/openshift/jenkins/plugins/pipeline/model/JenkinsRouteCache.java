@@ -0,0 +1,154 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IList;
+import com.openshift.restclient.model.IResource;
+import com.openshift.restclient.model.route.IRoute;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per api server, credentials and namespace cache of the base URL of the
+ * route to the jenkins service, which {@link IOpenShiftPlugin#constructBuildUrl}
+ * uses to build BUILD_URL when Jenkins does not provide it.
+ *
+ * The route is looked up with a field selector on its service, falling back
+ * to listing the namespace's routes on api servers that do not support it.
+ * The result, including the absence of such a route, is kept for the TTL.
+ * The route is not watched: a watch's initial list costs more than the
+ * lookup it would save, and it would outlive the steps that asked. Keying by
+ * a hash of the token keeps what one set of credentials may read from
+ * another.
+ */
+public class JenkinsRouteCache {
+
+    static final Logger LOGGER = Logger.getLogger(JenkinsRouteCache.class
+            .getName());
+
+    // TTL in seconds, as a global or job parameter; 0 looks the route up on
+    // every step
+    public static final String JENKINS_ROUTE_TTL_ENV_KEY = "OPENSHIFT_JENKINS_ROUTE_TTL";
+
+    static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(10);
+    static final String JENKINS_SERVICE = "jenkins";
+
+    private static final JenkinsRouteCache INSTANCE = new JenkinsRouteCache();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    // api servers that rejected the field selector on routes
+    private final Set<String> noFieldSelector = ConcurrentHashMap
+            .<String> newKeySet();
+
+    public static JenkinsRouteCache getInstance() {
+        return INSTANCE;
+    }
+
+    public static long getTTL(Map<String, String> overrides) {
+        String ttl = overrides != null ? overrides
+                .get(JENKINS_ROUTE_TTL_ENV_KEY) : null;
+        if (ttl != null && ttl.trim().length() > 0) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(ttl.trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.FINE, "bad " + JENKINS_ROUTE_TTL_ENV_KEY, e);
+            }
+        }
+        return DEFAULT_TTL;
+    }
+
+    /**
+     * @param client
+     *            supplies the client to look the route up with, only called
+     *            on a miss
+     * @param token
+     *            the token the client is built with
+     * @return the base URL of the jenkins route, ending with a slash, or null
+     *         if the namespace has none
+     * @throws OpenShiftException
+     *             if the lookup failed; failures are not cached
+     */
+    public String get(Supplier<IClient> client, String apiURL,
+            String namespace, String token, long ttl) {
+        String key = RateLimiter.key(apiURL) + "|" + ClientCache.sha256(token)
+                + "|" + namespace;
+        long now = now();
+        Entry entry = entries.get(key);
+        if (entry != null && ttl > 0 && now - entry.resolved < ttl)
+            return entry.base;
+
+        IRoute route = find(lookup(client.get(), apiURL, namespace));
+        entry = new Entry(route, now);
+        if (ttl <= 0) {
+            entries.remove(key);
+            return entry.base;
+        }
+        // drop what expired, i.e. for a token that was rotated since
+        entries.values().removeIf(e -> now - e.resolved >= ttl);
+        entries.put(key, entry);
+        return entry.base;
+    }
+
+    private Collection<IResource> lookup(IClient client, String apiURL,
+            String namespace) {
+        String url = RateLimiter.key(apiURL);
+        if (!noFieldSelector.contains(url)) {
+            try {
+                IList routes = client.execute("GET", ResourceKind.ROUTE,
+                        namespace, null, null, null, Collections.singletonMap(
+                                "fieldSelector", "spec.to.name="
+                                        + JENKINS_SERVICE));
+                return routes != null ? routes.getItems() : Collections
+                        .<IResource> emptyList();
+            } catch (OpenShiftException e) {
+                if (ApiCallStats.statusOf(e) != 400)
+                    throw e;
+                LOGGER.log(Level.FINE, url
+                        + " does not select routes by service", e);
+                noFieldSelector.add(url);
+            }
+        }
+        return client.list(ResourceKind.ROUTE, namespace);
+    }
+
+    private static IRoute find(Collection<? extends IResource> routes) {
+        if (routes == null)
+            return null;
+        for (IResource resource : routes) {
+            if (resource instanceof IRoute
+                    && JENKINS_SERVICE.equals(((IRoute) resource)
+                            .getServiceName()))
+                return (IRoute) resource;
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        final String base;
+        final long resolved;
+
+        Entry(IRoute route, long resolved) {
+            this.resolved = resolved;
+            if (route == null) {
+                base = null;
+                return;
+            }
+            String url = route.getURL();
+            base = url.endsWith("/") ? url : url + "/";
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+/**
+ * A latency histogram with fixed buckets, cheap enough to record into on every
+ * api call. The buckets are those exported in the Prometheus format by
+ * {@link #writePrometheus}; the percentiles shown in JMX are the upper bound of
+ * the bucket they fall in.
+ */
+public class LatencyStats implements LatencyStatsMBean {
+
+    static final Logger LOGGER = Logger.getLogger(LatencyStats.class.getName());
+
+    // upper bounds, in milliseconds; the last bucket is unbounded
+    static final long[] BUCKETS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500,
+            5000, 10000, 30000, 60000, 300000, 900000 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(
+            BUCKETS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    // registers stats in JMX, logging rather than failing if that is not
+    // possible
+    static void register(Object stats, String objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats,
+                    new ObjectName(objectName));
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "could not register " + objectName, t);
+        }
+    }
+
+    // a label value escaped for the Prometheus text format
+    public static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\")
+                .replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public void record(long millis) {
+        millis = Math.max(0, millis);
+        int bucket = 0;
+        while (bucket < BUCKETS.length && millis > BUCKETS[bucket])
+            bucket++;
+        counts.incrementAndGet(bucket);
+        count.incrementAndGet();
+        total.addAndGet(millis);
+        long seen;
+        while ((seen = max.get()) < millis && !max.compareAndSet(seen, millis))
+            ;
+    }
+
+    // the upper bound of the bucket holding the given fraction of the calls
+    long percentile(double fraction) {
+        long n = count.get();
+        if (n == 0)
+            return 0;
+        long rank = (long) Math.ceil(n * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return BUCKETS[i];
+        }
+        return max.get();
+    }
+
+    /**
+     * Appends the histogram in the Prometheus text format, in seconds as is
+     * the Prometheus convention.
+     *
+     * @param labels
+     *            the labels, i.e. <code>verb="GET",kind="Pod"</code>
+     */
+    public void writePrometheus(StringBuilder out, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            cumulative += counts.get(i);
+            out.append(name).append("_bucket{").append(prefix)
+                    .append("le=\"").append(BUCKETS[i] / 1000.0)
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+        cumulative += counts.get(BUCKETS.length);
+        out.append(name).append("_bucket{").append(prefix)
+                .append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(name).append("_sum{").append(labels).append("} ")
+                .append(total.get() / 1000.0).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ")
+                .append(cumulative).append('\n');
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public long getTotalMillis() {
+        return total.get();
+    }
+
+    @Override
+    public long getMaxMillis() {
+        return max.get();
+    }
+
+    @Override
+    public long getP50Millis() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public long getP90Millis() {
+        return percentile(0.9);
+    }
+
+    @Override
+    public long getP99Millis() {
+        return percentile(0.99);
+    }
+
+}
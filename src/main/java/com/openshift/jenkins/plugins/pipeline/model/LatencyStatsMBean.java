@@ -0,0 +1,18 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of a LatencyStats
+public interface LatencyStatsMBean {
+
+    long getCount();
+
+    long getTotalMillis();
+
+    long getMaxMillis();
+
+    long getP50Millis();
+
+    long getP90Millis();
+
+    long getP99Millis();
+
+}
@@ -0,0 +1,126 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IBuild;
+import com.openshift.restclient.model.IBuildConfig;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Finds the latest build of a build config for
+ * {@link IOpenShiftBuildVerifier#getLatestBuildID}.
+ *
+ * The latest build is the one that started last. The build config's
+ * status.lastVersion numbers its newest build, which is named after it, and
+ * the builds of a build config start in the order they are numbered, so once
+ * that build has started a GET of each is usually all it takes. When that
+ * build has not started yet, is gone (i.e. pruned) or the api server does not
+ * fill in lastVersion, the builds of the build config are listed and scanned
+ * once for the latest start time, ties going to the higher build number.
+ */
+final class LatestBuild {
+
+    static final String BUILD_CONFIG_LABEL = "openshift.io/build-config.name";
+
+    private LatestBuild() {
+    }
+
+    static String find(IClient client, String bldCfg, String namespace) {
+        long lastVersion = lastVersion(client, bldCfg, namespace);
+        if (lastVersion > 0) {
+            try {
+                IBuild bld = client.get(ResourceKind.BUILD, bldCfg + "-"
+                        + lastVersion, namespace);
+                if (bld != null && startTime(bld) != null)
+                    return bld.getName();
+            } catch (OpenShiftException e) {
+                // pruned, fall back to the scan
+            }
+        }
+        List<IBuild> blds = client.list(ResourceKind.BUILD, namespace,
+                Collections.singletonMap(BUILD_CONFIG_LABEL, bldCfg));
+        return scan(blds);
+    }
+
+    private static long lastVersion(IClient client, String bldCfg,
+            String namespace) {
+        try {
+            IBuildConfig bc = client.get(ResourceKind.BUILD_CONFIG, bldCfg,
+                    namespace);
+            if (bc == null)
+                return 0;
+            ModelNode node = ModelNode.fromJSONString(bc.toJson());
+            if (node.hasDefined("status")
+                    && node.get("status").hasDefined("lastVersion"))
+                return node.get("status").get("lastVersion").asLong();
+        } catch (RuntimeException e) {
+            // no bc we can read, fall back to the scan
+        }
+        return 0;
+    }
+
+    /**
+     * @return the name of the build that started last, or null if there are
+     *         no builds
+     */
+    static String scan(List<IBuild> blds) {
+        String bestName = null;
+        String bestStart = null;
+        long bestNumber = -1;
+        for (IBuild bld : blds) {
+            String name = bld.getName();
+            String start = startTime(bld);
+            long number = number(name);
+            if (bestName == null || isLater(start, number, bestStart,
+                    bestNumber)) {
+                bestName = name;
+                bestStart = start;
+                bestNumber = number;
+            }
+        }
+        return bestName;
+    }
+
+    private static String startTime(IBuild bld) {
+        return bld.getBuildStatus() != null ? bld.getBuildStatus()
+                .getStartTime() : null;
+    }
+
+    // RFC 3339 timestamps in UTC sort as strings; a build that has not
+    // started yet sorts first
+    private static boolean isLater(String start, long number,
+            String bestStart, long bestNumber) {
+        if (start == null || bestStart == null) {
+            if (start != bestStart)
+                return bestStart == null;
+        } else {
+            int c = start.compareTo(bestStart);
+            if (c != 0)
+                return c > 0;
+        }
+        return number > bestNumber;
+    }
+
+    // the build number after the last dash, or -1 for a name without one
+    static long number(String name) {
+        if (name == null)
+            return -1;
+        int dash = name.lastIndexOf('-');
+        if (dash < 0 || dash == name.length() - 1)
+            return -1;
+        long number = 0;
+        for (int i = dash + 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9' || number > Long.MAX_VALUE / 10)
+                return -1;
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * JSON merge patches (RFC 7386) for apply mode: the patch from what was last
+ * applied to what is wanted now only holds what changed, so fields the api
+ * server filled in (i.e. a service account's secrets, the image a deployment
+ * config's trigger set) are left alone unless the definition changes them.
+ *
+ * Objects are compared key by key, and a key that was taken out of the
+ * definition is set to null, which removes it. Anything else, lists
+ * included, is sent whole when it changed, as a merge patch cannot address
+ * list items.
+ */
+final class MergePatch {
+
+    private MergePatch() {
+    }
+
+    /**
+     * @return the patch that turns applied into wanted; an empty object if
+     *         nothing changed
+     */
+    static ModelNode diff(ModelNode applied, ModelNode wanted) {
+        ModelNode patch = new ModelNode().setEmptyObject();
+        for (String key : applied.keys()) {
+            if (!wanted.has(key))
+                // left undefined, which is written as null
+                patch.get(key);
+        }
+        for (String key : wanted.keys()) {
+            ModelNode to = wanted.get(key);
+            if (!applied.has(key)) {
+                patch.get(key).set(to);
+                continue;
+            }
+            ModelNode from = applied.get(key);
+            if (from.getType() == ModelType.OBJECT
+                    && to.getType() == ModelType.OBJECT) {
+                ModelNode nested = diff(from, to);
+                if (!nested.keys().isEmpty())
+                    patch.get(key).set(nested);
+            } else if (!from.toJSONString(true).equals(
+                    to.toJSONString(true))) {
+                // compared as JSON, as the annotation read back may hold a
+                // number of another type than the definition parsed to
+                patch.get(key).set(to);
+            }
+        }
+        return patch;
+    }
+
+}
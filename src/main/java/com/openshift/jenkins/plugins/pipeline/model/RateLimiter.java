@@ -0,0 +1,279 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+/**
+ * Caps the rate of api calls this controller makes to one api server, across
+ * every step: a token bucket holding up to burst tokens, refilled at qps
+ * tokens a second, where each call made through {@link RetryIClient} takes a
+ * token, waiting for one if need be.
+ *
+ * Calls waiting for a token go in {@link Priority} order, so that what a step
+ * sets out to do (creating, updating, deleting, starting a build) goes ahead
+ * of its other reads, which go ahead of the status checks of waiting steps.
+ *
+ * The rates are set in the global configuration (see
+ * {@link #setConfiguredRates}), never by a job, as the limit is shared by
+ * every job. The wait for tokens is kept as a latency histogram, and
+ * is in JMX as {@link #OBJECT_NAME_PREFIX} plus the api server, along with the
+ * number of calls waiting.
+ */
+public class RateLimiter extends LatencyStats implements RateLimiterMBean {
+
+    static final Logger LOGGER = Logger.getLogger(RateLimiter.class.getName());
+
+    public static final String OBJECT_NAME_PREFIX = "com.openshift.jenkins.plugins.pipeline:type=RateLimiter";
+
+    static final double DEFAULT_QPS = 50;
+    static final int DEFAULT_BURST = 100;
+
+    public enum Priority {
+        // ordered from most to least urgent
+        MUTATE, READ, POLL
+    }
+
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentSkipListMap<String, RateLimiter>();
+
+    // as last set from the global configuration
+    private static volatile String configuredRates;
+
+    private final String apiURL;
+    private final AtomicLong throttled = new AtomicLong();
+
+    // guarded by this
+    private double qps = DEFAULT_QPS;
+    private int burst = DEFAULT_BURST;
+    private double tokens = DEFAULT_BURST;
+    private long refilled = now();
+    private long sequence;
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<Ticket>();
+
+    private static final class Ticket implements Comparable<Ticket> {
+        final Priority priority;
+        final long sequence;
+
+        Ticket(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Ticket o) {
+            int c = priority.compareTo(o.priority);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+
+    RateLimiter(String apiURL) {
+        this.apiURL = apiURL;
+    }
+
+    static String key(String apiURL) {
+        if (apiURL == null)
+            return "";
+        apiURL = apiURL.trim();
+        while (apiURL.endsWith("/"))
+            apiURL = apiURL.substring(0, apiURL.length() - 1);
+        return apiURL;
+    }
+
+    public static RateLimiter forCluster(String apiURL) {
+        String key = key(apiURL);
+        RateLimiter limiter = LIMITERS.get(key);
+        if (limiter != null)
+            return limiter;
+        RateLimiter created = new RateLimiter(key);
+        limiter = LIMITERS.putIfAbsent(key, created);
+        if (limiter != null)
+            return limiter;
+        // after the put, so a concurrent change of the configuration is not
+        // missed
+        created.applyConfigured(configuredRates);
+        register(created, OBJECT_NAME_PREFIX + ",cluster="
+                + ObjectName.quote(key));
+        return created;
+    }
+
+    /**
+     * @return the priority of a call with the verb made from this thread
+     */
+    public static Priority priorityOf(String verb) {
+        if (!"GET".equalsIgnoreCase(verb) && !"LIST".equalsIgnoreCase(verb)
+                && !"HEAD".equalsIgnoreCase(verb))
+            return Priority.MUTATE;
+        return StepPoller.inAttempt() ? Priority.POLL : Priority.READ;
+    }
+
+    // every api server limited so far, in order
+    public static Map<String, RateLimiter> getAll() {
+        return Collections.unmodifiableMap(LIMITERS);
+    }
+
+    /**
+     * Sets the rates from the global configuration, for the limiters there
+     * are and those to come: a comma separated list of <code>qps/burst</code>
+     * for every api server, and <code>apiURL=qps/burst</code> for a given one,
+     * where the burst may be left out (it is then twice the qps). A qps of 0
+     * lifts the limit. Api servers the configuration does not cover get the
+     * defaults.
+     */
+    public static void setConfiguredRates(String value) {
+        configuredRates = value;
+        for (RateLimiter limiter : LIMITERS.values()) {
+            limiter.applyConfigured(value);
+        }
+    }
+
+    public static boolean isValidRates(String value) {
+        try {
+            ratesFor(value, null);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return { qps, burst } for apiURL in the configuration value, or null
+     *         if the value has none for it; every entry is checked, whether
+     *         it applies or not
+     * @throws NumberFormatException
+     *             if an entry does not parse
+     */
+    static double[] ratesFor(String value, String apiURL) {
+        if (value == null)
+            return null;
+        String key = key(apiURL);
+        double[] all = null;
+        double[] mine = null;
+        for (String entry : value.split("[,\\s]+")) {
+            if (entry.isEmpty())
+                continue;
+            int eq = entry.lastIndexOf('=');
+            double[] rates = parseRates(eq < 0 ? entry : entry
+                    .substring(eq + 1));
+            if (eq < 0) {
+                if (all == null)
+                    all = rates;
+            } else if (mine == null && key(entry.substring(0, eq)).equals(key)) {
+                mine = rates;
+            }
+        }
+        return mine != null ? mine : all;
+    }
+
+    private static double[] parseRates(String rates) {
+        int slash = rates.indexOf('/');
+        double qps = Double.parseDouble(slash < 0 ? rates : rates.substring(0,
+                slash));
+        double burst = slash < 0 ? Math.ceil(qps * 2) : Integer
+                .parseInt(rates.substring(slash + 1));
+        if (qps < 0 || burst < 0 || Double.isNaN(qps) || Double.isInfinite(qps))
+            throw new NumberFormatException(rates);
+        return new double[] { qps, burst };
+    }
+
+    void applyConfigured(String value) {
+        double[] rates = null;
+        try {
+            rates = ratesFor(value, apiURL);
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.FINE, "bad rates " + value, e);
+        }
+        if (rates != null)
+            setRates(rates[0], (int) rates[1]);
+        else
+            setRates(DEFAULT_QPS, DEFAULT_BURST);
+    }
+
+    public synchronized void setRates(double qps, int burst) {
+        refill();
+        this.qps = Math.max(0, qps);
+        this.burst = Math.max(1, burst);
+        tokens = Math.min(tokens, this.burst);
+        notifyAll();
+    }
+
+    /**
+     * Takes a token, waiting behind the more urgent or earlier calls if none
+     * is left.
+     */
+    public void acquire(Priority priority) throws InterruptedException {
+        long started = now();
+        boolean waited = false;
+        synchronized (this) {
+            Ticket ticket = new Ticket(priority, sequence++);
+            queue.add(ticket);
+            try {
+                while (true) {
+                    if (qps <= 0) {
+                        break;
+                    }
+                    refill();
+                    if (queue.peek() == ticket && tokens >= 1) {
+                        tokens--;
+                        break;
+                    }
+                    waited = true;
+                    // the head waits for the next token; the others until the
+                    // head is through
+                    if (queue.peek() == ticket)
+                        wait(Math.max(1,
+                                (long) Math.ceil((1 - tokens) * 1000 / qps)));
+                    else
+                        wait();
+                }
+            } finally {
+                queue.remove(ticket);
+                notifyAll();
+            }
+        }
+        if (waited)
+            throttled.incrementAndGet();
+        record(now() - started);
+    }
+
+    private void refill() {
+        long t = now();
+        tokens = Math.min(burst, tokens + (t - refilled) * qps / 1000);
+        refilled = t;
+    }
+
+    @Override
+    public synchronized double getQps() {
+        return qps;
+    }
+
+    @Override
+    public synchronized int getBurst() {
+        return burst;
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public String getApiURL() {
+        return apiURL;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of the rate limiter of one api server
+public interface RateLimiterMBean extends LatencyStatsMBean {
+
+    double getQps();
+
+    int getBurst();
+
+    int getQueueDepth();
+
+    long getThrottledCount();
+
+}
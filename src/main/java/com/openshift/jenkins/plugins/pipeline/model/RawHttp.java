@@ -0,0 +1,130 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.internal.restclient.DefaultClient;
+import com.openshift.internal.restclient.okhttp.ResponseCodeInterceptor;
+import com.openshift.restclient.IClient;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Plain GETs against the api server for {@link IOpenShiftPlugin#httpGet} and
+ * {@link ApiDiscoveryCache}, and the PATCHes of {@link IOpenShiftCreator}'s
+ * apply mode, which the rest client cannot make; they are made with the OkHttpClient of the shared client:
+ * its connection pool, dispatcher, authenticator and trust settings (built
+ * from the step's CA certs) are reused rather than rebuilt for every request.
+ *
+ * The rest client's response code interceptor is left out, so that a code
+ * other than 2xx surfaces as an {@link UnexpectedResponseException} carrying
+ * it, rather than only in the message when the body is not a Status. HTTP/2
+ * is offered where the shared client does not already, and OkHttp asks for
+ * and transparently unzips gzip bodies as long as we do not set
+ * Accept-Encoding ourselves. Bodies are handed back as streams so callers can
+ * parse them as they arrive. The calls are retried, rate limited and counted
+ * like the step's other api calls when made through its RetryIClient.
+ */
+final class RawHttp {
+
+    // clients derived as above, keyed by the shared client they derive from;
+    // they share its pool and dispatcher, and go with it
+    private static final Map<OkHttpClient, OkHttpClient> DERIVED = new WeakHashMap<OkHttpClient, OkHttpClient>();
+
+    private RawHttp() {
+    }
+
+    /**
+     * @return the body of url; closing the stream hands the connection back
+     *         to the pool
+     * @throws UnexpectedResponseException
+     *             if the api server did not return a 2xx
+     * @throws IOException
+     *             if there is no client to make the GET with
+     */
+    static InputStream get(IClient client, String url) throws IOException {
+        DefaultClient defaultClient = unwrap(client);
+        if (client instanceof RetryIClient)
+            return ((RetryIClient) client).call("GET", "raw",
+                    () -> get(defaultClient, url));
+        return get(defaultClient, url);
+    }
+
+    private static InputStream get(DefaultClient defaultClient, String url)
+            throws IOException {
+        Request request = defaultClient.newRequestBuilderTo(url).get().build();
+        Response response = okClient(defaultClient).newCall(request).execute();
+        if (!response.isSuccessful()) {
+            response.body().close();
+            throw new UnexpectedResponseException("GET", url, response.code());
+        }
+        return response.body().byteStream();
+    }
+
+    /**
+     * Sends a patch of the given content type, i.e.
+     * application/merge-patch+json, to url.
+     *
+     * @throws UnexpectedResponseException
+     *             if the api server did not return a 2xx
+     */
+    static void patch(IClient client, String kind, String url,
+            String contentType, String body) throws IOException {
+        DefaultClient defaultClient = unwrap(client);
+        if (client instanceof RetryIClient) {
+            ((RetryIClient) client).call("PATCH", kind, () -> {
+                patch(defaultClient, url, contentType, body);
+                return null;
+            });
+            return;
+        }
+        patch(defaultClient, url, contentType, body);
+    }
+
+    private static void patch(DefaultClient defaultClient, String url,
+            String contentType, String body) throws IOException {
+        Request request = defaultClient.newRequestBuilderTo(url)
+                .patch(RequestBody.create(MediaType.parse(contentType), body))
+                .build();
+        Response response = okClient(defaultClient).newCall(request).execute();
+        response.body().close();
+        if (!response.isSuccessful())
+            throw new UnexpectedResponseException("PATCH", url,
+                    response.code());
+    }
+
+    static OkHttpClient okClient(DefaultClient client) {
+        OkHttpClient shared = client.adapt(OkHttpClient.class);
+        synchronized (DERIVED) {
+            OkHttpClient derived = DERIVED.get(shared);
+            if (derived == null) {
+                OkHttpClient.Builder builder = shared.newBuilder();
+                builder.interceptors().removeIf(
+                        i -> i instanceof ResponseCodeInterceptor);
+                if (!shared.protocols().contains(Protocol.HTTP_2))
+                    builder.protocols(Arrays.asList(Protocol.HTTP_2,
+                            Protocol.HTTP_1_1));
+                derived = builder.build();
+                DERIVED.put(shared, derived);
+            }
+            return derived;
+        }
+    }
+
+    private static DefaultClient unwrap(IClient client) throws IOException {
+        if (client instanceof RetryIClient)
+            client = ((RetryIClient) client).getDefaultClient();
+        if (!(client instanceof DefaultClient))
+            throw new IOException("no client available");
+        return (DefaultClient) client;
+    }
+
+}
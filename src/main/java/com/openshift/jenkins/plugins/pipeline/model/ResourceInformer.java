@@ -0,0 +1,414 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.IOpenShiftWatchListener;
+import com.openshift.restclient.IWatcher;
+import com.openshift.restclient.model.IResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.util.Timer;
+
+/**
+ * A local, watch maintained copy of all the resources of one kind in one
+ * namespace, shared by every step that needs them. Instances are created and
+ * reference counted by {@link SharedInformers}.
+ *
+ * Resources are stored by name; additional indexes (i.e. by label) can be
+ * registered with {@link #addIndex(String, Function)}. Reads never block and
+ * go straight to the concurrent maps; the store is only written from the watch
+ * callbacks.
+ *
+ * The store is only trusted while the watch is connected. While it is not,
+ * {@link #isSynced()} returns false and callers go to the api server instead.
+ * Once a watch attempt has failed, {@link #awaitSync(long)} does not wait for
+ * the reconnects, which back off and may never succeed (i.e. when the
+ * service account may list but not watch).
+ *
+ * Each watch has its own listener, and only the current one counts: a watcher
+ * that was stopped (i.e. by a restart) may still call back, and must neither
+ * unsync the store nor schedule yet another restart. A lost watch schedules
+ * one reconnect, however many of disconnected() and error() it calls.
+ */
+public class ResourceInformer {
+
+    static final Logger LOGGER = Logger.getLogger(ResourceInformer.class
+            .getName());
+
+    static final long MIN_RECONNECT_DELAY = TimeUnit.SECONDS.toMillis(1);
+    static final long MAX_RECONNECT_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    private final IClient client;
+    private final String namespace;
+    private final String kind;
+
+    private final Map<String, IResource> store = new ConcurrentHashMap<String, IResource>();
+    private final Map<String, Function<IResource, Collection<String>>> indexers = new ConcurrentHashMap<String, Function<IResource, Collection<String>>>();
+    private final Map<String, Map<String, Set<String>>> indexes = new ConcurrentHashMap<String, Map<String, Set<String>>>();
+
+    final AtomicInteger refs = new AtomicInteger();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong relists = new AtomicLong();
+
+    private IWatcher watcher;
+    private Listener current;
+    private volatile boolean synced;
+    // the last watch attempt failed, and no watch has connected since
+    private volatile boolean failing;
+    private volatile boolean stopped;
+    private volatile long lastSync;
+    private volatile long lastEvent;
+    private volatile long unsyncedSince = now();
+    private volatile long idleSince;
+    private long reconnectDelay = MIN_RECONNECT_DELAY;
+
+    ResourceInformer(IClient client, String namespace, String kind) {
+        this.client = client;
+        this.namespace = namespace;
+        this.kind = kind;
+    }
+
+    IClient getClient() {
+        return client;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public boolean isSynced() {
+        return synced && !stopped;
+    }
+
+    /**
+     * @return the resource with the given name, or null if it is not in the
+     *         store
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends IResource> T get(String name) {
+        return (T) store.get(name);
+    }
+
+    public List<IResource> list() {
+        return new ArrayList<IResource>(store.values());
+    }
+
+    /**
+     * Registers an index over the store; indexFunc returns the index values
+     * for a resource, and {@link #byIndex(String, String)} returns the
+     * resources with a given value. Registering an index that already exists
+     * is a no-op.
+     */
+    public synchronized void addIndex(String indexName,
+            Function<IResource, Collection<String>> indexFunc) {
+        if (indexers.containsKey(indexName))
+            return;
+        indexers.put(indexName, indexFunc);
+        Map<String, Set<String>> index = new ConcurrentHashMap<String, Set<String>>();
+        indexes.put(indexName, index);
+        for (IResource resource : store.values()) {
+            addToIndex(index, indexFunc, resource);
+        }
+    }
+
+    public <T extends IResource> List<T> byIndex(String indexName, String value) {
+        Map<String, Set<String>> index = indexes.get(indexName);
+        if (index == null)
+            return Collections.emptyList();
+        Set<String> names = index.get(value);
+        if (names == null)
+            return Collections.emptyList();
+        List<T> result = new ArrayList<T>(names.size());
+        for (String name : names) {
+            @SuppressWarnings("unchecked")
+            T resource = (T) store.get(name);
+            if (resource != null)
+                result.add(resource);
+        }
+        return result;
+    }
+
+    /**
+     * Waits up to timeoutMillis for the watch's initial list (or a relist) to
+     * land in the store, or until a watch attempt fails.
+     *
+     * @return whether the informer is synced
+     */
+    public synchronized boolean awaitSync(long timeoutMillis)
+            throws InterruptedException {
+        long deadline = now() + timeoutMillis;
+        while (!isSynced() && !stopped && !failing) {
+            long remaining = deadline - now();
+            if (remaining <= 0)
+                break;
+            wait(remaining);
+        }
+        return isSynced();
+    }
+
+    // staleness: 0 while the watch is connected, otherwise how long the store
+    // has gone without updates
+    public long getStalenessMillis() {
+        return isSynced() ? 0 : now() - unsyncedSince;
+    }
+
+    public long getLastEventAgeMillis() {
+        long last = Math.max(lastEvent, lastSync);
+        return last == 0 ? -1 : now() - last;
+    }
+
+    public long getEventCount() {
+        return events.get();
+    }
+
+    public long getRelistCount() {
+        return relists.get();
+    }
+
+    public int getSize() {
+        return store.size();
+    }
+
+    long getIdleSince() {
+        return idleSince;
+    }
+
+    void markIdle() {
+        idleSince = now();
+    }
+
+    synchronized void start() {
+        if (stopped)
+            return;
+        current = new Listener();
+        try {
+            watcher = client.watch(namespace, current, kind);
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "watch of " + kind + " in " + namespace
+                    + " failed", t);
+            failing = true;
+            notifyAll();
+            scheduleReconnect();
+        }
+    }
+
+    synchronized void stop() {
+        stopped = true;
+        synced = false;
+        current = null;
+        notifyAll();
+        if (watcher != null) {
+            try {
+                watcher.stop();
+            } catch (Throwable t) {
+                LOGGER.log(Level.FINE, "stop", t);
+            }
+            watcher = null;
+        }
+        store.clear();
+        for (Map<String, Set<String>> index : indexes.values()) {
+            index.clear();
+        }
+    }
+
+    private void scheduleReconnect() {
+        if (stopped)
+            return;
+        long delay = reconnectDelay;
+        reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY);
+        Timer.get().schedule(new Runnable() {
+            @Override
+            public void run() {
+                restart();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void restart() {
+        if (stopped)
+            return;
+        // the old watcher's callbacks are ignored from here on
+        current = null;
+        if (watcher != null) {
+            try {
+                watcher.stop();
+            } catch (Throwable t) {
+                LOGGER.log(Level.FINE, "stop", t);
+            }
+            watcher = null;
+        }
+        start();
+    }
+
+    private synchronized void connected(Listener from,
+            List<IResource> resources) {
+        if (stopped || from != current)
+            return;
+        // the watch lists before it watches, so this is a full resync
+        store.clear();
+        for (Map<String, Set<String>> index : indexes.values()) {
+            index.clear();
+        }
+        if (resources != null) {
+            for (IResource resource : resources) {
+                put(resource);
+            }
+        }
+        relists.incrementAndGet();
+        lastSync = now();
+        reconnectDelay = MIN_RECONNECT_DELAY;
+        synced = true;
+        failing = false;
+        notifyAll();
+    }
+
+    private synchronized void lost(Listener from, Throwable err) {
+        if (stopped || from != current)
+            return;
+        if (err != null)
+            LOGGER.log(Level.FINE, "watch of " + kind + " in " + namespace
+                    + " errored", err);
+        // so the other of disconnected() and error() does not reconnect again
+        current = null;
+        if (synced)
+            unsyncedSince = now();
+        synced = false;
+        failing = true;
+        notifyAll();
+        scheduleReconnect();
+    }
+
+    private synchronized void received(Listener from, IResource resource,
+            IOpenShiftWatchListener.ChangeType change) {
+        if (stopped || from != current || resource == null)
+            return;
+        events.incrementAndGet();
+        lastEvent = now();
+        if (IOpenShiftWatchListener.ChangeType.DELETED.equals(change)) {
+            remove(resource.getName());
+        } else {
+            put(resource);
+        }
+    }
+
+    // the callbacks of one watcher
+    private final class Listener implements IOpenShiftWatchListener {
+
+        @Override
+        public void connected(List<IResource> resources) {
+            ResourceInformer.this.connected(this, resources);
+        }
+
+        @Override
+        public void disconnected() {
+            lost(this, null);
+        }
+
+        @Override
+        public void received(IResource resource, ChangeType change) {
+            ResourceInformer.this.received(this, resource, change);
+        }
+
+        @Override
+        public void error(Throwable err) {
+            lost(this, err);
+        }
+    }
+
+    private void put(IResource resource) {
+        IResource old = store.put(resource.getName(), resource);
+        for (Map.Entry<String, Function<IResource, Collection<String>>> e : indexers
+                .entrySet()) {
+            Map<String, Set<String>> index = indexes.get(e.getKey());
+            if (old != null)
+                removeFromIndex(index, e.getValue(), old);
+            addToIndex(index, e.getValue(), resource);
+        }
+    }
+
+    private void remove(String name) {
+        IResource old = store.remove(name);
+        if (old == null)
+            return;
+        for (Map.Entry<String, Function<IResource, Collection<String>>> e : indexers
+                .entrySet()) {
+            removeFromIndex(indexes.get(e.getKey()), e.getValue(), old);
+        }
+    }
+
+    private static void addToIndex(Map<String, Set<String>> index,
+            Function<IResource, Collection<String>> indexFunc,
+            IResource resource) {
+        Collection<String> values = indexFunc.apply(resource);
+        if (values == null)
+            return;
+        for (String value : values) {
+            index.computeIfAbsent(value,
+                    k -> ConcurrentHashMap.<String> newKeySet()).add(
+                    resource.getName());
+        }
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index,
+            Function<IResource, Collection<String>> indexFunc,
+            IResource resource) {
+        Collection<String> values = indexFunc.apply(resource);
+        if (values == null)
+            return;
+        for (String value : values) {
+            Set<String> names = index.get(value);
+            if (names != null) {
+                names.remove(resource.getName());
+                if (names.isEmpty())
+                    index.remove(value, names);
+            }
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * A reference to a shared informer held for the duration of a step;
+     * closing it releases the reference.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final SharedInformers owner;
+        private final ResourceInformer informer;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Lease(SharedInformers owner, ResourceInformer informer) {
+            this.owner = owner;
+            this.informer = informer;
+        }
+
+        public ResourceInformer getInformer() {
+            return informer;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true))
+                owner.release(informer);
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.SimpleDateFormat;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TimeZone;
+
+/**
+ * Turns the json/yaml given to the creator and deleter steps into one
+ * resource node at a time.
+ *
+ * The format is picked from the first non blank character rather than by
+ * trying json and catching the failure. Yaml may hold several documents
+ * separated by ---; each is parsed only when the previous one has been
+ * consumed, and is converted straight to a {@link ModelNode} instead of going
+ * through a json string. Items of a List are handed out one by one, and the
+ * parsed copy of each is dropped as soon as it is converted.
+ *
+ * Parse errors in later yaml documents surface as runtime exceptions from
+ * {@link Iterator#hasNext()} or {@link Iterator#next()}.
+ */
+public final class ResourceStream implements Iterator<ModelNode> {
+
+    private final Iterator<?> docs;
+    private Iterator<?> items = Collections.emptyIterator();
+    private ModelNode next;
+
+    private ResourceStream(Iterator<?> docs) {
+        this.docs = docs;
+    }
+
+    public static Iterator<ModelNode> parse(String jsonyaml) {
+        if (isJson(jsonyaml)) {
+            try {
+                return new ResourceStream(Collections.singletonList(
+                        ModelNode.fromJSONString(jsonyaml)).iterator());
+            } catch (RuntimeException e) {
+                // a yaml flow mapping, i.e. {kind: Pod, ...}, also starts
+                // with a brace; let the yaml parser have it
+            }
+        }
+        Yaml yaml = new Yaml(new SafeConstructor());
+        return new ResourceStream(yaml.loadAll(jsonyaml).iterator());
+    }
+
+    static boolean isJson(String jsonyaml) {
+        for (int i = 0; i < jsonyaml.length(); i++) {
+            char c = jsonyaml.charAt(i);
+            if (Character.isWhitespace(c) || c == '\uFEFF')
+                continue;
+            return c == '{' || c == '[';
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (items.hasNext()) {
+                next = take(items);
+                continue;
+            }
+            if (!docs.hasNext())
+                return false;
+            Object doc = docs.next();
+            if (doc == null)
+                continue;
+            if (doc instanceof ModelNode) {
+                ModelNode node = (ModelNode) doc;
+                if (node.getType() == ModelType.LIST) {
+                    items = node.asList().iterator();
+                } else if (node.hasDefined("kind")
+                        && "List".equalsIgnoreCase(node.get("kind").asString())
+                        && node.hasDefined("items")) {
+                    items = node.get("items").asList().iterator();
+                } else {
+                    next = node;
+                }
+            } else if (doc instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) doc;
+                Object kind = map.get("kind");
+                Object list = map.get("items");
+                if (kind != null && "List".equalsIgnoreCase(kind.toString())
+                        && list instanceof List) {
+                    items = ((List<?>) list).listIterator();
+                } else {
+                    next = toModelNode(map);
+                }
+            } else if (doc instanceof List) {
+                items = ((List<?>) doc).listIterator();
+            } else {
+                throw new IllegalArgumentException(
+                        "not a resource or list of resources: " + doc);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ModelNode next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        ModelNode node = next;
+        next = null;
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ModelNode take(Iterator<?> items) {
+        Object item = items.next();
+        if (item instanceof ModelNode)
+            return (ModelNode) item;
+        // the parsed copy is not needed once converted
+        if (items instanceof ListIterator)
+            ((ListIterator<Object>) items).set(null);
+        return toModelNode(item);
+    }
+
+    /**
+     * Converts what SnakeYAML's SafeConstructor produces to a ModelNode.
+     */
+    public static ModelNode toModelNode(Object value) {
+        ModelNode node = new ModelNode();
+        set(node, value);
+        return node;
+    }
+
+    private static void set(ModelNode node, Object value) {
+        if (value == null) {
+            return;
+        } else if (value instanceof Map) {
+            node.setEmptyObject();
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                // a key with no value is the same as no key to the api server
+                if (e.getValue() != null)
+                    set(node.get(String.valueOf(e.getKey())), e.getValue());
+            }
+        } else if (value instanceof List) {
+            node.setEmptyList();
+            for (Object element : (List<?>) value) {
+                set(node.add(), element);
+            }
+        } else if (value instanceof String) {
+            node.set((String) value);
+        } else if (value instanceof Boolean) {
+            node.set((Boolean) value);
+        } else if (value instanceof Integer) {
+            node.set((Integer) value);
+        } else if (value instanceof Long) {
+            node.set((Long) value);
+        } else if (value instanceof BigInteger) {
+            node.set((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            node.set(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            node.set((BigDecimal) value);
+        } else if (value instanceof Date) {
+            SimpleDateFormat format = new SimpleDateFormat(
+                    "yyyy-MM-dd'T'HH:mm:ss'Z'");
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            node.set(format.format((Date) value));
+        } else if (value instanceof byte[]) {
+            node.set(Base64.getEncoder().encodeToString((byte[]) value));
+        } else {
+            node.set(value.toString());
+        }
+    }
+
+}
@@ -7,21 +7,18 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import com.openshift.internal.restclient.DefaultClient;
 import com.openshift.jenkins.plugins.pipeline.MessageConstants;
-import com.openshift.restclient.BadRequestException;
 import com.openshift.restclient.IClient;
 import com.openshift.restclient.IOpenShiftWatchListener;
 import com.openshift.restclient.IResourceFactory;
 import com.openshift.restclient.IWatcher;
-import com.openshift.restclient.NotFoundException;
 import com.openshift.restclient.OpenShiftException;
 import com.openshift.restclient.UnsupportedVersionException;
 import com.openshift.restclient.api.ITypeFactory;
 import com.openshift.restclient.authorization.IAuthorizationContext;
-import com.openshift.restclient.authorization.ResourceForbiddenException;
-import com.openshift.restclient.authorization.UnauthorizedException;
 import com.openshift.restclient.capability.CapabilityVisitor;
 import com.openshift.restclient.capability.ICapability;
 import com.openshift.restclient.model.IList;
@@ -30,90 +27,112 @@ import com.openshift.restclient.model.JSONSerializeable;
 
 public class RetryIClient implements IClient {
 
-    private static int MAX_RETRY = 3;
-
     private final IClient client;
     private final TaskListener listener;
 
-    private OpenShiftException handleError(Throwable t, Object call)
+    /**
+     * Makes the call, retrying failures as the {@link RetryPolicy} of the api
+     * server decides, each attempt waiting its turn at the {@link RateLimiter}
+     * of the api server. Each attempt is recorded in the ApiCallStats of the
+     * verb and kind, and in the timeline of the step making the call.
+     */
+    private Object retry(String verb, String kind, Callable<Object> call)
             throws OpenShiftException {
-        OpenShiftException ose = null;
-        if ((t instanceof BadRequestException)
-                || (t instanceof ResourceForbiddenException)
-                || (t instanceof UnauthorizedException)
-                || (t instanceof NotFoundException)) {
-            throw (OpenShiftException) t;
-        }
-        if (!(t instanceof OpenShiftException)) {
-            ose = new OpenShiftException(t, "retry", call);
-        } else {
-            ose = (OpenShiftException) t;
-        }
-        // rc=409, conflict, object modified currently does not have a special
-        // case exception in
-        // the rest client; for now, look for the expected text in the message
-        if (ose.getMessage().contains("409")
-                && ose.getMessage().contains("response code"))
-            throw ose;
-        if (ose.getCause() != null
-                && ose.getCause().getMessage().contains("409")
-                && ose.getCause().getMessage().contains("response code"))
-            throw ose;
-
-        listener.getLogger().println(
-                String.format(MessageConstants.RETRY, t.getMessage()));
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            throw new OpenShiftException(e, "retry", call);
-        }
-        return ose;
-    }
-
-    private Object retry(Callable<Object> call) throws OpenShiftException {
-        int retryCount = 0;
-        OpenShiftException ose = null;
-        while (retryCount < MAX_RETRY) {
+        ApiCallStats stats = ApiCallStats.get(verb, kind != null ? kind : "");
+        StepTimeline timeline = StepTimeline.current();
+        URL baseURL = client.getBaseURL();
+        RetryPolicy policy = RetryPolicy.forCluster(baseURL != null ? baseURL
+                .toString() : null);
+        RateLimiter limiter = RateLimiter.forCluster(baseURL != null ? baseURL
+                .toString() : null);
+        RateLimiter.Priority priority = RateLimiter.priorityOf(verb);
+        for (int attempt = 1;; attempt++) {
+            boolean probe = policy.admit();
+            Throwable failure;
+            int status;
+            // an attempt that ends before its call is made (i.e. interrupted
+            // waiting for the rate limiter) neither succeeds nor fails, so it
+            // must hand back the breaker's probe if it took it
+            boolean settled = false;
             try {
-                Object o = call.call();
-                return o;
-            } catch (Throwable t) {
-                retryCount++;
-                ose = handleError(t, call);
+                try {
+                    limiter.acquire(priority);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new OpenShiftException(e, "rate limit", call);
+                }
+                long start = System.nanoTime();
+                try {
+                    Object o = call.call();
+                    measure(stats, timeline, start, null);
+                    policy.succeeded();
+                    settled = true;
+                    return o;
+                } catch (Throwable t) {
+                    failure = t;
+                }
+                settled = true;
+                measure(stats, timeline, start, failure);
+                status = ApiCallStats.statusOf(failure);
+                policy.failed(status, failure);
+            } finally {
+                if (probe && !settled)
+                    policy.abandoned();
+            }
+            OpenShiftException ose = failure instanceof OpenShiftException ? (OpenShiftException) failure
+                    : new OpenShiftException(failure, "retry", call);
+
+            long delay = policy.retryDelay(verb, attempt, status, failure);
+            if (delay < 0) {
+                if (attempt > 1 || RetryPolicy.isRetriable(status, failure,
+                        RetryPolicy.isIdempotent(verb)))
+                    listener.getLogger().println(
+                            String.format(MessageConstants.GIVE_UP_RETRY,
+                                    ose.getCause() != null ? ose.getCause()
+                                            .getMessage() : ose.getMessage()));
+                throw ose;
             }
-        }
-        if (ose.getCause() != null)
-            listener.getLogger().println(
-                    String.format(MessageConstants.GIVE_UP_RETRY, ose
-                            .getCause().getMessage()));
-        else
-            listener.getLogger().println(
-                    String.format(MessageConstants.GIVE_UP_RETRY,
-                            ose.getMessage()));
-        throw ose;
-    }
 
-    private void retry(Runnable call) throws OpenShiftException {
-        int retryCount = 0;
-        OpenShiftException ose = null;
-        while (retryCount < MAX_RETRY) {
+            listener.getLogger().println(
+                    String.format(MessageConstants.RETRY, failure.getMessage()));
+            stats.retried();
+            if (timeline != null)
+                timeline.apiRetry();
             try {
-                call.run();
-                return;
-            } catch (Throwable t) {
-                retryCount++;
-                ose = handleError(t, call);
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OpenShiftException(e, "retry", call);
             }
         }
-        if (ose.getCause() != null)
-            listener.getLogger().println(
-                    String.format(MessageConstants.GIVE_UP_RETRY, ose
-                            .getCause().getMessage()));
-        else
-            listener.getLogger().println(
-                    String.format(MessageConstants.GIVE_UP_RETRY,
-                            ose.getMessage()));
-        throw ose;
+    }
+
+    private void retry(String verb, String kind, Runnable call)
+            throws OpenShiftException {
+        retry(verb, kind, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Makes a call the rest client cannot (i.e. a conditional GET straight
+     * over its OkHttpClient) with the same retries, rate limit and stats as
+     * the others. A failure the call should retry on must carry its response
+     * code, i.e. as an {@link UnexpectedResponseException}.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T call(String verb, String kind, Callable<T> call)
+            throws OpenShiftException {
+        return (T) retry(verb, kind, (Callable<Object>) () -> call.call());
+    }
+
+    private static void measure(ApiCallStats stats, StepTimeline timeline,
+            long start, Throwable failure) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        stats.record(millis, failure);
+        if (timeline != null)
+            timeline.apiCall(millis, failure != null);
     }
 
     public RetryIClient(IClient c, TaskListener l) {
@@ -157,97 +176,105 @@ public class RetryIClient implements IClient {
 
     @Override
     public <T extends IResource> List<T> list(String kind) {
-        return (List<T>) retry(() -> client.list(kind));
+        return (List<T>) retry("LIST", kind, () -> client.list(kind));
     }
 
     @Override
     public <T extends IResource> List<T> list(String kind,
             Map<String, String> labels) {
-        return (List<T>) retry(() -> client.list(kind, labels));
+        return (List<T>) retry("LIST", kind, () -> client.list(kind, labels));
     }
 
     @Override
     public <T extends IResource> List<T> list(String kind, String namespace) {
-        return (List<T>) retry(() -> client.list(kind, namespace));
+        return (List<T>) retry("LIST", kind,
+                () -> client.list(kind, namespace));
     }
 
     @Override
     public <T extends IResource> List<T> list(String kind, String namespace,
             Map<String, String> labels) {
-        return (List<T>) retry(() -> client.list(kind, namespace, labels));
+        return (List<T>) retry("LIST", kind,
+                () -> client.list(kind, namespace, labels));
     }
 
     @Override
     public <T extends IResource> List<T> list(String kind, String namespace,
             String labelQuery) {
-        return (List<T>) retry(() -> client.list(kind, namespace, labelQuery));
+        return (List<T>) retry("LIST", kind,
+                () -> client.list(kind, namespace, labelQuery));
     }
 
     @Override
     public <T extends IResource> T get(String kind, String name,
             String namespace) {
-        return (T) retry(() -> client.get(kind, name, namespace));
+        return (T) retry("GET", kind,
+                () -> client.get(kind, name, namespace));
     }
 
     @Override
     public IList get(String kind, String namespace) {
-        return (IList) retry(() -> client.get(kind, namespace));
+        return (IList) retry("LIST", kind,
+                () -> client.get(kind, namespace));
     }
 
     @Override
     public <T extends IResource> T create(T resource) {
-        return (T) retry(() -> client.create(resource));
+        return (T) retry("CREATE", resource.getKind(),
+                () -> client.create(resource));
     }
 
     @Override
     public <T extends IResource> T create(T resource, String namespace) {
-        return (T) retry(() -> client.create(resource, namespace));
+        return (T) retry("CREATE", resource.getKind(),
+                () -> client.create(resource, namespace));
     }
 
     @Override
     public <T extends IResource> T create(String kind, String namespace,
             String name, String subresource, IResource payload) {
-        return (T) retry(() -> client.create(kind, namespace, name,
-                subresource, payload));
+        return (T) retry("CREATE", kind, () -> client.create(kind, namespace,
+                name, subresource, payload));
     }
 
     @Override
     public Collection<IResource> create(IList list, String namespace) {
-        return (Collection<IResource>) retry(() -> client.create(list,
-                namespace));
+        return (Collection<IResource>) retry("CREATE", "List",
+                () -> client.create(list, namespace));
     }
 
     @Override
     public <T extends IResource> T update(T resource) {
-        return (T) retry(() -> client.update(resource));
+        return (T) retry("UPDATE", resource.getKind(),
+                () -> client.update(resource));
     }
 
     @Override
     public <T extends IResource> void delete(T resource) {
-        retry(() -> client.delete(resource));
+        retry("DELETE", resource.getKind(), () -> client.delete(resource));
     }
 
     @Override
     public <T extends IResource> T execute(String httpMethod, String kind,
             String namespace, String name, String subresource, IResource payload) {
-        return (T) retry(() -> client.execute(httpMethod, kind, namespace,
-                name, subresource, payload));
+        return (T) retry(httpMethod, kind, () -> client.execute(httpMethod,
+                kind, namespace, name, subresource, payload));
     }
 
     @Override
     public <T extends IResource> T execute(String httpMethod, String kind,
             String namespace, String name, String subresource,
             IResource payload, Map<String, String> params) {
-        return (T) retry(() -> client.execute(httpMethod, kind, namespace,
-                name, subresource, payload, params));
+        return (T) retry(httpMethod, kind, () -> client.execute(httpMethod,
+                kind, namespace, name, subresource, payload, params));
     }
 
     @Override
     public <T extends IResource> T execute(String httpMethod, String kind,
             String namespace, String name, String subresource,
             IResource payload, String subcontext) {
-        return (T) retry(() -> client.execute(httpMethod, kind, namespace,
-                name, subresource, payload, subcontext));
+        return (T) retry(httpMethod, kind, () -> client.execute(httpMethod,
+                kind, namespace, name, subresource, payload, subcontext));
     }
 
     @Override
@@ -255,8 +282,9 @@ public class RetryIClient implements IClient {
             String namespace, String name, String subresource,
             String subContext, JSONSerializeable payload,
             Map<String, String> params) {
-        return (T) retry(() -> client.execute(factory, httpMethod, kind,
-                namespace, name, subresource, subContext, payload, params));
+        return (T) retry(httpMethod, kind, () -> client.execute(factory,
+                httpMethod, kind, namespace, name, subresource, subContext,
+                payload, params));
     }
 
     @Override
@@ -286,7 +314,8 @@ public class RetryIClient implements IClient {
 
     @Override
     public String getServerReadyStatus() {
-        return (String) retry(() -> client.getServerReadyStatus());
+        return (String) retry("GET", "healthz",
+                () -> client.getServerReadyStatus());
     }
 
     @Override
@@ -0,0 +1,310 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.model.IStatus;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Decides whether and when {@link RetryIClient} retries a failed call, with
+ * one instance per api server shared by every step against it.
+ *
+ * Whether a failure is retried depends on its HTTP status (see
+ * {@link ApiCallStats#statusOf}) and on whether the call is idempotent:
+ * <ul>
+ * <li>400, 401, 403, 404, 409 and 422 are never retried, they will not go
+ * away on their own</li>
+ * <li>429, 503 and failures to connect mean the api server did not act on
+ * the call, so any call is retried</li>
+ * <li>other 5xx statuses, timeouts and dropped connections leave the outcome
+ * unknown, so only idempotent calls (reads, updates and deletes) are
+ * retried; a create is not, as it could create twice</li>
+ * </ul>
+ *
+ * Retries wait an exponential backoff from {@link #BASE_DELAY} up to
+ * {@link #MAX_DELAY}, of which a random half to all is waited so that
+ * pipelines failing together do not retry together, or the Retry-After of a
+ * 429 or 503 if the api server sent one. Each retry takes a token from a
+ * budget that refills at {@link #BUDGET_REFILL} tokens a second up to
+ * {@link #BUDGET_CAPACITY}; once it is empty, failures are not retried, so a
+ * brownout does not turn into a retry storm.
+ *
+ * After {@link #BREAKER_THRESHOLD} server side failures in a row the circuit
+ * breaker opens: for {@link #BREAKER_OPEN} calls fail right away with a
+ * {@link CircuitOpenException}; then one call is let through, which closes
+ * the breaker if it succeeds and opens it again if not.
+ */
+public class RetryPolicy implements RetryPolicyMBean {
+
+    public static final String OBJECT_NAME_PREFIX = "com.openshift.jenkins.plugins.pipeline:type=RetryPolicy";
+
+    static final int MAX_ATTEMPTS = 3;
+    static final long BASE_DELAY = 500;
+    static final long MAX_DELAY = TimeUnit.SECONDS.toMillis(8);
+    // a Retry-After longer than this is not waited for
+    static final long MAX_RETRY_AFTER = TimeUnit.SECONDS.toMillis(60);
+    static final double BUDGET_CAPACITY = 30;
+    static final double BUDGET_REFILL = 3;
+    static final int BREAKER_THRESHOLD = 10;
+    static final long BREAKER_OPEN = TimeUnit.SECONDS.toMillis(30);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Map<String, RetryPolicy> POLICIES = new ConcurrentHashMap<String, RetryPolicy>();
+
+    private final String apiURL;
+
+    // guarded by this
+    private double tokens = BUDGET_CAPACITY;
+    private long refilled = now();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+
+    private final AtomicLong breakerOpened = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong retriesDenied = new AtomicLong();
+
+    RetryPolicy(String apiURL) {
+        this.apiURL = apiURL;
+    }
+
+    public static RetryPolicy forCluster(String apiURL) {
+        String key = apiURL != null ? apiURL : "";
+        RetryPolicy policy = POLICIES.get(key);
+        if (policy != null)
+            return policy;
+        RetryPolicy created = new RetryPolicy(key);
+        policy = POLICIES.putIfAbsent(key, created);
+        if (policy != null)
+            return policy;
+        LatencyStats.register(created, OBJECT_NAME_PREFIX + ",cluster="
+                + ObjectName.quote(key));
+        return created;
+    }
+
+    public static boolean isIdempotent(String verb) {
+        return "GET".equalsIgnoreCase(verb) || "LIST".equalsIgnoreCase(verb)
+                || "UPDATE".equalsIgnoreCase(verb)
+                || "PUT".equalsIgnoreCase(verb)
+                || "DELETE".equalsIgnoreCase(verb)
+                || "HEAD".equalsIgnoreCase(verb);
+    }
+
+    /**
+     * @return whether the failure is worth retrying, leaving aside the
+     *         attempts made and the budget
+     */
+    public static boolean isRetriable(int status, Throwable failure,
+            boolean idempotent) {
+        switch (status) {
+        case 429:
+        case 503:
+            return true;
+        case 0:
+            if (isConnectFailure(failure))
+                return true;
+            return idempotent;
+        default:
+            return status >= 500 && idempotent;
+        }
+    }
+
+    // the api server was never reached, so it did not act on the call
+    static boolean isConnectFailure(Throwable t) {
+        for (; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException
+                    || t instanceof UnknownHostException
+                    || t instanceof NoRouteToHostException)
+                return true;
+            if (t.getCause() == t)
+                break;
+        }
+        return false;
+    }
+
+    // a failure on the api server's side, as opposed to a rejected call
+    static boolean isServerFailure(int status, Throwable failure) {
+        if (status == 429 || status >= 500)
+            return true;
+        if (status != 0)
+            return false;
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof IOException)
+                return true;
+            if (t.getCause() == t)
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * @return the Retry-After the api server sent with a 429 or 503, in
+     *         milliseconds, or -1 if there was none
+     */
+    static long retryAfter(Throwable t) {
+        for (; t != null; t = t.getCause()) {
+            if (t instanceof OpenShiftException) {
+                IStatus status = ((OpenShiftException) t).getStatus();
+                if (status != null) {
+                    try {
+                        // a Status carries the header as
+                        // details.retryAfterSeconds
+                        ModelNode node = ModelNode.fromJSONString(status
+                                .toJson());
+                        if (node.hasDefined("details")
+                                && node.get("details").hasDefined(
+                                        "retryAfterSeconds"))
+                            return TimeUnit.SECONDS.toMillis(node
+                                    .get("details").get("retryAfterSeconds")
+                                    .asLong());
+                    } catch (RuntimeException e) {
+                        // not a Status we can read
+                    }
+                }
+            }
+            if (t.getCause() == t)
+                break;
+        }
+        return -1;
+    }
+
+    /**
+     * Lets a call through, or throws if the breaker is open.
+     *
+     * @return whether the call is the probe of a half open breaker, which
+     *         must be {@link #abandoned} if it is not made after all
+     */
+    public synchronized boolean admit() throws CircuitOpenException {
+        if (state == State.CLOSED)
+            return false;
+        long waited = now() - openedAt;
+        if (state == State.OPEN && waited >= BREAKER_OPEN) {
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        if (state == State.HALF_OPEN && !probing) {
+            // this call decides whether the breaker closes
+            probing = true;
+            return true;
+        }
+        rejected.incrementAndGet();
+        throw new CircuitOpenException(apiURL, Math.max(0, BREAKER_OPEN
+                - waited));
+    }
+
+    /**
+     * Hands back the probe of a half open breaker whose call was never made
+     * (i.e. it was interrupted first), so the next call probes instead.
+     */
+    public synchronized void abandoned() {
+        if (state == State.HALF_OPEN)
+            probing = false;
+    }
+
+    public synchronized void succeeded() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+        probing = false;
+    }
+
+    public synchronized void failed(int status, Throwable failure) {
+        if (!isServerFailure(status, failure)) {
+            // the api server is answering
+            succeeded();
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN
+                || (state == State.CLOSED && consecutiveFailures >= BREAKER_THRESHOLD)) {
+            state = State.OPEN;
+            openedAt = now();
+            probing = false;
+            breakerOpened.incrementAndGet();
+        }
+    }
+
+    /**
+     * Decides on a retry after a failed attempt, taking a token from the
+     * budget if there is to be one.
+     *
+     * @param attempt
+     *            the attempts made so far, from 1
+     * @return how long to wait before retrying, or -1 not to retry
+     */
+    public long retryDelay(String verb, int attempt, int status,
+            Throwable failure) {
+        if (attempt >= MAX_ATTEMPTS
+                || !isRetriable(status, failure, isIdempotent(verb)))
+            return -1;
+        long retryAfter = retryAfter(failure);
+        if (retryAfter > MAX_RETRY_AFTER)
+            return -1;
+        if (!takeToken()) {
+            retriesDenied.incrementAndGet();
+            return -1;
+        }
+        if (retryAfter >= 0)
+            return retryAfter;
+        long ceiling = Math.min(MAX_DELAY, BASE_DELAY << (attempt - 1));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private synchronized boolean takeToken() {
+        long t = now();
+        tokens = Math.min(BUDGET_CAPACITY, tokens + (t - refilled)
+                * BUDGET_REFILL / 1000);
+        refilled = t;
+        if (tokens < 1)
+            return false;
+        tokens--;
+        return true;
+    }
+
+    @Override
+    public synchronized String getBreakerState() {
+        return state.name();
+    }
+
+    @Override
+    public long getBreakerOpenCount() {
+        return breakerOpened.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public synchronized double getBudgetTokens() {
+        return Math.min(BUDGET_CAPACITY, tokens + (now() - refilled)
+                * BUDGET_REFILL / 1000);
+    }
+
+    @Override
+    public long getRetriesDenied() {
+        return retriesDenied.get();
+    }
+
+    // the clock the breaker and the budget go by
+    long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of the retry policy of one api server
+public interface RetryPolicyMBean {
+
+    String getBreakerState();
+
+    long getBreakerOpenCount();
+
+    long getRejectedCount();
+
+    double getBudgetTokens();
+
+    long getRetriesDenied();
+
+}
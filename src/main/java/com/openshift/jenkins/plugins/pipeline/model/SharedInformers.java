@@ -0,0 +1,252 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.model.IResource;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+import jenkins.util.Timer;
+
+/**
+ * Controller wide registry of {@link ResourceInformer}s, one per api server,
+ * token, namespace and kind. The token is part of the key so that resources
+ * read with one set of credentials are never served to steps running with
+ * another.
+ *
+ * Steps subscribe for the duration of their run (see
+ * {@link IOpenShiftPlugin#getInformerKinds()}); the informer keeps watching
+ * for {@link #LINGER} after its last subscriber leaves, so back to back steps
+ * do not re-list. Any code holding a client can read through
+ * {@link #get(IClient, String, String, String)}, which uses a synced informer
+ * when one exists and the api server otherwise.
+ */
+public class SharedInformers implements SharedInformersMBean {
+
+    static final Logger LOGGER = Logger.getLogger(SharedInformers.class
+            .getName());
+
+    public static final String OBJECT_NAME = "com.openshift.jenkins.plugins.pipeline:type=SharedInformers";
+
+    static final long LINGER = TimeUnit.MINUTES.toMillis(5);
+
+    private static final SharedInformers INSTANCE = new SharedInformers();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                    new ObjectName(OBJECT_NAME));
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "could not register " + OBJECT_NAME, t);
+        }
+    }
+
+    private final long linger;
+    private final Map<String, ResourceInformer> informers = new ConcurrentHashMap<String, ResourceInformer>();
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong storeMisses = new AtomicLong();
+
+    SharedInformers() {
+        this(LINGER);
+    }
+
+    // linger is how long idle informers are kept watching
+    SharedInformers(long linger) {
+        this.linger = linger;
+    }
+
+    public static SharedInformers getInstance() {
+        return INSTANCE;
+    }
+
+    static String key(IClient client, String namespace, String kind) {
+        String token = null;
+        try {
+            token = client.getAuthorizationContext().getToken();
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "key", t);
+        }
+        return client.getBaseURL() + "|" + ClientCache.sha256(token) + "|"
+                + namespace + "|" + kind;
+    }
+
+    // informers outlive the step that created them, so they get the shared
+    // client rather than the step's RetryIClient and its console logger
+    private static IClient unwrap(IClient client) {
+        if (client instanceof RetryIClient)
+            return ((RetryIClient) client).getDefaultClient();
+        return client;
+    }
+
+    public ResourceInformer.Lease subscribe(IClient client, String namespace,
+            String kind) {
+        String key = key(client, namespace, kind);
+        boolean[] created = new boolean[1];
+        ResourceInformer informer = informers.compute(key, (k, existing) -> {
+            ResourceInformer i = existing;
+            if (i == null) {
+                i = new ResourceInformer(unwrap(client), namespace, kind);
+                created[0] = true;
+            }
+            i.refs.incrementAndGet();
+            return i;
+        });
+        // the initial list happens here, outside of the map's lock
+        if (created[0])
+            informer.start();
+        return new ResourceInformer.Lease(this, informer);
+    }
+
+    void release(ResourceInformer informer) {
+        if (informer.refs.decrementAndGet() > 0)
+            return;
+        informer.markIdle();
+        Timer.get().schedule(new Runnable() {
+            @Override
+            public void run() {
+                stopIfIdle(informer);
+            }
+        }, linger, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopIfIdle(ResourceInformer informer) {
+        for (Map.Entry<String, ResourceInformer> e : informers.entrySet()) {
+            if (e.getValue() != informer)
+                continue;
+            informers.computeIfPresent(e.getKey(), (k, i) -> {
+                if (i.refs.get() > 0
+                        || TimeUnit.NANOSECONDS.toMillis(System.nanoTime())
+                                - i.getIdleSince() < linger)
+                    return i;
+                i.stop();
+                return null;
+            });
+        }
+    }
+
+    // whether an informer watches with client, which must not be closed then
+    boolean isUsing(IClient client) {
+        IClient shared = unwrap(client);
+        for (ResourceInformer informer : informers.values()) {
+            if (informer.getClient() == shared)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return a synced informer for the kind in the namespace, or null if no
+     *         step is currently keeping one up to date
+     */
+    public ResourceInformer find(IClient client, String namespace, String kind) {
+        ResourceInformer informer = informers
+                .get(key(client, namespace, kind));
+        return informer != null && informer.isSynced() ? informer : null;
+    }
+
+    /**
+     * Reads a resource from a synced informer if there is one, otherwise from
+     * the api server. A miss in the store also goes to the api server, as the
+     * resource may have been created after the last event was received.
+     */
+    public <T extends IResource> T get(IClient client, String kind,
+            String name, String namespace) {
+        ResourceInformer informer = find(client, namespace, kind);
+        if (informer != null) {
+            T resource = informer.get(name);
+            if (resource != null) {
+                storeHits.incrementAndGet();
+                return resource;
+            }
+        }
+        storeMisses.incrementAndGet();
+        return client.get(kind, name, namespace);
+    }
+
+    @Override
+    public int getInformerCount() {
+        return informers.size();
+    }
+
+    @Override
+    public int getSyncedInformerCount() {
+        int count = 0;
+        for (ResourceInformer informer : informers.values()) {
+            if (informer.isSynced())
+                count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        int count = 0;
+        for (ResourceInformer informer : informers.values()) {
+            count += informer.refs.get();
+        }
+        return count;
+    }
+
+    @Override
+    public int getCachedResourceCount() {
+        int count = 0;
+        for (ResourceInformer informer : informers.values()) {
+            count += informer.getSize();
+        }
+        return count;
+    }
+
+    @Override
+    public long getEventCount() {
+        long count = 0;
+        for (ResourceInformer informer : informers.values()) {
+            count += informer.getEventCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getRelistCount() {
+        long count = 0;
+        for (ResourceInformer informer : informers.values()) {
+            count += informer.getRelistCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getStoreHits() {
+        return storeHits.get();
+    }
+
+    @Override
+    public long getStoreMisses() {
+        return storeMisses.get();
+    }
+
+    @Override
+    public long getMaxStalenessMillis() {
+        long max = 0;
+        for (ResourceInformer informer : informers.values()) {
+            max = Math.max(max, informer.getStalenessMillis());
+        }
+        return max;
+    }
+
+    @Override
+    public long getMaxLastEventAgeMillis() {
+        long max = -1;
+        for (ResourceInformer informer : informers.values()) {
+            max = Math.max(max, informer.getLastEventAgeMillis());
+        }
+        return max;
+    }
+
+}
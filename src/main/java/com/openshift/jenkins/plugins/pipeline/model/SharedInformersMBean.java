@@ -0,0 +1,26 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of the informers maintained by SharedInformers
+public interface SharedInformersMBean {
+
+    int getInformerCount();
+
+    int getSyncedInformerCount();
+
+    int getSubscriberCount();
+
+    int getCachedResourceCount();
+
+    long getEventCount();
+
+    long getRelistCount();
+
+    long getStoreHits();
+
+    long getStoreMisses();
+
+    long getMaxStalenessMillis();
+
+    long getMaxLastEventAgeMillis();
+
+}
@@ -0,0 +1,348 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.model.IResource;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+/**
+ * Runs the waits of every step, so that many steps waiting at once share a few
+ * threads and do not stampede the api server.
+ *
+ * A wait is an {@link Attempt} that is run until it reports an outcome or its
+ * deadline passes. A small shared scheduler only times the attempts: each one
+ * is handed to the worker pool when it is due, so an attempt held up by a
+ * struggling api server (retry backoff, the rate limiter) delays no other
+ * wait. The asynchronous pipeline executions register with {@link #poll}; the
+ * freestyle and synchronous paths block in {@link #await}, but their attempts
+ * run here all the same.
+ *
+ * Attempts read resources through {@link #read}: identical reads (same api
+ * server, token, namespace, kind and name) that come in within
+ * {@link #TICK} of one another, i.e. from every step of a release wave
+ * waiting on the same deployment, share one call. The interval between
+ * attempts follows a {@link Backoff}, whose {@link WaitStrategy} is told
+ * whether a resource version read by the attempt changed since the last one.
+ *
+ * The one off work of a step (starting a build, the final checks) runs on the
+ * worker pool as well.
+ */
+public class StepPoller implements StepPollerMBean {
+
+    static final Logger LOGGER = Logger.getLogger(StepPoller.class.getName());
+
+    public static final String OBJECT_NAME = "com.openshift.jenkins.plugins.pipeline:type=StepPoller";
+
+    static final int SCHEDULER_THREADS = 4;
+    // reads of the same resource this close together are served by one call
+    static final long TICK = 500;
+
+    private static final StepPoller INSTANCE = new StepPoller();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                    new ObjectName(OBJECT_NAME));
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "could not register " + OBJECT_NAME, t);
+        }
+    }
+
+    // the resource versions read by the attempt running on this thread
+    private static final ThreadLocal<StringBuilder> OBSERVED = new ThreadLocal<StringBuilder>();
+
+    // only times the attempts; nothing that calls the api server runs on it
+    private final ScheduledExecutorService scheduler = Executors
+            .newScheduledThreadPool(SCHEDULER_THREADS, new NamingThreadFactory(
+                    new DaemonThreadFactory(), "OpenShiftStepPoller"));
+    private final ExecutorService workers = Executors
+            .newCachedThreadPool(new NamingThreadFactory(
+                    new DaemonThreadFactory(), "OpenShiftAsyncStep"));
+
+    private final Map<String, CompletableFuture<IResource>> reads = new ConcurrentHashMap<String, CompletableFuture<IResource>>();
+    private final AtomicInteger activeWaits = new AtomicInteger();
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong readCount = new AtomicLong();
+    private final AtomicLong coalescedReads = new AtomicLong();
+
+    public static StepPoller getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return whether the calling thread is running an attempt of a wait, so
+     *         that its api calls are status checks
+     */
+    public static boolean inAttempt() {
+        return OBSERVED.get() != null;
+    }
+
+    /**
+     * One check of the condition a step waits on; it must not block beyond
+     * the calls it makes to the api server, so one off work that may sleep
+     * (i.e. updates retried on a conflict) belongs before or after the wait.
+     */
+    public interface Attempt {
+        /**
+         * @return true if the wait succeeded, false if it failed, or null to
+         *         check again later
+         */
+        Boolean attempt() throws Exception;
+    }
+
+    /**
+     * The intervals between the attempts of one wait, as decided by a
+     * {@link WaitStrategy}. When the wait ends, what it cost is added to its
+     * {@link WaitStats}, if any.
+     */
+    public static final class Backoff {
+        private final WaitStrategy strategy;
+        private final WaitStats stats;
+        private final long baseline;
+        private final long started = System.currentTimeMillis();
+        private int attempts;
+        private long previous;
+        private long last;
+        private boolean recorded;
+
+        /**
+         * @param baseline
+         *            the fixed interval the wait used to sleep, which the
+         *            stats are set against
+         */
+        public Backoff(WaitStrategy strategy, WaitStats stats, long baseline) {
+            this.strategy = strategy;
+            this.stats = stats;
+            this.baseline = baseline;
+        }
+
+        /**
+         * An adaptive backoff from initial to max without a fast phase, and
+         * without stats.
+         */
+        public Backoff(long initial, long max) {
+            this(new WaitStrategies.Adaptive(initial, max, 0), null, 0);
+        }
+
+        synchronized long next(boolean changed) {
+            attempts++;
+            previous = strategy.next(attempts, previous, changed);
+            last = strategy.jitter(previous);
+            return last;
+        }
+
+        // called once the wait is over, or has timed out or been cancelled
+        synchronized void done(boolean over) {
+            if (recorded)
+                return;
+            recorded = true;
+            long elapsed = System.currentTimeMillis() - started;
+            if (stats != null)
+                stats.record(elapsed, attempts + 1, last,
+                        baseline, over);
+            if (LOGGER.isLoggable(Level.FINE))
+                LOGGER.fine("wait with " + strategy + " over: " + over
+                        + ", " + elapsed + " ms, last interval " + last
+                        + " ms");
+        }
+    }
+
+    /**
+     * Runs attempt right away, then after each {@link Backoff} interval until
+     * it returns a non null outcome, it throws, or deadline (in
+     * {@link System#currentTimeMillis()} terms, so it survives a restart) has
+     * passed. Cancelling the returned future stops the attempts.
+     *
+     * @return a future of the outcome, completed with null on timeout
+     */
+    public CompletableFuture<Boolean> poll(Attempt attempt, Backoff backoff,
+            long deadline) {
+        CompletableFuture<Boolean> outcome = new CompletableFuture<Boolean>();
+        // the attempts count towards the timeline of the step waiting
+        StepTimeline timeline = StepTimeline.current();
+        long started = System.currentTimeMillis();
+        activeWaits.incrementAndGet();
+        outcome.whenComplete((r, t) -> {
+            activeWaits.decrementAndGet();
+            backoff.done(r != null || (t != null && !outcome.isCancelled()));
+            if (timeline != null)
+                timeline.waited(System.currentTimeMillis() - started);
+        });
+        workers.execute(new Runnable() {
+            private String lastObserved;
+
+            @Override
+            public void run() {
+                if (outcome.isDone())
+                    return;
+                attempts.incrementAndGet();
+                StringBuilder observed = new StringBuilder();
+                OBSERVED.set(observed);
+                StepTimeline previous = timeline != null ? timeline.attach()
+                        : null;
+                try {
+                    Boolean result = attempt.attempt();
+                    if (result != null) {
+                        outcome.complete(result);
+                        return;
+                    }
+                } catch (CircuitOpenException e) {
+                    // the api server is struggling; check again later rather
+                    // than fail the wait
+                    LOGGER.log(Level.FINE, "attempt deferred", e);
+                } catch (Throwable t) {
+                    outcome.completeExceptionally(t);
+                    return;
+                } finally {
+                    OBSERVED.remove();
+                    if (timeline != null)
+                        StepTimeline.restore(previous);
+                }
+                String current = observed.toString();
+                boolean changed = lastObserved == null
+                        || !lastObserved.equals(current);
+                lastObserved = current;
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    outcome.complete(null);
+                    return;
+                }
+                scheduler.schedule(() -> workers.execute(this),
+                        Math.min(remaining, backoff.next(changed)),
+                        TimeUnit.MILLISECONDS);
+            }
+        });
+        return outcome;
+    }
+
+    /**
+     * Like {@link #poll}, but blocks the caller until the outcome is known.
+     * If the caller is interrupted, the attempts stop and the
+     * InterruptedException is rethrown; exceptions thrown by attempt are
+     * rethrown as they are, or wrapped if checked.
+     *
+     * @return the outcome, or null on timeout
+     */
+    public Boolean await(Attempt attempt, Backoff backoff, long deadline)
+            throws InterruptedException {
+        CompletableFuture<Boolean> outcome = poll(attempt, backoff, deadline);
+        try {
+            return outcome.get();
+        } catch (InterruptedException e) {
+            outcome.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Reads a resource as {@link SharedInformers#get} does, sharing the call
+     * with identical reads made within {@link #TICK}. The resource returned
+     * may be handed to other steps as well, so it must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends IResource> T read(IClient client, String kind,
+            String name, String namespace) {
+        readCount.incrementAndGet();
+        String key = SharedInformers.key(client, namespace, kind) + "|"
+                + name;
+        CompletableFuture<IResource> mine = new CompletableFuture<IResource>();
+        CompletableFuture<IResource> shared = reads.putIfAbsent(key, mine);
+        IResource resource;
+        if (shared != null) {
+            coalescedReads.incrementAndGet();
+            try {
+                resource = shared.join();
+            } catch (CompletionException | CancellationException e) {
+                // let each reader see its own failure
+                resource = SharedInformers.getInstance().get(client, kind,
+                        name, namespace);
+            }
+        } else {
+            try {
+                resource = SharedInformers.getInstance().get(client, kind,
+                        name, namespace);
+                mine.complete(resource);
+            } catch (RuntimeException | Error t) {
+                mine.completeExceptionally(t);
+                reads.remove(key, mine);
+                throw t;
+            }
+            scheduler.schedule(() -> reads.remove(key, mine), TICK,
+                    TimeUnit.MILLISECONDS);
+        }
+        observe(key, resource);
+        return (T) resource;
+    }
+
+    /**
+     * Notes a resource the attempt running on this thread read by other
+     * means than {@link #read}, so that a change to it counts as progress.
+     */
+    public static void observe(String key, IResource resource) {
+        StringBuilder observed = OBSERVED.get();
+        if (observed != null)
+            observed.append(key).append('=')
+                    .append(resource != null ? resource.getResourceVersion()
+                            : "").append(';');
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<T>();
+        workers.execute(() -> {
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public int getActiveWaitCount() {
+        return activeWaits.get();
+    }
+
+    @Override
+    public long getAttemptCount() {
+        return attempts.get();
+    }
+
+    @Override
+    public long getReadCount() {
+        return readCount.get();
+    }
+
+    @Override
+    public long getCoalescedReadCount() {
+        return coalescedReads.get();
+    }
+
+}
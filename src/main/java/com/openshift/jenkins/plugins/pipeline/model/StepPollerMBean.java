@@ -0,0 +1,14 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of the waits run by StepPoller
+public interface StepPollerMBean {
+
+    int getActiveWaitCount();
+
+    long getAttemptCount();
+
+    long getReadCount();
+
+    long getCoalescedReadCount();
+
+}
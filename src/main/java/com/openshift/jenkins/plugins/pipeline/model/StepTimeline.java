@@ -0,0 +1,171 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.jenkins.plugins.pipeline.MessageConstants;
+
+import hudson.model.TaskListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+/**
+ * Where the time of one run of a step goes: the phases it moves through, how
+ * long it spent waiting on OpenShift, and the api calls it made.
+ *
+ * The timeline is bound to the threads doing the step's work with
+ * {@link #attach()}, so {@link RetryIClient} and {@link StepPoller} can find
+ * it with {@link #current()}; the attempts of a wait are bound to the timeline
+ * of the step that started the wait. When the step ends, {@link #end} adds
+ * the phases to the per step type {@link LatencyStats}, registered in JMX as
+ * {@link #OBJECT_NAME_PREFIX} plus the step and the phase, and prints a
+ * summary line to the console.
+ */
+public class StepTimeline {
+
+    public static final String OBJECT_NAME_PREFIX = "com.openshift.jenkins.plugins.pipeline:type=StepPhase";
+
+    public enum Phase {
+        ENV("env"), AUTH("auth"), BUILD_URL("build_url"), CORE("core"), WAIT(
+                "wait"), TOTAL("total");
+
+        public final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final ThreadLocal<StepTimeline> CURRENT = new ThreadLocal<StepTimeline>();
+
+    private static final Map<String, LatencyStats> STATS = new ConcurrentSkipListMap<String, LatencyStats>();
+
+    private final String step;
+    private final long started = now();
+    private final long[] phases = new long[Phase.values().length];
+    private Phase phase;
+    private long phaseStarted = started;
+    private final AtomicLong waitMillis = new AtomicLong();
+    private final AtomicLong apiCalls = new AtomicLong();
+    private final AtomicLong apiMillis = new AtomicLong();
+    private final AtomicLong apiRetries = new AtomicLong();
+    private final AtomicLong apiFailures = new AtomicLong();
+    private boolean ended;
+
+    public StepTimeline(String step) {
+        this.step = step;
+    }
+
+    /**
+     * @return the timeline bound to this thread, or null
+     */
+    public static StepTimeline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this timeline to the calling thread.
+     *
+     * @return the timeline bound before, to be passed to {@link #restore}
+     */
+    public StepTimeline attach() {
+        StepTimeline previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    public static void restore(StepTimeline previous) {
+        if (previous == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(previous);
+    }
+
+    /**
+     * Ends the current phase, if any, and starts the next one.
+     */
+    public synchronized void phase(Phase next) {
+        long t = now();
+        if (phase != null)
+            phases[phase.ordinal()] += t - phaseStarted;
+        phase = next;
+        phaseStarted = t;
+    }
+
+    // time spent waiting for OpenShift, which is taken out of the phase it
+    // happened in
+    public void waited(long millis) {
+        waitMillis.addAndGet(millis);
+    }
+
+    public void apiCall(long millis, boolean failed) {
+        apiCalls.incrementAndGet();
+        apiMillis.addAndGet(millis);
+        if (failed)
+            apiFailures.incrementAndGet();
+    }
+
+    public void apiRetry() {
+        apiRetries.incrementAndGet();
+    }
+
+    /**
+     * Ends the timeline: records its phases and, with a listener, prints the
+     * summary line to it. Only the first call has an effect.
+     */
+    public void end(TaskListener listener) {
+        synchronized (this) {
+            if (ended)
+                return;
+            ended = true;
+            phase(null);
+            long waited = waitMillis.get();
+            // waits happen during the core logic
+            phases[Phase.CORE.ordinal()] = Math.max(0,
+                    phases[Phase.CORE.ordinal()] - waited);
+            phases[Phase.WAIT.ordinal()] = waited;
+            phases[Phase.TOTAL.ordinal()] = now() - started;
+        }
+        for (Phase p : Phase.values()) {
+            getStats(step, p).record(phases[p.ordinal()]);
+        }
+        if (listener != null)
+            listener.getLogger().println(
+                    String.format(MessageConstants.STEP_TIMING, step,
+                            phases[Phase.TOTAL.ordinal()],
+                            phases[Phase.ENV.ordinal()],
+                            phases[Phase.AUTH.ordinal()],
+                            phases[Phase.BUILD_URL.ordinal()],
+                            phases[Phase.CORE.ordinal()],
+                            phases[Phase.WAIT.ordinal()], apiCalls.get(),
+                            apiMillis.get(), apiRetries.get(),
+                            apiFailures.get()));
+    }
+
+    public static LatencyStats getStats(String step, Phase phase) {
+        String key = step + "|" + phase.label;
+        LatencyStats stats = STATS.get(key);
+        if (stats != null)
+            return stats;
+        LatencyStats created = new LatencyStats();
+        stats = STATS.putIfAbsent(key, created);
+        if (stats != null)
+            return stats;
+        LatencyStats.register(created, OBJECT_NAME_PREFIX + ",step="
+                + ObjectName.quote(step) + ",phase=" + phase.label);
+        return created;
+    }
+
+    // the phases of every step type run so far, keyed by step|phase
+    public static Map<String, LatencyStats> getAll() {
+        return Collections.unmodifiableMap(STATS);
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+}
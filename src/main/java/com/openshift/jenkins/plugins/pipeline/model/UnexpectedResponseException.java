@@ -0,0 +1,26 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import com.openshift.restclient.OpenShiftException;
+
+/**
+ * Thrown when a call made straight over the shared client's OkHttpClient
+ * (see {@link RawHttp}) gets a response code other than 2xx, carrying the
+ * code for {@link ApiCallStats#statusOf} whether or not the body is a Status
+ * (i.e. the error page of a proxy in front of the api server).
+ */
+public class UnexpectedResponseException extends OpenShiftException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int code;
+
+    public UnexpectedResponseException(String method, String url, int code) {
+        super("%s %s failed with response code %d", method, url, code);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+/**
+ * What the waits of one step type, with one {@link WaitStrategy}, have cost,
+ * set against the fixed interval the step used to sleep (its baseline).
+ * Registered in JMX as {@link #OBJECT_NAME_PREFIX} plus the wait and the
+ * strategy, the first time such a wait ends.
+ *
+ * The saving is an estimate: a wait notices that it is over half an interval
+ * after the fact on average, so each wait that took more than one check is
+ * credited half the difference between the baseline and its last interval. A
+ * negative total is what the strategy cost. The attempt counts show what it
+ * did to the load on the api server.
+ */
+public class WaitStats implements WaitStatsMBean {
+
+    static final Logger LOGGER = Logger.getLogger(WaitStats.class.getName());
+
+    public static final String OBJECT_NAME_PREFIX = "com.openshift.jenkins.plugins.pipeline:type=WaitStrategy";
+
+    private static final Map<String, WaitStats> STATS = new ConcurrentSkipListMap<String, WaitStats>();
+
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong baselineAttempts = new AtomicLong();
+    private final AtomicLong waitMillis = new AtomicLong();
+    private final AtomicLong millisSaved = new AtomicLong();
+
+    /**
+     * @return the stats of the named wait with the named strategy
+     */
+    public static WaitStats get(String wait, String strategy) {
+        String key = wait + "|" + strategy;
+        WaitStats stats = STATS.get(key);
+        if (stats != null)
+            return stats;
+        WaitStats created = new WaitStats();
+        stats = STATS.putIfAbsent(key, created);
+        if (stats != null)
+            return stats;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    created,
+                    new ObjectName(OBJECT_NAME_PREFIX + ",wait="
+                            + ObjectName.quote(wait) + ",strategy="
+                            + ObjectName.quote(strategy)));
+        } catch (Throwable t) {
+            LOGGER.log(Level.FINE, "could not register stats for " + key, t);
+        }
+        return created;
+    }
+
+    // every wait and strategy seen so far, keyed by wait|strategy
+    public static Map<String, WaitStats> getAll() {
+        return Collections.unmodifiableMap(STATS);
+    }
+
+    /**
+     * Adds a wait that has ended.
+     *
+     * @param elapsed
+     *            how long it waited
+     * @param count
+     *            the checks it made
+     * @param lastInterval
+     *            the interval before its last check, 0 if it made one
+     * @param baseline
+     *            the fixed interval the step used to sleep
+     * @param over
+     *            false if it timed out or was cancelled
+     */
+    void record(long elapsed, int count, long lastInterval, long baseline,
+            boolean over) {
+        waits.incrementAndGet();
+        attempts.addAndGet(count);
+        waitMillis.addAndGet(elapsed);
+        if (baseline > 0) {
+            baselineAttempts.addAndGet(1 + elapsed / baseline);
+            if (over && count > 1)
+                millisSaved.addAndGet((baseline - lastInterval) / 2);
+        }
+        if (!over)
+            timedOut.incrementAndGet();
+    }
+
+    @Override
+    public long getWaitCount() {
+        return waits.get();
+    }
+
+    @Override
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    @Override
+    public long getAttemptCount() {
+        return attempts.get();
+    }
+
+    @Override
+    public long getBaselineAttemptCount() {
+        return baselineAttempts.get();
+    }
+
+    @Override
+    public long getWaitMillis() {
+        return waitMillis.get();
+    }
+
+    @Override
+    public long getEstimatedMillisSaved() {
+        return millisSaved.get();
+    }
+
+}
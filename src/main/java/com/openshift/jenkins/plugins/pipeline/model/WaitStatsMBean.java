@@ -0,0 +1,18 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+// JMX view of the waits of one step type with one wait strategy
+public interface WaitStatsMBean {
+
+    long getWaitCount();
+
+    long getTimedOutCount();
+
+    long getAttemptCount();
+
+    long getBaselineAttemptCount();
+
+    long getWaitMillis();
+
+    long getEstimatedMillisSaved();
+
+}
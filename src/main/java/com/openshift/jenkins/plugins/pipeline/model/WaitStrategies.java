@@ -0,0 +1,112 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@link WaitStrategy} implementations selectable in Jenkins Configure for
+ * each step type that waits.
+ */
+public class WaitStrategies {
+
+    public static final String ADAPTIVE = "adaptive";
+    public static final String FIXED = "fixed";
+
+    public static final long DEFAULT_FLOOR = 1000;
+    public static final long DEFAULT_CEILING = 10000;
+    public static final int DEFAULT_FAST_POLLS = 5;
+
+    static final double FACTOR = 1.5;
+    static final double JITTER = 0.2;
+
+    private WaitStrategies() {
+    }
+
+    // the strategy of a step type nobody has configured
+    public static WaitStrategy getDefault() {
+        return new Adaptive(DEFAULT_FLOOR, DEFAULT_CEILING, DEFAULT_FAST_POLLS);
+    }
+
+    /**
+     * @return the named strategy, where an unknown or missing name is taken
+     *         as {@link #ADAPTIVE}
+     */
+    public static WaitStrategy create(String name, long floor, long ceiling,
+            int fastPolls) {
+        floor = Math.max(1, floor);
+        if (FIXED.equalsIgnoreCase(name))
+            return new Fixed(floor);
+        return new Adaptive(floor, ceiling, fastPolls);
+    }
+
+    /**
+     * Checks every interval, as the steps used to with their sleeps.
+     */
+    public static final class Fixed implements WaitStrategy {
+        private final long interval;
+
+        public Fixed(long interval) {
+            this.interval = interval;
+        }
+
+        @Override
+        public String getName() {
+            return FIXED;
+        }
+
+        @Override
+        public long next(int attempts, long previous, boolean changed) {
+            return interval;
+        }
+
+        @Override
+        public String toString() {
+            return FIXED + "(" + interval + ")";
+        }
+    }
+
+    /**
+     * Checks every floor for the first fastPolls checks, since most short
+     * operations finish in that time; then the interval grows by
+     * {@link WaitStrategies#FACTOR} after each check that saw nothing change,
+     * up to ceiling, and drops back to floor once something changes. Each
+     * interval is jittered by up to {@link WaitStrategies#JITTER} either way,
+     * so that steps started together drift apart.
+     */
+    public static final class Adaptive implements WaitStrategy {
+        private final long floor;
+        private final long ceiling;
+        private final int fastPolls;
+
+        public Adaptive(long floor, long ceiling, int fastPolls) {
+            this.floor = floor;
+            this.ceiling = Math.max(floor, ceiling);
+            this.fastPolls = Math.max(0, fastPolls);
+        }
+
+        @Override
+        public String getName() {
+            return ADAPTIVE;
+        }
+
+        @Override
+        public long next(int attempts, long previous, boolean changed) {
+            if (attempts <= fastPolls || changed || previous <= 0)
+                return floor;
+            return Math.min(ceiling, Math.max(floor, (long) (previous * FACTOR)));
+        }
+
+        @Override
+        public long jitter(long interval) {
+            double spread = 1 - JITTER + 2 * JITTER
+                    * ThreadLocalRandom.current().nextDouble();
+            return Math.max(1, (long) (interval * spread));
+        }
+
+        @Override
+        public String toString() {
+            return ADAPTIVE + "(" + floor + ".." + ceiling + ", " + fastPolls
+                    + " fast)";
+        }
+    }
+
+}
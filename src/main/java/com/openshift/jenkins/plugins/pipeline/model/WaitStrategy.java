@@ -0,0 +1,35 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+/**
+ * Decides how long a step waits between two checks of what it waits on. A
+ * strategy holds no state of its own; the state of one wait is kept by the
+ * {@link StepPoller.Backoff} it is used with, so one strategy serves every
+ * wait of a step type.
+ *
+ * See {@link WaitStrategies} for the strategies offered in Jenkins Configure.
+ */
+public interface WaitStrategy {
+
+    // the name shown in Jenkins Configure and in the wait metrics
+    String getName();
+
+    /**
+     * @param attempts
+     *            the checks made so far in this wait, at least 1
+     * @param previous
+     *            the interval returned for the previous check, before jitter,
+     *            or 0 after the first check
+     * @param changed
+     *            whether the last check saw what it read change
+     * @return the interval in milliseconds, before jitter
+     */
+    long next(int attempts, long previous, boolean changed);
+
+    /**
+     * @return the interval actually waited, by default the interval as is
+     */
+    default long jitter(long interval) {
+        return interval;
+    }
+
+}
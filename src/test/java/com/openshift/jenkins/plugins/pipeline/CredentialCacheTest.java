@@ -0,0 +1,110 @@
+package com.openshift.jenkins.plugins.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CredentialCacheTest {
+
+    // the watch service reports changes asynchronously
+    private static final long CHANGE_TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final CredentialCache cache = CredentialCache.getInstance();
+
+    private static void write(File f, String content) throws IOException {
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String awaitContent(File f, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + CHANGE_TIMEOUT;
+        String content = readIfExists(f);
+        while (!expected.equals(content)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = readIfExists(f);
+        }
+        return content;
+    }
+
+    private String readIfExists(File f) throws IOException {
+        try {
+            return cache.readString(f);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Test
+    public void readsTheFile() throws Exception {
+        File token = folder.newFile("token");
+        write(token, "first");
+        assertTrue(cache.exists(token));
+        assertEquals("first", cache.readString(token));
+        assertEquals("first", cache.readString(token));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void aMissingFileCannotBeRead() throws Exception {
+        File token = new File(folder.getRoot(), "token");
+        assertFalse(cache.exists(token));
+        cache.readString(token);
+    }
+
+    @Test
+    public void aRewrittenFileIsReadAgain() throws Exception {
+        File token = folder.newFile("token");
+        write(token, "first");
+        assertEquals("first", cache.readString(token));
+        write(token, "second token");
+        assertEquals("second token", awaitContent(token, "second token"));
+    }
+
+    @Test
+    public void aSwappedFileIsReadAgain() throws Exception {
+        // as the kubelet rotates a projected token, by renaming over it
+        File token = folder.newFile("token");
+        write(token, "first");
+        assertEquals("first", cache.readString(token));
+        File next = folder.newFile("token.next");
+        write(next, "second token");
+        Files.move(next.toPath(), token.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        assertEquals("second token", awaitContent(token, "second token"));
+    }
+
+    @Test
+    public void aFileCreatedLaterIsFound() throws Exception {
+        File token = new File(folder.getRoot(), "token");
+        assertFalse(cache.exists(token));
+        write(token, "created");
+        assertEquals("created", awaitContent(token, "created"));
+    }
+
+    @Test
+    public void aFileInAMissingDirectoryIsFoundOnceCreated() throws Exception {
+        // the directory cannot be watched, so the file's mtime is checked
+        File dir = new File(folder.getRoot(), "secrets");
+        File token = new File(dir, "token");
+        assertFalse(cache.exists(token));
+        assertTrue(dir.mkdir());
+        write(token, "created");
+        assertTrue(cache.exists(token));
+        assertEquals("created", cache.readString(token));
+    }
+
+}
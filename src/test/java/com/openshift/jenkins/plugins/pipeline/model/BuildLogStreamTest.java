@@ -0,0 +1,130 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hudson.util.StreamTaskListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BuildLogStreamTest {
+
+    private ByteArrayOutputStream console;
+
+    @Before
+    public void setUp() {
+        console = new ByteArrayOutputStream();
+    }
+
+    // the log is never followed, so no client is needed
+    private BuildLogStream stream(Map<String, String> overrides) {
+        return new BuildLogStream(null, "myproject", "frontend-1",
+                new StreamTaskListener(console), false, overrides);
+    }
+
+    private String console() throws UnsupportedEncodingException {
+        return console.toString("UTF-8");
+    }
+
+    @Test
+    public void linesWaitForTheBatch() throws Exception {
+        BuildLogStream stream = stream(null);
+        stream.onMessage("one\ntwo\n");
+        assertEquals("", console());
+        stream.flush();
+        assertEquals("one\ntwo\n", console());
+    }
+
+    @Test
+    public void linesAreWrittenOnceTheIntervalHasPassed() throws Exception {
+        BuildLogStream stream = stream(null);
+        stream.onMessage("one\n");
+        stream.onMessage("two\n");
+        long deadline = System.currentTimeMillis()
+                + BuildLogStream.FLUSH_INTERVAL * 5;
+        while (console().isEmpty() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals("one\ntwo\n", console());
+    }
+
+    @Test
+    public void aFullBatchIsWrittenRightAway() throws Exception {
+        BuildLogStream stream = stream(null);
+        StringBuilder lines = new StringBuilder();
+        while (lines.length() < BuildLogStream.FLUSH_BYTES) {
+            lines.append("0123456789abcdef\n");
+        }
+        stream.onMessage(lines.toString());
+        assertEquals(lines.toString(), console());
+    }
+
+    @Test
+    public void linesAreJoinedAcrossMessages() throws Exception {
+        BuildLogStream stream = stream(null);
+        stream.onMessage("2017-01-02T03:04:05.123456789Z Step 1/3 : FR");
+        stream.onMessage("OM centos\n2017-01-02T03:04:06Z Step 2/3");
+        stream.flush();
+        assertEquals("Step 1/3 : FROM centos\n", console());
+        stream.onClose(1000, null);
+        assertEquals("Step 1/3 : FROM centos\nStep 2/3\n", console());
+    }
+
+    @Test
+    public void linesWithoutATimestampAreShownAsIs() throws Exception {
+        BuildLogStream stream = stream(null);
+        stream.onMessage("no timestamp here\n");
+        stream.flush();
+        assertEquals("no timestamp here\n", console());
+    }
+
+    @Test
+    public void theEndOfTheFollowMayBeRestarted() {
+        BuildLogStream stream = stream(null);
+        assertTrue(stream.needsStart());
+        stream.onClose(1000, null);
+        assertTrue(stream.needsStart());
+        stream.stop(false);
+        assertFalse(stream.needsStart());
+    }
+
+    @Test
+    public void stopWritesWhatIsLeft() throws Exception {
+        BuildLogStream stream = stream(null);
+        stream.onMessage("done\nno newline");
+        stream.stop(false);
+        assertEquals("done\nno newline\n", console());
+        stream.onMessage("after the stop\n");
+        stream.flush();
+        assertEquals("done\nno newline\n", console());
+    }
+
+    @Test
+    public void reachingTheLimitEndsTheFollow() throws Exception {
+        BuildLogStream stream = stream(Collections.singletonMap(
+                BuildLogStream.LIMIT_BYTES_ENV_KEY, "10"));
+        stream.onMessage("0123456789");
+        stream.onClose(1000, null);
+        assertFalse(stream.needsStart());
+        assertTrue(console().startsWith("0123456789\n"));
+        assertTrue(console().contains("reached the limit of 10 bytes"));
+    }
+
+    @Test
+    public void limitDefaultsToNone() {
+        assertEquals(0, BuildLogStream.getLimitBytes(null));
+        assertEquals(0, BuildLogStream.getLimitBytes(Collections
+                .singletonMap(BuildLogStream.LIMIT_BYTES_ENV_KEY, "lots")));
+        assertEquals(0, BuildLogStream.getLimitBytes(Collections
+                .singletonMap(BuildLogStream.LIMIT_BYTES_ENV_KEY, "-1")));
+        assertEquals(4096, BuildLogStream.getLimitBytes(Collections
+                .singletonMap(BuildLogStream.LIMIT_BYTES_ENV_KEY, " 4096 ")));
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.NotFoundException;
+import com.openshift.restclient.model.IBuild;
+
+import org.junit.Test;
+
+public class BuildWatchTest {
+
+    private static IClient client(Object build) {
+        return stub(IClient.class, "get", build);
+    }
+
+    @Test
+    public void readsThePhaseOfTheBuild() {
+        IBuild bld = stub(IBuild.class, "getStatus", "Running",
+                "getResourceVersion", "1");
+        assertEquals("Running",
+                BuildWatch.readState(client(bld), "app-1", "running"));
+    }
+
+    @Test
+    public void aBuildWithNoPhaseYetIsNotReportedDeleted() {
+        IBuild bld = stub(IBuild.class, "getResourceVersion", "1");
+        assertNull(BuildWatch.readState(client(bld), "app-1", "new"));
+    }
+
+    @Test
+    public void aBuildThatIsGoneIsReportedDeleted() {
+        assertEquals(IOpenShiftPlugin.STATE_DELETED, BuildWatch.readState(
+                client(new NotFoundException("gone")), "app-1", "gone"));
+    }
+
+}
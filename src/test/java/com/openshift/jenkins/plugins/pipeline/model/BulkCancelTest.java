@@ -0,0 +1,136 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.model.IBuild;
+import com.openshift.restclient.model.IList;
+import com.openshift.restclient.model.IResource;
+
+import hudson.model.TaskListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BulkCancelTest {
+
+    private static final List<String> FINISHED = Arrays.asList(
+            IOpenShiftPlugin.STATE_COMPLETE, IOpenShiftPlugin.STATE_FAILED,
+            IOpenShiftPlugin.STATE_ERROR, IOpenShiftPlugin.STATE_CANCELLED);
+
+    private static final AtomicInteger CLUSTERS = new AtomicInteger();
+
+    // a namespace of builds behind a stub client, which counts the calls
+    private final Map<String, IBuild> builds = new HashMap<String, IBuild>();
+    private final List<String> cancelled = Collections
+            .synchronizedList(new ArrayList<String>());
+    private final AtomicInteger selects = new AtomicInteger();
+    private final List<Object> labelLists = new ArrayList<Object>();
+    private boolean selectorRejected;
+
+    // api servers are remembered across tests, so each gets its own
+    private final String apiURL = "https://test" + CLUSTERS.incrementAndGet()
+            + ":8443";
+
+    private void build(String name, String status) {
+        builds.put(name, stub(IBuild.class, "getName", name, "getStatus",
+                status, "accept", (Stubs.Answer) args -> {
+                    cancelled.add(name);
+                    return null;
+                }));
+    }
+
+    private BulkCancel canceller() {
+        IClient client = stub(IClient.class, "execute",
+                (Stubs.Answer) args -> {
+                    selects.incrementAndGet();
+                    if (selectorRejected)
+                        return new UnexpectedResponseException("GET", apiURL,
+                                400);
+                    List<IResource> active = new ArrayList<IResource>();
+                    for (IBuild bld : builds.values()) {
+                        if (!FINISHED.contains(bld.getStatus()))
+                            active.add(bld);
+                    }
+                    return stub(IList.class,
+                            "getItems", active);
+                }, "list", (Stubs.Answer) args -> {
+                    labelLists.add(args[2]);
+                    return new ArrayList<IResource>(builds.values());
+                }, "get", (Stubs.Answer) args -> builds.get(args[1]));
+        IOpenShiftPlugin plugin = stub(IOpenShiftPlugin.class, "getApiURL",
+                apiURL, "isBuildFinished",
+                (Stubs.Answer) args -> FINISHED.contains(args[0]));
+        TaskListener listener = stub(TaskListener.class, "getLogger",
+                new PrintStream(new ByteArrayOutputStream()));
+        return new BulkCancel(plugin, listener, null, client, false);
+    }
+
+    @Test
+    public void selectsTheActiveBuildsWhereTheApiServerCan() throws Exception {
+        build("app-1", IOpenShiftPlugin.STATE_COMPLETE);
+        build("app-2", IOpenShiftPlugin.STATE_RUNNING);
+        assertEquals(1, canceller().cancelAll("app", "test"));
+        assertEquals(Arrays.asList("app-2"), cancelled);
+        assertEquals(1, selects.get());
+        assertTrue(labelLists.isEmpty());
+    }
+
+    @Test
+    public void fallsBackToTheLabelOnA400() throws Exception {
+        selectorRejected = true;
+        build("app-1", IOpenShiftPlugin.STATE_RUNNING);
+        assertEquals(1, canceller().cancelAll("app", "test"));
+        assertEquals(Arrays.asList("app-1"), cancelled);
+        assertEquals(Arrays.<Object> asList(Collections.singletonMap(
+                LatestBuild.BUILD_CONFIG_LABEL, "app")), labelLists);
+    }
+
+    @Test
+    public void remembersThatTheApiServerRejectedTheSelector()
+            throws Exception {
+        selectorRejected = true;
+        build("app-1", IOpenShiftPlugin.STATE_RUNNING);
+        canceller().cancelAll("app", "test");
+        canceller().cancelAll("app", "test");
+        assertEquals(1, selects.get());
+        assertEquals(2, labelLists.size());
+    }
+
+    @Test
+    public void skipsTheBuildsTheLabelOnlyListFindsFinished() throws Exception {
+        selectorRejected = true;
+        build("app-1", IOpenShiftPlugin.STATE_COMPLETE);
+        build("app-2", IOpenShiftPlugin.STATE_CANCELLED);
+        build("app-3", IOpenShiftPlugin.STATE_RUNNING);
+        build("app-4", "Pending");
+        assertEquals(2, canceller().cancelAll("app", "test"));
+        Collections.sort(cancelled);
+        assertEquals(Arrays.asList("app-3", "app-4"), cancelled);
+    }
+
+    @Test
+    public void aBuildThatFinishedInTheMeantimeIsNotCancelled() {
+        build("app-1", IOpenShiftPlugin.STATE_COMPLETE);
+        assertFalse(canceller().cancel("app-1", "test"));
+        assertTrue(cancelled.isEmpty());
+    }
+
+    @Test
+    public void aBuildThatIsGoneIsNotCancelled() {
+        assertFalse(canceller().cancel("app-1", "test"));
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.openshift.restclient.IClient;
+
+import org.junit.Test;
+
+public class ClientCacheTest {
+
+    @Test
+    public void aClientIsInUseWhileAStepHoldsIt() throws Exception {
+        ClientCache cache = new ClientCache();
+        IClient client = stub(IClient.class);
+        Object step = new Object();
+        cache.usedBy(client, step);
+        assertTrue(cache.isInUse(client));
+
+        step = null;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cache.isInUse(client) && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertFalse(cache.isInUse(client));
+    }
+
+    @Test
+    public void aClientNoStepHoldsIsNotInUse() {
+        ClientCache cache = new ClientCache();
+        assertFalse(cache.isInUse(stub(IClient.class)));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class ConcurrencyTest {
+
+    private static final String KEY = "TEST_CONCURRENCY";
+
+    private static int concurrency(String value) {
+        return Concurrency.get(Collections.singletonMap(KEY, value), KEY, 4);
+    }
+
+    @Test
+    public void defaultsWhenNotSet() {
+        assertEquals(4, Concurrency.get(null, KEY, 4));
+        assertEquals(4, Concurrency.get(
+                Collections.<String, String> emptyMap(), KEY, 4));
+        assertEquals(4, concurrency(" "));
+    }
+
+    @Test
+    public void takesTheParameter() {
+        assertEquals(3, concurrency(" 3 "));
+    }
+
+    @Test
+    public void clampsTheParameter() {
+        assertEquals(1, concurrency("0"));
+        assertEquals(1, concurrency("-5"));
+        assertEquals(Concurrency.MAX, concurrency("1000"));
+    }
+
+    @Test
+    public void defaultsWhenNotANumber() {
+        assertEquals(4, concurrency("many"));
+    }
+
+    @Test
+    public void eachOperationHasItsOwnParameter() {
+        assertEquals(BulkCancel.DEFAULT_CONCURRENCY, BulkCancel.getConcurrency(
+                Collections.singletonMap(BulkDelete.CONCURRENCY_ENV_KEY, "2")));
+        assertEquals(2, BulkDelete.getConcurrency(
+                Collections.singletonMap(BulkDelete.CONCURRENCY_ENV_KEY, "2")));
+    }
+
+}
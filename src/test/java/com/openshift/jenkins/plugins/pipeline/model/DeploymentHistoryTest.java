@@ -0,0 +1,77 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.openshift.restclient.model.IReplicationController;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class DeploymentHistoryTest {
+
+    private static IReplicationController rc(String name, String version,
+            boolean cancelled) {
+        Map<String, String> annotations = new HashMap<String, String>();
+        if (version != null)
+            annotations.put(DeploymentHistory.VERSION_ANNOTATION, version);
+        if (cancelled)
+            annotations.put(DeploymentHistory.CANCELLED_ANNOTATION, "true");
+        return stub(IReplicationController.class, "getName", name,
+                "getAnnotations", annotations);
+    }
+
+    @Test
+    public void versionComesFromTheAnnotation() {
+        assertEquals(7, DeploymentHistory.versionOf(rc("other", "7", false),
+                "frontend"));
+    }
+
+    @Test
+    public void versionComesFromTheNameWithoutTheAnnotation() {
+        assertEquals(3, DeploymentHistory.versionOf(
+                rc("frontend-3", null, false), "frontend"));
+        assertEquals(0, DeploymentHistory.versionOf(
+                rc("backend-3", null, false), "frontend"));
+        assertEquals(0, DeploymentHistory.versionOf(
+                rc("frontend-x", null, false), "frontend"));
+    }
+
+    @Test
+    public void latestIsTheLatestVersion() {
+        IReplicationController two = rc("frontend-2", "2", false);
+        assertSame(two, DeploymentHistory.latest(Arrays.asList(
+                rc("frontend-1", "1", false), two), "frontend", 2));
+    }
+
+    @Test
+    public void noLatestUntilTheLatestVersionIsCreated() {
+        assertNull(DeploymentHistory.latest(Arrays.asList(
+                rc("frontend-1", "1", false)), "frontend", 2));
+        assertNull(DeploymentHistory.latest(
+                Collections.<IReplicationController> emptyList(), "frontend",
+                1));
+    }
+
+    @Test
+    public void cancelledVersionsAreSkipped() {
+        IReplicationController one = rc("frontend-1", null, false);
+        assertSame(one, DeploymentHistory.latest(Arrays.asList(one,
+                rc("frontend-2", null, true), rc("frontend-4", null, true)),
+                "frontend", 4));
+    }
+
+    @Test
+    public void noLatestWhenEveryVersionIsCancelled() {
+        assertNull(DeploymentHistory.latest(Arrays.asList(
+                rc("frontend-1", "1", true), rc("frontend-2", "2", true)),
+                "frontend", 2));
+    }
+
+}
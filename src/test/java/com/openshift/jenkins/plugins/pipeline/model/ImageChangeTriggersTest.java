@@ -0,0 +1,36 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class ImageChangeTriggersTest {
+
+    @Test
+    public void aTagWithoutATagIsTheLatest() {
+        assertEquals("frontend:latest",
+                ImageChangeTriggers.normalize(" frontend "));
+    }
+
+    @Test
+    public void anExplicitTagIsKept() {
+        assertEquals("frontend:v1", ImageChangeTriggers.normalize("frontend:v1"));
+    }
+
+    @Test
+    public void aRegistryPortIsNotATag() {
+        assertEquals("registry:5000/myproject/frontend:latest",
+                ImageChangeTriggers
+                        .normalize("registry:5000/myproject/frontend"));
+        assertEquals("registry:5000/myproject/frontend:v1",
+                ImageChangeTriggers
+                        .normalize("registry:5000/myproject/frontend:v1"));
+    }
+
+    @Test
+    public void noTagStaysNone() {
+        assertNull(ImageChangeTriggers.normalize(null));
+    }
+
+}
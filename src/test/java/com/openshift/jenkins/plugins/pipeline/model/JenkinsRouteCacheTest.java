@@ -0,0 +1,83 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.model.IList;
+import com.openshift.restclient.model.IResource;
+import com.openshift.restclient.model.route.IRoute;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class JenkinsRouteCacheTest {
+
+    private static final String URL = "https://test:8443";
+
+    // a client that answers the route lookup, counting the lookups
+    private static IClient client(AtomicInteger lookups, IResource... routes) {
+        IList list = stub(IList.class, "getItems",
+                Arrays.asList(routes));
+        return stub(IClient.class, "execute", (Stubs.Answer) args -> {
+            lookups.incrementAndGet();
+            return list;
+        });
+    }
+
+    private static IRoute route(String service, String url) {
+        return stub(IRoute.class, "getServiceName", service, "getURL", url,
+                "getName", service);
+    }
+
+    @Test
+    public void theRouteIsKeptForTheTTL() {
+        JenkinsRouteCache cache = new JenkinsRouteCache();
+        AtomicInteger lookups = new AtomicInteger();
+        IClient client = client(lookups,
+                route("jenkins", "https://jenkins-ci.apps"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("https://jenkins-ci.apps/", cache.get(() -> client,
+                    URL, "ci", "token", JenkinsRouteCache.DEFAULT_TTL));
+        }
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void otherCredentialsLookTheRouteUpThemselves() {
+        JenkinsRouteCache cache = new JenkinsRouteCache();
+        AtomicInteger lookups = new AtomicInteger();
+        IClient client = client(lookups,
+                route("jenkins", "https://jenkins-ci.apps/"));
+        cache.get(() -> client, URL, "ci", "token", JenkinsRouteCache.DEFAULT_TTL);
+        cache.get(() -> client, URL, "ci", "other", JenkinsRouteCache.DEFAULT_TTL);
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void noRouteIsCachedAsWell() {
+        JenkinsRouteCache cache = new JenkinsRouteCache();
+        AtomicInteger lookups = new AtomicInteger();
+        IClient client = client(lookups, route("frontend", "https://frontend"));
+        assertNull(cache.get(() -> client, URL, "ci", "token",
+                JenkinsRouteCache.DEFAULT_TTL));
+        assertNull(cache.get(() -> client, URL, "ci", "token",
+                JenkinsRouteCache.DEFAULT_TTL));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void noTTLLooksTheRouteUpEveryTime() {
+        JenkinsRouteCache cache = new JenkinsRouteCache();
+        AtomicInteger lookups = new AtomicInteger();
+        IClient client = client(lookups,
+                route("jenkins", "https://jenkins-ci.apps"));
+        cache.get(() -> client, URL, "ci", "token", 0);
+        cache.get(() -> client, URL, "ci", "token", 0);
+        assertEquals(2, lookups.get());
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.NotFoundException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IBuild;
+import com.openshift.restclient.model.IBuildConfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class LatestBuildTest {
+
+    private static IBuild build(String name, String startTime)
+            throws NoSuchMethodException {
+        Class<?> statusType = IBuild.class.getMethod("getBuildStatus")
+                .getReturnType();
+        Object status = stub(statusType, "getStartTime", startTime);
+        return stub(IBuild.class, "getName", name, "getBuildStatus", status);
+    }
+
+    // a client with a build config at lastVersion, and the builds given
+    private static IClient client(long lastVersion, List<IBuild> blds,
+            AtomicInteger lists) {
+        IBuildConfig bc = stub(IBuildConfig.class, "toJson",
+                "{\"status\": {\"lastVersion\": " + lastVersion + "}}");
+        return stub(IClient.class, "get", (Stubs.Answer) args -> {
+            if (ResourceKind.BUILD_CONFIG.equals(args[0]))
+                return bc;
+            for (IBuild bld : blds) {
+                if (bld.getName().equals(args[1]))
+                    return bld;
+            }
+            return new NotFoundException("not found");
+        }, "list", (Stubs.Answer) args -> {
+            lists.incrementAndGet();
+            return blds;
+        });
+    }
+
+    @Test
+    public void findTakesTheLastVersionOnceItHasStarted() throws Exception {
+        AtomicInteger lists = new AtomicInteger();
+        assertEquals("frontend-3", LatestBuild.find(client(3, Arrays.asList(
+                build("frontend-2", "2017-01-01T10:00:00Z"),
+                build("frontend-3", "2017-01-01T11:00:00Z")), lists),
+                "frontend", "test"));
+        assertEquals(0, lists.get());
+    }
+
+    @Test
+    public void findSkipsALastVersionThatHasNotStarted() throws Exception {
+        AtomicInteger lists = new AtomicInteger();
+        assertEquals("frontend-2", LatestBuild.find(client(3, Arrays.asList(
+                build("frontend-2", "2017-01-01T10:00:00Z"),
+                build("frontend-3", null)), lists), "frontend", "test"));
+        assertEquals(1, lists.get());
+    }
+
+    @Test
+    public void findScansWhenTheLastVersionIsGone() throws Exception {
+        AtomicInteger lists = new AtomicInteger();
+        assertEquals("frontend-1", LatestBuild.find(client(3, Arrays.asList(
+                build("frontend-1", "2017-01-01T10:00:00Z")), lists),
+                "frontend", "test"));
+        assertEquals(1, lists.get());
+    }
+
+    @Test
+    public void numberIsAfterTheLastDash() {
+        assertEquals(12, LatestBuild.number("frontend-app-12"));
+        assertEquals(0, LatestBuild.number("frontend-0"));
+    }
+
+    @Test
+    public void noNumberWithoutDigitsAfterTheLastDash() {
+        assertEquals(-1, LatestBuild.number(null));
+        assertEquals(-1, LatestBuild.number("frontend"));
+        assertEquals(-1, LatestBuild.number("frontend-"));
+        assertEquals(-1, LatestBuild.number("frontend-1a"));
+        assertEquals(-1, LatestBuild.number("frontend-99999999999999999999"));
+    }
+
+    @Test
+    public void noLatestWithoutBuilds() {
+        assertNull(LatestBuild.scan(Collections.<IBuild> emptyList()));
+    }
+
+    @Test
+    public void latestIsTheLastToStart() throws Exception {
+        assertEquals("frontend-2", LatestBuild.scan(Arrays.asList(
+                build("frontend-10", "2017-01-01T10:00:00Z"),
+                build("frontend-2", "2017-01-01T11:00:00Z"),
+                build("frontend-9", "2017-01-01T09:00:00Z"))));
+    }
+
+    @Test
+    public void tiesGoToTheHigherNumber() throws Exception {
+        assertEquals("frontend-10", LatestBuild.scan(Arrays.asList(
+                build("frontend-9", "2017-01-01T10:00:00Z"),
+                build("frontend-10", "2017-01-01T10:00:00Z"),
+                build("frontend-8", "2017-01-01T10:00:00Z"))));
+    }
+
+    @Test
+    public void buildsNotYetStartedComeFirst() throws Exception {
+        assertEquals("frontend-3", LatestBuild.scan(Arrays.asList(
+                build("frontend-4", null),
+                build("frontend-3", "2017-01-01T10:00:00Z"),
+                build("frontend-5", null))));
+        assertEquals("frontend-5", LatestBuild.scan(Arrays.asList(
+                build("frontend-4", null), build("frontend-5", null))));
+    }
+
+}
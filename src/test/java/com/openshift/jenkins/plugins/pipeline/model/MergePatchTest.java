@@ -0,0 +1,69 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class MergePatchTest {
+
+    private static String diff(String applied, String wanted) {
+        return MergePatch.diff(ModelNode.fromJSONString(applied),
+                ModelNode.fromJSONString(wanted)).toJSONString(true);
+    }
+
+    private static String json(String json) {
+        return ModelNode.fromJSONString(json).toJSONString(true);
+    }
+
+    @Test
+    public void nothingChanged() {
+        assertEquals("{}", diff("{\"spec\": {\"replicas\": 1}}",
+                "{\"spec\": {\"replicas\": 1}}"));
+    }
+
+    @Test
+    public void holdsOnlyWhatChanged() {
+        assertEquals(json("{\"spec\": {\"replicas\": 2}}"), diff(
+                "{\"kind\": \"DeploymentConfig\", \"spec\": {\"replicas\": 1, \"paused\": false}}",
+                "{\"kind\": \"DeploymentConfig\", \"spec\": {\"replicas\": 2, \"paused\": false}}"));
+    }
+
+    @Test
+    public void removesWhatWasTakenOut() {
+        assertEquals(json("{\"metadata\": {\"labels\": {\"b\": null}}}"), diff(
+                "{\"metadata\": {\"labels\": {\"a\": \"1\", \"b\": \"2\"}}}",
+                "{\"metadata\": {\"labels\": {\"a\": \"1\"}}}"));
+    }
+
+    @Test
+    public void addsWhatIsNew() {
+        assertEquals(json("{\"data\": {\"b\": \"2\"}}"), diff(
+                "{\"data\": {\"a\": \"1\"}}",
+                "{\"data\": {\"a\": \"1\", \"b\": \"2\"}}"));
+    }
+
+    @Test
+    public void sendsAListThatChangedWhole() {
+        assertEquals(json("{\"spec\": {\"ports\": [{\"port\": 80}, {\"port\": 443}]}}"),
+                diff("{\"spec\": {\"ports\": [{\"port\": 80}]}}",
+                        "{\"spec\": {\"ports\": [{\"port\": 80}, {\"port\": 443}]}}"));
+    }
+
+    @Test
+    public void aListThatDidNotChangeIsLeftOut() {
+        assertEquals("{}", diff(
+                "{\"spec\": {\"containers\": [{\"name\": \"app\", \"image\": \" \"}]}}",
+                "{\"spec\": {\"containers\": [{\"name\": \"app\", \"image\": \" \"}]}}"));
+    }
+
+    @Test
+    public void theSameNumberOfAnotherTypeIsUnchanged() {
+        ModelNode applied = new ModelNode();
+        applied.get("replicas").set(1L);
+        ModelNode wanted = new ModelNode();
+        wanted.get("replicas").set(1);
+        assertEquals("{}", MergePatch.diff(applied, wanted).toJSONString(true));
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RateLimiterTest {
+
+    private static final String URL = "https://test:8443";
+
+    @Test
+    public void keyIgnoresTrailingSlashes() {
+        assertEquals(URL, RateLimiter.key(" " + URL + "// "));
+        assertEquals("", RateLimiter.key(null));
+    }
+
+    @Test
+    public void ratesForEveryApiServer() {
+        assertArrayEquals(new double[] { 20, 30 },
+                RateLimiter.ratesFor("20/30", URL), 0);
+    }
+
+    @Test
+    public void burstDefaultsToTwiceTheQps() {
+        assertArrayEquals(new double[] { 2.5, 5 },
+                RateLimiter.ratesFor("2.5", URL), 0);
+    }
+
+    @Test
+    public void apiServerEntryWinsOverTheGlobalOne() {
+        String value = "20/30, " + URL + "/=5/10 https://other:8443=1/1";
+        assertArrayEquals(new double[] { 5, 10 },
+                RateLimiter.ratesFor(value, URL), 0);
+        assertArrayEquals(new double[] { 20, 30 },
+                RateLimiter.ratesFor(value, "https://third:8443"), 0);
+    }
+
+    @Test
+    public void noRatesWhenNoEntryApplies() {
+        assertNull(RateLimiter.ratesFor(null, URL));
+        assertNull(RateLimiter.ratesFor("", URL));
+        assertNull(RateLimiter.ratesFor("https://other:8443=1/1", URL));
+    }
+
+    @Test
+    public void validatesEveryEntry() {
+        assertTrue(RateLimiter.isValidRates(null));
+        assertTrue(RateLimiter.isValidRates("0"));
+        assertTrue(RateLimiter.isValidRates("20/30," + URL + "=5/10"));
+        assertFalse(RateLimiter.isValidRates("fast"));
+        assertFalse(RateLimiter.isValidRates("20/30," + URL + "=5/x"));
+        assertFalse(RateLimiter.isValidRates("-1"));
+        assertFalse(RateLimiter.isValidRates("NaN"));
+    }
+
+    @Test
+    public void fallsBackToTheDefaults() {
+        RateLimiter limiter = new RateLimiter(URL);
+        limiter.applyConfigured("7/9");
+        assertEquals(7, limiter.getQps(), 0);
+        assertEquals(9, limiter.getBurst());
+        limiter.applyConfigured("https://other:8443=1/1");
+        assertEquals(RateLimiter.DEFAULT_QPS, limiter.getQps(), 0);
+        assertEquals(RateLimiter.DEFAULT_BURST, limiter.getBurst());
+        limiter.applyConfigured("bad");
+        assertEquals(RateLimiter.DEFAULT_QPS, limiter.getQps(), 0);
+    }
+
+    @Test
+    public void writesGoAheadOfReads() {
+        assertEquals(RateLimiter.Priority.MUTATE,
+                RateLimiter.priorityOf("POST"));
+        assertEquals(RateLimiter.Priority.MUTATE,
+                RateLimiter.priorityOf("DELETE"));
+        assertEquals(RateLimiter.Priority.READ, RateLimiter.priorityOf("GET"));
+        assertEquals(RateLimiter.Priority.READ, RateLimiter.priorityOf("list"));
+    }
+
+    @Test
+    public void urgentCallsOvertakeWaitingPolls() throws Exception {
+        RateLimiter limiter = new RateLimiter(URL);
+        // the next token is two seconds away, time enough for both to queue
+        limiter.setRates(0.5, 1);
+        limiter.acquire(RateLimiter.Priority.READ);
+
+        List<RateLimiter.Priority> order = Collections
+                .synchronizedList(new ArrayList<RateLimiter.Priority>());
+        Thread poll = acquireIn(limiter, RateLimiter.Priority.POLL, order);
+        awaitQueueDepth(limiter, 1);
+        Thread mutate = acquireIn(limiter, RateLimiter.Priority.MUTATE, order);
+        awaitQueueDepth(limiter, 2);
+
+        poll.join(10000);
+        mutate.join(10000);
+        assertEquals(Arrays.asList(RateLimiter.Priority.MUTATE,
+                RateLimiter.Priority.POLL), order);
+    }
+
+    @Test
+    public void zeroQpsLiftsTheLimit() throws Exception {
+        RateLimiter limiter = new RateLimiter(URL);
+        limiter.setRates(0, 1);
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire(RateLimiter.Priority.READ);
+        }
+        assertEquals(0, limiter.getThrottledCount());
+    }
+
+    private static Thread acquireIn(RateLimiter limiter,
+            RateLimiter.Priority priority, List<RateLimiter.Priority> order) {
+        Thread thread = new Thread(() -> {
+            try {
+                limiter.acquire(priority);
+                order.add(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueueDepth(RateLimiter limiter, int depth)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (limiter.getQueueDepth() < depth
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, limiter.getQueueDepth());
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.IOpenShiftWatchListener;
+import com.openshift.restclient.IWatcher;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IResource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ResourceInformerTest {
+
+    // a client whose watches hand their listener to the test
+    private static IClient watching(IOpenShiftWatchListener[] listener) {
+        return stub(IClient.class, "watch",
+                (Stubs.Answer) args -> {
+                    listener[0] = (IOpenShiftWatchListener) args[1];
+                    return stub(IWatcher.class);
+                });
+    }
+
+    private static IResource resource(String name, String app) {
+        return stub(IResource.class, "getName", name, "getLabels",
+                Collections.singletonMap("app", app));
+    }
+
+    private static List<String> names(List<IResource> resources) {
+        List<String> names = new ArrayList<String>();
+        for (IResource resource : resources) {
+            names.add(resource.getName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    // waits for the reconnect that follows a lost watch
+    private static void awaitReconnect(IOpenShiftWatchListener[] listener,
+            IOpenShiftWatchListener lost) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (listener[0] == lost && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertTrue(listener[0] != lost);
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @Test
+    public void aWatchThatCannotStartEndsTheWaitForTheSync() throws Exception {
+        IClient client = stub(IClient.class, "watch",
+                new IllegalStateException("forbidden"));
+        ResourceInformer informer = new ResourceInformer(client, "test",
+                ResourceKind.DEPLOYMENT_CONFIG);
+        informer.start();
+        try {
+            long start = System.nanoTime();
+            assertFalse(informer.awaitSync(TimeUnit.SECONDS.toMillis(5)));
+            assertTrue(millisSince(start) < TimeUnit.SECONDS.toMillis(1));
+        } finally {
+            informer.stop();
+        }
+    }
+
+    @Test
+    public void aLostWatchEndsTheWaitUntilOneConnects() throws Exception {
+        IOpenShiftWatchListener[] listener = new IOpenShiftWatchListener[1];
+        ResourceInformer informer = new ResourceInformer(watching(listener),
+                "test", ResourceKind.DEPLOYMENT_CONFIG);
+        informer.start();
+        try {
+            listener[0].error(new IOException("refused"));
+            long start = System.nanoTime();
+            assertFalse(informer.awaitSync(TimeUnit.SECONDS.toMillis(5)));
+            assertTrue(millisSince(start) < TimeUnit.SECONDS.toMillis(1));
+
+            awaitReconnect(listener, listener[0]);
+            listener[0].connected(Collections.<IResource> emptyList());
+            assertTrue(informer.awaitSync(0));
+        } finally {
+            informer.stop();
+        }
+    }
+
+    @Test
+    public void theCallbacksOfAStoppedWatchAreIgnored() throws Exception {
+        IOpenShiftWatchListener[] listener = new IOpenShiftWatchListener[1];
+        ResourceInformer informer = new ResourceInformer(watching(listener),
+                "test", ResourceKind.BUILD);
+        informer.start();
+        try {
+            IOpenShiftWatchListener lost = listener[0];
+            lost.error(new IOException("reset"));
+            awaitReconnect(listener, lost);
+
+            lost.connected(Arrays.asList(resource("app-1", "a")));
+            lost.received(resource("app-2", "a"),
+                    IOpenShiftWatchListener.ChangeType.ADDED);
+            assertFalse(informer.isSynced());
+            assertEquals(0, informer.getSize());
+
+            IOpenShiftWatchListener current = listener[0];
+            current.connected(Collections.<IResource> emptyList());
+            lost.disconnected();
+            assertTrue(informer.isSynced());
+            // nor does it schedule another reconnect
+            Thread.sleep(ResourceInformer.MIN_RECONNECT_DELAY * 2);
+            assertSame(current, listener[0]);
+        } finally {
+            informer.stop();
+        }
+    }
+
+    @Test
+    public void indexesFollowTheStore() throws Exception {
+        IOpenShiftWatchListener[] listener = new IOpenShiftWatchListener[1];
+        ResourceInformer informer = new ResourceInformer(watching(listener),
+                "test", ResourceKind.BUILD);
+        informer.start();
+        try {
+            listener[0].connected(Arrays.asList(resource("app-1", "a"),
+                    resource("app-2", "b")));
+            // an index added later covers what is already stored
+            informer.addIndex("app", r -> Collections.singleton(r
+                    .getLabels().get("app")));
+            assertEquals(Arrays.asList("app-1"),
+                    names(informer.byIndex("app", "a")));
+
+            listener[0].received(resource("app-1", "b"),
+                    IOpenShiftWatchListener.ChangeType.MODIFIED);
+            assertEquals(Collections.emptyList(),
+                    names(informer.byIndex("app", "a")));
+            assertEquals(Arrays.asList("app-1", "app-2"),
+                    names(informer.byIndex("app", "b")));
+
+            listener[0].received(resource("app-2", "b"),
+                    IOpenShiftWatchListener.ChangeType.DELETED);
+            assertEquals(Arrays.asList("app-1"),
+                    names(informer.byIndex("app", "b")));
+            assertNull(informer.get("app-2"));
+
+            // a relist replaces the store and its indexes
+            listener[0].connected(Arrays.asList(resource("app-3", "c")));
+            assertEquals(Collections.emptyList(),
+                    names(informer.byIndex("app", "b")));
+            assertEquals(Arrays.asList("app-3"),
+                    names(informer.byIndex("app", "c")));
+            assertEquals(Collections.emptyList(),
+                    names(informer.byIndex("none", "c")));
+        } finally {
+            informer.stop();
+        }
+    }
+
+}
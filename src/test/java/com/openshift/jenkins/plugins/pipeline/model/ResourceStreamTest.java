@@ -0,0 +1,113 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class ResourceStreamTest {
+
+    private static List<String> names(String jsonyaml) {
+        List<String> names = new ArrayList<String>();
+        Iterator<ModelNode> it = ResourceStream.parse(jsonyaml);
+        while (it.hasNext()) {
+            names.add(it.next().get("metadata", "name").asString());
+        }
+        return names;
+    }
+
+    @Test
+    public void detectsJsonFromTheFirstCharacter() {
+        assertTrue(ResourceStream.isJson("\uFEFF  \n{\"kind\": \"Pod\"}"));
+        assertTrue(ResourceStream.isJson("[]"));
+        assertFalse(ResourceStream.isJson("kind: Pod"));
+        assertFalse(ResourceStream.isJson("  "));
+    }
+
+    @Test
+    public void parsesOneJsonObject() {
+        assertEquals(Arrays.asList("a"),
+                names("{\"kind\": \"Pod\", \"metadata\": {\"name\": \"a\"}}"));
+    }
+
+    @Test
+    public void handsOutTheItemsOfAJsonList() {
+        assertEquals(Arrays.asList("a", "b"),
+                names("{\"kind\": \"List\", \"items\": ["
+                        + "{\"kind\": \"Pod\", \"metadata\": {\"name\": \"a\"}},"
+                        + "{\"kind\": \"Pod\", \"metadata\": {\"name\": \"b\"}}]}"));
+    }
+
+    @Test
+    public void handsOutTheElementsOfAJsonArray() {
+        assertEquals(Arrays.asList("a", "b"),
+                names("[{\"metadata\": {\"name\": \"a\"}},"
+                        + "{\"metadata\": {\"name\": \"b\"}}]"));
+    }
+
+    @Test
+    public void parsesEveryYamlDocument() {
+        assertEquals(Arrays.asList("a", "b", "c"),
+                names("kind: Pod\nmetadata:\n  name: a\n"
+                        + "---\n"
+                        + "---\n"
+                        + "kind: List\nitems:\n"
+                        + "- metadata:\n    name: b\n"
+                        + "- metadata:\n    name: c\n"));
+    }
+
+    @Test
+    public void parsesAYamlFlowMapping() {
+        assertEquals(Arrays.asList("a"),
+                names("{kind: Pod, metadata: {name: a}}"));
+    }
+
+    @Test
+    public void convertsYamlScalars() {
+        ModelNode node = ResourceStream.parse(
+                "spec:\n  replicas: 3\n  paused: false\n  ratio: 0.5\n"
+                        + "  image: foo\n  empty:\n").next();
+        ModelNode spec = node.get("spec");
+        assertEquals(3, spec.get("replicas").asInt());
+        assertFalse(spec.get("paused").asBoolean());
+        assertEquals(0.5, spec.get("ratio").asDouble(), 0);
+        assertEquals("foo", spec.get("image").asString());
+        // a key with no value is left out
+        assertFalse(spec.has("empty"));
+    }
+
+    @Test
+    public void convertsYamlTimestamps() {
+        ModelNode node = ResourceStream.parse(
+                "metadata:\n  created: 2017-01-02T03:04:05Z\n").next();
+        assertEquals("2017-01-02T03:04:05Z",
+                node.get("metadata", "created").asString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAScalarDocument() {
+        ResourceStream.parse("just a string").hasNext();
+    }
+
+    @Test
+    public void parsesLaterDocumentsLazily() {
+        Iterator<ModelNode> it = ResourceStream
+                .parse("metadata:\n  name: a\n---\nmetadata: [unclosed\n");
+        assertEquals("a", it.next().get("metadata", "name").asString());
+        try {
+            it.hasNext();
+            fail("the broken document parsed");
+        } catch (RuntimeException e) {
+            // the broken document only fails once it is reached
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ConnectException;
+
+import org.junit.Test;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void readsAndReplacesAreIdempotent() {
+        assertTrue(RetryPolicy.isIdempotent("GET"));
+        assertTrue(RetryPolicy.isIdempotent("get"));
+        assertTrue(RetryPolicy.isIdempotent("PUT"));
+        assertTrue(RetryPolicy.isIdempotent("DELETE"));
+        assertFalse(RetryPolicy.isIdempotent("POST"));
+        assertFalse(RetryPolicy.isIdempotent("PATCH"));
+    }
+
+    @Test
+    public void throttlingIsAlwaysRetriable() {
+        assertTrue(RetryPolicy.isRetriable(429, null, false));
+        assertTrue(RetryPolicy.isRetriable(503, null, false));
+    }
+
+    @Test
+    public void serverErrorsAreRetriableWhenIdempotent() {
+        assertTrue(RetryPolicy.isRetriable(500, null, true));
+        assertFalse(RetryPolicy.isRetriable(500, null, false));
+        assertFalse(RetryPolicy.isRetriable(404, null, true));
+        assertFalse(RetryPolicy.isRetriable(409, null, true));
+    }
+
+    @Test
+    public void connectFailuresAreRetriableEvenWhenNotIdempotent() {
+        IOException failure = new IOException("wrapped",
+                new ConnectException("refused"));
+        assertTrue(RetryPolicy.isRetriable(0, failure, false));
+        assertFalse(RetryPolicy.isRetriable(0, new IOException("reset"),
+                false));
+        assertTrue(RetryPolicy.isRetriable(0, new IOException("reset"), true));
+    }
+
+    @Test
+    public void delayBacksOffWithJitter() {
+        RetryPolicy policy = new RetryPolicy("https://test:8443");
+        IOException failure = new IOException("unavailable");
+        for (int i = 0; i < 5; i++) {
+            long first = policy.retryDelay("GET", 1, 503, failure);
+            assertTrue(first >= RetryPolicy.BASE_DELAY / 2
+                    && first <= RetryPolicy.BASE_DELAY);
+            long second = policy.retryDelay("GET", 2, 503, failure);
+            assertTrue(second >= RetryPolicy.BASE_DELAY
+                    && second <= RetryPolicy.BASE_DELAY * 2);
+        }
+    }
+
+    @Test
+    public void noDelayOnceTheAttemptsAreUsedUp() {
+        RetryPolicy policy = new RetryPolicy("https://test:8443");
+        assertEquals(-1, policy.retryDelay("GET", RetryPolicy.MAX_ATTEMPTS,
+                503, new IOException("unavailable")));
+    }
+
+    @Test
+    public void noDelayForFailuresThatAreNotRetriable() {
+        RetryPolicy policy = new RetryPolicy("https://test:8443");
+        assertEquals(-1, policy.retryDelay("POST", 1, 500, null));
+        assertEquals(-1, policy.retryDelay("GET", 1, 403, null));
+    }
+
+    @Test
+    public void budgetRunsOut() {
+        RetryPolicy policy = new RetryPolicy("https://test:8443");
+        IOException failure = new IOException("unavailable");
+        int granted = 0;
+        for (int i = 0; i < RetryPolicy.BUDGET_CAPACITY * 2; i++) {
+            if (policy.retryDelay("GET", 1, 503, failure) >= 0)
+                granted++;
+        }
+        assertTrue(granted < RetryPolicy.BUDGET_CAPACITY * 2);
+        assertTrue(policy.getRetriesDenied() > 0);
+    }
+
+    @Test
+    public void breakerOpensAfterRepeatedServerFailures() {
+        RetryPolicy policy = new RetryPolicy("https://test:8443");
+        for (int i = 0; i < RetryPolicy.BREAKER_THRESHOLD; i++) {
+            policy.admit();
+            policy.failed(500, null);
+        }
+        assertEquals(RetryPolicy.State.OPEN.name(), policy.getBreakerState());
+        try {
+            policy.admit();
+            fail("admitted while the breaker is open");
+        } catch (CircuitOpenException e) {
+            assertEquals(1, policy.getRejectedCount());
+        }
+    }
+
+    private static final class ClockedPolicy extends RetryPolicy {
+        long clock;
+
+        ClockedPolicy() {
+            super("https://test:8443");
+        }
+
+        @Override
+        long now() {
+            return clock;
+        }
+    }
+
+    private static ClockedPolicy halfOpen() {
+        ClockedPolicy policy = new ClockedPolicy();
+        for (int i = 0; i < RetryPolicy.BREAKER_THRESHOLD; i++) {
+            policy.failed(503, null);
+        }
+        policy.clock += RetryPolicy.BREAKER_OPEN;
+        return policy;
+    }
+
+    @Test
+    public void oneProbeIsLetThroughOnceTheBreakerHasBeenOpenLongEnough() {
+        ClockedPolicy policy = halfOpen();
+        assertTrue(policy.admit());
+        try {
+            policy.admit();
+            fail("a second probe was admitted");
+        } catch (CircuitOpenException e) {
+            // the probe decides
+        }
+        policy.succeeded();
+        assertEquals(RetryPolicy.State.CLOSED.name(), policy.getBreakerState());
+        assertFalse(policy.admit());
+    }
+
+    @Test
+    public void aFailedProbeOpensTheBreakerAgain() {
+        ClockedPolicy policy = halfOpen();
+        assertTrue(policy.admit());
+        policy.failed(503, null);
+        assertEquals(RetryPolicy.State.OPEN.name(), policy.getBreakerState());
+    }
+
+    @Test
+    public void anAbandonedProbeLetsTheNextCallProbe() {
+        ClockedPolicy policy = halfOpen();
+        assertTrue(policy.admit());
+        policy.abandoned();
+        assertTrue(policy.admit());
+    }
+
+    @Test
+    public void clientErrorsKeepTheBreakerClosed() {
+        RetryPolicy policy = new RetryPolicy("https://test:8443");
+        for (int i = 0; i < RetryPolicy.BREAKER_THRESHOLD * 2; i++) {
+            policy.failed(404, null);
+        }
+        assertEquals(RetryPolicy.State.CLOSED.name(),
+                policy.getBreakerState());
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.IOpenShiftWatchListener;
+import com.openshift.restclient.IWatcher;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.authorization.IAuthorizationContext;
+import com.openshift.restclient.model.IResource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SharedInformersTest {
+
+    // the listeners of the watches the clients started, latest last
+    private final List<IOpenShiftWatchListener> listeners = new ArrayList<IOpenShiftWatchListener>();
+    private final AtomicInteger stoppedWatches = new AtomicInteger();
+    private final AtomicInteger gets = new AtomicInteger();
+
+    private IClient client(String token) {
+        IAuthorizationContext context = stub(IAuthorizationContext.class,
+                "getToken", token);
+        return stub(IClient.class, "getAuthorizationContext", context,
+                "watch", (Stubs.Answer) args -> {
+                    listeners.add((IOpenShiftWatchListener) args[1]);
+                    return stub(IWatcher.class, "stop",
+                            (Stubs.Answer) a -> {
+                                stoppedWatches.incrementAndGet();
+                                return null;
+                            });
+                }, "get", (Stubs.Answer) args -> {
+                    gets.incrementAndGet();
+                    return null;
+                });
+    }
+
+    private static IResource resource(String name) {
+        return stub(IResource.class, "getName", name);
+    }
+
+    @Test
+    public void subscribersOfTheSameKindShareOneInformer() {
+        SharedInformers informers = new SharedInformers();
+        IClient client = client("token");
+        ResourceInformer.Lease first = informers.subscribe(client, "test",
+                ResourceKind.BUILD);
+        ResourceInformer.Lease second = informers.subscribe(client, "test",
+                ResourceKind.BUILD);
+        assertSame(first.getInformer(), second.getInformer());
+        assertEquals(1, listeners.size());
+        assertEquals(1, informers.getInformerCount());
+        assertEquals(2, informers.getSubscriberCount());
+
+        informers.subscribe(client, "other", ResourceKind.BUILD);
+        informers.subscribe(client, "test", ResourceKind.POD);
+        assertEquals(3, informers.getInformerCount());
+    }
+
+    @Test
+    public void anotherTokenGetsAnotherInformer() {
+        SharedInformers informers = new SharedInformers();
+        assertNotSame(informers.subscribe(client("one"), "test",
+                ResourceKind.BUILD).getInformer(),
+                informers.subscribe(client("two"), "test",
+                        ResourceKind.BUILD).getInformer());
+    }
+
+    @Test
+    public void aLeaseIsReleasedOnce() {
+        SharedInformers informers = new SharedInformers();
+        IClient client = client("token");
+        ResourceInformer.Lease first = informers.subscribe(client, "test",
+                ResourceKind.BUILD);
+        informers.subscribe(client, "test", ResourceKind.BUILD);
+        first.close();
+        first.close();
+        assertEquals(1, informers.getSubscriberCount());
+    }
+
+    @Test
+    public void anIdleInformerLingersForTheNextStep() {
+        SharedInformers informers = new SharedInformers();
+        IClient client = client("token");
+        ResourceInformer.Lease lease = informers.subscribe(client, "test",
+                ResourceKind.BUILD);
+        lease.close();
+        assertEquals(1, informers.getInformerCount());
+        assertEquals(0, stoppedWatches.get());
+
+        ResourceInformer.Lease next = informers.subscribe(client, "test",
+                ResourceKind.BUILD);
+        assertSame(lease.getInformer(), next.getInformer());
+        assertEquals(1, listeners.size());
+    }
+
+    @Test
+    public void anIdleInformerStopsOnceItHasLingered() throws Exception {
+        SharedInformers informers = new SharedInformers(0);
+        IClient client = client("token");
+        informers.subscribe(client, "test", ResourceKind.BUILD).close();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (informers.getInformerCount() > 0
+                && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(0, informers.getInformerCount());
+        assertEquals(1, stoppedWatches.get());
+        assertFalse(informers.isUsing(client));
+    }
+
+    @Test
+    public void readsComeFromTheStoreOnceSynced() {
+        SharedInformers informers = new SharedInformers();
+        IClient client = client("token");
+        informers.subscribe(client, "test", ResourceKind.BUILD);
+        // not synced yet, so the api server is asked
+        assertNull(informers.get(client, ResourceKind.BUILD, "app-1", "test"));
+        assertEquals(1, gets.get());
+
+        IResource bld = resource("app-1");
+        listeners.get(0).connected(Arrays.asList(bld));
+        assertSame(bld, informers.get(client, ResourceKind.BUILD, "app-1",
+                "test"));
+        assertEquals(1, gets.get());
+        assertEquals(1, informers.getStoreHits());
+
+        // a miss may be a resource created since, so it is asked for too
+        informers.get(client, ResourceKind.BUILD, "app-2", "test");
+        assertEquals(2, gets.get());
+        assertEquals(2, informers.getStoreMisses());
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import static com.openshift.jenkins.plugins.pipeline.model.Stubs.stub;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.openshift.restclient.IClient;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.model.IResource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class StepPollerTest {
+
+    private final StepPoller poller = new StepPoller();
+    private final AtomicInteger gets = new AtomicInteger();
+
+    // a client that counts its reads, and fails them for the name "broken"
+    private final IClient client = stub(IClient.class, "get",
+            (Stubs.Answer) args -> {
+                gets.incrementAndGet();
+                if ("broken".equals(args[1]))
+                    return new IllegalStateException("unavailable");
+                return stub(IResource.class, "getName", args[1],
+                        "getResourceVersion", "1");
+            });
+
+    private static StepPoller.Backoff every(long interval) {
+        return new StepPoller.Backoff(interval, interval);
+    }
+
+    private static long deadlineIn(long millis) {
+        return System.currentTimeMillis() + millis;
+    }
+
+    @Test
+    public void identicalReadsWithinATickShareOneCall() {
+        IResource first = poller.read(client, ResourceKind.BUILD, "app-1",
+                "test");
+        IResource second = poller.read(client, ResourceKind.BUILD, "app-1",
+                "test");
+        assertSame(first, second);
+        assertEquals(1, gets.get());
+        assertEquals(2, poller.getReadCount());
+        assertEquals(1, poller.getCoalescedReadCount());
+    }
+
+    @Test
+    public void readsOfAnotherResourceAreNotShared() {
+        poller.read(client, ResourceKind.BUILD, "app-1", "test");
+        poller.read(client, ResourceKind.BUILD, "app-2", "test");
+        poller.read(client, ResourceKind.BUILD, "app-1", "other");
+        poller.read(client, ResourceKind.POD, "app-1", "test");
+        assertEquals(4, gets.get());
+        assertEquals(0, poller.getCoalescedReadCount());
+    }
+
+    @Test
+    public void readsAreSharedForOneTickOnly() throws Exception {
+        poller.read(client, ResourceKind.BUILD, "app-1", "test");
+        Thread.sleep(StepPoller.TICK * 3);
+        poller.read(client, ResourceKind.BUILD, "app-1", "test");
+        assertEquals(2, gets.get());
+    }
+
+    @Test
+    public void aFailedReadIsNotShared() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                poller.read(client, ResourceKind.BUILD, "broken", "test");
+                fail("the read succeeded");
+            } catch (IllegalStateException e) {
+                // each reader sees its own failure
+            }
+        }
+        assertEquals(2, gets.get());
+    }
+
+    @Test
+    public void attemptsUntilThereIsAnOutcome() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Boolean outcome = poller.await(
+                () -> attempts.incrementAndGet() < 3 ? null : Boolean.FALSE,
+                every(10), deadlineIn(TimeUnit.SECONDS.toMillis(10)));
+        assertEquals(Boolean.FALSE, outcome);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void timesOutWithNullOnceTheDeadlinePasses() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.currentTimeMillis();
+        assertNull(poller.await(() -> {
+            attempts.incrementAndGet();
+            return null;
+        }, every(50), deadlineIn(300)));
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        assertTrue(attempts.get() > 1);
+    }
+
+    @Test
+    public void anAttemptRunsOnceEvenWhenTheDeadlineHasPassed()
+            throws Exception {
+        assertEquals(Boolean.TRUE, poller.await(() -> Boolean.TRUE,
+                every(10), deadlineIn(-1000)));
+    }
+
+    @Test
+    public void anOpenCircuitMeansCheckAgain() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        assertEquals(Boolean.TRUE, poller.await(() -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new CircuitOpenException("https://test:8443", 10);
+            return Boolean.TRUE;
+        }, every(10), deadlineIn(TimeUnit.SECONDS.toMillis(10))));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void otherFailuresEndTheWait() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            poller.await(() -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("forbidden");
+            }, every(10), deadlineIn(TimeUnit.SECONDS.toMillis(10)));
+            fail("the wait went on");
+        } catch (IllegalStateException e) {
+            assertEquals(1, attempts.get());
+        }
+    }
+
+    @Test
+    public void cancellingTheWaitStopsTheAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Boolean> outcome = poller.poll(() -> {
+            attempts.incrementAndGet();
+            return null;
+        }, every(10), deadlineIn(TimeUnit.SECONDS.toMillis(10)));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (attempts.get() < 2 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertTrue(outcome.cancel(false));
+        assertEquals(0, poller.getActiveWaitCount());
+        // an attempt under way when the wait was cancelled may still finish
+        Thread.sleep(50);
+        int stopped = attempts.get();
+        Thread.sleep(200);
+        assertEquals(stopped, attempts.get());
+        assertFalse(outcome.complete(Boolean.TRUE));
+    }
+
+    @Test
+    public void interruptingTheWaiterCancelsTheWait() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Thread waiter = new Thread(() -> {
+            try {
+                poller.await(() -> {
+                    attempts.incrementAndGet();
+                    return null;
+                }, every(10), deadlineIn(TimeUnit.SECONDS.toMillis(10)));
+            } catch (InterruptedException e) {
+                // expected
+            }
+        });
+        waiter.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (attempts.get() < 2 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        waiter.interrupt();
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertEquals(0, poller.getActiveWaitCount());
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.openshift.jenkins.plugins.pipeline.model;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand ins for the rest client's model interfaces: each method answers
+ * with the value given for its name, or null (false, 0 for primitives). An
+ * answer that is an {@link Answer} is called with the arguments, and one
+ * that is a RuntimeException is thrown.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    interface Answer {
+        Object answer(Object[] args);
+    }
+
+    static <T> T stub(Class<T> type, Object... namesAndValues) {
+        Map<String, Object> answers = new HashMap<String, Object>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            answers.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+                new Class<?>[] { type }, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("equals"))
+                        return proxy == args[0];
+                    if (name.equals("hashCode"))
+                        return System.identityHashCode(proxy);
+                    if (name.equals("toString"))
+                        return type.getSimpleName() + answers;
+                    if (name.equals("getAnnotation") && args != null) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, String> annotations = (Map<String, String>) answers
+                                .get("getAnnotations");
+                        return annotations != null ? annotations.get(args[0])
+                                : null;
+                    }
+                    Object answer = answers.get(name);
+                    if (answer instanceof Answer)
+                        answer = ((Answer) answer).answer(args);
+                    if (answer instanceof RuntimeException)
+                        throw (RuntimeException) answer;
+                    if (answer != null || !method.getReturnType().isPrimitive())
+                        return answer;
+                    if (method.getReturnType() == boolean.class)
+                        return false;
+                    if (method.getReturnType() == void.class)
+                        return null;
+                    return method.getReturnType() == long.class ? (Object) 0L
+                            : (Object) 0;
+                }));
+    }
+
+}